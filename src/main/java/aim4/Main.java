@@ -31,9 +31,11 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 package aim4;
 
 import aim4.gui.Viewer;
+import aim4.sim.batch.BatchRunner;
 
 /**
- * The default main class to show the GUI.
+ * The default main class to show the GUI, or to run simulations without it
+ * when configuration files are given.
  */
 public class Main {
 
@@ -43,13 +45,18 @@ public class Main {
 
   /**
    * The main function of the simulator.
-   * It starts the GUI.
+   * It starts the GUI, unless there are command-line arguments, in which
+   * case they are passed to {@link BatchRunner}.
    *
-   * @param args  the command-line arguments; it should be empty since the GUI
-   *              does not take any command-line arguments
+   * @param args  the command-line arguments; empty to start the GUI, or the
+   *              configuration files of the runs to do without the GUI
    *
    */
   public static void main(String[] args) {
-    new Viewer();
+    if (args.length > 0) {
+      BatchRunner.main(args);
+    } else {
+      new Viewer();
+    }
   }
 }
\ No newline at end of file
@@ -31,7 +31,10 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 package aim4.config;
 
 /**
- * A utility class for using with Condor.
+ * A utility class for using with Condor.  {@link #condorDo()} gives each
+ * process a fixed share of the iterations of a loop; on a single host, the
+ * runs of a sweep are better done by {@link aim4.sim.batch.SweepExecutor}
+ * in QUEUE mode, whose workers take the next run whenever they are free.
  */
 public final class Condor {
 
@@ -37,14 +37,18 @@ import aim4.map.aim.GridIntersectionMap;
 import aim4.map.Road;
 import aim4.util.Util;
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The traffic signal phases.
  */
-public class TrafficSignalPhase {
+public class TrafficSignalPhase implements Serializable {
+  private static final long serialVersionUID = 1L;
 
   /** The number of phases */
   private int phaseNum;
@@ -61,6 +65,10 @@ public class TrafficSignalPhase {
   /** The duration of the red signals */
   private List<Double> redDurations;
 
+  /** The signal controllers already generated, keyed by road name */
+  private Map<String,CyclicSignalController> signalControllers =
+    new HashMap<String,CyclicSignalController>();
+
 
   /////////////////////////////////
   // CONSTRUCTORS
@@ -207,12 +215,33 @@ public class TrafficSignalPhase {
   }
 
   /**
-   * Generate a signal controller for a road.
+   * Generate a signal controller for a road.  The phases only depend on the
+   * name of the road, so the roads with the same name at every
+   * intersection share the same controller.
    *
    * @param road  the road
    * @return a signal controller for the road
    */
   public CyclicSignalController calcCyclicSignalController(Road road) {
+    CyclicSignalController controller = signalControllers.get(road.getName());
+    if (controller == null) {
+      controller = makeCyclicSignalController(road);
+      signalControllers.put(road.getName(), controller);
+    }
+    return controller;
+  }
+
+  /////////////////////////////////
+  // PRIVATE METHODS
+  /////////////////////////////////
+
+  /**
+   * Make a signal controller for a road.
+   *
+   * @param road  the road
+   * @return a signal controller for the road
+   */
+  private CyclicSignalController makeCyclicSignalController(Road road) {
     double[] durations = new double[phaseNum * 3];
     TrafficSignal[] signals = new TrafficSignal[phaseNum * 3];
 
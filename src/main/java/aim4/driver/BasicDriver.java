@@ -46,6 +46,7 @@ import aim4.vehicle.VehicleDriverModel;
  * An agent that drives a {@link AutoVehicleDriverModel}.
  */
 public abstract class BasicDriver implements Driver {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // CONSTANTS
@@ -32,6 +32,7 @@ package aim4.driver;
 
 import java.awt.Color;
 import java.awt.geom.Point2D;
+import java.io.Serializable;
 
 import aim4.config.Debug;
 import aim4.config.DebugPoint;
@@ -40,7 +41,8 @@ import aim4.vehicle.VehicleDriverModel;
 /**
  * The basic pilot agent.
  */
-public abstract class BasicPilot {
+public abstract class BasicPilot implements Serializable {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // PUBLIC METHODS
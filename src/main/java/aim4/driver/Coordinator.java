@@ -30,6 +30,8 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package aim4.driver;
 
+import java.io.Serializable;
+
 /**
  * An agent that controls the coordination of an auto vehicle driver view
  * with other Vehicles and with intersection managers. This type of
@@ -37,7 +39,7 @@ package aim4.driver;
  * as well as altering the state of the CoordinatingDriverAgent of which it is
  * a part to reflect the current reservation status.
  */
-public interface Coordinator {
+public interface Coordinator extends Serializable {
   /**
    * Receive, process, and send messages between Vehicles and
    * IntersectionManagers, and maintain the reservation status in
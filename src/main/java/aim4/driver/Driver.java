@@ -1,10 +1,12 @@
 package aim4.driver;
 
+import java.io.Serializable;
+
 import aim4.map.lane.Lane;
 
 /**
  * Created by Callum on 28/11/2016.
  */
-public interface Driver extends DriverSimModel {
+public interface Driver extends DriverSimModel, Serializable {
     void addCurrentlyOccupiedLane(Lane lane);
 }
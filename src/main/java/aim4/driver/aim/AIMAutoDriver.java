@@ -30,8 +30,6 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package aim4.driver.aim;
 
-import java.awt.geom.Area;
-
 import aim4.driver.AutoDriver;
 import aim4.driver.BasicDriver;
 import aim4.driver.aim.coordinator.NoIntersectionCoordinator;
@@ -39,6 +37,7 @@ import aim4.driver.aim.coordinator.V2ICoordinator;
 import aim4.driver.Coordinator;
 import aim4.im.aim.IntersectionManager;
 import aim4.map.aim.BasicIntersectionMap;
+import aim4.util.CompiledArea;
 import aim4.vehicle.AutoVehicleDriverModel;
 import aim4.vehicle.aim.AIMAutoVehicleDriverModel;
 
@@ -51,6 +50,7 @@ import aim4.vehicle.aim.AIMAutoVehicleDriverModel;
 public class AIMAutoDriver extends AIMDriver
                         implements AutoDriverCoordinatorView, AutoDriver,
         AutoDriverPilotView {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // PRIVATE FIELDS
@@ -148,6 +148,16 @@ public class AIMAutoDriver extends AIMDriver
     return coordinator;
   }
 
+  /**
+   * Discard the current coordinator.  A new coordinator for the next
+   * intersection manager is created the next time the driver acts.
+   */
+  public void resetCoordinator() {
+    coordinator = null;
+    currentIM = null;
+    clearMemoizationCaches();
+  }
+
   /////////////////////////////////
   // PUBLIC METHODS
   /////////////////////////////////
@@ -243,7 +253,8 @@ public class AIMAutoDriver extends AIMDriver
   public boolean inCurrentIntersection() {
     if(memoInCurrentIntersection == null) {
       memoInCurrentIntersection =
-        intersects(getVehicle(), currentIM.getIntersection().getAreaPlus());
+        intersects(getVehicle(),
+                   currentIM.getIntersection().getCompiledAreaPlus());
         //intersects(getVehicle(), currentIM.getIntersection().getArea());
     }
     return memoInCurrentIntersection;
@@ -261,7 +272,8 @@ public class AIMAutoDriver extends AIMDriver
    * @param area  the area
    * @return      whether the Vehicle is currently in the area
    */
-  private static boolean intersects(AutoVehicleDriverModel v, Area area) {
+  private static boolean intersects(AutoVehicleDriverModel v,
+                                    CompiledArea area) {
     // TODO: move this function to somewhere else.
 
     // As a quick check, see if the front or rear point is in the intersection
@@ -269,13 +281,9 @@ public class AIMAutoDriver extends AIMDriver
     if(area.contains(v.gaugePosition()) || area.contains(v.gaugePointAtRear())){
       return true;
     } else {
-      // We actually have to check to see if the Area of the
-      // Vehicle and the Area of the IntersectionManager have a nonempty
-      // intersection
-      Area vehicleArea = new Area(v.gaugeShape());
-      // Important that it is in this order, as it is destructive to the caller
-      vehicleArea.intersect(area);
-      return !vehicleArea.isEmpty();
+      // We actually have to check to see if the shape of the Vehicle and
+      // the area of the IntersectionManager overlap
+      return area.intersects(v.gaugeShape());
     }
   }
 
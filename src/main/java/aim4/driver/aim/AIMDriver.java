@@ -9,6 +9,8 @@ import aim4.map.aim.AIMSpawnPoint;
  * Created by Callum on 15/11/2016.
  */
 public abstract class AIMDriver extends BasicDriver implements AIMDriverSimModel {
+    private static final long serialVersionUID = 1L;
+
     /////////////////////////////////
     // PRIVATE FIELDS
     /////////////////////////////////
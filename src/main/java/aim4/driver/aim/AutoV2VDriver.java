@@ -38,6 +38,7 @@ import aim4.vehicle.aim.AIMAutoVehicleDriverModel;
  * An autonomous V2V driver.
  */
 public class AutoV2VDriver extends AIMAutoDriver {
+    private static final long serialVersionUID = 1L;
 
     /////////////////////////////////
     // NESTED CLASSES
@@ -43,6 +43,7 @@ import aim4.vehicle.VehicleDriverModel;
  * A driver agent that only steers and changes lanes when appropriate.
  */
 public class CrashTestDummy extends BasicDriver {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // PRIVATE FIELDS
@@ -39,6 +39,7 @@ import aim4.vehicle.aim.AIMAutoVehicleDriverModel;
  * A proxy driver.
  */
 public class ProxyDriver extends AIMAutoDriver {
+  private static final long serialVersionUID = 1L;
 
   /**
    * Construct a proxy driver.
@@ -39,6 +39,7 @@ import aim4.vehicle.aim.AIMAutoVehicleDriverModel;
  * The coordinator when there is no intersection.
  */
 public class NoIntersectionCoordinator implements Coordinator {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // PRIVATE FIELDS
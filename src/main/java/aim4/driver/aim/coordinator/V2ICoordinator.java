@@ -58,6 +58,7 @@ import aim4.vehicle.AutoVehicleDriverModel;
 import aim4.vehicle.VehicleUtil;
 import aim4.vehicle.aim.AIMAutoVehicleDriverModel;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.EnumMap;
 import java.util.List;
@@ -74,6 +75,7 @@ import java.util.Queue;
  * reflect the current reservation status.
  */
 public class V2ICoordinator implements Coordinator {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // CONSTANTS
@@ -151,7 +153,7 @@ public class V2ICoordinator implements Coordinator {
   /**
    * An interface of the state handler.
    */
-  private static interface StateHandler {
+  private static interface StateHandler extends Serializable {
     /**
      * Perform the action defined by the state handler at the driver state.
      *
@@ -161,16 +163,23 @@ public class V2ICoordinator implements Coordinator {
     boolean perform();
   }
 
+  /**
+   * The state handler of the terminal state, which does nothing.
+   */
+  private static class TerminalStateHandler implements StateHandler {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    public boolean perform() {
+      return false;  // do nothing, not even the pilot
+    }
+  }
+
   /**
    * The terminal state handler.
    */
   private static StateHandler terminalStateHandler =
-    new StateHandler() {
-      @Override
-      public boolean perform() {
-        return false;  // do nothing, not even the pilot
-      }
-    };
+    new TerminalStateHandler();
 
 
   /**
@@ -231,7 +240,8 @@ public class V2ICoordinator implements Coordinator {
 
   // lane change controller
 
-  private static class LaneChangeController {
+  private static class LaneChangeController implements Serializable {
+    private static final long serialVersionUID = 1L;
 
     /////////////////////////////////
     // CONSTANTS
@@ -515,6 +525,7 @@ public class V2ICoordinator implements Coordinator {
      * The state handler for waiting to lane change.
      */
     private class LcWaitingLaneChangeStateHandler implements StateHandler {
+      private static final long serialVersionUID = 1L;
 
       /**
        * Determine the vehicle can change lane immediately.
@@ -589,6 +600,7 @@ public class V2ICoordinator implements Coordinator {
      * The state handler for changing lane.
      */
     private class LcChangingLaneStateHandler implements StateHandler {
+      private static final long serialVersionUID = 1L;
 
       @Override
       public boolean perform() {
@@ -652,7 +664,8 @@ public class V2ICoordinator implements Coordinator {
   /**
    * Postprocessing the reservation parameters
    */
-  public static class ReservationParameter {
+  public static class ReservationParameter implements Serializable {
+    private static final long serialVersionUID = 1L;
 
     /**
      * The Lane in which the Vehicle should arrive at the intersection.
@@ -1290,6 +1303,8 @@ public class V2ICoordinator implements Coordinator {
    * The state handler for the planning state.
    */
   private class V2IPlanningStateHandler implements StateHandler {
+    private static final long serialVersionUID = 1L;
+
     /**
      * {@inheritDoc}
      */
@@ -1328,6 +1343,8 @@ public class V2ICoordinator implements Coordinator {
    * The state handler for the lane changing state.
    */
   private class V2ILaneChangeStateHandler implements StateHandler {
+    private static final long serialVersionUID = 1L;
+
     /**
      * {@inheritDoc}
      */
@@ -1357,6 +1374,8 @@ public class V2ICoordinator implements Coordinator {
    * The state handler for the default driving behavior state.
    */
   private class V2IDefaultDrivingBehaviorStateHandler implements StateHandler {
+    private static final long serialVersionUID = 1L;
+
     /**
      * {@inheritDoc}
      */
@@ -1376,6 +1395,7 @@ public class V2ICoordinator implements Coordinator {
    * The state handler for the preparing reservation state.
    */
   private class V2IPreparingReservationStateHandler implements StateHandler {
+    private static final long serialVersionUID = 1L;
 
     /**
      * Estimates the arrival parameters at the intersection given a maximum
@@ -1675,6 +1695,8 @@ public class V2ICoordinator implements Coordinator {
    * The state handler for the awaiting response state.
    */
   private class V2IAwaitingResponseStateHandler implements StateHandler {
+    private static final long serialVersionUID = 1L;
+
     /**
      * {@inheritDoc}
      */
@@ -1728,6 +1750,8 @@ public class V2ICoordinator implements Coordinator {
    * The state handler for the maintaining reservation state.
    */
   private class V2IMaintainingReservationStateHandler implements StateHandler {
+    private static final long serialVersionUID = 1L;
+
     /**
      * Check whether it is possible for the vehicle to arrive at the
      * intersection at the arrival time in accordance with its reservation
@@ -1837,6 +1861,8 @@ public class V2ICoordinator implements Coordinator {
    * The state handler for the traversing state.
    */
   private class V2ITraversingStateHandler implements StateHandler {
+    private static final long serialVersionUID = 1L;
+
     /**
      * {@inheritDoc}
      */
@@ -1866,6 +1892,8 @@ public class V2ICoordinator implements Coordinator {
    * The state handler for the clearing state.
    */
   private class V2IClearingStateHandler implements StateHandler {
+    private static final long serialVersionUID = 1L;
+
     /**
      * {@inheritDoc}
      */
@@ -30,6 +30,8 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package aim4.driver.aim.navigator;
 
+import java.io.Serializable;
+
 import aim4.driver.aim.AIMAutoDriver;
 import aim4.im.aim.IntersectionManager;
 import aim4.map.Road;
@@ -38,7 +40,7 @@ import aim4.map.Road;
  * An agent that chooses which way a vehicle should go, and uses information
  * from a {@link AIMAutoDriver} to do so.
  */
-public interface Navigator {
+public interface Navigator extends Serializable {
 
   /////////////////////////////////
   // PUBLIC METHODS
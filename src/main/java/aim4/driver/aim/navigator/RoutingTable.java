@@ -0,0 +1,384 @@
+package aim4.driver.aim.navigator;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.WeakHashMap;
+
+import aim4.im.aim.IntersectionManager;
+import aim4.map.Road;
+import aim4.map.aim.BasicIntersectionMap;
+import aim4.map.lane.Lane;
+import aim4.util.Util;
+import aim4.vehicle.VehicleSpec;
+import aim4.vehicle.VehicleUtil;
+
+/**
+ * An immutable table of the fastest road to take out of each intersection
+ * for every destination road, computed once for a map and a vehicle
+ * specification.  Tables are shared by all navigators on the same map, and
+ * by maps with the same layout, such as the maps of different replications
+ * of a simulation.
+ */
+public final class RoutingTable implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  /////////////////////////////////
+  // NESTED CLASSES
+  /////////////////////////////////
+
+  /**
+   * An entry in the priority queue of the shortest path search.
+   */
+  private static class QueueEntry implements Comparable<QueueEntry> {
+    /** The cost to go */
+    final double cost;
+    /** The node */
+    final int node;
+
+    QueueEntry(double cost, int node) {
+      this.cost = cost;
+      this.node = node;
+    }
+
+    @Override
+    public int compareTo(QueueEntry e) {
+      return Double.compare(cost, e.cost);
+    }
+  }
+
+  /**
+   * A map of tables which drops the least recently used one when it holds
+   * more than {@link #MAX_SHARED_TABLES}.
+   */
+  private static class TableCache extends LinkedHashMap<String, RoutingTable> {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create an empty cache, in access order.
+     */
+    TableCache() {
+      super(16, 0.75f, true);
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, RoutingTable> e) {
+      return size() > MAX_SHARED_TABLES;
+    }
+  }
+
+  /////////////////////////////////
+  // PRIVATE STATIC FIELDS
+  /////////////////////////////////
+
+  /**
+   * The tables of each map, by the name of the vehicle specification.
+   */
+  private static final Map<BasicIntersectionMap, Map<String, RoutingTable>>
+    mapToTables = new WeakHashMap<BasicIntersectionMap,
+                                  Map<String, RoutingTable>>();
+
+  /**
+   * The maximum number of tables kept by {@link #signatureToTable}.  A
+   * sweep uses a few layouts and a few vehicle specifications, so this is
+   * enough for all of them while keeping a long-lived JVM from holding the
+   * tables of every layout it has seen.
+   */
+  private static final int MAX_SHARED_TABLES = 64;
+
+  /**
+   * The tables by the layout signature of the map and the vehicle
+   * specification, shared across map instances, least recently used first.
+   */
+  private static final Map<String, RoutingTable> signatureToTable =
+    new TableCache();
+
+  /////////////////////////////////
+  // PUBLIC STATIC METHODS
+  /////////////////////////////////
+
+  /**
+   * Get the routing table of a map for a vehicle specification, computing
+   * it if no map with the same layout has been seen before.
+   *
+   * @param map   the map
+   * @param spec  the vehicle specification
+   * @return the routing table
+   */
+  public static synchronized RoutingTable getInstance(BasicIntersectionMap map,
+                                                      VehicleSpec spec) {
+    Map<String, RoutingTable> tables = mapToTables.get(map);
+    if (tables == null) {
+      tables = new HashMap<String, RoutingTable>();
+      mapToTables.put(map, tables);
+    }
+    RoutingTable table = tables.get(spec.getName());
+    if (table == null) {
+      String signature = signature(map, spec);
+      table = signatureToTable.get(signature);
+      if (table == null) {
+        table = new RoutingTable(map, spec);
+        signatureToTable.put(signature, table);
+      }
+      tables.put(spec.getName(), table);
+    }
+    return table;
+  }
+
+  /**
+   * Compute a string that is identical for two maps only if they have the
+   * same roads, lanes and intersection managers, in the same order.
+   *
+   * @param map   the map
+   * @param spec  the vehicle specification
+   * @return the signature of the map and the vehicle specification
+   */
+  private static String signature(BasicIntersectionMap map, VehicleSpec spec) {
+    StringBuilder sb = new StringBuilder();
+    sb.append(map.getClass().getName()).append('|');
+    sb.append(spec.getName()).append(',').append(spec.getMaxVelocity());
+    sb.append(',').append(spec.getMaxAcceleration());
+    sb.append(',').append(spec.getMaxDeceleration()).append('|');
+    for (Road road : map.getRoads()) {
+      sb.append(road.getName()).append('[');
+      for (Lane lane : road.getLanes()) {
+        sb.append(lane.getId()).append(':');
+        sb.append(lane.getStartPoint().getX()).append(',');
+        sb.append(lane.getStartPoint().getY()).append(',');
+        sb.append(lane.getEndPoint().getX()).append(',');
+        sb.append(lane.getEndPoint().getY()).append(',');
+        sb.append(lane.getWidth()).append(',');
+        sb.append(lane.getSpeedLimit()).append(';');
+      }
+      sb.append(']');
+    }
+    sb.append('|');
+    for (IntersectionManager im : map.getIntersectionManagers()) {
+      sb.append(im.getId()).append(':');
+      for (Road road : im.getIntersection().getEntryRoads()) {
+        sb.append(road.getName()).append(',');
+      }
+      sb.append(';');
+    }
+    sb.append('|');
+    for (Road road : map.getDestinationRoads()) {
+      sb.append(road.getName()).append(',');
+    }
+    return sb.toString();
+  }
+
+  /////////////////////////////////
+  // PRIVATE FIELDS
+  /////////////////////////////////
+
+  /** The number of roads */
+  private final int numOfRoads;
+  /** The number of destination roads */
+  private final int numOfDestinations;
+  /** The index of the road of each lane ID */
+  private final int[] laneIdToRoad;
+  /** The index of the destination of each lane ID, or -1 */
+  private final int[] laneIdToDestination;
+  /**
+   * The node of each pair of IM ID and arrival road index, at
+   * <code>imId * numOfRoads + roadIndex</code>, or -1.
+   */
+  private final int[] nodeIndex;
+  /**
+   * The index of the road to take out of the intersection of each node for
+   * each destination, at <code>node * numOfDestinations + destination</code>,
+   * or -1 if the destination cannot be reached.
+   */
+  private final int[] nextRoad;
+
+  /////////////////////////////////
+  // CONSTRUCTORS
+  /////////////////////////////////
+
+  /**
+   * Compute the routing table of a map for a vehicle specification.  The
+   * nodes are the pairs of an intersection manager and the road on which
+   * vehicles arrive at it.  The cost of leaving an intersection on a road is
+   * the time to cross the intersection at the maximum turn velocity plus
+   * the time to reach the next intersection, or the end of the road if the
+   * road is the destination.  The fastest routes are found by a shortest
+   * path search backward from each destination.
+   *
+   * @param map   the map
+   * @param spec  the vehicle specification
+   */
+  private RoutingTable(BasicIntersectionMap map, VehicleSpec spec) {
+    List<Road> roads = map.getRoads();
+    numOfRoads = roads.size();
+    List<Road> destinations = map.getDestinationRoads();
+    numOfDestinations = destinations.size();
+
+    Map<Road, Integer> roadToIndex = new HashMap<Road, Integer>();
+    int maxLaneId = -1;
+    for (int i = 0; i < numOfRoads; i++) {
+      roadToIndex.put(roads.get(i), i);
+      for (Lane lane : roads.get(i).getLanes()) {
+        maxLaneId = Math.max(maxLaneId, lane.getId());
+      }
+    }
+    laneIdToRoad = new int[maxLaneId + 1];
+    laneIdToDestination = new int[maxLaneId + 1];
+    Arrays.fill(laneIdToRoad, -1);
+    Arrays.fill(laneIdToDestination, -1);
+    for (int i = 0; i < numOfRoads; i++) {
+      for (Lane lane : roads.get(i).getLanes()) {
+        laneIdToRoad[lane.getId()] = i;
+      }
+    }
+    int[] destinationOfRoad = new int[numOfRoads];
+    Arrays.fill(destinationOfRoad, -1);
+    for (int d = 0; d < numOfDestinations; d++) {
+      destinationOfRoad[roadToIndex.get(destinations.get(d))] = d;
+      for (Lane lane : destinations.get(d).getLanes()) {
+        laneIdToDestination[lane.getId()] = d;
+      }
+    }
+
+    // the nodes
+    int maxImId = -1;
+    for (IntersectionManager im : map.getIntersectionManagers()) {
+      maxImId = Math.max(maxImId, im.getId());
+    }
+    nodeIndex = new int[(maxImId + 1) * numOfRoads];
+    Arrays.fill(nodeIndex, -1);
+    List<IntersectionManager> nodeIMs = new ArrayList<IntersectionManager>();
+    List<Road> nodeRoads = new ArrayList<Road>();
+    for (IntersectionManager im : map.getIntersectionManagers()) {
+      for (Road road : im.getIntersection().getEntryRoads()) {
+        nodeIndex[im.getId() * numOfRoads + roadToIndex.get(road)] =
+          nodeIMs.size();
+        nodeIMs.add(im);
+        nodeRoads.add(road);
+      }
+    }
+    int numOfNodes = nodeIMs.size();
+
+    // the edges
+    List<double[]> edges = new ArrayList<double[]>();  // {from, exit, to, cost}
+    for (int u = 0; u < numOfNodes; u++) {
+      IntersectionManager im = nodeIMs.get(u);
+      Road arrival = nodeRoads.get(u);
+      for (Road exit : im.getIntersection().getExitRoads()) {
+        // don't come out the way we went in
+        if (exit == arrival.getDual()) {
+          continue;
+        }
+        double maxTurnVelocity =
+          VehicleUtil.maxTurnVelocity(spec, arrival.getIndexLane(),
+                                      exit.getIndexLane(), im);
+        if (Util.isDoubleZero(maxTurnVelocity)) {
+          continue;  // can't take this turn
+        }
+        double cost = im.traversalDistance(arrival, exit) / maxTurnVelocity;
+        Lane exitLane = exit.getIndexLane();
+        IntersectionManager nextIM =
+          exitLane.getLaneIM().nextIntersectionManager(im);
+        int to;
+        if (nextIM != null) {
+          cost += exitLane.getLaneIM().timeToNextIntersectionManager(
+                    im, spec.getMaxVelocity());
+          to = nodeIndex[nextIM.getId() * numOfRoads + roadToIndex.get(exit)];
+          if (to < 0) {
+            continue;
+          }
+        } else {
+          cost += exitLane.getLaneIM().remainingDistanceFromLastIntersection()
+                  / Math.min(exitLane.getSpeedLimit(), spec.getMaxVelocity());
+          to = -1;
+        }
+        edges.add(new double[] { u, roadToIndex.get(exit), to, cost });
+      }
+    }
+
+    // the incoming edges of each node
+    int[] inStart = new int[numOfNodes + 1];
+    for (double[] e : edges) {
+      if (e[2] >= 0) {
+        inStart[(int) e[2] + 1]++;
+      }
+    }
+    for (int v = 0; v < numOfNodes; v++) {
+      inStart[v + 1] += inStart[v];
+    }
+    int[] inEdges = new int[inStart[numOfNodes]];
+    int[] fill = Arrays.copyOf(inStart, numOfNodes);
+    for (int i = 0; i < edges.size(); i++) {
+      double[] e = edges.get(i);
+      if (e[2] >= 0) {
+        inEdges[fill[(int) e[2]]++] = i;
+      }
+    }
+
+    // a shortest path search backward from each destination
+    nextRoad = new int[numOfNodes * numOfDestinations];
+    Arrays.fill(nextRoad, -1);
+    double[] costToGo = new double[numOfNodes];
+    boolean[] done = new boolean[numOfNodes];
+    for (int d = 0; d < numOfDestinations; d++) {
+      Arrays.fill(costToGo, Double.MAX_VALUE);
+      Arrays.fill(done, false);
+      PriorityQueue<QueueEntry> queue = new PriorityQueue<QueueEntry>();
+      for (double[] e : edges) {
+        int u = (int) e[0];
+        if (e[2] < 0 && destinationOfRoad[(int) e[1]] == d
+            && e[3] < costToGo[u]) {
+          costToGo[u] = e[3];
+          nextRoad[u * numOfDestinations + d] = (int) e[1];
+          queue.add(new QueueEntry(e[3], u));
+        }
+      }
+      while (!queue.isEmpty()) {
+        int v = queue.poll().node;
+        if (done[v]) {
+          continue;
+        }
+        done[v] = true;
+        for (int k = inStart[v]; k < inStart[v + 1]; k++) {
+          double[] e = edges.get(inEdges[k]);
+          int u = (int) e[0];
+          double c = e[3] + costToGo[v];
+          if (!done[u] && c < costToGo[u]) {
+            costToGo[u] = c;
+            nextRoad[u * numOfDestinations + d] = (int) e[1];
+            queue.add(new QueueEntry(c, u));
+          }
+        }
+      }
+    }
+  }
+
+  /////////////////////////////////
+  // PUBLIC METHODS
+  /////////////////////////////////
+
+  /**
+   * Get the index, in the list of roads of the map, of the road to take
+   * out of an intersection to reach a destination the fastest.
+   *
+   * @param laneId             the ID of a lane of the road on which the
+   *                           vehicle arrives at the intersection
+   * @param imId               the ID of the intersection manager
+   * @param destinationLaneId  the ID of a lane of the destination road
+   * @return the index of the road, or -1 if the destination cannot be
+   *         reached
+   */
+  public int nextRoad(int laneId, int imId, int destinationLaneId) {
+    int road = laneIdToRoad[laneId];
+    int d = laneIdToDestination[destinationLaneId];
+    int i = imId * numOfRoads + road;
+    if (road < 0 || d < 0 || i >= nodeIndex.length || nodeIndex[i] < 0) {
+      return -1;
+    }
+    return nextRoad[nodeIndex[i] * numOfDestinations + d];
+  }
+}
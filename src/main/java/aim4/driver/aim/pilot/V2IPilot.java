@@ -49,6 +49,7 @@ import java.util.Queue;
  * terms of physically controlling the Vehicle.
  */
 public class V2IPilot extends BasicPilot {
+  private static final long serialVersionUID = 1L;
 
   // ///////////////////////////////
   // CONSTANTS
@@ -6,8 +6,11 @@ import aim4.map.connections.Corner;
 import aim4.map.connections.Junction;
 import aim4.map.connections.SimpleIntersection;
 import aim4.map.cpm.parking.ParkingLane;
+import aim4.sim.simulator.cpm.helper.CPMEventLog;
+import aim4.sim.simulator.cpm.helper.CPMEventType;
 import aim4.vehicle.cpm.CPMBasicAutoVehicle;
 
+import java.io.Serializable;
 import java.util.EnumMap;
 
 /**
@@ -18,6 +21,7 @@ import java.util.EnumMap;
  * the DrivingState and ParkingStatus in this class.
  */
 public class CPMCoordinator implements Coordinator {
+    private static final long serialVersionUID = 1L;
 
     /**
      * The different parking statuses that an agent can have.
@@ -58,7 +62,7 @@ public class CPMCoordinator implements Coordinator {
     /**
      * An interface of the state handler.
      */
-    private static interface StateHandler {
+    private static interface StateHandler extends Serializable {
         /**
          * Perform the action defined by the state handler at the driver state.
          *
@@ -195,8 +199,10 @@ public class CPMCoordinator implements Coordinator {
     private void checkTimeToExit() {
         if (vehicle.getTimeToExit() <= 0
                 && parkingStatus != ParkingStatus.EXIT) {
-            System.out.println("Parking time has elapsed, " +
-                               "setting parking status to EXIT.");
+            if (CPMEventLog.COORDINATOR) {
+                CPMEventLog.log(CPMEventType.PARKING_TIME_ELAPSED, vehicle.getVIN(),
+                        vehicle.gaugeTime());
+            }
             parkingStatus = ParkingStatus.EXIT;
             drivingState = DrivingState.DEFAULT_DRIVING_BEHAVIOUR;
             // Tell the vehicle in front to relocate, if there is one
@@ -213,12 +219,18 @@ public class CPMCoordinator implements Coordinator {
         // We only want to send the message if the vehicle is actually parked
         // I.e. is stationary, no velocity, and if we haven't already sent it
         // a message
-        System.out.println("Finding vehicle in front");
+        if (CPMEventLog.COORDINATOR) {
+            CPMEventLog.log(CPMEventType.FINDING_VEHICLE_IN_FRONT, vehicle.getVIN(),
+                    vehicle.gaugeTime());
+        }
         CPMBasicAutoVehicle vehicleInFront = vehicle.getVehicleInFront();
         if(vehicleInFront != null
             && vehicleInFront.getVelocity() == 0.0
                 && vehicleInFront.getMessagesFromV2VInbox() == null) {
-            System.out.println("Sending message " +  status.toString() + " to vehicle in front");
+            if (CPMEventLog.COORDINATOR) {
+                CPMEventLog.log(CPMEventType.MESSAGE_SENT_TO_VEHICLE_IN_FRONT, vehicle.getVIN(),
+                        vehicle.gaugeTime(), status);
+            }
             vehicleInFront.sendMessageToV2VInbox(status);
         }
     }
@@ -231,11 +243,17 @@ public class CPMCoordinator implements Coordinator {
         if ((I2Vinbox != null && parkingStatus == ParkingStatus.WAITING) ||
                 (I2Vinbox != null && parkingStatus == ParkingStatus.RELOCATING) ) {
             // We have been granted access to the car park and know where to park
-            System.out.println("Changing status to PARKING.");
+            if (CPMEventLog.COORDINATOR) {
+                CPMEventLog.log(CPMEventType.PARKING_GRANTED, vehicle.getVIN(),
+                        vehicle.gaugeTime());
+            }
             setParkingStatus(ParkingStatus.PARKING);
             vehicle.setTargetParkingLane(I2Vinbox);
             vehicle.clearI2Vinbox();
-            System.out.println("Finding space on " + I2Vinbox.getRoadName());
+            if (CPMEventLog.COORDINATOR) {
+                CPMEventLog.log(CPMEventType.FINDING_SPACE, vehicle.getVIN(),
+                        vehicle.gaugeTime(), I2Vinbox.getRoadName());
+            }
             if (!vehicle.hasEnteredCarPark()) {
                 vehicle.setHasEntered();
             } else {
@@ -251,7 +269,10 @@ public class CPMCoordinator implements Coordinator {
         ParkingStatus V2Vinbox = vehicle.getMessagesFromV2VInbox();
         if ((V2Vinbox == ParkingStatus.RELOCATING && parkingStatus == ParkingStatus.PARKING)) {
             // The vehicle behind us needs to exit, so change our parking status
-            System.out.println("Changing status to " + V2Vinbox.toString());
+            if (CPMEventLog.COORDINATOR) {
+                CPMEventLog.log(CPMEventType.PARKING_STATUS_CHANGED, vehicle.getVIN(),
+                        vehicle.gaugeTime(), V2Vinbox);
+            }
             setParkingStatus(V2Vinbox);
             setDrivingState(DrivingState.DEFAULT_DRIVING_BEHAVIOUR);
             // If there is a vehicle in front, we need to send them the same message
@@ -314,21 +335,30 @@ public class CPMCoordinator implements Coordinator {
                 terminalStateHandler);
     }
 
+    /**
+     * The state handler of the terminal state, which does nothing.
+     */
+    private static class TerminalStateHandler implements StateHandler {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public boolean perform() {
+            return false;  // do nothing, not even the pilot
+        }
+    }
+
     /**
      * The terminal state handler.
      */
     private static StateHandler terminalStateHandler =
-            new StateHandler() {
-                @Override
-                public boolean perform() {
-                    return false;  // do nothing, not even the pilot
-                }
-            };
+            new TerminalStateHandler();
 
     /**
      * The state handler for the default driving behavior state.
      */
     private class DefaultDrivingBehaviourStateHandler implements StateHandler {
+        private static final long serialVersionUID = 1L;
+
         /**
          * {@inheritDoc}
          */
@@ -338,19 +368,28 @@ public class CPMCoordinator implements Coordinator {
             // If so, then switch to the relevant traversing mode.
             assert driver != null;
             if (driver.inCorner() != null){
-                System.out.println("Entering corner.");
+                if (CPMEventLog.COORDINATOR) {
+                    CPMEventLog.log(CPMEventType.ENTERING_CORNER, vehicle.getVIN(),
+                            vehicle.gaugeTime());
+                }
                 currentCorner = driver.inCorner();
                 vehicle.updateEstimatedDistanceTravelled(currentCorner);
                 setDrivingState(DrivingState.TRAVERSING_CORNER);
             }
             if (driver.inJunction() != null){
-                System.out.println("Entering junction.");
+                if (CPMEventLog.COORDINATOR) {
+                    CPMEventLog.log(CPMEventType.ENTERING_JUNCTION, vehicle.getVIN(),
+                            vehicle.gaugeTime());
+                }
                 currentJunction = driver.inJunction();
                 vehicle.updateEstimatedDistanceTravelled(currentJunction);
                 setDrivingState(DrivingState.TRAVERSING_JUNCTION);
             }
             if (driver.inIntersection() != null){
-                System.out.println("Entering intersection.");
+                if (CPMEventLog.COORDINATOR) {
+                    CPMEventLog.log(CPMEventType.ENTERING_INTERSECTION, vehicle.getVIN(),
+                            vehicle.gaugeTime());
+                }
                 SimpleIntersection currentIntersection = driver.inIntersection();
                 vehicle.updateEstimatedDistanceTravelled(currentIntersection);
                 setDrivingState(DrivingState.TRAVERSING_INTERSECTION);
@@ -359,7 +398,10 @@ public class CPMCoordinator implements Coordinator {
             // so vehicle will drive past the parking end point
             if (driver.getCurrentLane() instanceof ParkingLane
                     && parkingStatus == ParkingStatus.PARKING) {
-                System.out.println("Traversing Parking Lane" + driver.getCurrentLane());
+                if (CPMEventLog.COORDINATOR) {
+                    CPMEventLog.log(CPMEventType.TRAVERSING_PARKING_LANE, vehicle.getVIN(),
+                            vehicle.gaugeTime(), driver.getCurrentLane());
+                }
                 setDrivingState(DrivingState.TRAVERSING_PARKING_LANE);
             }
             pilot.followCurrentLane();
@@ -372,6 +414,8 @@ public class CPMCoordinator implements Coordinator {
      * The state handler for the traversing corner state.
      */
     private class TraversingCornerStateHandler implements StateHandler {
+        private static final long serialVersionUID = 1L;
+
         /**
          * {@inheritDoc}
          */
@@ -381,7 +425,10 @@ public class CPMCoordinator implements Coordinator {
             assert driver != null;
             Corner corner = driver.inCorner();
             if (corner == null) {
-                System.out.println("Driver is now out of the corner.");
+                if (CPMEventLog.COORDINATOR) {
+                    CPMEventLog.log(CPMEventType.LEFT_CORNER, vehicle.getVIN(),
+                            vehicle.gaugeTime());
+                }
                 // The vehicle is out of the corner.
                 // Go back to default driving behaviour
                 currentCorner = null;
@@ -408,6 +455,8 @@ public class CPMCoordinator implements Coordinator {
      * The state handler for the traversing junction state.
      */
     private class TraversingJunctionStateHandler implements StateHandler {
+        private static final long serialVersionUID = 1L;
+
         /**
          * {@inheritDoc}
          */
@@ -417,7 +466,10 @@ public class CPMCoordinator implements Coordinator {
             assert driver != null;
             Junction junction = driver.inJunction();
             if (junction == null) {
-                System.out.println("Driver is now out of the junction.");
+                if (CPMEventLog.COORDINATOR) {
+                    CPMEventLog.log(CPMEventType.LEFT_JUNCTION, vehicle.getVIN(),
+                            vehicle.gaugeTime());
+                }
                 // The vehicle is out of the junction.
                 // Go back to default driving behaviour
                 currentJunction = null;
@@ -444,6 +496,8 @@ public class CPMCoordinator implements Coordinator {
      * The state handler for the traversing intersection state.
      */
     private class TraversingIntersectionStateHandler implements StateHandler {
+        private static final long serialVersionUID = 1L;
+
         /**
          * {@inheritDoc}
          */
@@ -453,7 +507,10 @@ public class CPMCoordinator implements Coordinator {
             assert driver != null;
             SimpleIntersection intersection = driver.inIntersection();
             if (intersection == null) {
-                System.out.println("Driver is now out of the intersection.");
+                if (CPMEventLog.COORDINATOR) {
+                    CPMEventLog.log(CPMEventType.LEFT_INTERSECTION, vehicle.getVIN(),
+                            vehicle.gaugeTime());
+                }
                 // The vehicle is out of the intersection.
                 // Go back to default driving behaviour
                 pilot.clearDepartureLane();
@@ -472,6 +529,8 @@ public class CPMCoordinator implements Coordinator {
      * The state handler for the traversing parking lane state.
      */
     private class TraversingParkingLaneStateHandler implements StateHandler {
+        private static final long serialVersionUID = 1L;
+
         /**
          * {@inheritDoc}
          */
@@ -480,7 +539,10 @@ public class CPMCoordinator implements Coordinator {
             // First check that we are still on a parking lane
             assert(driver != null);
             if (!driver.inParkingLane() || parkingStatus == ParkingStatus.EXIT){
-                System.out.println("Driver is now leaving the parking lane.");
+                if (CPMEventLog.COORDINATOR) {
+                    CPMEventLog.log(CPMEventType.LEAVING_PARKING_LANE, vehicle.getVIN(),
+                            vehicle.gaugeTime());
+                }
                 // Find out which state to be in next
                 // Find out if we need to change state
                 if (driver.inCorner() != null){
@@ -495,7 +557,10 @@ public class CPMCoordinator implements Coordinator {
             }
             if (vehicle.getTargetParkingLane() ==
                     driver.getParkingLaneCurrentlyIn()){
-                System.out.println("Reached target parking lane");
+                if (CPMEventLog.COORDINATOR) {
+                    CPMEventLog.log(CPMEventType.REACHED_TARGET_PARKING_LANE, vehicle.getVIN(),
+                            vehicle.gaugeTime());
+                }
                 vehicle.clearTargetParkingLane();
             }
             // keep driving on the parking lane
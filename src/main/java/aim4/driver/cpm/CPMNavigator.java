@@ -8,12 +8,14 @@ import aim4.map.lane.Lane;
 import aim4.vehicle.cpm.CPMBasicAutoVehicle;
 import aim4.driver.cpm.CPMCoordinator.*;
 
+import java.io.Serializable;
 import java.util.List;
 
 /**
  * A navigator to decide where to go.
  */
-public class CPMNavigator {
+public class CPMNavigator implements Serializable {
+    private static final long serialVersionUID = 1L;
 
     private CPMBasicAutoVehicle vehicle;
 
@@ -36,7 +38,7 @@ public class CPMNavigator {
                 // or we are exiting/relocating
                 if (parkingStatus == ParkingStatus.PARKING) {
                     // Check if we can turn onto the target parking lane
-                    if (connection.getExitLanes().contains(vehicle.getTargetParkingLane())){
+                    if (connection.isExitedBy(vehicle.getTargetParkingLane())){
                         return vehicle.getTargetParkingLane();
                     } else {
                         // Otherwise we want to stay on the same road we're on
@@ -59,7 +61,7 @@ public class CPMNavigator {
             // There will be 2 exits, we are at the start of the parking area
             if (parkingStatus == ParkingStatus.PARKING) {
                 // Check if we can turn onto the target parking lane
-                if (connection.getExitLanes().contains(vehicle.getTargetParkingLane())){
+                if (connection.isExitedBy(vehicle.getTargetParkingLane())){
                     return vehicle.getTargetParkingLane();
                 } else {
                     // Otherwise we want to choose the other exit lane
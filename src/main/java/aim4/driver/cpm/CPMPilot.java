@@ -17,6 +17,7 @@ import aim4.driver.cpm.CPMCoordinator.*;
  * terms of physically controlling the Vehicle.
  */
 public class CPMPilot extends BasicPilot{
+    private static final long serialVersionUID = 1L;
 
     // ///////////////////////////////
     // CONSTANTS
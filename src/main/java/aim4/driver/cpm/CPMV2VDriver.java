@@ -22,6 +22,7 @@ import java.awt.geom.Area;
  */
 public class CPMV2VDriver extends BasicDriver
                             implements AutoDriver {
+    private static final long serialVersionUID = 1L;
 
     /////////////////////////////////
     // PRIVATE FIELDS
@@ -15,6 +15,8 @@ import java.awt.geom.Area;
  * Created by Callum on 13/04/2017.
  */
 public class MergeV2IAutoDriver extends MergeAutoDriver {
+    private static final long serialVersionUID = 1L;
+
     // PRIVATE FIELDS //
     /**
      * The MergeManager with which the driver is currently interfacing
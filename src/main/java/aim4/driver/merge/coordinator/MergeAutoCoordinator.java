@@ -19,6 +19,8 @@ import java.util.EnumMap;
  * Created by Callum on 25/03/2017.
  */
 public class MergeAutoCoordinator extends MergeCoordinator {
+    private static final long serialVersionUID = 1L;
+
     // STATES //
     public enum State {
         /**
@@ -102,6 +104,8 @@ public class MergeAutoCoordinator extends MergeCoordinator {
 
     //STATE HANDLERS//
     private class PlanningStateHandler implements StateHandler {
+        private static final long serialVersionUID = 1L;
+
         @Override
         public boolean perform() {
             if(vehicle.gaugeVelocity() < VehicleUtil.MIN_MAX_TURN_VELOCITY)
@@ -120,6 +124,8 @@ public class MergeAutoCoordinator extends MergeCoordinator {
     }
 
     private class DefaultDrivingBehaviourHandler implements StateHandler {
+        private static final long serialVersionUID = 1L;
+
         @Override
         public boolean perform() {
             pilot.followCurrentLane();
@@ -131,6 +137,8 @@ public class MergeAutoCoordinator extends MergeCoordinator {
     }
 
     private class EndOfMergeStateHandler implements StateHandler {
+        private static final long serialVersionUID = 1L;
+
         @Override
         public boolean perform() {
             pilot.followCurrentLane();
@@ -140,6 +148,8 @@ public class MergeAutoCoordinator extends MergeCoordinator {
     }
 
     private class TraversingMergeStateHandler implements StateHandler {
+        private static final long serialVersionUID = 1L;
+
         @Override
         public boolean perform() {
             MergeConnection mergeConnection = driver.inMerge();
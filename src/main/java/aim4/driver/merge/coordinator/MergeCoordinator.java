@@ -1,5 +1,7 @@
 package aim4.driver.merge.coordinator;
 
+import java.io.Serializable;
+
 import aim4.driver.Coordinator;
 import aim4.driver.merge.MergeAutoDriver;
 import aim4.driver.merge.pilot.MergeAutoPilot;
@@ -14,13 +16,15 @@ import aim4.vehicle.merge.MergeAutoVehicleDriverModel;
  * For all Coordinators that need to deal with merges.
  */
 public abstract class MergeCoordinator implements Coordinator {
+    private static final long serialVersionUID = 1L;
+
     // PUBLIC ABSTRACT
     public abstract String getStateString();
     // NESTED CLASSES //
     /**
      * An interface of the state handler.
      */
-    protected static interface StateHandler {
+    protected static interface StateHandler extends Serializable {
         /**
          * Perform the action defined by the state handler at the driver state.
          *
@@ -30,13 +34,20 @@ public abstract class MergeCoordinator implements Coordinator {
         boolean perform();
     }
 
+    /**
+     * The state handler of the terminal state, which does nothing.
+     */
+    private static class TerminalStateHandler implements StateHandler {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public boolean perform() {
+            return false; //do nothing
+        }
+    }
+
     protected static StateHandler terminalStateHandler =
-            new StateHandler() {
-                @Override
-                public boolean perform() {
-                    return false; //do nothing
-                }
-            };
+            new TerminalStateHandler();
 
     //PROTECTED FIELDS //
     //VEHICLE AND DRIVER
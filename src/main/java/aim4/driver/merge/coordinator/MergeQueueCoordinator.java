@@ -25,6 +25,8 @@ import java.util.List;
  * Created by Callum on 19/04/2017.
  */
 public class MergeQueueCoordinator extends MergeCoordinator {
+    private static final long serialVersionUID = 1L;
+
     // CONSTANT
     private static final double REQUEST_TIME_GAP = 0.1;
 
@@ -160,6 +162,8 @@ public class MergeQueueCoordinator extends MergeCoordinator {
     }
 
     private class PlanningStateHandler implements StateHandler {
+        private static final long serialVersionUID = 1L;
+
         /** {@inheritDoc} */
         @Override
         public boolean perform() {
@@ -174,6 +178,8 @@ public class MergeQueueCoordinator extends MergeCoordinator {
     }
 
     private class DefaultDrivingBehaviourStateHandler implements StateHandler {
+        private static final long serialVersionUID = 1L;
+
         /** {@inheritDoc} */
         @Override
         public boolean perform() {
@@ -185,6 +191,8 @@ public class MergeQueueCoordinator extends MergeCoordinator {
     }
 
     private class PreparingRequestStateHandler implements StateHandler {
+        private static final long serialVersionUID = 1L;
+
         /** {@inheritDoc} */
         @Override
         public boolean perform() {
@@ -208,6 +216,8 @@ public class MergeQueueCoordinator extends MergeCoordinator {
     }
 
     private class AwaitingConfirmStateHandler implements StateHandler {
+        private static final long serialVersionUID = 1L;
+
         /** {@inheritDoc} */
         @Override
         public boolean perform() {
@@ -218,6 +228,8 @@ public class MergeQueueCoordinator extends MergeCoordinator {
     }
 
     private class AwaitingGoStateHandler implements StateHandler {
+        private static final long serialVersionUID = 1L;
+
         /** {@inheritDoc} */
         @Override
         public boolean perform() {
@@ -228,6 +240,8 @@ public class MergeQueueCoordinator extends MergeCoordinator {
     }
 
     private class MovingToMerge implements StateHandler {
+        private static final long serialVersionUID = 1L;
+
         /** {@inheritDoc} */
         @Override
         public boolean perform() {
@@ -248,6 +262,8 @@ public class MergeQueueCoordinator extends MergeCoordinator {
     }
 
     private class TraversingStateHandler implements StateHandler {
+        private static final long serialVersionUID = 1L;
+
         /** {@inheritDoc} */
         @Override
         public boolean perform() {
@@ -274,6 +290,8 @@ public class MergeQueueCoordinator extends MergeCoordinator {
     }
 
     private class ClearingStateHandler implements StateHandler {
+        private static final long serialVersionUID = 1L;
+
         /** {@inheritDoc} */
         @Override
         public boolean perform() {
@@ -289,6 +307,8 @@ public class MergeQueueCoordinator extends MergeCoordinator {
     }
 
     private class MoveToEndStateHandler implements StateHandler {
+        private static final long serialVersionUID = 1L;
+
         /** {@inheritDoc} */
         @Override
         public boolean perform() {
@@ -22,6 +22,8 @@ import java.util.Queue;
  * Created by Callum on 26/03/2017.
  */
 public class MergeAutoPilot extends BasicPilot {
+    private static final long serialVersionUID = 1L;
+
     //CONSTS//
     public static final double MINIMUM_FOLLOWING_DISTANCE = 2; //metres
     /**
@@ -31,15 +31,22 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 package aim4.gui;
 
 import javax.swing.JTabbedPane;
+import javax.swing.SwingUtilities;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
+import aim4.config.Debug;
 import aim4.gui.statuspanel.ConsolePanel;
 import aim4.gui.statuspanel.AdminControlPanel;
 import aim4.gui.statuspanel.SimControlPanel;
 import aim4.gui.statuspanel.StatPanel;
 import aim4.gui.statuspanel.SystemPanel;
 import aim4.gui.statuspanel.VehicleInfoPanel;
+import aim4.sim.Simulator;
+import aim4.sim.simulator.cpm.CPMAutoDriverSimulator;
+import aim4.sim.simulator.cpm.CPMMultiCarParkSimulator;
+import aim4.sim.simulator.cpm.helper.CPMEventLog;
+import aim4.sim.simulator.cpm.helper.CPMEventType;
 
 /**
  * A tabbed panel for showing statistics and status of the simulator.
@@ -65,6 +72,23 @@ public class StatusPanelContainer extends JTabbedPane
   VehicleInfoPanel vehicleInfoPanel;
   /** The administration control panel */
   AdminControlPanel adminControlPanel;
+  /** The listener showing the car park events on the console */
+  private final CPMEventLog.Listener carParkEventListener =
+    new CPMEventLog.Listener() {
+      @Override
+      public void eventLogged(long seq, CPMEventType type, int vin,
+                              double time, Object arg) {
+        if (Debug.isTargetVIN(vin)) {
+          final String str = type.format(arg) + "\n";
+          SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+              writeToConsole(str);
+            }
+          });
+        }
+      }
+    };
 
   // ///////////////////////////////
   // CLASS CONSTRUCTORS
@@ -98,9 +122,16 @@ public class StatusPanelContainer extends JTabbedPane
 
   /**
    * Initialize the status panel before the beginning of the simulation
+   *
+   * @param sim  the simulator
    */
-  public void init() {
+  public void init(Simulator sim) {
     clear();
+    // Show the car park events of the selected vehicle on the console
+    if (sim instanceof CPMAutoDriverSimulator
+        || sim instanceof CPMMultiCarParkSimulator) {
+      CPMEventLog.addListener(carParkEventListener);
+    }
   }
 
   /**
@@ -116,6 +147,7 @@ public class StatusPanelContainer extends JTabbedPane
    * Clear the content on the status pane
    */
   public void clear() {
+    CPMEventLog.removeListener(carParkEventListener);
     controlPanel.clear();
     statPanel.clear();
     systemPanel.clear();
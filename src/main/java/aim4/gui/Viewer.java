@@ -36,6 +36,8 @@ import aim4.gui.viewer.CPMSimViewer;
 import aim4.gui.viewer.MergeSimViewer;
 import aim4.gui.viewer.SimViewer;
 import aim4.sim.Simulator;
+import aim4.sim.simulator.aim.AIMSimulator;
+import aim4.sim.simulator.merge.MergeSimulator;
 
 import javax.swing.*;
 import javax.swing.event.ChangeEvent;
@@ -43,11 +45,13 @@ import javax.swing.event.ChangeListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
 import java.awt.event.*;
+import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 /**
@@ -437,7 +441,7 @@ public class Viewer extends JFrame implements ActionListener, ItemListener, KeyL
     private void setSimStartGUIsetting() {
         selectedViewer.showCard(ViewerCardType.SCREEN);
         selectedViewer.startViewer();
-        statusPanel.init();
+        statusPanel.init(selectedViewer.getSimulator());
 
         // update the buttons
         startButton.setText("Pause");
@@ -539,6 +543,32 @@ public class Viewer extends JFrame implements ActionListener, ItemListener, KeyL
         selectedViewer.stepSimProcess();
     }
 
+    /**
+     * Write the results of a simulator as CSV.  The results of the
+     * intersection and merge simulators are written record by record rather
+     * than built as one string first.
+     *
+     * @param sim   the simulator
+     * @param file  the file
+     * @throws IOException if the file cannot be written
+     */
+    private static void writeResultsCSV(Simulator sim, File file) throws IOException {
+        Writer out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(file), StandardCharsets.UTF_8));
+        try {
+            if (sim instanceof AIMSimulator) {
+                ((AIMSimulator) sim).produceResult().writeCSV(out);
+            } else if (sim instanceof MergeSimulator) {
+                ((MergeSimulator) sim).produceResult().writeCSV(out);
+            } else {
+                out.write(sim.produceResultsCSV());
+            }
+            out.write(System.lineSeparator());
+        } finally {
+            out.close();
+        }
+    }
+
     /**
      * Start the simulation process.
      *
@@ -692,9 +722,6 @@ public class Viewer extends JFrame implements ActionListener, ItemListener, KeyL
                 }
             }
         } else if (e.getSource() == saveResultsMenuItem) {
-            String csv = getSelectedSimulator().produceResultsCSV();
-            java.util.List<String> csvResultAsList = new ArrayList<String>();
-            csvResultAsList.add(csv);
             //Save
             FileNameExtensionFilter filter = new FileNameExtensionFilter("CSV Files","csv");
             final JFileChooser fc = new JFileChooser();
@@ -703,7 +730,7 @@ public class Viewer extends JFrame implements ActionListener, ItemListener, KeyL
             if(returnVal == JFileChooser.APPROVE_OPTION) {
                 File file = fc.getSelectedFile();
                 try {
-                    Files.write(Paths.get(file.getAbsolutePath()), csvResultAsList, Charset.forName("UTF-8"));
+                    writeResultsCSV(getSelectedSimulator(), file);
                 } catch (IOException e1) {
                     //nothing
                 }
@@ -34,7 +34,7 @@ public class SimConfigSummary extends JPanel implements CPMStatScreenComponent {
         JLabel lengthOfParkingLabel = new JLabel("Parking length: " + setup.getParkingLength());
         lengthOfParkingLabel.setOpaque(true);
 
-        JLabel useCvsLabel = new JLabel("Using CSV file: " + setup.getUseCSVFile().getKey());
+        JLabel useCvsLabel = new JLabel("Using CSV file: " + (setup.getArrivalTrace() != null));
         useCvsLabel.setOpaque(true);
 
         JLabel trafficLevelLabel = new JLabel("Traffic level: " + (setup.getTrafficLevel()*3600));
@@ -46,7 +46,7 @@ public class SimConfigSummary extends JPanel implements CPMStatScreenComponent {
         this.add(numberOfParkingLanesLabel);
         this.add(lengthOfParkingLabel);
         this.add(useCvsLabel);
-        if (!setup.getUseCSVFile().getKey()) {
+        if (!(setup.getArrivalTrace() != null)) {
             this.add(trafficLevelLabel);
         }
 
@@ -4,6 +4,7 @@ import aim4.gui.parampanel.cpm.CPMAutoDriverParamPanel;
 import aim4.sim.setup.SimSetup;
 import aim4.sim.setup.cpm.BasicCPMSimSetup;
 import aim4.sim.setup.cpm.CPMAutoDriverSimSetup;
+import javafx.util.Pair;
 
 import javax.swing.*;
 import java.awt.*;
@@ -85,7 +86,8 @@ public class CPMSimSetupPanel extends SimSetupPanel implements ItemListener {
             newSimSetup.setParkingLength(autoDriverOnlySetupPanel.getParkingLength());
             newSimSetup.setAccessLength(autoDriverOnlySetupPanel.getAccessLength());
             newSimSetup.setSpawnSpecType(autoDriverOnlySetupPanel.getSpawnSpecType());
-            newSimSetup.setUseCSVFile(autoDriverOnlySetupPanel.getUseCSVFileDetails());
+            Pair<Boolean, String> useCSVFile = autoDriverOnlySetupPanel.getUseCSVFileDetails();
+            newSimSetup.setArrivalTrace(useCSVFile.getKey() ? useCSVFile.getValue() : null);
             return newSimSetup;
         } else {
             throw new RuntimeException(
@@ -10,7 +10,6 @@ import aim4.sim.Simulator;
 import aim4.sim.setup.cpm.BasicCPMSimSetup;
 import aim4.sim.setup.cpm.CPMAutoDriverSimSetup;
 import aim4.sim.simulator.cpm.CPMAutoDriverSimulator;
-import javafx.util.Pair;
 
 import java.awt.event.MouseEvent;
 
@@ -33,7 +32,7 @@ public class CPMSimViewer extends SimViewer {
                 50.0, // parkingLength
                 1.0, // accessLength,
                 SpawnSpecType.SINGLE, // spawn spec type
-                new Pair<Boolean, String>(false, "")
+                null // arrivalTrace
         )), false);
     }
 
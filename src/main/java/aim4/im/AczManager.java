@@ -30,11 +30,14 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package aim4.im;
 
+import java.io.Serializable;
+
 /**
  * The ACZ manager.
  */
 public class AczManager implements
         ReservationManager<AczManager.Query,AczManager.Plan,Integer> {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // NESTED CLASSES
@@ -43,7 +46,9 @@ public class AczManager implements
   /**
    * The query for the ACZ manager.
    */
-  public static class Query {
+  public static class Query implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /** The VIN */
     private int vin;
     /** The arrival time */
@@ -122,7 +127,9 @@ public class AczManager implements
   /**
    * The plan of the reservation.
    */
-  public static class Plan {
+  public static class Plan implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /** The VIN of the vehicle */
     private int vin;
     /** The length of the vehicle */
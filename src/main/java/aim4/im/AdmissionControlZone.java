@@ -30,6 +30,7 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package aim4.im;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -39,7 +40,8 @@ import java.util.Map;
  * a limited length's worth of vehicles and will only admit vehicles
  * if there is enough room.
  */
-public class AdmissionControlZone {
+public class AdmissionControlZone implements Serializable {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // CONSTANTS
@@ -30,6 +30,8 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package aim4.im;
 
+import java.io.Serializable;
+
 /**
  * A generic reservation manager.
  *
@@ -37,7 +39,7 @@ package aim4.im;
  * @param <Plan>   the Plan class
  * @param <Ticket> the Ticket class
  */
-public interface ReservationManager<Query,Plan,Ticket> {
+public interface ReservationManager<Query,Plan,Ticket> extends Serializable {
 
   /**
    * Make a query.
@@ -37,6 +37,7 @@ import aim4.util.Registry;
  * An dummy interaction manager
  */
 public class DummyManager extends IntersectionManager {
+  private static final long serialVersionUID = 1L;
 
   /**
    * Create a dummy manager.
@@ -61,6 +62,14 @@ public class DummyManager extends IntersectionManager {
     // do nothing
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double getNextWakeUpTime() {
+    return Double.POSITIVE_INFINITY;
+  }
+
   /**
    * {@inheritDoc}
    */
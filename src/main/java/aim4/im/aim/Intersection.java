@@ -33,18 +33,20 @@ package aim4.im.aim;
 import java.awt.geom.Area;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.io.Serializable;
 import java.util.List;
 
 import aim4.config.Constants.TurnDirection;
 import aim4.map.Road;
 import aim4.map.lane.Lane;
 import aim4.map.track.WayPoint;
+import aim4.util.CompiledArea;
 
 
 /**
  * The interface of an intersection
  */
-public interface Intersection {
+public interface Intersection extends Serializable {
 
   /**
    * Get the Area controlled by this IntersectionManager.
@@ -61,6 +63,21 @@ public interface Intersection {
    */
   Area getAreaPlus();
 
+  /**
+   * Get the compiled form of the Area controlled by this IntersectionManager.
+   *
+   * @return the compiled form of {@link #getArea()}
+   */
+  CompiledArea getCompiledArea();
+
+  /**
+   * Get the compiled form of the area slightly larger than the area
+   * controlled by this IntersectionManager.
+   *
+   * @return the compiled form of {@link #getAreaPlus()}
+   */
+  CompiledArea getCompiledAreaPlus();
+
   /**
    * Get the centroid of the IntersectionManager.
    *
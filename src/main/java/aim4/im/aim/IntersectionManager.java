@@ -33,6 +33,7 @@ package aim4.im.aim;
 import java.awt.Shape;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.io.Serializable;
 import java.util.Collections;
 import java.util.List;
 import aim4.map.Road;
@@ -45,7 +46,8 @@ import aim4.vehicle.aim.AIMVehicleSimModel;
  * An agent to manage an intersection. This is an abstract class
  * that sets up the properties of the intersection when it is created.
  */
-public class IntersectionManager {
+public class IntersectionManager implements Serializable {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // PRIVATE FIELDS
@@ -115,6 +117,30 @@ public class IntersectionManager {
     currentTime += timeStep;
   }
 
+  /**
+   * Get the earliest time at which this IntersectionManager needs to act
+   * again if no message arrives in the meantime.  The simulator may skip
+   * the calls to {@link #act(double)} before that time, and makes up for
+   * the skipped time steps with {@link #skip(double)}.  By default an
+   * IntersectionManager acts in every time step.
+   *
+   * @return the earliest time at which this IntersectionManager needs to
+   *         act again
+   */
+  public double getNextWakeUpTime() {
+    return currentTime;
+  }
+
+  /**
+   * Advance the clock over a time step in which this IntersectionManager
+   * had nothing to do.
+   *
+   * @param timeStep  the size of the time step skipped, in seconds
+   */
+  public void skip(double timeStep) {
+    currentTime += timeStep;
+  }
+
   /**
    * Get the unique ID number of this IntersectionManager.
    *
@@ -190,7 +216,7 @@ public class IntersectionManager {
     // Get all corners of the vehicle and make sure they are inside the
     // intersection.
     for(Point2D corner : vehicle.getCornerPoints()) {
-      if (!intersection.getArea().contains(corner)) {
+      if (!intersection.getCompiledArea().contains(corner)) {
         return false;
       }
     }
@@ -207,9 +233,8 @@ public class IntersectionManager {
    *                  this IntersectionManager
    */
   public boolean intersects(Rectangle2D rectangle) {
-    // Just call the Area method, so we don't have to clone the area.
-    // Make sure not to use "intersect" which is destructive.
-    return intersection.getArea().intersects(rectangle);
+    // Use the compiled area rather than the constructive area geometry
+    return intersection.getCompiledArea().intersects(rectangle);
   }
 
 
@@ -0,0 +1,849 @@
+package aim4.im.aim;
+
+import java.awt.geom.Area;
+import java.awt.geom.GeneralPath;
+import java.awt.geom.Line2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import aim4.config.Debug;
+import aim4.map.Road;
+import aim4.map.lane.Lane;
+import aim4.map.lane.LineSegmentLane;
+import aim4.map.track.WayPoint;
+import aim4.util.CompiledArea;
+import aim4.util.GeomMath;
+import aim4.util.TiledArea;
+
+/**
+ * The compiled, immutable topology of a road based intersection: its area,
+ * the points at which the lanes enter and exit it, the priorities of the
+ * departure lanes, the conflicts between the tracks through it and the
+ * tiles of its reservation grids.  Lanes are referred to by their IDs, so
+ * the topology holds no reference to the lanes of any one map and can be
+ * shared by all the maps with the same geometry, such as the maps of the
+ * replications of a simulation.  {@link RoadBasedIntersection} and
+ * {@link RoadBasedTrackModel} bind a topology to the lanes of their map.
+ * <p>
+ * The topologies are kept in a cache keyed by the geometry of the roads, so
+ * that they are only computed once per geometry.  The cache is static, so it
+ * is shared by the simulations of one class space only: the runs of a
+ * {@link aim4.sim.batch.BatchRunner} or of the GUI share it, but the jobs of
+ * a sweep in ISOLATED or QUEUE mode each load the simulator classes afresh
+ * (see {@link aim4.sim.batch.IsolatedJobRunner}) and compute their own
+ * topology, unless the sweep shares the topology, in which case the jobs of
+ * each worker share it.  It cannot be shared further without sharing the
+ * classes of the lanes, and with them their static state.  Only the
+ * intersections of the grid maps have a topology; the merge maps and the
+ * car parks are built afresh by every simulation.  A topology is safe to
+ * use from several threads; the areas and way points it hands out must not
+ * be modified.
+ */
+public final class IntersectionTopology implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  /////////////////////////////////
+  // NESTED CLASSES
+  /////////////////////////////////
+
+  /**
+   * A map of topologies which drops the least recently used one when it
+   * holds more than {@link #MAX_CACHED_TOPOLOGIES}.
+   */
+  private static class TopologyCache
+    extends LinkedHashMap<String, IntersectionTopology> {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Create an empty cache, in access order.
+     */
+    TopologyCache() {
+      super(16, 0.75f, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean removeEldestEntry(
+        Map.Entry<String, IntersectionTopology> e) {
+      return size() > MAX_CACHED_TOPOLOGIES;
+    }
+  }
+
+
+  /////////////////////////////////
+  // CONSTANTS
+  /////////////////////////////////
+
+  /**
+   * The distance by which the area of the intersection is extended past
+   * the strict intersection of its roads. {@value} meters.
+   */
+  private static final double EXPANSION_DISTANCE =
+    RoadBasedIntersection.EXPANSION_DISTANCE;
+
+  /**
+   * The offset by which the enlarged area extends the area, as a fraction of
+   * the length of the lanes.
+   */
+  private static final double AREA_PLUS_OFFSET = 0.000001;
+
+  /**
+   * The maximum number of topologies kept by {@link #cache}.  A simulation
+   * has a single intersection and a sweep uses a few layouts, so this keeps
+   * a long-lived JVM, such as the GUI, from holding the topology of every
+   * layout it has seen.
+   */
+  private static final int MAX_CACHED_TOPOLOGIES = 16;
+
+  /**
+   * The topologies computed so far, by the geometry of their roads, least
+   * recently used first.  Guarded by itself.
+   */
+  private static final Map<String, IntersectionTopology> cache =
+    new TopologyCache();
+
+
+  /////////////////////////////////
+  // PRIVATE FIELDS
+  /////////////////////////////////
+
+  /**
+   * The key of the topology in the cache, or <code>null</code> if it is not
+   * shared.
+   */
+  private final String key;
+
+  /** The IDs of the lanes which cross the intersection, in order. */
+  private final List<Integer> laneIds;
+
+  /** The area of the intersection. */
+  private final Area area;
+
+  /** The area of the intersection, slightly enlarged. */
+  private final Area areaPlus;
+
+  /** The compiled form of {@link #area}. */
+  private final CompiledArea compiledArea;
+
+  /** The compiled form of {@link #areaPlus}. */
+  private final CompiledArea compiledAreaPlus;
+
+  /** The bounding box of the area. */
+  private final Rectangle2D boundingBox;
+
+  /** The centroid of the area. */
+  private final Point2D centroid;
+
+  /** The edges of the bounding box of the area. */
+  private final List<Path2D> edges;
+
+  /** The entry and exit points, ordered by angle to the centroid. */
+  private final List<Point2D> points;
+
+  /** The entry points, by lane ID, in order. */
+  private final Map<Integer, WayPoint> entryPoints;
+
+  /** The exit points, by lane ID, in order. */
+  private final Map<Integer, WayPoint> exitPoints;
+
+  /** The entry headings, by lane ID. */
+  private final Map<Integer, Double> entryHeadings;
+
+  /** The exit headings, by lane ID. */
+  private final Map<Integer, Double> exitHeadings;
+
+  /**
+   * The departure lanes by priority, by the ID of the arrival lane and the
+   * index of the departure road among the roads of the intersection.
+   */
+  private final Map<Integer, Map<Integer, List<Integer>>> lanePriorities;
+
+  /**
+   * The 4-tuples of lane IDs <i>(l1, l2, l3, l4)</i> such that the track
+   * from <i>l1</i> to <i>l2</i> conflicts with the track from <i>l3</i> to
+   * <i>l4</i>.
+   */
+  private final Set<List<Integer>> laneConflicts;
+
+  /**
+   * The traversal distances, by pairs of arrival and departure lane IDs.
+   */
+  private final Map<List<Integer>, Double> traversalDistances;
+
+  /** The tiled areas of the reservation grids, by granularity. */
+  private final ConcurrentMap<Double, TiledArea> tiledAreas =
+    new ConcurrentHashMap<Double, TiledArea>();
+
+
+  /////////////////////////////////
+  // PUBLIC STATIC METHODS
+  /////////////////////////////////
+
+  /**
+   * Get the topology of the intersection of the given roads, computing it
+   * if no roads with the same geometry have been seen before.
+   *
+   * @param roads  the roads of the intersection
+   * @return the topology of the intersection
+   */
+  public static IntersectionTopology of(List<Road> roads) {
+    String key = geometryKey(roads);
+    if (key == null) {
+      // The geometry cannot be told apart from others, so do not share it
+      return new IntersectionTopology(roads, null);
+    }
+    IntersectionTopology topology;
+    synchronized (cache) {
+      topology = cache.get(key);
+    }
+    if (topology == null) {
+      // Compute it outside the lock, and keep whichever is cached first
+      topology = share(new IntersectionTopology(roads, key));
+    }
+    return topology;
+  }
+
+  /**
+   * Cache a topology unless one of the same geometry is already cached.
+   *
+   * @param topology  the topology, with a key
+   * @return the cached topology
+   */
+  private static IntersectionTopology share(IntersectionTopology topology) {
+    synchronized (cache) {
+      IntersectionTopology previous = cache.get(topology.key);
+      if (previous != null) {
+        return previous;
+      }
+      cache.put(topology.key, topology);
+      return topology;
+    }
+  }
+
+  /**
+   * Describe the geometry of a list of roads, down to the IDs, end points
+   * and widths of their lanes.
+   *
+   * @param roads  the roads
+   * @return the description, or <code>null</code> if the roads have lanes
+   *         whose shapes are not determined by their end points and width,
+   *         or lanes without a unique ID
+   */
+  private static String geometryKey(List<Road> roads) {
+    StringBuilder sb = new StringBuilder();
+    Set<Integer> ids = new HashSet<Integer>();
+    for (Road road : roads) {
+      sb.append(road.getName()).append('|').append(roads.indexOf(road.getDual()));
+      for (Lane lane : road.getLanes()) {
+        if (!(lane instanceof LineSegmentLane) || !ids.add(lane.getId())
+            || lane.getId() < 0) {
+          return null;
+        }
+        sb.append('|').append(lane.getId())
+          .append(',').append(lane.getStartPoint().getX())
+          .append(',').append(lane.getStartPoint().getY())
+          .append(',').append(lane.getEndPoint().getX())
+          .append(',').append(lane.getEndPoint().getY())
+          .append(',').append(lane.getWidth());
+      }
+      sb.append(';');
+    }
+    return sb.toString();
+  }
+
+
+  /////////////////////////////////
+  // CLASS CONSTRUCTORS
+  /////////////////////////////////
+
+  /**
+   * Compute the topology of the intersection of the given roads.
+   *
+   * @param roads  the roads of the intersection
+   * @param key    the key of the topology in the cache, or <code>null</code>
+   */
+  private IntersectionTopology(List<Road> roads, String key) {
+    this.key = key;
+    List<Lane> allLanes = new ArrayList<Lane>();
+    for (Road road : roads) {
+      allLanes.addAll(road.getLanes());
+    }
+    Area strictIntersection = findStrictIntersectionArea(roads);
+
+    // Find the lanes which cross the intersection, and where they do
+    Map<Lane,Double> entryFractions = new HashMap<Lane,Double>();
+    Map<Lane,Double> exitFractions = new HashMap<Lane,Double>();
+    List<Lane> lanes = new LinkedList<Lane>();
+    for (Line2D perimeterSegment :
+         GeomMath.polygonalShapePerimeterSegments(strictIntersection)) {
+      for (Lane lane : allLanes) {
+        List<Double> intxns = new ArrayList<Double>(3);
+        // Check the right, the left, and the center to see which is
+        // least/greatest
+        Point2D leftIntxn = lane.leftIntersectionPoint(perimeterSegment);
+        if (leftIntxn != null) {
+          intxns.add(lane.normalizedDistanceAlongLane(leftIntxn));
+        }
+        Point2D centerIntxn = lane.intersectionPoint(perimeterSegment);
+        if (centerIntxn != null) {
+          intxns.add(lane.normalizedDistanceAlongLane(centerIntxn));
+        }
+        Point2D rightIntxn = lane.rightIntersectionPoint(perimeterSegment);
+        if (rightIntxn != null) {
+          intxns.add(lane.normalizedDistanceAlongLane(rightIntxn));
+        }
+        if (!intxns.isEmpty()) {
+          lanes.add(lane);
+          double min = Collections.min(intxns);
+          if (!entryFractions.containsKey(lane) ||
+              entryFractions.get(lane) > min) {
+            entryFractions.put(lane, min);
+          }
+          double max = Collections.max(intxns);
+          if (!exitFractions.containsKey(lane) ||
+              exitFractions.get(lane) < max) {
+            exitFractions.put(lane, max);
+          }
+        }
+      }
+    }
+
+    // Extend the area out to the entry and exit points of the lanes
+    Map<Lane,WayPoint> laneEntryPoints = new LinkedHashMap<Lane,WayPoint>();
+    Map<Lane,WayPoint> laneExitPoints = new LinkedHashMap<Lane,WayPoint>();
+    Map<Integer,Double> entryHeadings = new HashMap<Integer,Double>();
+    Map<Integer,Double> exitHeadings = new HashMap<Integer,Double>();
+    Area area = new Area();
+    Area areaPlus = new Area();
+    List<Integer> laneIds = new ArrayList<Integer>(lanes.size());
+    for (Lane lane : lanes) {
+      laneIds.add(lane.getId());
+      double entryFrac, exitFrac;
+      double expansionOffset = EXPANSION_DISTANCE / lane.getLength();
+      if (strictIntersection.contains(lane.getStartPoint())) {
+        entryFrac = 0;
+      } else {
+        entryFrac = Math.max(0, entryFractions.get(lane) - expansionOffset);
+        laneEntryPoints.put(lane,
+          new WayPoint(lane.getPointAtNormalizedDistance(entryFrac)));
+        entryHeadings.put(lane.getId(),
+          lane.getHeadingAtNormalizedDistance(entryFrac));
+      }
+      if (strictIntersection.contains(lane.getEndPoint())) {
+        exitFrac = 1;
+      } else {
+        exitFrac = Math.min(1, exitFractions.get(lane) + expansionOffset);
+        laneExitPoints.put(lane,
+          new WayPoint(lane.getPointAtNormalizedDistance(exitFrac)));
+        exitHeadings.put(lane.getId(),
+          lane.getHeadingAtNormalizedDistance(exitFrac));
+      }
+      area.add(new Area(lane.getShape(entryFrac, exitFrac)));
+      areaPlus.add(new Area(lane.getShape(entryFrac - AREA_PLUS_OFFSET,
+                                          exitFrac + AREA_PLUS_OFFSET)));
+    }
+    area = GeomMath.filledArea(area);
+    areaPlus = GeomMath.filledArea(areaPlus);
+    this.centroid = GeomMath.polygonalShapeCentroid(area);
+
+    // The way points, ordered by angle to the centroid
+    SortedMap<Double, Point2D> circumferentialPointsByAngle =
+      new TreeMap<Double, Point2D>();
+    for (Point2D p : laneExitPoints.values()) {
+      circumferentialPointsByAngle.put(GeomMath.angleToPoint(p, centroid), p);
+    }
+    for (Point2D p : laneEntryPoints.values()) {
+      circumferentialPointsByAngle.put(GeomMath.angleToPoint(p, centroid), p);
+    }
+    this.points = Collections.unmodifiableList(
+      new ArrayList<Point2D>(circumferentialPointsByAngle.values()));
+    this.edges = Collections.unmodifiableList(calcEdges(area));
+    // Add the area formed by joining the way points
+    GeneralPath gp = null;
+    for (Point2D p : points) {
+      if (gp == null) {
+        gp = new GeneralPath();
+        gp.moveTo((float)p.getX(), (float)p.getY());
+      } else {
+        gp.lineTo((float)p.getX(), (float)p.getY());
+      }
+    }
+    gp.closePath();
+    area.add(new Area(gp));
+
+    this.area = area;
+    this.areaPlus = areaPlus;
+    this.boundingBox = area.getBounds2D();
+    this.compiledArea = new CompiledArea(area);
+    this.compiledAreaPlus = new CompiledArea(areaPlus);
+    this.laneIds = Collections.unmodifiableList(laneIds);
+    this.entryPoints = Collections.unmodifiableMap(byId(laneEntryPoints));
+    this.exitPoints = Collections.unmodifiableMap(byId(laneExitPoints));
+    this.entryHeadings = Collections.unmodifiableMap(entryHeadings);
+    this.exitHeadings = Collections.unmodifiableMap(exitHeadings);
+
+    // The tracks through the intersection
+    this.lanePriorities = Collections.unmodifiableMap(
+      calcLanePriorities(roads, laneEntryPoints, laneExitPoints));
+    this.laneConflicts = Collections.unmodifiableSet(
+      calcLaneConflicts(laneEntryPoints, laneExitPoints));
+    this.traversalDistances = Collections.unmodifiableMap(
+      calcTraversalDistances(laneEntryPoints, laneExitPoints));
+  }
+
+
+  /////////////////////////////////
+  // PRIVATE METHODS
+  /////////////////////////////////
+
+  /**
+   * Replace a deserialized topology, such as the one of a restored
+   * simulation snapshot, with the cached topology of the same geometry.
+   *
+   * @return the shared topology
+   */
+  private Object readResolve() {
+    if (key == null) {
+      return this;
+    }
+    return share(this);
+  }
+
+  /**
+   * Find the Area that represents the strict intersection of the given Roads,
+   * specifically the union of all areas in which there is more than one lane.
+   *
+   * @param roads a list of Roads that enter the intersection
+   * @return the area in which any two of these Roads intersect
+   */
+  private static Area findStrictIntersectionArea(List<Road> roads) {
+    List<Area> roadAreas = new ArrayList<Area>(roads.size());
+    for (Road road : roads) {
+      Area roadArea = new Area();
+      for (Lane lane : road.getLanes()) {
+        roadArea.add(new Area(lane.getShape()));
+      }
+      roadAreas.add(roadArea);
+    }
+    Area strictIntersection = new Area();
+    for (int i = 0; i < roadAreas.size(); i++) {
+      for (int j = 0; j < i; j++) {
+        // The dual of a road never intersects it
+        if (roads.get(i).getDual() != roads.get(j)) {
+          Area ixn = new Area(roadAreas.get(i));
+          ixn.intersect(roadAreas.get(j));
+          strictIntersection.add(ixn);
+        }
+      }
+    }
+    return strictIntersection;
+  }
+
+  /**
+   * Calculate the edges of the bounding box of an area.
+   *
+   * @param area  the area
+   * @return the edges
+   */
+  private static List<Path2D> calcEdges(Area area) {
+    List<Path2D> edges = new ArrayList<Path2D>();
+    PathIterator iter = area.getBounds2D().getPathIterator(null);
+    double[] coords = new double[6];
+    double px = 0, py = 0;
+    while (!iter.isDone()) {
+      int type = iter.currentSegment(coords);
+      switch (type) {
+      case PathIterator.SEG_MOVETO:
+        px = coords[0];
+        py = coords[1];
+        break;
+      case PathIterator.SEG_LINETO:
+        Path2D edge = new Path2D.Double();
+        edge.moveTo(px, py);
+        edge.lineTo(coords[0], coords[1]);
+        px = coords[0];
+        py = coords[1];
+        edges.add(edge);
+        break;
+      case PathIterator.SEG_CLOSE:
+        break;
+      default:
+        throw new RuntimeException("IntersectionTopology::calcEdges(): " +
+                                   "unknown path iterator type.");
+      }
+      iter.next();
+    }
+    return edges;
+  }
+
+  /**
+   * Key a map by the IDs of the lanes.
+   *
+   * @param byLane  the map, by lane
+   * @return the map, by lane ID, in the same order
+   */
+  private static <T> Map<Integer, T> byId(Map<Lane, T> byLane) {
+    Map<Integer, T> result = new LinkedHashMap<Integer, T>();
+    for (Map.Entry<Lane, T> entry : byLane.entrySet()) {
+      result.put(entry.getKey().getId(), entry.getValue());
+    }
+    return result;
+  }
+
+  /**
+   * For each pair of an entry lane and an exit road, sort the lanes of the
+   * road by the distance from their exit points to the entry point of the
+   * entry lane.
+   *
+   * @param roads       the roads of the intersection
+   * @param entryPoints the entry points, by lane
+   * @param exitPoints  the exit points, by lane
+   * @return the sorted lane IDs, by entry lane ID and index of the exit road
+   */
+  private static Map<Integer, Map<Integer, List<Integer>>> calcLanePriorities(
+      List<Road> roads,
+      Map<Lane, WayPoint> entryPoints,
+      final Map<Lane, WayPoint> exitPoints) {
+    // The exit roads, in the order in which the intersection lists them
+    List<Road> exitRoads = new ArrayList<Road>();
+    for (Lane lane : exitPoints.keySet()) {
+      Road road = Debug.currentMap.getRoad(lane);
+      if (!exitRoads.contains(road)) {
+        exitRoads.add(road);
+      }
+    }
+    Map<Integer, Map<Integer, List<Integer>>> result =
+      new HashMap<Integer, Map<Integer, List<Integer>>>();
+    for (Lane entryLane : entryPoints.keySet()) {
+      final Point2D entry = entryPoints.get(entryLane);
+      Map<Integer, List<Integer>> exitPriorities =
+        new HashMap<Integer, List<Integer>>();
+      for (Road exitRoad : exitRoads) {
+        List<Lane> exitLanes = new ArrayList<Lane>(exitRoad.getLanes());
+        Collections.sort(exitLanes, new Comparator<Lane>() {
+          @Override
+          public int compare(Lane l1, Lane l2) {
+            if (!exitPoints.containsKey(l1) || !exitPoints.containsKey(l2)) {
+              throw new IllegalArgumentException("Both lanes being compared" +
+                                                 " must exit this intersection!");
+            }
+            return Double.compare(entry.distance(exitPoints.get(l1)),
+                                  entry.distance(exitPoints.get(l2)));
+          }
+        });
+        List<Integer> exitLaneIds = new ArrayList<Integer>(exitLanes.size());
+        for (Lane lane : exitLanes) {
+          exitLaneIds.add(lane.getId());
+        }
+        exitPriorities.put(roads.indexOf(exitRoad),
+                           Collections.unmodifiableList(exitLaneIds));
+      }
+      result.put(entryLane.getId(), Collections.unmodifiableMap(exitPriorities));
+    }
+    return result;
+  }
+
+  /**
+   * Given two Lanes, return a List of line segments that describe the track
+   * from the entry point of the first Lane to the intersection with the
+   * second Lane, to the exit point of the second Lane.
+   *
+   * @param l1          the lane entering the intersection
+   * @param l2          the lane exiting the intersection
+   * @param entryPoints the entry points, by lane
+   * @param exitPoints  the exit points, by lane
+   * @return the line segments comprising the track
+   */
+  private static List<Line2D> inIntersectionSegments(
+      Lane l1, Lane l2,
+      Map<Lane, WayPoint> entryPoints, Map<Lane, WayPoint> exitPoints) {
+    List<Line2D> segments = new ArrayList<Line2D>();
+    if (l1 == l2) {
+      segments.add(new Line2D.Double(entryPoints.get(l1), exitPoints.get(l2)));
+    } else {
+      Point2D l1End = exitPoints.containsKey(l1) ? exitPoints.get(l1)
+                                                 : l1.getEndPoint();
+      Point2D l2Start = entryPoints.containsKey(l2) ? entryPoints.get(l2)
+                                                    : l2.getStartPoint();
+      Line2D l1InIntersection = new Line2D.Double(entryPoints.get(l1), l1End);
+      Line2D l2InIntersection = new Line2D.Double(l2Start, exitPoints.get(l2));
+      // If they intersect, go through the point of intersection; otherwise
+      // conservatively take both segments
+      if (l1InIntersection.intersectsLine(l2InIntersection)) {
+        Point2D ixn = GeomMath.findLineLineIntersection(l1InIntersection,
+                                                        l2InIntersection);
+        segments.add(new Line2D.Double(entryPoints.get(l1), ixn));
+        segments.add(new Line2D.Double(ixn, exitPoints.get(l2)));
+      } else {
+        segments.add(l1InIntersection);
+        segments.add(l2InIntersection);
+      }
+    }
+    return segments;
+  }
+
+  /**
+   * Find the pairs of tracks through the intersection which conflict.
+   *
+   * @param entryPoints the entry points, by lane
+   * @param exitPoints  the exit points, by lane
+   * @return the 4-tuples of lane IDs of the conflicting tracks
+   */
+  private static Set<List<Integer>> calcLaneConflicts(
+      Map<Lane, WayPoint> entryPoints, Map<Lane, WayPoint> exitPoints) {
+    Set<List<Integer>> laneConflicts = new HashSet<List<Integer>>();
+    for (Lane l11 : entryPoints.keySet()) {
+      for (Lane l12 : exitPoints.keySet()) {
+        List<Line2D> l1Segments =
+          inIntersectionSegments(l11, l12, entryPoints, exitPoints);
+        for (Lane l21 : entryPoints.keySet()) {
+          for (Lane l22 : exitPoints.keySet()) {
+            List<Integer> key = Arrays.asList(l11.getId(), l12.getId(),
+                                              l21.getId(), l22.getId());
+            if (l11 == l21 || l12 == l22) {
+              laneConflicts.add(key);
+            } else {
+              List<Line2D> l2Segments =
+                inIntersectionSegments(l21, l22, entryPoints, exitPoints);
+              findConflict: for (Line2D l1Seg : l1Segments) {
+                for (Line2D l2Seg : l2Segments) {
+                  if (l1Seg.intersectsLine(l2Seg)) {
+                    laneConflicts.add(key);
+                    break findConflict;
+                  }
+                }
+              }
+            }
+          }
+        }
+      }
+    }
+    return laneConflicts;
+  }
+
+  /**
+   * Compute the length of every track from an entry lane to an exit lane.
+   *
+   * @param entryPoints the entry points, by lane
+   * @param exitPoints  the exit points, by lane
+   * @return the lengths, by pair of entry and exit lane IDs
+   */
+  private static Map<List<Integer>, Double> calcTraversalDistances(
+      Map<Lane, WayPoint> entryPoints, Map<Lane, WayPoint> exitPoints) {
+    Map<List<Integer>, Double> distances = new HashMap<List<Integer>, Double>();
+    for (Lane arrival : entryPoints.keySet()) {
+      for (Lane departure : exitPoints.keySet()) {
+        double totalDistance = 0;
+        for (Line2D line : inIntersectionSegments(arrival, departure,
+                                                  entryPoints, exitPoints)) {
+          totalDistance += line.getP1().distance(line.getP2());
+        }
+        distances.put(Arrays.asList(arrival.getId(), departure.getId()),
+                      totalDistance);
+      }
+    }
+    return distances;
+  }
+
+
+  /////////////////////////////////
+  // PUBLIC METHODS
+  /////////////////////////////////
+
+  /**
+   * Get the IDs of the lanes which cross the intersection.
+   *
+   * @return the IDs of the lanes, in order
+   */
+  public List<Integer> getLaneIds() {
+    return laneIds;
+  }
+
+  /**
+   * Get the area of the intersection.
+   *
+   * @return the area of the intersection
+   */
+  public Area getArea() {
+    return area;
+  }
+
+  /**
+   * Get the slightly enlarged area of the intersection.
+   *
+   * @return the enlarged area of the intersection
+   */
+  public Area getAreaPlus() {
+    return areaPlus;
+  }
+
+  /**
+   * Get the compiled form of the area of the intersection.
+   *
+   * @return the compiled area
+   */
+  public CompiledArea getCompiledArea() {
+    return compiledArea;
+  }
+
+  /**
+   * Get the compiled form of the enlarged area of the intersection.
+   *
+   * @return the compiled enlarged area
+   */
+  public CompiledArea getCompiledAreaPlus() {
+    return compiledAreaPlus;
+  }
+
+  /**
+   * Get the bounding box of the intersection.
+   *
+   * @return the bounding box
+   */
+  public Rectangle2D getBoundingBox() {
+    return boundingBox;
+  }
+
+  /**
+   * Get the centroid of the intersection.
+   *
+   * @return the centroid
+   */
+  public Point2D getCentroid() {
+    return centroid;
+  }
+
+  /**
+   * Get the edges of the bounding box of the intersection.
+   *
+   * @return the edges
+   */
+  public List<Path2D> getEdges() {
+    return edges;
+  }
+
+  /**
+   * Get the entry points, by lane ID.
+   *
+   * @return the entry points, in the order of the lanes
+   */
+  public Map<Integer, WayPoint> getEntryPoints() {
+    return entryPoints;
+  }
+
+  /**
+   * Get the exit points, by lane ID.
+   *
+   * @return the exit points, in the order of the lanes
+   */
+  public Map<Integer, WayPoint> getExitPoints() {
+    return exitPoints;
+  }
+
+  /**
+   * Get the entry headings, by lane ID.
+   *
+   * @return the entry headings
+   */
+  public Map<Integer, Double> getEntryHeadings() {
+    return entryHeadings;
+  }
+
+  /**
+   * Get the exit headings, by lane ID.
+   *
+   * @return the exit headings
+   */
+  public Map<Integer, Double> getExitHeadings() {
+    return exitHeadings;
+  }
+
+  /**
+   * Get the IDs of the lanes of a departure road, in the order in which a
+   * vehicle arriving in the given lane should try to turn into them.
+   *
+   * @param arrivalLaneId  the ID of the arrival lane
+   * @param departureRoad  the index of the departure road among the roads
+   *                       of the intersection
+   * @return the IDs of the departure lanes, or <code>null</code> if the
+   *         arrival lane does not enter the intersection
+   */
+  public List<Integer> getSortedDepartureLaneIds(int arrivalLaneId,
+                                                 int departureRoad) {
+    Map<Integer, List<Integer>> exitPriorities =
+      lanePriorities.get(arrivalLaneId);
+    return exitPriorities == null ? null : exitPriorities.get(departureRoad);
+  }
+
+  /**
+   * Determine whether two tracks through the intersection conflict.
+   *
+   * @param l11 the ID number of the entry lane for the first trajectory
+   * @param l12 the ID number of the exit lane for the first trajectory
+   * @param l21 the ID number of the entry lane for the second trajectory
+   * @param l22 the ID number of the exit lane for the second trajectory
+   * @return    whether the trajectories specified conflict
+   */
+  public boolean trajectoriesConflict(int l11, int l12, int l21, int l22) {
+    return laneConflicts.contains(Arrays.asList(l11, l12, l21, l22));
+  }
+
+  /**
+   * Get the length of the track from the entry point of a lane to the exit
+   * point of another.
+   *
+   * @param arrivalId    the ID of the arrival lane
+   * @param departureId  the ID of the departure lane
+   * @return the length of the track
+   * @throws IllegalArgumentException if the arrival lane does not enter the
+   *         intersection or the departure lane does not exit it
+   */
+  public double traversalDistance(int arrivalId, int departureId) {
+    Double distance = traversalDistances.get(Arrays.asList(arrivalId,
+                                                           departureId));
+    if (distance == null) {
+      throw new IllegalArgumentException("There is no track from lane " +
+                                         arrivalId + " to lane " +
+                                         departureId + ".");
+    }
+    return distance;
+  }
+
+  /**
+   * Get the tiled area of a reservation grid of the intersection.
+   *
+   * @param granularity  the length of the sides of the tiles
+   * @return the tiled area
+   */
+  public TiledArea getTiledArea(double granularity) {
+    TiledArea tiledArea = tiledAreas.get(granularity);
+    if (tiledArea == null) {
+      tiledArea = new TiledArea(area, granularity);
+      TiledArea previous = tiledAreas.putIfAbsent(granularity, tiledArea);
+      if (previous != null) {
+        tiledArea = previous;
+      }
+    }
+    return tiledArea;
+  }
+}
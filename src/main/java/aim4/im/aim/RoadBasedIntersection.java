@@ -31,28 +31,23 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 package aim4.im.aim;
 
 import java.awt.geom.Area;
-import java.awt.geom.GeneralPath;
-import java.awt.geom.Line2D;
 import java.awt.geom.Path2D;
-import java.awt.geom.PathIterator;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
 
 import aim4.config.Debug;
 import aim4.config.Constants.TurnDirection;
 import aim4.map.Road;
 import aim4.map.lane.Lane;
 import aim4.map.track.WayPoint;
+import aim4.util.CompiledArea;
 import aim4.util.GeomMath;
+import aim4.util.TiledArea;
 import aim4.util.Util;
 
 
@@ -60,6 +55,7 @@ import aim4.util.Util;
  * An intersection that is defined by the intersection of a set of roads.
  */
 public class RoadBasedIntersection implements Intersection {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // CONSTANTS
@@ -72,50 +68,20 @@ public class RoadBasedIntersection implements Intersection {
    */
   public static final double EXPANSION_DISTANCE = 4; // meters
 
-  /**
-   * A small increase in size of the area such that the simulator can
-   * determine whether a vehicle is close enough to the intersection.
-   */
-  private static final double AREA_PLUS_OFFSET = 0.000001;
-
-
   /////////////////////////////////
   // PRIVATE FIELDS
   /////////////////////////////////
 
   /**
-   * The space governed by this intersection manager.
-   */
-  private Area area;
-
-  /**
-   * An area slightly larger than the area of the intersection.
-   */
-  private Area areaPlus;
-
-  /**
-   * The smallest rectangle that contains this intersection.
+   * The compiled topology of the intersection, shared by all the
+   * intersections with the same geometry.
    */
-  private Rectangle2D boundingBox;
-
-  /**
-   * The centroid of this intersection.
-   */
-  private Point2D centroid;
-
-
-  // edge
-
-  /**
-   * A list of edges of the area.
-   */
-  private List<Path2D> edges = new ArrayList<Path2D>();
-
+  private IntersectionTopology topology;
 
   // road
 
   /** The roads incident to this intersection. */
-  private List<Road> roads = new ArrayList<Road>();
+  private List<Road> roads;
 
   /** The entry roads incidents to this intersection. */
   private List<Road> entryRoads = new ArrayList<Road>();
@@ -127,19 +93,7 @@ public class RoadBasedIntersection implements Intersection {
   // lanes
 
   /** The lanes incident to this intersection. */
-  private List<Lane> lanes = new ArrayList<Lane>();
-
-  // points
-
-  /**
-   * A list of the waypoints where lanes either enter or exit the intersection,
-   * ordered by angle from the centroid.
-   */
-  private List<Point2D> points = new ArrayList<Point2D>();
-
-  // heading
-
-  private Map<Lane,Double> headings = new HashMap<Lane,Double>();
+  private List<Lane> lanes;
 
   // cache
 
@@ -175,269 +129,54 @@ public class RoadBasedIntersection implements Intersection {
   /**
    * Basic class constructor.  Takes the Roads for which
    * an IntersectionManager is needed and extracts all the necessary
-   * information.
+   * information.  The geometry is only computed the first time roads
+   * with this geometry are seen; see {@link IntersectionTopology}.
    *
    * @param roads a list of Roads whose intersection this IntersectionManager
    *              will manage
    */
   public RoadBasedIntersection(List<Road> roads) {
-    this.roads = roads;
-    // Get the list of Lanes we are using.
-    extractLanes(roads);
-    // Now get the entry and exit points for each of the lanes.
-    establishEntryAndExitPoints(findStrictIntersectionArea(roads));
-    // Find the centroid of the intersection
-    centroid = GeomMath.polygonalShapeCentroid(area);
-    // Calculate the waypoints.
-    calcWayPoints();
-    // calculate the edges
-    calcEdges();
-    // Now build a GeneralPath using the waypoints.
-    addWayPointsPath();
-    // Calculate the bounding box
-    boundingBox = area.getBounds2D();
-
-    calcEntryRoads();
-    calcExitRoads();
+    this(roads, IntersectionTopology.of(roads));
   }
 
-  /////////////////////////////////
-  // PRIVATE METHODS
-  /////////////////////////////////
-
   /**
-   * Given a List of Roads, pull out all the individual lanes.
+   * Create an intersection of the given Roads with a compiled topology.
    *
-   * @param roads a list of Roads
+   * @param roads     a list of Roads whose intersection this
+   *                  IntersectionManager will manage
+   * @param topology  the topology of the intersection of roads with the
+   *                  same geometry
    */
-  private void extractLanes(List<Road> roads) {
-    for(Road road : roads) {
-      for(Lane lane : road.getLanes()) {
-        lanes.add(lane);
-      }
-    }
-  }
-
-  /**
-   * Find the Area that represents the strict intersection of the given Roads,
-   * specifically the union of all areas in which there is more than one lane.
-   *
-   * @param roads a list of Roads that enter the intersection
-   * @return the area in which any two of these Roads intersect
-   */
-  private Area findStrictIntersectionArea(List<Road> roads) {
-    // Lanes in the same road should never intersect. So use the union of
-    // their shapes. Then find the pairwise intersections of all the roads,
-    // and union all of that.
-    // Create a place to store the Areas for each road
-    List<Area> roadAreas = new ArrayList<Area>(roads.size());
+  public RoadBasedIntersection(List<Road> roads,
+                               IntersectionTopology topology) {
+    this.roads = roads;
+    this.topology = topology;
+    // Bind the lane IDs of the topology to the lanes of these roads
+    Map<Integer,Lane> lanesById = new HashMap<Integer,Lane>();
     for(Road road : roads) {
-      Area roadArea = new Area();
-      // Find the union of the shapes of the lanes for each road
       for(Lane lane : road.getLanes()) {
-        // Add the area from each constituent lane
-        roadArea.add(new Area(lane.getShape()));
-      }
-      roadAreas.add(roadArea);
-    }
-    // Now we have the Areas for each road, we need to find the union of the
-    // pairwise intersections
-    Area strictIntersection = new Area();
-    for(int i = 0; i < roadAreas.size(); i++) {
-      // Want to make sure we only do the cases where j < i, i.e. don't do
-      // both (i,j) and (j,i).
-      for(int j = 0; j < i; j++) {
-        // If the ith road and jth road are the duals of each other, there
-        // won't be an intersection
-        if(roads.get(i).getDual() != roads.get(j)) {
-          // Now add the intersection of roads i and j
-          // Make a copy because intersect is destructive
-          Area ixn = new Area(roadAreas.get(i));
-          ixn.intersect(roadAreas.get(j));
-          strictIntersection.add(ixn);
-        }
-      }
-    }
-    return strictIntersection;
-  }
-
-
-  /**
-   * Determine the points at which each Lane enters or exits the intersection
-   * and record them, along with the headings of the Lanes at those points.
-   * Also, extend the space governed by the IntersectionManager to include
-   * the each Lane out to these points.
-   */
-  private void establishEntryAndExitPoints(Area strictIntersection) {
-    Map<Lane,Double> entryFractions = new HashMap<Lane,Double>();
-    Map<Lane,Double> exitFractions = new HashMap<Lane,Double>();
-    List<Lane> intersectingLanes = new LinkedList<Lane>();
-    List<Line2D> perimeterSegments =
-      GeomMath.polygonalShapePerimeterSegments(strictIntersection);
-    // Now for each segment in the perimeter...
-    for(Line2D perimeterSegment : perimeterSegments) {
-      // Check each lane's intersections
-      for(Lane lane: lanes) {
-        List<Double> intxns = new ArrayList<Double>(3);
-        // Check the right, the left, and the center to see which is
-        // least/greatest
-        Point2D leftIntxn = lane.leftIntersectionPoint(perimeterSegment);
-        if(leftIntxn != null) {
-          intxns.add(lane.normalizedDistanceAlongLane(leftIntxn));
-        }
-        Point2D centerIntxn = lane.intersectionPoint(perimeterSegment);
-        if(centerIntxn != null) {
-          intxns.add(lane.normalizedDistanceAlongLane(centerIntxn));
-        }
-        Point2D rightIntxn = lane.rightIntersectionPoint(perimeterSegment);
-        if(rightIntxn != null) {
-          intxns.add(lane.normalizedDistanceAlongLane(rightIntxn));
-        }
-        // Now check against what we have, if anything hit
-        if (!intxns.isEmpty()) {
-          // This is an intersecting lane!
-          intersectingLanes.add(lane);
-          // First check entry point
-          // Find the one of these that is closest to the start of the lane
-          double min = Collections.min(intxns);
-          if (!entryFractions.containsKey(lane) ||
-             entryFractions.get(lane) > min) {
-            // This is the new smallest entry point
-            entryFractions.put(lane, min);
-          }
-          // Next check exit point
-          // Find the one that is furthest from the start of the lane
-          double max = Collections.max(intxns);
-          if (!exitFractions.containsKey(lane) ||
-             exitFractions.get(lane) < max) {
-            // This is the new largest exit point
-            exitFractions.put(lane, max);
-          }
-        }
+        lanesById.put(lane.getId(), lane);
       }
     }
-
-    // We now know which lanes actually intersect the intersection, so we can
-    // get rid of the ones that don't
-    // Now just replace the list of lanes with the intersecting ones
-    lanes = intersectingLanes;  // BAM!
-
-    // Okay, now we have the "true" entry and exit points for each lane, so
-    // let's set up everything we know: the true managed area, the actual
-    // exit and entry points
-    this.area = new Area(); // This is the "official" area
-    this.areaPlus = new Area();  // This is a slightly enlarged version
-                                 // of the area
-    // For each lane managed by this intersection manager...
-    for(Lane lane : lanes) {
-      // Lane might start or end inside the intersection
-      double entryFrac, exitFrac;
-      // The amount to offset each entry/exit point by to make room for
-      // things like crosswalks
-      double expansionOffset = EXPANSION_DISTANCE / lane.getLength();
-      // If a lane has a starting point inside the intersection, it has no
-      // entry point
-      if (strictIntersection.contains(lane.getStartPoint())) {
-        entryFrac = 0;
-      } else {
-        entryFrac = Math.max(0, entryFractions.get(lane) - expansionOffset);
-        this.entryPoints.put(lane,
-          new WayPoint(lane.getPointAtNormalizedDistance(entryFrac)));
-        this.entryHeadings.put(lane,
-          lane.getHeadingAtNormalizedDistance(entryFrac));
-      }
-      // If a lane has an ending point inside the intersection, it has no
-      // exit point.
-      if(strictIntersection.contains(lane.getEndPoint())) {
-        exitFrac = 1;
-      } else {
-        exitFrac = Math.min(1, exitFractions.get(lane) + expansionOffset);
-        this.exitPoints.put(lane,
-          new WayPoint(lane.getPointAtNormalizedDistance(exitFrac)));
-        this.exitHeadings.put(lane,
-          lane.getHeadingAtNormalizedDistance(exitFrac));
-      }
-      // Add the area between its true entry point and its exit point
-      this.area.add(new Area(lane.getShape(entryFrac, exitFrac)));
-      this.areaPlus.add(new Area(lane.getShape(entryFrac - AREA_PLUS_OFFSET,
-                                               exitFrac + AREA_PLUS_OFFSET)));
+    lanes = new ArrayList<Lane>(topology.getLaneIds().size());
+    for(int laneId : topology.getLaneIds()) {
+      lanes.add(lanesById.get(laneId));
     }
-    // Fill in any of the holes
-    area = GeomMath.filledArea(area);
-    areaPlus = GeomMath.filledArea(areaPlus);
-  }
-
-  /**
-   * Calculate the list of points, ordered by angle to the centroid, where
-   * Lanes either enter or exit the intersection.
-   */
-  private void calcWayPoints() {
-    SortedMap<Double, Point2D> circumferentialPointsByAngle =
-      new TreeMap<Double, Point2D>();
-    for(Point2D p : exitPoints.values()) {
-      circumferentialPointsByAngle.put(GeomMath.angleToPoint(p,centroid),p);
+    for(Map.Entry<Integer,WayPoint> entry :
+        topology.getEntryPoints().entrySet()) {
+      Lane lane = lanesById.get(entry.getKey());
+      entryPoints.put(lane, entry.getValue());
+      entryHeadings.put(lane, topology.getEntryHeadings().get(entry.getKey()));
     }
-    for(Point2D p : entryPoints.values()) {
-      circumferentialPointsByAngle.put(GeomMath.angleToPoint(p,centroid),p);
+    for(Map.Entry<Integer,WayPoint> entry :
+        topology.getExitPoints().entrySet()) {
+      Lane lane = lanesById.get(entry.getKey());
+      exitPoints.put(lane, entry.getValue());
+      exitHeadings.put(lane, topology.getExitHeadings().get(entry.getKey()));
     }
-    for(Point2D p : circumferentialPointsByAngle.values()) {
-      points.add(p);
-    }
-  }
 
-  /**
-   * Calculate the list of edges.
-   */
-  private void calcEdges() {
-    // TODO: need to fix this problem.
-    PathIterator iter = area.getBounds2D().getPathIterator(null);
-    double[] coords = new double[6];
-
-    double px = 0, py = 0;
-    Path2D edge = null;
-
-    while(!iter.isDone()) {
-       int type = iter.currentSegment(coords);
-      switch(type) {
-      case PathIterator.SEG_MOVETO:
-        assert edge == null;
-        px = coords[0];
-        py = coords[1];
-        break;
-      case PathIterator.SEG_LINETO:
-        edge = new Path2D.Double();
-        edge.moveTo(px, py);
-        edge.lineTo(coords[0], coords[1]);
-        px = coords[0];
-        py = coords[1];
-        edges.add(edge);
-        break;
-      case PathIterator.SEG_CLOSE:
-        break;
-      default:
-        throw new RuntimeException("RoadBasedIntersection::calcEdges(): " +
-                                   "unknown path iterator type.");
-      }
-      iter.next();
-    }
-  }
-
-  /**
-   * Take the Area formed by joining the circumferential points and add it
-   * to the area of the intersection.
-   */
-  private void addWayPointsPath() {
-    GeneralPath gp = null;
-    for(Point2D p : points) {
-      if(gp == null) {
-        gp = new GeneralPath();
-        gp.moveTo((float)p.getX(),(float)p.getY());
-      } else {
-        gp.lineTo((float)p.getX(),(float)p.getY());
-      }
-    }
-    gp.closePath();
-    area.add(new Area(gp));
+    calcEntryRoads();
+    calcExitRoads();
   }
 
   /////////////////////////////////
@@ -471,7 +210,7 @@ public class RoadBasedIntersection implements Intersection {
    */
   @Override
   public Area getArea() {
-    return area;
+    return topology.getArea();
   }
 
   /**
@@ -482,7 +221,23 @@ public class RoadBasedIntersection implements Intersection {
    */
   @Override
   public Area getAreaPlus() {
-    return areaPlus;
+    return topology.getAreaPlus();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public CompiledArea getCompiledArea() {
+    return topology.getCompiledArea();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public CompiledArea getCompiledAreaPlus() {
+    return topology.getCompiledAreaPlus();
   }
 
   /**
@@ -492,7 +247,7 @@ public class RoadBasedIntersection implements Intersection {
    */
   @Override
   public Point2D getCentroid() {
-    return centroid;
+    return topology.getCentroid();
   }
 
   /**
@@ -502,7 +257,7 @@ public class RoadBasedIntersection implements Intersection {
    */
   @Override
   public Rectangle2D getBoundingBox() {
-    return boundingBox;
+    return topology.getBoundingBox();
   }
 
   /**
@@ -511,7 +266,27 @@ public class RoadBasedIntersection implements Intersection {
    * @return the list of edges
    */
   public List<Path2D> getEdges() {
-    return edges;
+    return topology.getEdges();
+  }
+
+  /**
+   * Get the compiled topology of the intersection.
+   *
+   * @return the topology of the intersection
+   */
+  public IntersectionTopology getTopology() {
+    return topology;
+  }
+
+  /**
+   * Get the tiled area of a reservation grid of the intersection, which is
+   * shared by the intersections with the same topology.
+   *
+   * @param granularity  the length of the sides of the tiles
+   * @return the tiled area
+   */
+  public TiledArea getTiledArea(double granularity) {
+    return topology.getTiledArea(granularity);
   }
 
   /**
@@ -30,86 +30,20 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package aim4.im.aim;
 
-import java.awt.geom.Line2D;
-import java.awt.geom.Point2D;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
-import aim4.config.Debug;
 import aim4.map.Road;
 import aim4.map.lane.Lane;
-import aim4.util.GeomMath;
 
 
 /**
  * A track model for road based intersections
  */
 public class RoadBasedTrackModel implements TrackModel {
-
-  /////////////////////////////////
-  // NESTED CLASSES
-  /////////////////////////////////
-
-  // It is really sad that I have to do this...
-
-  /**
-   * A comparator to sort Lanes by the distance from the point they exit the
-   * intersection to the point at which a given Lane enters the intersection.
-   * This is so that we can determine which exit lane represents the shortest
-   * path through the intersection, given some entry lane.
-   */
-  private class ExitPointDistanceComparator implements Comparator<Lane> {
-
-      /**
-       * The point at which the given Lane enters this intersection.
-       */
-      private Point2D entry;
-
-      /**
-       * Class constructor that takes the lane at which a vehicle will
-       * enter the intersection and constructs a comparator to compare
-       * the distances from the exit points of various lanes to the
-       * entry point of this lane into this intersection.
-       *
-       * @param entryLane the Lane from whose entry point into this
-       *                  intersection we want to compare distances
-       */
-      public ExitPointDistanceComparator(Lane entryLane) {
-        entry = intersection.getEntryPoint(entryLane);
-      }
-
-      /**
-       * Given two lanes, compare them based on the distance from their
-       * exit points in this intersection to the entry point of the Lane
-       * around which this instance was constructed.
-       *
-       * @param l1 the first Lane
-       * @param l2 the second Lane
-       * @return   -1, 0, or 1, depending on whether the entry point of the
-       *            Lane around which the instance was constructed to the exit
-       *            point of <code>l1</code> is nearer, the same distance,
-       *            or further from the the exit point of <code>l2</code>,
-       *            respectively
-       */
-    @Override
-      public int compare(Lane l1, Lane l2) {
-        if(!intersection.isExitedBy(l1) || !intersection.isExitedBy(l2)) {
-          throw new IllegalArgumentException("Both lanes being compared" +
-                                             " must exit this intersection!");
-        }
-        Point2D l1Exit = intersection.getExitPoint(l1);
-        Point2D l2Exit = intersection.getExitPoint(l2);
-        return Double.compare(entry.distance(l1Exit), entry.distance(l2Exit));
-      }
-  }
-
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // PRIVATE FIELDS
@@ -120,6 +54,12 @@ public class RoadBasedTrackModel implements TrackModel {
    */
   private RoadBasedIntersection intersection;
 
+  /**
+   * The compiled topology of the intersection, which holds the conflicts
+   * between the tracks and their lengths.
+   */
+  private IntersectionTopology topology;
+
   /**
    * A map from ordered pairs of (Lane, Road) (implemented as a map to a map)
    * to an ordered List of Lanes indicating the priority of other Lanes in the
@@ -136,21 +76,6 @@ public class RoadBasedTrackModel implements TrackModel {
   private Map<Lane, Map<Road, List<Lane>>> lanePriorities =
     new HashMap<Lane, Map<Road, List<Lane>>>();
 
-  /**
-   * Memoization cache for {@link #traversalDistance(Road arrival, Road
-   * departure)}.
-   */
-  private Map<List<Integer>, Double> memoTraversalDistance =
-    new HashMap<List<Integer>, Double>();
-
-  // TODO: remove this variable
-  /**
-   * A set of 4-tuples of lanes IDs such that if the tuple
-   * <i>(l1, l2, l3, l4)</i> is in the set, the track from lane <i>l1</i> to
-   * lane </i>l2</i> conflicts with the track from lane <i>l3</i> to <i>l4</i>.
-   */
-  private Set<List<Integer>> laneConflicts = new HashSet<List<Integer>>();
-
 
   /////////////////////////////////
   // CLASS CONSTRUCTORS
@@ -158,159 +83,37 @@ public class RoadBasedTrackModel implements TrackModel {
 
   /**
    * Basic class constructor.  Takes an lane-based intersection and construct
-   * a track model for the intersection.
+   * a track model for the intersection.  The tracks are computed with the
+   * topology of the intersection, so this only binds them to its lanes.
    *
    * @param intersection  a lane-based intersection.
    */
   public RoadBasedTrackModel(RoadBasedIntersection intersection) {
     this.intersection = intersection ;
-    // Determine the priorities for exit lanes
-    calculateLanePriorities();
-    calculateLaneConflicts(); // TODO remove this function
-  }
-
-  /////////////////////////////////
-  // PRIVATE METHODS
-  /////////////////////////////////
-
-  /**
-   * Given the current set of Lanes, calculate the turning lane priorities.
-   * That is, for each ordered pair of Lanes, determine which other Lanes
-   * in the second Lane's are viable exit Lanes (in the same Road) and order
-   * them based on distance from the first Lane.
-   */
-  private void calculateLanePriorities() {
+    this.topology = intersection.getTopology();
+    // Bind the priorities for exit lanes to the lanes of the intersection
+    List<Road> roads = intersection.getRoads();
+    Map<Integer, Lane> lanesById = new HashMap<Integer, Lane>();
+    for(Road road : roads) {
+      for(Lane lane : road.getLanes()) {
+        lanesById.put(lane.getId(), lane);
+      }
+    }
     for(Lane entryLane : intersection.getEntryLanes()) {
       Map<Road, List<Lane>> exitPriorities = new HashMap<Road, List<Lane>>();
-      // Point2D entryPoint = intersection.getEntryPoint(entryLane);
       for(Road exitRoad : intersection.getExitRoads()) {
-        // We're going to sort all the potential exit lanes by distance from
-        // the entry lane
-        // We have to make a copy so that we can sort it
-        List<Lane> exitLanes = new ArrayList<Lane>(exitRoad.getLanes());
-        // Now we should have all the lanes that exit in e's Road
-        // Sort them by distance of exit point to entrance point of entryLane
-        Comparator<Lane> c = new ExitPointDistanceComparator(entryLane);
-        Collections.sort(exitLanes, c);
-        // Now put them in the list for entryLane
+        List<Integer> exitLaneIds = topology.getSortedDepartureLaneIds(
+          entryLane.getId(), roads.indexOf(exitRoad));
+        List<Lane> exitLanes = new ArrayList<Lane>(exitLaneIds.size());
+        for(int laneId : exitLaneIds) {
+          exitLanes.add(lanesById.get(laneId));
+        }
         exitPriorities.put(exitRoad, exitLanes);
       }
-      // Now that we've built up the exit priorities for this
-      // lane, add it
       lanePriorities.put(entryLane, exitPriorities);
     }
   }
 
-
-  /**
-   * Given two Lanes, return a List of line segments that describe the track
-   * from the entry point of the first Lane to the intersection with the
-   * second Lane, to the exit point of the second Lane.
-   *
-   * @param l1 the lane entering the intersection
-   * @param l2 the lane exiting the intersection
-   * @return   the line segments comprising the track from the entry point of
-   *           the first Lane to the intersection with the second Lane to the
-   *           exit point of the second Lane.
-   */
-  private List<Line2D> inIntersectionSegments(Lane l1, Lane l2) {
-    // This will store the answer
-    List<Line2D> segments = new ArrayList<Line2D>();
-    if(l1 == l2) {
-      // Same lane, so only segment is a line from the entry point to
-      // the exit point
-      segments.add(new Line2D.Double(intersection.getEntryPoint(l1),
-                                     intersection.getExitPoint(l2)));
-    } else {
-      // Otherwise, we need to consider both
-      // Find out which parts of each are in the intersection
-      Point2D l1End, l2Start;
-      if(intersection.isExitedBy(l1)) {
-        l1End = intersection.getExitPoint(l1);
-      } else {
-        l1End = l1.getEndPoint();
-      }
-      if(intersection.isEnteredBy(l2)) {
-        l2Start = intersection.getEntryPoint(l2);
-      } else {
-        l2Start = l2.getStartPoint();
-      }
-      Line2D l1InIntersection =
-        new Line2D.Double(intersection.getEntryPoint(l1), l1End);
-      Line2D l2InIntersection =
-        new Line2D.Double(l2Start, intersection.getExitPoint(l2));
-      // If they intersect, we take the segment from the entry point of
-      // the first to the intersection and the segment from the intersection
-      // to the exit point of the second
-      if(l1InIntersection.intersectsLine(l2InIntersection)) {
-        Point2D ixn = GeomMath.findLineLineIntersection(l1InIntersection,
-                                                    l2InIntersection);
-        segments.add(new Line2D.Double(intersection.getEntryPoint(l1), ixn));
-        segments.add(new Line2D.Double(ixn, intersection.getExitPoint(l2)));
-      } else {
-        // If they don't intersect, we just take both of them (being
-        // conservative)
-        //
-        // TODO: From Chiu: it seems it doesn't make sense to just include
-        // both segments, but ignore the mid-segment between the end point
-        // of l1InIntersection and the start point of l2InIntersection.
-        // Furthermore, there are other stricky cases to deal with.
-        segments.add(l1InIntersection);
-        segments.add(l2InIntersection);
-      }
-    }
-    // Now we've got our segments, so return them!
-    return segments;
-  }
-
-
-  //TODO remove this function
-  /**
-   * For all pairs of trajectories (4-tuples of Lanes), find the ones
-   * that conflict and add them to <code>laneConflicts</code>. Assumes
-   * that Lanes are linear within the intersection.
-   */
-  private void calculateLaneConflicts() {
-    // N^4: blech!
-    for(Lane l11: intersection.getEntryLanes()) {
-      for(Lane l12: intersection.getExitLanes()) {
-        // Find the line segments that represent the track
-        List<Line2D> l1Segments = inIntersectionSegments(l11, l12);
-        for(Lane l21: intersection.getEntryLanes()) {
-          for(Lane l22: intersection.getExitLanes()) {
-            // If the start or end lanes are the same, that's an automatic
-            // conflict
-            if(l11 == l21 || l12 == l22) {
-              // Construct the key from the IDs of the various lanes
-              List<Integer> key = Arrays.asList(l11.getId(), l12.getId(),
-                                                l21.getId(), l22.getId());
-              laneConflicts.add(key);
-            } else {
-              // Find the line segments that represent the track
-              List<Line2D> l2Segments = inIntersectionSegments(l21, l22);
-              // Now, if any of the l1 segments intersect any of the l2
-              // segments, there is a conflict.
-              findConflict: for(Line2D l1Seg: l1Segments) {
-                for(Line2D l2Seg: l2Segments) {
-                  if(l1Seg.intersectsLine(l2Seg)) {
-                    // Construct the key from the IDs of the various lanes
-                    List<Integer> key = Arrays.asList(l11.getId(),
-                                                      l12.getId(),
-                                                      l21.getId(),
-                                                      l22.getId());
-                    laneConflicts.add(key);
-                    break findConflict;  // No need to keep calculating
-                  }
-                }
-              }
-            }
-
-          }
-        }
-      }
-    }
-  }
-
   /////////////////////////////////
   // PUBLIC METHODS
   /////////////////////////////////
@@ -354,8 +157,7 @@ public class RoadBasedTrackModel implements TrackModel {
    */
   @Override
   public boolean trajectoriesConflict(int l11, int l12, int l21, int l22) {
-    List<Integer> lookupKey = Arrays.asList(l11, l12, l21, l22);
-    return laneConflicts.contains(lookupKey);
+    return topology.trajectoriesConflict(l11, l12, l21, l22);
   }
 
 
@@ -386,19 +188,7 @@ public class RoadBasedTrackModel implements TrackModel {
    */
   @Override
   public double traversalDistance(Lane arrival, Lane departure) {
-    List<Integer> key = Arrays.asList(arrival.getId(),
-                                      departure.getId());
-    if(!memoTraversalDistance.containsKey(key)) {
-      double totalDistance = 0;
-      List<Line2D> segments =
-        inIntersectionSegments(arrival, departure);
-      // Add up the length of the segments
-      for(Line2D line : segments) {
-        totalDistance += line.getP1().distance(line.getP2());
-      }
-      memoTraversalDistance.put(key, totalDistance);
-    }
-    return memoTraversalDistance.get(key);
+    return topology.traversalDistance(arrival.getId(), departure.getId());
   }
 
   /**
@@ -413,10 +203,7 @@ public class RoadBasedTrackModel implements TrackModel {
    */
   @Override
   public double traversalDistance(int arrivalID, int departureID) {
-    List<Integer> key = Arrays.asList(arrivalID, departureID);
-    Lane arrival = Debug.currentMap.getLaneRegistry().get(arrivalID);
-    Lane departure = Debug.currentMap.getLaneRegistry().get(departureID);
-    return traversalDistance(arrival, departure);
+    return topology.traversalDistance(arrivalID, departureID);
   }
 
 
@@ -30,6 +30,7 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package aim4.im.aim;
 
+import java.io.Serializable;
 import java.util.List;
 
 import aim4.map.Road;
@@ -38,7 +39,7 @@ import aim4.map.lane.Lane;
 /**
  * The interface of track models
  */
-public interface TrackModel {
+public interface TrackModel extends Serializable {
 
   /**
    * Get the intersection managed by this track model
@@ -39,6 +39,7 @@ import aim4.sim.StatCollector;
  * The all stop request handler
  */
 public class AllStopRequestHandler implements RequestHandler {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // PRIVATE FIELDS
@@ -72,6 +73,14 @@ public class AllStopRequestHandler implements RequestHandler {
     // do nothing
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double getNextWakeUpTime() {
+    return Double.POSITIVE_INFINITY;
+  }
+
   /**
    * Process the request message.
    *
@@ -49,6 +49,7 @@ import aim4.sim.StatCollector;
  */
 public class Approx4PhasesTrafficSignalRequestHandler implements
     TrafficSignalRequestHandler {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // CONSTANTS
@@ -130,6 +131,14 @@ public class Approx4PhasesTrafficSignalRequestHandler implements
     // do nothing
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double getNextWakeUpTime() {
+    return Double.POSITIVE_INFINITY;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -31,6 +31,7 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 package aim4.im.aim.v2i.RequestHandler;
 
 import aim4.config.TrafficSignal;
+import java.io.Serializable;
 import java.util.List;
 
 import aim4.im.aim.v2i.policy.BasePolicy;
@@ -40,6 +41,7 @@ import aim4.im.aim.v2i.policy.BasePolicy.ReserveParam;
 import aim4.msg.aim.i2v.Reject;
 import aim4.msg.aim.v2i.Request;
 import aim4.sim.StatCollector;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -48,6 +50,7 @@ import java.util.Map;
  */
 public class ApproxNPhasesTrafficSignalRequestHandler implements
     TrafficSignalRequestHandler {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // NESTED CLASSES
@@ -56,7 +59,7 @@ public class ApproxNPhasesTrafficSignalRequestHandler implements
   /**
    * The interface of signal controllers.
    */
-  public static interface SignalController {
+  public static interface SignalController extends Serializable {
 
     /**
      * Get the signal at the given time
@@ -65,12 +68,26 @@ public class ApproxNPhasesTrafficSignalRequestHandler implements
      * @return the signal
      */
     TrafficSignal getSignal(double time);
+
+    /**
+     * Get the earliest time, not before the given time, at which the signal
+     * is green.
+     *
+     * @param time  the given time
+     * @return the earliest time at which the signal is green;
+     *         <code>Double.POSITIVE_INFINITY</code> if it is never green
+     */
+    double getNextGreenTime(double time);
   }
 
   /**
-   * The cyclic signal controller.
+   * The cyclic signal controller.  The signal plan is compiled into the
+   * sorted ends of the signals within a cycle, so a query is a binary
+   * search.  A controller is immutable and can be shared by the lanes of
+   * all the intersections that follow the same plan.
    */
   public static class CyclicSignalController implements SignalController {
+    private static final long serialVersionUID = 1L;
 
     /** The durations of the signals */
     private double[] durations;
@@ -80,6 +97,10 @@ public class ApproxNPhasesTrafficSignalRequestHandler implements
     private double durationOffset;
     /** The total duration */
     private double totalDuration;
+    /** The end of each signal within a cycle, in increasing order */
+    private double[] ends;
+    /** The starts of the green signals within a cycle, in increasing order */
+    private double[] greenStarts;
 
 
     public CyclicSignalController(double[] durations, TrafficSignal[] signals) {
@@ -103,6 +124,19 @@ public class ApproxNPhasesTrafficSignalRequestHandler implements
       for (double d : durations) {
         totalDuration += d;
       }
+
+      ends = new double[durations.length];
+      double[] starts = new double[durations.length];
+      int numOfGreens = 0;
+      double maxd = 0.0;
+      for(int i=0; i<durations.length; i++) {
+        if (signals[i] == TrafficSignal.GREEN && durations[i] > 0.0) {
+          starts[numOfGreens++] = maxd;
+        }
+        maxd += durations[i];
+        ends[i] = maxd;
+      }
+      greenStarts = Arrays.copyOf(starts, numOfGreens);
     }
 
     /**
@@ -110,19 +144,71 @@ public class ApproxNPhasesTrafficSignalRequestHandler implements
      */
     @Override
     public TrafficSignal getSignal(double time) {
-      double d = time - Math.floor((time + durationOffset) / totalDuration) *
-                        totalDuration;
+      double d = timeInCycle(time);
       assert 0.0 <= d && d < totalDuration;
-      double maxd = 0.0;
-      for(int i=0; i<durations.length; i++) {
-        maxd += durations[i];
-        if (d < maxd) {
-          return signals[i];
-        }
+      int i = firstAbove(ends, ends.length, d);
+      if (i < ends.length) {
+        return signals[i];
       }
       assert false:("Error in CyclicLightController()");
       return null;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public double getNextGreenTime(double time) {
+      if (getSignal(time) == TrafficSignal.GREEN) {
+        return time;
+      }
+      if (greenStarts.length == 0) {
+        return Double.POSITIVE_INFINITY;
+      }
+      double d = timeInCycle(time);
+      double cycleStart = time - d;
+      int i = firstAbove(greenStarts, greenStarts.length, d);
+      if (i < greenStarts.length) {
+        return cycleStart + greenStarts[i];
+      } else {
+        return cycleStart + totalDuration + greenStarts[0];
+      }
+    }
+
+    /**
+     * Get the time elapsed since the start of the cycle.
+     *
+     * @param time  the given time
+     * @return the time elapsed since the start of the cycle
+     */
+    private double timeInCycle(double time) {
+      return time - Math.floor((time + durationOffset) / totalDuration) *
+                    totalDuration;
+    }
+
+    /**
+     * Get the index of the first element of a sorted array that is larger
+     * than a given value.
+     *
+     * @param a  the sorted array
+     * @param n  the number of elements of the array
+     * @param x  the value
+     * @return the index of the first element larger than the value, or
+     *         <code>n</code> if there is none
+     */
+    private static int firstAbove(double[] a, int n, double x) {
+      int lo = 0;
+      int hi = n;
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        if (a[mid] > x) {
+          hi = mid;
+        } else {
+          lo = mid + 1;
+        }
+      }
+      return lo;
+    }
   }
 
   /////////////////////////////////
@@ -160,6 +246,14 @@ public class ApproxNPhasesTrafficSignalRequestHandler implements
     // do nothing
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double getNextWakeUpTime() {
+    return Double.POSITIVE_INFINITY;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -205,11 +299,19 @@ public class ApproxNPhasesTrafficSignalRequestHandler implements
 
     List<Request.Proposal> proposals = filterResult.getProposals();
 
-    // If cannot enter from lane according to canEnterFromLane(), reject it.
-    if (!canEnterFromLane(proposals.get(0).getArrivalLaneID(),
+    // If cannot enter from lane according to canEnterFromLane(), reject it
+    // and tell the vehicle not to ask again before the light turns green.
+    int arrivalLaneId = proposals.get(0).getArrivalLaneID();
+    if (!canEnterFromLane(arrivalLaneId,
                           proposals.get(0).getDepartureLaneID())) {
-      basePolicy.sendRejectMsg(vin, msg.getRequestId(),
-                               Reject.Reason.NO_CLEAR_PATH);
+      double nextGreenTime = getNextGreenTime(arrivalLaneId);
+      if (Double.isInfinite(nextGreenTime)) {
+        basePolicy.sendRejectMsg(vin, msg.getRequestId(),
+                                 Reject.Reason.NO_CLEAR_PATH);
+      } else {
+        basePolicy.sendRejectMsg(vin, msg.getRequestId(), nextGreenTime,
+                                 Reject.Reason.NO_CLEAR_PATH);
+      }
       return;
     }
     // try to see if reservation is possible for the remaining proposals.
@@ -231,6 +333,18 @@ public class ApproxNPhasesTrafficSignalRequestHandler implements
         basePolicy.getCurrentTime());
   }
 
+  /**
+   * Get the earliest time, not before the current time, at which the signal
+   * of a lane is green.
+   *
+   * @param laneId  the lane ID
+   * @return the earliest time at which the signal of the lane is green
+   */
+  public double getNextGreenTime(int laneId) {
+    return signalControllers.get(laneId).getNextGreenTime(
+        basePolicy.getCurrentTime());
+  }
+
 
   /////////////////////////////////
   // PRIVATE METHODS
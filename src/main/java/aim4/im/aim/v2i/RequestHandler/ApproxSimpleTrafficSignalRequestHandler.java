@@ -42,12 +42,15 @@ import aim4.map.Road;
 import aim4.msg.aim.i2v.Reject;
 import aim4.msg.aim.v2i.Request;
 import aim4.sim.StatCollector;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * The approximate traffic signal request handler.
  */
 public class ApproxSimpleTrafficSignalRequestHandler implements
     TrafficSignalRequestHandler {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // CONSTANTS
@@ -73,6 +76,11 @@ public class ApproxSimpleTrafficSignalRequestHandler implements
   private double yellowLightDuration = DEFAULT_YELLOW_LIGHT_DURATION;
   /** The base policy */
   private BasePolicyCallback basePolicy;
+  /**
+   * A mapping from lane ID to the phase in which the lane has the green
+   * light, or -1 if it never has
+   */
+  private Map<Integer,Integer> lanePhases = new HashMap<Integer,Integer>();
 
   /////////////////////////////////
   // CONSTRUCTORS
@@ -123,6 +131,14 @@ public class ApproxSimpleTrafficSignalRequestHandler implements
     // do nothing
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double getNextWakeUpTime() {
+    return Double.POSITIVE_INFINITY;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -149,10 +165,18 @@ public class ApproxSimpleTrafficSignalRequestHandler implements
 
     List<Request.Proposal> proposals = filterResult.getProposals();
 
-    // If cannot enter from lane according to canEnterFromLane(), reject it.
-    if (!canEnterFromLane(proposals.get(0).getArrivalLaneID())){
-      basePolicy.sendRejectMsg(vin, msg.getRequestId(),
-                               Reject.Reason.NO_CLEAR_PATH);
+    // If cannot enter from lane according to canEnterFromLane(), reject it
+    // and tell the vehicle not to ask again before the light turns green.
+    int arrivalLaneId = proposals.get(0).getArrivalLaneID();
+    if (!canEnterFromLane(arrivalLaneId)){
+      double nextGreenTime = getNextGreenTime(arrivalLaneId);
+      if (Double.isInfinite(nextGreenTime)) {
+        basePolicy.sendRejectMsg(vin, msg.getRequestId(),
+                                 Reject.Reason.NO_CLEAR_PATH);
+      } else {
+        basePolicy.sendRejectMsg(vin, msg.getRequestId(), nextGreenTime,
+                                 Reject.Reason.NO_CLEAR_PATH);
+      }
       return;
     }
     // try to see if reservation is possible for the remaining proposals.
@@ -178,27 +202,10 @@ public class ApproxSimpleTrafficSignalRequestHandler implements
    */
   @Override
   public TrafficSignal getSignal(int laneId) {
-    Road road = Debug.currentMap.getRoad(laneId);
-
     double period = greenLightDuration + yellowLightDuration;
     int id = (int) Math.floor(basePolicy.getCurrentTime() / period);
 
-    int phaseId = id % 4;
-
-    boolean canPass = false;
-    if (phaseId == 0) {
-      canPass = road.getName().equals("1st Street W");
-    } else if (phaseId == 1) {
-      canPass = road.getName().equals("1st Avenue S");
-    } else if (phaseId == 2) {
-      canPass = road.getName().equals("1st Street E");
-    } else if (phaseId == 3) {
-      canPass = road.getName().equals("1st Avenue N");
-    } else {
-      throw new RuntimeException("Error in isGreenTrafficLightNow()");
-    }
-
-    if (canPass) {
+    if (getPhase(laneId) == id % 4) {
       double t = basePolicy.getCurrentTime() - id * period;
       if (t <= greenLightDuration) {
         return TrafficSignal.GREEN;
@@ -211,6 +218,32 @@ public class ApproxSimpleTrafficSignalRequestHandler implements
     }
   }
 
+  /**
+   * Get the earliest time, not before the current time, at which the signal
+   * of a lane is green.
+   *
+   * @param laneId  the lane ID
+   * @return the earliest time at which the signal of the lane is green;
+   *         <code>Double.POSITIVE_INFINITY</code> if it is never green
+   */
+  public double getNextGreenTime(int laneId) {
+    int phaseId = getPhase(laneId);
+    if (phaseId < 0) {
+      return Double.POSITIVE_INFINITY;
+    }
+    if (canEnterFromLane(laneId)) {
+      return basePolicy.getCurrentTime();
+    }
+    double period = greenLightDuration + yellowLightDuration;
+    int id = (int) Math.floor(basePolicy.getCurrentTime() / period);
+    // the next period in which the lane has the green light
+    int nextId = id + Math.floorMod(phaseId - id, 4);
+    if (nextId == id) {
+      nextId += 4;
+    }
+    return nextId * period;
+  }
+
   /////////////////////////////////
   // PRIVATE FIELDS
   /////////////////////////////////
@@ -224,39 +257,35 @@ public class ApproxSimpleTrafficSignalRequestHandler implements
    * @return whether the vehicle can enter the intersection
    */
   private boolean canEnterFromLane(int laneId) {
-    Road road = Debug.currentMap.getRoad(laneId);
-
-    double period = greenLightDuration + yellowLightDuration;
-    int id = (int) Math.floor(basePolicy.getCurrentTime() / period);
-
-    int phaseId = id % 4;
-
-    boolean canPass = false;
-
-    if (phaseId == 0) {
-      canPass = road.getName().equals("1st Street W");
-    } else if (phaseId == 1) {
-      canPass = road.getName().equals("1st Avenue S");
-    } else if (phaseId == 2) {
-      canPass = road.getName().equals("1st Street E");
-    } else if (phaseId == 3) {
-      canPass = road.getName().equals("1st Avenue N");
-    } else {
-      throw new RuntimeException("Error in isGreenTrafficLightNow()");
-    }
+    return getSignal(laneId) == TrafficSignal.GREEN;
+  }
 
-    if (canPass) {
-      double t = basePolicy.getCurrentTime() - id * period;
-      if (t <= greenLightDuration) {
-        return true;
+  /**
+   * Get the phase in which a lane has the green light.  The phase of a lane
+   * is worked out from the name of its road the first time it is needed.
+   *
+   * @param laneId  the id of the lane
+   * @return the phase in which the lane has the green light, or -1 if it
+   *         never has
+   */
+  private int getPhase(int laneId) {
+    Integer phaseId = lanePhases.get(laneId);
+    if (phaseId == null) {
+      String name = Debug.currentMap.getRoad(laneId).getName();
+      if (name.equals("1st Street W")) {
+        phaseId = 0;
+      } else if (name.equals("1st Avenue S")) {
+        phaseId = 1;
+      } else if (name.equals("1st Street E")) {
+        phaseId = 2;
+      } else if (name.equals("1st Avenue N")) {
+        phaseId = 3;
       } else {
-        return false;
+        phaseId = -1;
       }
-    } else {
-      // it is either yellow or red signal
-      return false;
+      lanePhases.put(laneId, phaseId);
     }
-
+    return phaseId;
   }
 
 
@@ -48,6 +48,7 @@ import aim4.sim.StatCollector;
  * The approximate stop sign request handler.
  */
 public class ApproxStopSignRequestHandler implements RequestHandler {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // CONSTANTS
@@ -103,6 +104,14 @@ public class ApproxStopSignRequestHandler implements RequestHandler {
     // do nothing
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double getNextWakeUpTime() {
+    return Double.POSITIVE_INFINITY;
+  }
+
   /**
    * Process the request message.
    *
@@ -32,6 +32,7 @@ package aim4.im.aim.v2i.RequestHandler;
 
 import java.awt.Color;
 import java.io.PrintStream;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashSet;
@@ -60,6 +61,7 @@ import aim4.util.Util;
  * The batch mode request handler.
  */
 public class BatchModeRequestHandler implements RequestHandler {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // CONSTANTS
@@ -84,7 +86,10 @@ public class BatchModeRequestHandler implements RequestHandler {
    * A proposal with a unique ID.
    */
   public static class IndexedProposal implements Comparator<IndexedProposal>,
-                                                 Comparable<IndexedProposal> {
+                                                 Comparable<IndexedProposal>,
+                                                 Serializable {
+    private static final long serialVersionUID = 1L;
+
     /** The ID number of this indexed proposal */
     private int id;
 
@@ -240,6 +245,8 @@ public class BatchModeRequestHandler implements RequestHandler {
    */
   public static class RequestStatCollector implements
                                StatCollector<BatchModeRequestHandler> {
+    private static final long serialVersionUID = 1L;
+
     /** The total number of request */
     int totalNumOfRequest = 0;
     /** The number of confirmed another requests */
@@ -429,6 +436,14 @@ public class BatchModeRequestHandler implements RequestHandler {
     } // else do nothing
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double getNextWakeUpTime() {
+    return nextProcessingTime;
+  }
+
   /**
    * Process the request message.
    *
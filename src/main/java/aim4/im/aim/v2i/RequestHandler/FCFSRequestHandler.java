@@ -42,6 +42,7 @@ import aim4.sim.StatCollector;
  * The "First Come, First Served" request handler.
  */
 public class FCFSRequestHandler implements RequestHandler {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // PRIVATE FIELDS
@@ -75,6 +76,14 @@ public class FCFSRequestHandler implements RequestHandler {
     // do nothing
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double getNextWakeUpTime() {
+    return Double.POSITIVE_INFINITY;
+  }
+
   /**
    * Process the request message.
    *
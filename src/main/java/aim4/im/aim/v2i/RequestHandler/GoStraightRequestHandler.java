@@ -45,6 +45,7 @@ import aim4.sim.StatCollector;
  * The go straight request handler.
  */
 public class GoStraightRequestHandler implements RequestHandler {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // CONSTANTS
@@ -97,6 +98,14 @@ public class GoStraightRequestHandler implements RequestHandler {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double getNextWakeUpTime() {
+    return nextSwitchTime;
+  }
+
   /**
    * Process the request message.
    *
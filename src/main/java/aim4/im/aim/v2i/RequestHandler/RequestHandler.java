@@ -30,6 +30,8 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package aim4.im.aim.v2i.RequestHandler;
 
+import java.io.Serializable;
+
 import aim4.im.aim.v2i.policy.BasePolicyCallback;
 import aim4.msg.aim.v2i.Request;
 import aim4.sim.StatCollector;
@@ -37,7 +39,7 @@ import aim4.sim.StatCollector;
 /**
  * The request handler.
  */
-public interface RequestHandler {
+public interface RequestHandler extends Serializable {
 
   /**
    * Set the base policy call-back.
@@ -53,6 +55,17 @@ public interface RequestHandler {
    */
   void act(double timeStep);
 
+  /**
+   * Get the earliest time at which the request handler needs to act again.
+   * Calls to {@link #act(double)} before that time may be skipped if no
+   * request arrives in the meantime.
+   *
+   * @return the earliest time at which the request handler needs to act
+   *         again; <code>Double.POSITIVE_INFINITY</code> if it only reacts
+   *         to requests
+   */
+  double getNextWakeUpTime();
+
   /**
    * Process the request message.
    *
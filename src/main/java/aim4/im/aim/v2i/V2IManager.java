@@ -35,6 +35,7 @@ import aim4.im.AczManager;
 import aim4.im.AdmissionControlZone;
 import aim4.im.aim.Intersection;
 import aim4.im.aim.IntersectionManager;
+import aim4.im.aim.RoadBasedIntersection;
 import aim4.im.aim.TrackModel;
 import aim4.im.aim.v2i.policy.Policy;
 import aim4.im.aim.v2i.reservation.ReservationGrid;
@@ -60,6 +61,7 @@ import java.util.List;
  */
 public class V2IManager extends IntersectionManager
                         implements V2IManagerCallback {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // CONSTANTS
@@ -167,9 +169,15 @@ public class V2IManager extends IntersectionManager
     // Use the superclass's constructor to set up all the physical
     // properties of the intersection
     super(intersection, trackModel, currentTime, registry);
-    // Set up the reservation grid
-    this.tiledArea = new TiledArea(intersection.getArea(),
-                                   config.getGranularity());
+    // Set up the reservation grid; the tiles of a road based intersection
+    // are shared by the intersections with the same topology
+    if (intersection instanceof RoadBasedIntersection) {
+      this.tiledArea = ((RoadBasedIntersection) intersection)
+        .getTiledArea(config.getGranularity());
+    } else {
+      this.tiledArea = new TiledArea(intersection.getArea(),
+                                     config.getGranularity());
+    }
     this.reservationGrid = new ReservationGrid(tiledArea.getXNum(),
                                                tiledArea.getYNum(),
                                                config.getGridTimeStep());
@@ -241,6 +249,27 @@ public class V2IManager extends IntersectionManager
     super.act(timeStep);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double getNextWakeUpTime() {
+    if (!inbox.isEmpty()) {
+      return getCurrentTime();
+    }
+    return Math.min(policy.getNextWakeUpTime(),
+                    reservationGridManager.getNextWakeUpTime());
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void skip(double timeStep) {
+    reservationGridManager.skip(timeStep);
+    super.skip(timeStep);
+  }
+
 
   /////////////////////////////////
   // PUBLIC METHODS
@@ -30,6 +30,7 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package aim4.im.aim.v2i.batch;
 
+import java.io.Serializable;
 import java.util.List;
 import java.util.NavigableSet;
 
@@ -39,7 +40,7 @@ import aim4.im.aim.v2i.RequestHandler.BatchModeRequestHandler.IndexedProposal;
 /**
  * The Reordering Strategy Interface.
  */
-public interface ReorderingStrategy {
+public interface ReorderingStrategy extends Serializable {
 
   /**
    * Set the initial time of the batch mode.
@@ -30,7 +30,7 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package aim4.im.aim.v2i.batch;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -46,6 +46,7 @@ import aim4.msg.aim.v2i.Request.Proposal;
  * The road-based reorder strategy.
  */
 public class RoadBasedReordering implements ReorderingStrategy {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // CONSTANTS
@@ -200,9 +201,10 @@ public class RoadBasedReordering implements ReorderingStrategy {
    */
   private List<IndexedProposal> reorderProposals(
                                              List<IndexedProposal> iProposals) {
-    // a partition of the proposals according to the road of the arrival lane.
+    // a partition of the proposals according to the road of the arrival lane,
+    // in the order in which the roads first appear
     Map<Road,List<IndexedProposal>> partition =
-      new HashMap<Road,List<IndexedProposal>>();
+      new LinkedHashMap<Road,List<IndexedProposal>>();
 
     for(IndexedProposal iProposal : iProposals) {
       int laneId = iProposal.getProposal().getArrivalLaneID();
@@ -41,6 +41,7 @@ import aim4.sim.StatCollector;
  * to represent an intersection that is completely closed off.
  */
 public class AllStopPolicy implements Policy {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // PRIVATE FIELDS
@@ -85,6 +86,14 @@ public class AllStopPolicy implements Policy {
     // do nothing
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double getNextWakeUpTime() {
+    return Double.POSITIVE_INFINITY;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -49,12 +49,14 @@ import aim4.util.HashMapRegistry;
 import aim4.util.Registry;
 import aim4.vehicle.VehicleUtil;
 
+import java.io.Serializable;
 import java.util.*;
 
 /**
  * The base policy.
  */
 public final class BasePolicy implements Policy, ExtendedBasePolicyCallback {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // CONSTANTS
@@ -79,7 +81,9 @@ public final class BasePolicy implements Policy, ExtendedBasePolicyCallback {
   /**
    * The record of a reservation.
    */
-  public static class ReservationRecord {
+  public static class ReservationRecord implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /** The VIN of a vehicle */
     private int vin;
     /** The ACZ lane ID */
@@ -118,7 +122,9 @@ public final class BasePolicy implements Policy, ExtendedBasePolicyCallback {
   /**
    * The reservation parameter record generated by processProposals()
    */
-  public static class ReserveParam {
+  public static class ReserveParam implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /** The VIN of a vehicle */
     private int vin;
     /** The successful proposal */
@@ -177,7 +183,9 @@ public final class BasePolicy implements Policy, ExtendedBasePolicyCallback {
   /**
    * The result of the standard proposal filter
    */
-  public static class ProposalFilterResult {
+  public static class ProposalFilterResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /** The list of proposals */
     private List<Request.Proposal> proposals;
     /** The rejection reason */
@@ -424,6 +432,19 @@ public final class BasePolicy implements Policy, ExtendedBasePolicyCallback {
     if (statCollector != null) statCollector.collect(this);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double getNextWakeUpTime() {
+    if (statCollector != null) {
+      // the statistic collector collects in every time step
+      return getCurrentTime();
+    } else {
+      return requestHandler.getNextWakeUpTime();
+    }
+  }
+
 
   /////////////////////////////////
   // PUBLIC METHODS
@@ -493,6 +514,21 @@ public final class BasePolicy implements Policy, ExtendedBasePolicyCallback {
                                  reason));
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void sendRejectMsg(int vin, int latestRequestId,
+                            double nextAllowedCommunication,
+                            Reject.Reason reason) {
+    im.sendI2VMessage(new Reject(im.getId(),
+                                 vin,
+                                 latestRequestId,
+                                 Math.max(nextAllowedCommunication,
+                                          im.getCurrentTime()),
+                                 reason));
+  }
+
   /**
    * {@inheritDoc}
    */
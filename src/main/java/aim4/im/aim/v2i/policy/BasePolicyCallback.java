@@ -59,6 +59,19 @@ public interface BasePolicyCallback {
    */
   void sendRejectMsg(int vin, int latestRequestId, Reject.Reason reason);
 
+  /**
+   * Send a reject message that asks the vehicle not to send another
+   * request before a given time.
+   *
+   * @param vin                       the VIN
+   * @param latestRequestId           the latest request id of the vehicle
+   * @param nextAllowedCommunication  the time before which the vehicle
+   *                                  should not send another request
+   * @param reason                    the reason of rejection
+   */
+  void sendRejectMsg(int vin, int latestRequestId,
+                     double nextAllowedCommunication, Reject.Reason reason);
+
   /**
    * Compute the reservation parameter given the request message and a
    * set of proposals.
@@ -30,6 +30,8 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package aim4.im.aim.v2i.policy;
 
+import java.io.Serializable;
+
 import aim4.im.aim.v2i.V2IManagerCallback;
 import aim4.msg.aim.v2i.V2IMessage;
 import aim4.sim.StatCollector;
@@ -37,7 +39,7 @@ import aim4.sim.StatCollector;
 /**
  * An interface for intersection control policies for V2IManagers.
  */
-public interface Policy {
+public interface Policy extends Serializable {
 
   /**
    * Set the V2I manager call-back.
@@ -55,6 +57,17 @@ public interface Policy {
    */
   void act(double timeStep);
 
+  /**
+   * Get the earliest time at which the policy needs to act again.  Calls to
+   * {@link #act(double)} before that time may be skipped if no message
+   * arrives in the meantime.
+   *
+   * @return the earliest time at which the policy needs to act again;
+   *         <code>Double.POSITIVE_INFINITY</code> if it only reacts to
+   *         messages
+   */
+  double getNextWakeUpTime();
+
   /**
    * Process a V2I message
    *
@@ -54,6 +54,7 @@ import aim4.sim.StatCollector;
  * The timeout policy.
  */
 public class TimeoutPolicy implements Policy, V2IManagerCallback {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // CONSTANTS
@@ -252,6 +253,19 @@ public class TimeoutPolicy implements Policy, V2IManagerCallback {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public double getNextWakeUpTime() {
+    // the timeouts must be cleaned out before the next request is processed
+    double time = policy.getNextWakeUpTime();
+    for(double timeout : timeouts.values()) {
+      time = Math.min(time, timeout);
+    }
+    return time;
+  }
+
 
   // message handler
 
@@ -30,6 +30,7 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package aim4.im.aim.v2i.reservation;
 
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -45,7 +46,8 @@ import java.util.TreeMap;
 /**
  * The Reservation Array.
  */
-public class ReservationArray {
+public class ReservationArray implements Serializable {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // CONSTANTS
@@ -63,7 +65,9 @@ public class ReservationArray {
    * which we use to keep track of the space-time reserved by
    * vehicles.
    */
-  public static class TimeTile {
+  public static class TimeTile implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /**
      * The discrete time.
      */
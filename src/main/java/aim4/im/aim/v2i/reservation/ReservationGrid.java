@@ -39,6 +39,7 @@ import aim4.config.Constants;
  * The reservation grid.
  */
 public class ReservationGrid extends ReservationArray {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // CONSTANTS
@@ -58,6 +59,7 @@ public class ReservationGrid extends ReservationArray {
    * The time tile.
    */
   public class TimeTile extends ReservationArray.TimeTile {
+    private static final long serialVersionUID = 1L;
 
     /**
      * Create a time tile.
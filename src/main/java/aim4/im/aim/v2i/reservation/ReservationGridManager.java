@@ -31,11 +31,12 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 package aim4.im.aim.v2i.reservation;
 
 import java.awt.Shape;
-import java.awt.geom.Area;
 import java.awt.geom.Rectangle2D;
 import java.io.PrintStream;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -53,6 +54,7 @@ import aim4.map.lane.Lane;
 import aim4.msg.aim.v2i.Request;
 import aim4.msg.aim.v2i.Request.VehicleSpecForRequestMsg;
 import aim4.sim.StatCollector;
+import aim4.util.CompiledArea;
 import aim4.util.TiledArea;
 import aim4.util.TiledArea.Tile;
 import aim4.vehicle.aim.AIMBasicAutoVehicle;
@@ -66,6 +68,7 @@ public class ReservationGridManager implements
         ReservationManager<ReservationGridManager.Query,
                                ReservationGridManager.Plan,
                                Integer> {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // NESTED CLASSES
@@ -74,7 +77,9 @@ public class ReservationGridManager implements
   /**
    * The configuration of the reservation grid manager.
    */
-  public static class Config {
+  public static class Config implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /**
      * The simulation time step.
      */
@@ -198,7 +203,8 @@ public class ReservationGridManager implements
   /**
    * The reservation grid manager.
    */
-  public static class Query {
+  public static class Query implements Serializable {
+    private static final long serialVersionUID = 1L;
 
     /** The VIN of the vehicle */
     private int vin;
@@ -318,7 +324,9 @@ public class ReservationGridManager implements
   /**
    * The plan for the reservation.
    */
-  public static class Plan {
+  public static class Plan implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /** The VIN of the vehicle */
     private int vin;
     /** The exit time */
@@ -402,6 +410,8 @@ public class ReservationGridManager implements
    */
   public static class VinHistoryStatCollector
                   implements StatCollector<ReservationGridManager> {
+    private static final long serialVersionUID = 1L;
+
     /**
      * A list of the VINs of all reserved tiles at every time step.
      */
@@ -434,7 +444,7 @@ public class ReservationGridManager implements
       }
       if (!s.equals(lasts)) {
         vinHistoryTime.add(manager.currentTime);
-        vinHistory.put(manager.currentTime, s);
+        vinHistory.put(manager.currentTime, new HashSet<Integer>(s));
       }
     }
 
@@ -504,6 +514,12 @@ public class ReservationGridManager implements
    */
   private StatCollector<ReservationGridManager> statCollector;
 
+  /**
+   * Whether there were reservations at or after the time of the last call
+   * to {@link #act(double)}
+   */
+  private boolean isReservedAtLastAct;
+
 
   /////////////////////////////////
   // CONSTRUCTORS
@@ -566,6 +582,37 @@ public class ReservationGridManager implements
   public void act(double timeStep) {
     reservationGrid.cleanUp(currentTime);
     if (statCollector != null) statCollector.collect(this);
+    isReservedAtLastAct =
+      reservationGrid.calcDiscreteTime(currentTime)
+        <= reservationGrid.getLastReservedDiscreteTime();
+    currentTime += timeStep;
+  }
+
+  /**
+   * Get the earliest time at which the manager needs to act again.  The
+   * manager keeps acting while there are reservations at or after the
+   * current time, and once more afterwards so that the statistic collector
+   * sees the grid become empty; after that only a new reservation can
+   * change what it does.
+   *
+   * @return the earliest time at which the manager needs to act again
+   */
+  public double getNextWakeUpTime() {
+    if (isReservedAtLastAct ||
+        reservationGrid.getLastReservedTime() >= currentTime) {
+      return currentTime;
+    } else {
+      return Double.POSITIVE_INFINITY;
+    }
+  }
+
+  /**
+   * Advance the time over a time step in which the manager had nothing to
+   * do.
+   *
+   * @param timeStep  the time step
+   */
+  public void skip(double timeStep) {
     currentTime += timeStep;
   }
 
@@ -792,7 +839,7 @@ public class ReservationGridManager implements
                                       double arrivalTime,
                                       boolean accelerating) {
     // The area of the intersection
-    Area areaPlus = intersection.getAreaPlus();
+    CompiledArea areaPlus = intersection.getCompiledAreaPlus();
     // The following must be true because the test vehicle
     // starts at the entry point of the intersection.
     assert areaPlus.contains(testVehicle.getPointAtMiddleFront(
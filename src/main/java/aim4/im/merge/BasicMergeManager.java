@@ -18,6 +18,8 @@ import java.awt.geom.Rectangle2D;
  * it is created.
  */
 public abstract class BasicMergeManager implements MergeManager {
+    private static final long serialVersionUID = 1L;
+
     //PRIVATE FIELDS//
     /** The ID number of this merge manager. */
     protected int id;
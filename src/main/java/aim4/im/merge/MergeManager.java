@@ -6,11 +6,12 @@ import aim4.map.lane.Lane;
 import aim4.vehicle.VehicleSimModel;
 
 import java.awt.geom.Rectangle2D;
+import java.io.Serializable;
 
 /**
  * Created by Callum on 17/04/2017.
  */
-public interface MergeManager {
+public interface MergeManager extends Serializable {
     /**
      * Takes any actions required for a certain period of time.
      * @param timeStep the size of the timestep to simulate in seconds
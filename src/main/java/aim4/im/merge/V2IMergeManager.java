@@ -24,6 +24,8 @@ import java.util.*;
  * there are no collisions. The V2IMergeManager makes it's decisions using a merge control {@Link MergePolicy}
  */
 public class V2IMergeManager extends BasicMergeManager implements V2IMergeManagerCallback, V2IEnabledMergeManager {
+    private static final long serialVersionUID = 1L;
+
     //CONSTANTS//
     /**
      * The maximum amount of time, in seconds, in the future, for which the
@@ -17,6 +17,8 @@ import java.util.List;
  * Created by Callum on 19/04/2017.
  */
 public class V2IQueueMergeManager extends BasicMergeManager implements V2IEnabledMergeManager, V2IQueueMergeManagerCallback {
+    private static final long serialVersionUID = 1L;
+
     // CONSTANTS //
     /**
      * The default distance the MergeManager can transmit messages.
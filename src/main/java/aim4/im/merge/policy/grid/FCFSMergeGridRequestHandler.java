@@ -10,6 +10,8 @@ import java.util.Queue;
  * Created by Callum on 17/04/2017.
  */
 public class FCFSMergeGridRequestHandler implements MergeGridRequestHandler {
+    private static final long serialVersionUID = 1L;
+
     // PRIVATE FIELDS //
     Queue<Integer> vinQueue = new LinkedList<Integer>();
 
@@ -1,11 +1,13 @@
 package aim4.im.merge.policy.grid;
 
+import java.io.Serializable;
+
 import aim4.msg.merge.v2i.V2IMergeMessage;
 
 /**
  * Created by Callum on 17/04/2017.
  */
-public interface MergeGridPolicy {
+public interface MergeGridPolicy extends Serializable {
     /**
      * Set the V2I merge manager call-back.
      *
@@ -1,11 +1,13 @@
 package aim4.im.merge.policy.grid;
 
+import java.io.Serializable;
+
 import aim4.msg.merge.v2i.Request;
 
 /**
  * Created by Callum on 17/04/2017.
  */
-public interface MergeGridRequestHandler {
+public interface MergeGridRequestHandler extends Serializable {
     /**
      * Set the base policy call-back.
      *
@@ -11,12 +11,15 @@ import aim4.util.HashMapRegistry;
 import aim4.util.Registry;
 import aim4.vehicle.VehicleUtil;
 
+import java.io.Serializable;
 import java.util.*;
 
 /**
  * Created by Callum on 13/04/2017.
  */
 public class BaseMergePolicy implements MergePolicy, BaseMergePolicyCallback {
+    private static final long serialVersionUID = 1L;
+
     // CONSTANTS //
     /**
      * The maximum amount of time, in seconds, to let a vehicle arrive early.
@@ -33,7 +36,9 @@ public class BaseMergePolicy implements MergePolicy, BaseMergePolicyCallback {
     /**
      * The record of a reservation.
      */
-    public static class ReservationRecord {
+    public static class ReservationRecord implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         /** The VIN of a vehicle */
         private int vin;
         /** The ACZ lane ID */
@@ -71,7 +76,9 @@ public class BaseMergePolicy implements MergePolicy, BaseMergePolicyCallback {
     /**
      * The reservation parameter record generated by processProposals()
      */
-    public static class ReserveParam {
+    public static class ReserveParam implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         /** The VIN of a vehicle */
         private int vin;
         /** The successful proposal */
@@ -130,7 +137,9 @@ public class BaseMergePolicy implements MergePolicy, BaseMergePolicyCallback {
     /**
      * The result of the standard proposal filter
      */
-    public static class ProposalFilterResult {
+    public static class ProposalFilterResult implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         /** The list of proposals */
         private List<Request.Proposal> proposals;
         /** The rejection reason */
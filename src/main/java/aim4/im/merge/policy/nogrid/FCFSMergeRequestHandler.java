@@ -7,6 +7,8 @@ import aim4.msg.merge.v2i.Request;
  * Created by Callum on 13/04/2017.
  */
 public class FCFSMergeRequestHandler implements MergeRequestHandler {
+    private static final long serialVersionUID = 1L;
+
     // PRIVATE FIELDS //
 
     /** The base policy */
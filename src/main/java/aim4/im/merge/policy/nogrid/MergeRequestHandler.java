@@ -4,13 +4,15 @@ package aim4.im.merge.policy.nogrid;
  * Created by Callum on 13/04/2017.
  */
 
+import java.io.Serializable;
+
 import aim4.im.merge.policy.nogrid.BaseMergePolicyCallback;
 import aim4.msg.merge.v2i.Request;
 
 /**
  * The merge request handler.
  */
-public interface MergeRequestHandler {
+public interface MergeRequestHandler extends Serializable {
     /**
      * Set the base policy call-back.
      *
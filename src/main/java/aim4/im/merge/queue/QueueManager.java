@@ -10,6 +10,7 @@ import aim4.msg.merge.i2v.QReject;
 import aim4.msg.merge.v2i.QDone;
 import aim4.msg.merge.v2i.QRequest;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -18,7 +19,9 @@ import java.util.Queue;
 /**
  * Manages the vehicle queue for a V2IQueueMergeManager.
  */
-public class QueueManager {
+public class QueueManager implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     // CONSTANTS //
     private static final double MAX_DISTANCE_TO_MERGE_TO_ACCEPT = 150;
 
@@ -10,6 +10,8 @@ import java.util.Set;
  * Created by Callum on 17/04/2017.
  */
 public class ReservationMergeGrid extends ReservationArray {
+    private static final long serialVersionUID = 1L;
+
     /////////////////////////////////
     // CONSTANTS
     /////////////////////////////////
@@ -28,6 +30,7 @@ public class ReservationMergeGrid extends ReservationArray {
      * The time tile.
      */
     public class TimeTile extends ReservationArray.TimeTile {
+        private static final long serialVersionUID = 1L;
 
         /**
          * Create a time tile.
@@ -14,6 +14,7 @@ import aim4.vehicle.VehicleUtil;
 import aim4.vehicle.merge.MergeBasicAutoVehicle;
 
 import java.awt.geom.Area;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -30,6 +31,8 @@ public class ReservationMergeGridManager implements
         ReservationManager<ReservationMergeGridManager.Query,
                 ReservationMergeGridManager.Plan,
                 Integer> {
+    private static final long serialVersionUID = 1L;
+
     /////////////////////////////////
     // NESTED CLASSES
     /////////////////////////////////
@@ -37,7 +40,9 @@ public class ReservationMergeGridManager implements
     /**
      * The configuration of the reservation grid manager.
      */
-    public static class Config {
+    public static class Config implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         /**
          * The simulation time step.
          */
@@ -161,7 +166,8 @@ public class ReservationMergeGridManager implements
     /**
      * The reservation grid manager.
      */
-    public static class Query {
+    public static class Query implements Serializable {
+        private static final long serialVersionUID = 1L;
 
         /** The VIN of the vehicle */
         private int vin;
@@ -281,7 +287,9 @@ public class ReservationMergeGridManager implements
     /**
      * The plan for the reservation.
      */
-    public static class Plan {
+    public static class Plan implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         /** The VIN of the vehicle */
         private int vin;
         /** The exit time */
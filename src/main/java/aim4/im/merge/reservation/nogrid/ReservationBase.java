@@ -1,13 +1,18 @@
 package aim4.im.merge.reservation.nogrid;
 
+import java.io.Serializable;
 import java.util.*;
 
 /**
  * Created by Callum on 13/04/2017.
  */
-public class ReservationBase {
+public class ReservationBase implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     //PUBLIC NESTED CLASS//
-    public static class TimeReservation {
+    public static class TimeReservation implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         /**
          * The discrete time.
          */
@@ -6,11 +6,15 @@ import aim4.map.connections.MergeConnection;
  * Created by Callum on 13/04/2017.
  */
 public class ReservationMerge extends ReservationBase {
+    private static final long serialVersionUID = 1L;
+
     //CONSTANTS//
     private static final int RESERVATION_CLEAN_UP_PERIOD = 30;
 
     //NESTED CLASSES//
     public class TimeReservation extends ReservationBase.TimeReservation{
+        private static final long serialVersionUID = 1L;
+
         public TimeReservation(int dt) {
             super(dt);
         }
@@ -13,6 +13,7 @@ import aim4.vehicle.VehicleUtil;
 import aim4.vehicle.merge.MergeBasicAutoVehicle;
 
 import java.awt.geom.Area;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -25,12 +26,15 @@ public class ReservationMergeManager implements
         ReservationManager<ReservationMergeManager.Query,
                            ReservationMergeManager.Plan,
                            Integer> {
+    private static final long serialVersionUID = 1L;
 
     //NESTED CLASSES//
     /**
      * The configuration of the ReservationMergeManager
      */
-    public static class Config {
+    public static class Config implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         /**
          * The simulation time step;
          */
@@ -55,7 +59,9 @@ public class ReservationMergeManager implements
         }
     }
 
-    public static class Query {
+    public static class Query implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         /** The VIN of the vehicle */
         private int vin;
         /** The arrival time */
@@ -171,7 +177,9 @@ public class ReservationMergeManager implements
         }
     }
 
-    public static class Plan {
+    public static class Plan implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         /** The VIN of the vehicle */
         private int vin;
         /** The exit time */
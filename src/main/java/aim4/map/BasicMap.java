@@ -5,12 +5,13 @@ import aim4.map.lane.Lane;
 import aim4.util.Registry;
 
 import java.awt.geom.Rectangle2D;
+import java.io.Serializable;
 import java.util.List;
 
 /**
  * Created by Callum on 28/11/2016.
  */
-public interface BasicMap {
+public interface BasicMap extends Serializable {
     /**
      * Get the Roads that are part of this Layout.
      *
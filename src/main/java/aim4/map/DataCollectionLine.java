@@ -33,6 +33,7 @@ package aim4.map;
 import java.awt.Shape;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -45,7 +46,8 @@ import aim4.vehicle.aim.AIMVehicleSimModel;
 /**
  * The data collection line.
  */
-public class DataCollectionLine {
+public class DataCollectionLine implements Serializable {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // CONSTANTS
@@ -125,7 +127,7 @@ public class DataCollectionLine {
       || !vinToTime.containsKey(vin)
       || vinToTime.get(vin).get(vinToTime.get(vin).size()-1)
         + NO_REPEAT_TIME_PERIOD < time) {
-      if (line.intersectsLine(p1.getX(), p1.getY(), p2.getX(), p2.getY())) {
+      if (isCrossedBy(p1, p2)) {
         if (!vinToTime.containsKey(vin)) {
           List<Double> times = new LinkedList<Double>();
           times.add(time);
@@ -143,6 +145,18 @@ public class DataCollectionLine {
     }
   }
 
+  /**
+   * Whether a line segment, such as the path of a vehicle in a time step,
+   * crosses the line.
+   *
+   * @param p1  the first point of the segment
+   * @param p2  the second point of the segment
+   * @return whether the segment crosses the line
+   */
+  public boolean isCrossedBy(Point2D p1, Point2D p2) {
+    return line.intersectsLine(p1.getX(), p1.getY(), p2.getX(), p2.getY());
+  }
+
   /**
    * Get the name of the line.
    *
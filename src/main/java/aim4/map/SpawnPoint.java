@@ -5,12 +5,14 @@ import aim4.vehicle.VehicleSpec;
 
 import java.awt.*;
 import java.awt.geom.Point2D;
+import java.io.Serializable;
 import java.util.List;
 
 /**
  * An abstract spawn point.
  */
-public abstract class SpawnPoint {
+public abstract class SpawnPoint implements Serializable {
+    private static final long serialVersionUID = 1L;
 
     /////////////////////////////////
     // NESTED CLASSES
@@ -21,7 +23,9 @@ public abstract class SpawnPoint {
     /**
      * The specification of a spawn.
      */
-    protected static class SpawnSpec {
+    protected static class SpawnSpec implements Serializable {
+        private static final long serialVersionUID = 1L;
+
         /** The spawn time */
         double spawnTime;
         /** The vehicle specification */
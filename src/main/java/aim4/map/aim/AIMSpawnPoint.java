@@ -32,6 +32,7 @@ package aim4.map.aim;
 
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.io.Serializable;
 import java.util.List;
 
 import aim4.map.Road;
@@ -43,6 +44,7 @@ import aim4.vehicle.VehicleSpec;
  * A spawn point for AIM simulations.
  */
 public class AIMSpawnPoint extends SpawnPoint {
+    private static final long serialVersionUID = 1L;
 
     /////////////////////////////////
     // NESTED CLASSES
@@ -50,6 +52,8 @@ public class AIMSpawnPoint extends SpawnPoint {
 
     /** The specification of a spawn */
     public static class AIMSpawnSpec extends SpawnSpec {
+        private static final long serialVersionUID = 1L;
+
         /** The destination road */
         Road destinationRoad;
 
@@ -78,7 +82,7 @@ public class AIMSpawnPoint extends SpawnPoint {
     /**
      * The interface of the spawn specification generator.
      */
-    public static interface AIMSpawnSpecGenerator {
+    public static interface AIMSpawnSpecGenerator extends Serializable {
         /**
          * Advance the time step.
          *
@@ -52,6 +52,7 @@ import java.util.*;
  * The grid layout map.
  */
 public class GridIntersectionMap implements BasicIntersectionMap {
+    private static final long serialVersionUID = 1L;
 
     /////////////////////////////////
     // CONSTANTS
@@ -639,6 +640,18 @@ public class GridIntersectionMap implements BasicIntersectionMap {
         intersectionManagers.clear();
     }
 
+    /**
+     * Freeze the lane and intersection manager relationships of all lanes.
+     * This should be called once all intersection managers have been set.
+     */
+    public void freezeLaneIMs() {
+        for(Road road : getRoads()) {
+            for(Lane lane : road.getLanes()) {
+                lane.getLaneIM().freeze();
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -61,6 +61,7 @@ import org.json.simple.parser.ParseException;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -75,21 +76,33 @@ public class GridMapUtil {
     // NESTED CLASSES
     /////////////////////////////////
 
+    /**
+     * The spawn spec generator that generates nothing.
+     */
+    public static class NullSpawnSpecGenerator implements AIMSpawnSpecGenerator {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public List<AIMSpawnSpec> act(AIMSpawnPoint spawnPoint, double timeStep) {
+            return new ArrayList<AIMSpawnSpec>();
+        }
+    }
+
     /**
      * The null spawn spec generator that generates nothing.
      */
     public static AIMSpawnSpecGenerator nullSpawnSpecGenerator =
-            new AIMSpawnSpecGenerator() {
-                @Override
-                public List<AIMSpawnSpec> act(AIMSpawnPoint spawnPoint, double timeStep) {
-                    return new ArrayList<AIMSpawnSpec>();
-                }
-            };
+            new NullSpawnSpecGenerator();
 
     /**
      * The uniform distributed spawn spec generator.
      */
     public static class UniformSpawnSpecGenerator implements AIMSpawnSpecGenerator {
+        private static final long serialVersionUID = 1L;
+
         /** The proportion of each spec */
         private List<Double> proportion;
         /** The destination selector */
@@ -149,6 +162,8 @@ public class GridMapUtil {
      * The spawn spec generator that generates only one spec.
      */
     public static class OneSpawnSpecGenerator implements AIMSpawnSpecGenerator {
+        private static final long serialVersionUID = 1L;
+
         /** The vehicle specification */
         private VehicleSpec vehicleSpec;
         /** The destination selector */
@@ -203,6 +218,8 @@ public class GridMapUtil {
      * simulation.
      */
     public static class OnlyOneSpawnSpecGenerator implements AIMSpawnSpecGenerator {
+        private static final long serialVersionUID = 1L;
+
         /** The vehicle specification */
         private VehicleSpec vehicleSpec;
         /** The destination road */
@@ -257,6 +274,8 @@ public class GridMapUtil {
      * The spawn spec generator that enumerates spawn spec.
      */
     public static class EnumerateSpawnSpecGenerator implements AIMSpawnSpecGenerator{
+        private static final long serialVersionUID = 1L;
+
         /** The list of destination roads */
         private List<Road> destinationRoads;
         /** The vehicle spec ID */
@@ -323,8 +342,12 @@ public class GridMapUtil {
      * The uniform distributed spawn spec generator.
      */
     public static class JsonScheduleSpawnSpecGenerator implements AIMSpawnSpecGenerator {
+        private static final long serialVersionUID = 1L;
+
         // NESTED CLASSES //
-        public static class ScheduledSpawn {
+        public static class ScheduledSpawn implements Serializable {
+            private static final long serialVersionUID = 1L;
+
             private String specName;
             private Double spawnTime;
 
@@ -390,6 +413,8 @@ public class GridMapUtil {
     }
 
     public static class SingleSpawnSpecGenerator implements AIMSpawnSpecGenerator {
+        private static final long serialVersionUID = 1L;
+
         private List<Double> proportion;
         private Road destination;
         private VehicleSpec spec;
@@ -475,6 +500,7 @@ public class GridMapUtil {
                 layout.setManager(column, row, im);
             }
         }
+        layout.freezeLaneIMs();
     }
 
     /**
@@ -507,6 +533,7 @@ public class GridMapUtil {
                 layout.setManager(column, row, im);
             }
         }
+        layout.freezeLaneIMs();
     }
 
 
@@ -543,6 +570,7 @@ public class GridMapUtil {
                 layout.setManager(column, row, im);
             }
         }
+        layout.freezeLaneIMs();
     }
 
 
@@ -578,6 +606,7 @@ public class GridMapUtil {
                 layout.setManager(column, row, im);
             }
         }
+        layout.freezeLaneIMs();
     }
 
     /**
@@ -597,6 +626,9 @@ public class GridMapUtil {
             String trafficSignalPhaseFileName) {
 
         layout.removeAllManagers();
+        // The signal controllers are shared by all intersections
+        TrafficSignalPhase phase =
+                TrafficSignalPhase.makeFromFile(layout, trafficSignalPhaseFileName);
         for (int column = 0; column < layout.getColumns(); column++) {
             for (int row = 0; row < layout.getRows(); row++) {
                 List<Road> roads = layout.getRoads(column, row);
@@ -609,9 +641,6 @@ public class GridMapUtil {
                 ApproxNPhasesTrafficSignalRequestHandler requestHandler =
                         new ApproxNPhasesTrafficSignalRequestHandler();
 
-                TrafficSignalPhase phase =
-                        TrafficSignalPhase.makeFromFile(layout, trafficSignalPhaseFileName);
-
                 for(Road road : im.getIntersection().getEntryRoads()) {
                     for(Lane lane : road.getLanes()) {
                         CyclicSignalController controller =
@@ -624,6 +653,7 @@ public class GridMapUtil {
                 layout.setManager(column, row, im);
             }
         }
+        layout.freezeLaneIMs();
     }
 
     /**
@@ -652,6 +682,7 @@ public class GridMapUtil {
                 layout.setManager(column, row, im);
             }
         }
+        layout.freezeLaneIMs();
     }
 
     /**
@@ -787,12 +818,7 @@ public class GridMapUtil {
                                 mergeRoad
                         ));
             } else  {
-                sp.setVehicleSpecChooser(new AIMSpawnSpecGenerator() {
-                    @Override
-                    public List<AIMSpawnSpec> act(AIMSpawnPoint spawnPoint, double timeStep) {
-                        return new ArrayList<AIMSpawnSpec>();
-                    }
-                });
+                sp.setVehicleSpecChooser(new NullSpawnSpecGenerator());
             }
         }
     }
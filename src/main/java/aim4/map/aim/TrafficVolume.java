@@ -35,6 +35,7 @@ import aim4.map.Road;
 import aim4.map.lane.Lane;
 import aim4.util.Util;
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -43,7 +44,8 @@ import java.util.Map;
 /**
  * The record for traffic volume.
  */
-public class TrafficVolume {
+public class TrafficVolume implements Serializable {
+  private static final long serialVersionUID = 1L;
 
   /** The left turn volumes */
   private Map<Integer, Double> leftTurnVolumes;
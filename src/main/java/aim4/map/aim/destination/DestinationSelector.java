@@ -30,13 +30,15 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package aim4.map.aim.destination;
 
+import java.io.Serializable;
+
 import aim4.map.Road;
 import aim4.map.lane.Lane;
 
 /**
  * The destination selector.
  */
-public interface DestinationSelector {
+public interface DestinationSelector extends Serializable {
 
   /**
    * Select the Road which the given Vehicle should use as its destination.
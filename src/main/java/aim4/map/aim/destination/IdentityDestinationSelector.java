@@ -40,6 +40,7 @@ import aim4.map.lane.Lane;
  * which case it throws a RuntimeException.
  */
 public class IdentityDestinationSelector implements DestinationSelector {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // CONSTRUCTORS
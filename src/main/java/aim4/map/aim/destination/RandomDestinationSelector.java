@@ -44,6 +44,7 @@ import aim4.util.Util;
  * prevent Vehicles from simply going back from whence they came.
  */
 public class RandomDestinationSelector implements DestinationSelector {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // PRIVATE FIELDS
@@ -47,6 +47,7 @@ import java.util.Map;
  * The destination selector that
  */
 public class RatioDestinationSelector implements DestinationSelector {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // PRIVATE FIELDS
@@ -44,6 +44,7 @@ import aim4.map.lane.Lane;
  * The turn based destination selector.
  */
 public class TurnBasedDestinationSelector implements DestinationSelector {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // PRIVATE FIELDS
@@ -37,6 +37,7 @@ import aim4.map.lane.Lane;
  * The unique destination selector which always returns the same destination
  */
 public class UniqueDestinationSelector implements DestinationSelector {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // PRIVATE FIELDS
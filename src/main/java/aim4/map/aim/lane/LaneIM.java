@@ -31,7 +31,8 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 package aim4.map.aim.lane;
 
 import java.awt.geom.Point2D;
-import java.util.HashMap;
+import java.io.Serializable;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
@@ -40,9 +41,97 @@ import aim4.im.aim.IntersectionManager;
 import aim4.map.lane.Lane;
 
 /**
- * The lane and intersection manager relationship.
+ * The lane and intersection manager relationship.  Intersection managers are
+ * registered while the map is being built; the relationship is then frozen
+ * into sorted primitive arrays so that the per-step queries are answered by
+ * binary search without any allocation.
  */
-public class LaneIM {
+public class LaneIM implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  /////////////////////////////////
+  // NESTED CLASSES
+  /////////////////////////////////
+
+  /**
+   * The frozen form of the lane and intersection manager relationship.
+   */
+  private static final class Compiled implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** The normalized distances of the exit points, in ascending order. */
+    final double[] exitFractions;
+    /**
+     * The normalized distances of the entry points, or <code>NaN</code> if
+     * the lane starts inside the intersection.
+     */
+    final double[] entryFractions;
+    /** The intersection managers, in the order of their exit points. */
+    final IntersectionManager[] ims;
+    /**
+     * The distance from the start of the lane to the entry point of the
+     * first intersection manager; 0 if the lane starts inside it.
+     */
+    final double firstEntryDistance;
+
+    /**
+     * Compile the given map from exit points to intersection managers.
+     *
+     * @param lane  the lane
+     * @param map   the map from normalized exit distances to managers
+     */
+    Compiled(Lane lane, SortedMap<Double, IntersectionManager> map) {
+      int n = map.size();
+      exitFractions = new double[n];
+      entryFractions = new double[n];
+      ims = new IntersectionManager[n];
+      int i = 0;
+      for(Map.Entry<Double, IntersectionManager> e : map.entrySet()) {
+        exitFractions[i] = e.getKey();
+        ims[i] = e.getValue();
+        Point2D entry = ims[i].getIntersection().getEntryPoint(lane);
+        entryFractions[i] =
+          (entry == null) ? Double.NaN : lane.normalizedDistanceAlongLane(entry);
+        i++;
+      }
+      if (n > 0) {
+        Point2D entry = ims[0].getIntersection().getEntryPoint(lane);
+        firstEntryDistance =
+          (entry == null) ? 0.0 : lane.getStartPoint().distance(entry);
+      } else {
+        firstEntryDistance = Double.MAX_VALUE;
+      }
+    }
+
+    /**
+     * Get the index of the first exit point at or after the given normalized
+     * distance (the first key of a <code>tailMap</code>).
+     *
+     * @param index  the normalized distance along the lane
+     * @return the index of the first exit point at or after the given
+     *         distance, or the number of intersection managers if none
+     */
+    int firstAtOrAfter(double index) {
+      int i = Arrays.binarySearch(exitFractions, index);
+      return (i >= 0) ? i : -i - 1;
+    }
+
+    /**
+     * Get the position of the given intersection manager.
+     *
+     * @param im  the intersection manager
+     * @return the position of the intersection manager, or -1 if it is not
+     *         registered with this lane
+     */
+    int indexOf(IntersectionManager im) {
+      for(int i = 0; i < ims.length; i++) {
+        if (ims[i] == im) {
+          return i;
+        }
+      }
+      return -1;
+    }
+  }
 
   /////////////////////////////////
   // PRIVATE FIELDS
@@ -60,11 +149,10 @@ public class LaneIM {
     new TreeMap<Double, IntersectionManager>();
 
   /**
-   * Memoization cache for {@link
-   * #nextIntersectionManager(IntersectionManager im)}.
+   * The frozen form of {@link #intersectionManagers}, or <code>null</code>
+   * if the lane has not been frozen since the last registration.
    */
-  private Map<IntersectionManager, IntersectionManager>
-    memoGetSubsequentIntersectionManager = null;
+  private volatile Compiled compiled = null;
 
   /////////////////////////////////
   // CONSTRUCTORS
@@ -94,11 +182,11 @@ public class LaneIM {
    *
    * @param im the IntersectionManager to register
    */
-  public void registerIntersectionManager(IntersectionManager im) {
+  public synchronized void registerIntersectionManager(IntersectionManager im) {
     // Only do this if this lane is managed by this intersection
     if(im.manages(lane)) {
-      // Reset this cache
-      memoGetSubsequentIntersectionManager = null;
+      // Discard the frozen form; it is rebuilt by the next freeze()
+      compiled = null;
       // Find out where this lane exits the intersection
       Point2D exitPoint = im.getIntersection().getExitPoint(lane);
       // If it's null, that means it doesn't exit.
@@ -113,6 +201,24 @@ public class LaneIM {
     }
   }
 
+  /**
+   * Compile the registered intersection managers into the array-backed form
+   * used by the queries.  This should be called once the map has been built;
+   * a lane that has not been frozen is frozen on its first query.
+   */
+  public void freeze() {
+    compiled();
+  }
+
+  /**
+   * Whether the lane has been frozen since the last registration.
+   *
+   * @return whether the lane has been frozen
+   */
+  public boolean isFrozen() {
+    return compiled != null;
+  }
+
   /**
    * Get the first IntersectionManager that this Lane, or any Lane it leads
    * into enters. Recursively searches through all subsequent Lanes.
@@ -121,13 +227,14 @@ public class LaneIM {
    *         into enters
    */
   public IntersectionManager firstIntersectionManager() {
-    if(intersectionManagers.isEmpty()) {
+    Compiled c = compiled();
+    if(c.ims.length == 0) {
       if(lane.hasNextLane()) {
         return lane.getNextLane().getLaneIM().firstIntersectionManager();
       }
       return null;
     }
-    return intersectionManagers.get(intersectionManagers.firstKey());
+    return c.ims[0];
   }
 
   /**
@@ -142,7 +249,8 @@ public class LaneIM {
    *         IntersectionManager exists
    */
   public double distanceToFirstIntersection() {
-    if(intersectionManagers.isEmpty()) {
+    Compiled c = compiled();
+    if(c.ims.length == 0) {
       if(lane.hasNextLane()) {
         return lane.getLength() +
                lane.getNextLane().getLaneIM().distanceToFirstIntersection();
@@ -150,16 +258,9 @@ public class LaneIM {
       return Double.MAX_VALUE;
     }
     // Otherwise, it's the distance from the start of the Lane to the entry
-    // point of the first IntersectionManager
-    IntersectionManager firstIM =
-      intersectionManagers.get(intersectionManagers.firstKey());
-    Point2D entry = firstIM.getIntersection().getEntryPoint(lane);
-    if(entry == null) {
-      return 0; // The Lane starts out in the intersection.
-    }
-    // Otherwise just return the distance from the start of this Lane to
-    // the place it enters the first intersection
-    return lane.getStartPoint().distance(entry);
+    // point of the first IntersectionManager (0 if the Lane starts out in
+    // the intersection)
+    return c.firstEntryDistance;
   }
 
   /**
@@ -171,7 +272,7 @@ public class LaneIM {
    */
   public Lane laneToFirstIntersection() {
     // If there aren't any more in this lane
-    if(intersectionManagers.isEmpty()) {
+    if(compiled().ims.length == 0) {
       // Check the next Lane
       if(lane.hasNextLane()) {
         // Pass the buck to the next Lane after this one
@@ -192,13 +293,14 @@ public class LaneIM {
    *         into it enters.
    */
   public IntersectionManager lastIntersectionManager() {
-    if(intersectionManagers.isEmpty()) {
+    Compiled c = compiled();
+    if(c.ims.length == 0) {
       if(lane.hasPrevLane()) {
         return lane.getPrevLane().getLaneIM().lastIntersectionManager();
       }
       return null;
     }
-    return intersectionManagers.get(intersectionManagers.lastKey());
+    return c.ims[c.ims.length - 1];
   }
 
   /**
@@ -213,7 +315,8 @@ public class LaneIM {
    *         IntersectionManager exists
    */
   public double remainingDistanceFromLastIntersection() {
-    if(intersectionManagers.isEmpty()) {
+    Compiled c = compiled();
+    if(c.ims.length == 0) {
       if(lane.hasPrevLane()) {
         return lane.getLength() +
                lane.getPrevLane().getLaneIM().
@@ -222,7 +325,8 @@ public class LaneIM {
         return Double.MAX_VALUE;
       }
     } else {
-      return (1 - intersectionManagers.lastKey()) * lane.getLength();
+      return (1 - c.exitFractions[c.exitFractions.length - 1]) *
+             lane.getLength();
     }
   }
 
@@ -241,17 +345,17 @@ public class LaneIM {
   public IntersectionManager nextIntersectionManager(Point2D p) {
     // First find how far along the point is.
     double index = lane.normalizedDistanceAlongLane(p);
-    SortedMap<Double, IntersectionManager> remaining =
-      intersectionManagers.tailMap(index);
+    Compiled c = compiled();
+    int i = c.firstAtOrAfter(index);
     // If nothing left, then no more IntersectionManagers
-    if (remaining.isEmpty()) {
+    if (i == c.ims.length) {
       if (lane.hasNextLane()) {
         return lane.getNextLane().getLaneIM().firstIntersectionManager();
       } else {
         return null;
       }
     } else {
-      return remaining.get(remaining.firstKey());
+      return c.ims[i];
     }
   }
 
@@ -268,12 +372,12 @@ public class LaneIM {
   public double distanceToNextIntersection(Point2D p) {
     // First determine how far along the Lane we are
     double index = lane.normalizedDistanceAlongLane(p);
-    // Now find all IntersectionManagers that are after this point (remember
+    // Now find the first IntersectionManager after this point (remember
     // they are indexed by exit point)
-    SortedMap<Double, IntersectionManager> remaining =
-      intersectionManagers.tailMap(index);
+    Compiled c = compiled();
+    int i = c.firstAtOrAfter(index);
     // If there aren't any more in this lane
-    if (remaining.isEmpty()) {
+    if (i == c.ims.length) {
       // Check the next Lane
       if (lane.hasNextLane()) {
         return ((1 - index) * lane.getLength()) +
@@ -285,17 +389,14 @@ public class LaneIM {
     } else {
       // Otherwise, we need to figure out where we are and where the current
       // Lane intersects the next intersection.
-      IntersectionManager nextIM = remaining.get(remaining.firstKey());
-      Point2D entry = nextIM.getIntersection().getEntryPoint(lane);
+      double entryFraction = c.entryFractions[i];
         // Where does this Lane enter?
-      if (entry == null) { // It doesn't! It just exits! That means we're in it!
+      if (Double.isNaN(entryFraction)) {
+        // It doesn't! It just exits! That means we're in it!
         return 0.0;
       } else {
-        // Otherwise, there is an entry point.  Find out how far along it is in
-        // the Lane
-        double entryFraction = lane.normalizedDistanceAlongLane(entry);
-        // Now, we want to return 0 if we are past the entry point, or the
-        // distance to the entry point otherwise
+        // Otherwise, we want to return 0 if we are past the entry point, or
+        // the distance to the entry point otherwise
         return Math.max(0.0, (entryFraction - index) * lane.getLength());
       }
     }
@@ -313,12 +414,11 @@ public class LaneIM {
   public Lane laneToNextIntersection(Point2D p) {
     // First determine how far along the Lane we are
     double index = lane.normalizedDistanceAlongLane(p);
-    // Now find all IntersectionManagers that are after this point (remember
+    // Now find the first IntersectionManager after this point (remember
     // they are indexed by exit point)
-    SortedMap<Double, IntersectionManager> remaining =
-      intersectionManagers.tailMap(index);
+    Compiled c = compiled();
     // If there aren't any more in this lane
-    if(remaining.isEmpty()) {
+    if(c.firstAtOrAfter(index) == c.ims.length) {
       // Check the next Lane
       if(lane.hasNextLane()) {
         // Pass the buck to the next Lane after this one
@@ -347,12 +447,12 @@ public class LaneIM {
   public double distanceFromPrevIntersection(Point2D p) {
     // First determine how far along the Lane we are
     double index = lane.normalizedDistanceAlongLane(p);
-    // Now find all IntersectionManagers that are before this point (remember
+    // Now find the last IntersectionManager before this point (remember
     // they are indexed by exit point)
-    SortedMap<Double, IntersectionManager> preceding =
-      intersectionManagers.headMap(index);
+    Compiled c = compiled();
+    int i = c.firstAtOrAfter(index) - 1;
     // If there aren't any in this lane
-    if(preceding.isEmpty()) {
+    if(i < 0) {
       // Check the previous Lane
       if(lane.hasPrevLane()) {
         return (index * lane.getLength()) +
@@ -362,13 +462,12 @@ public class LaneIM {
       // Otherwise, just say it is really really far away
       return Double.MAX_VALUE;
     }
-    // preceding.lastKey() is the relative distance to the exit point of the
+    // c.exitFractions[i] is the relative distance to the exit point of the
     // last Intersection in the Lane before our position, so we subtract that
     // from our current relative position (index) to get the total relative
     // distance. Then, multiply that by length to get an absolute distance.
-    // This can't be negative because the last key must be before index
-    // since we did a headMap.
-    return (index - preceding.lastKey()) * lane.getLength();
+    // This can't be negative because exit point i is strictly before index.
+    return (index - c.exitFractions[i]) * lane.getLength();
   }
 
   // given an im
@@ -382,30 +481,21 @@ public class LaneIM {
    *           into enters, after the given IntersectionManager
    */
   public IntersectionManager nextIntersectionManager(IntersectionManager im) {
-    // Build the cache if it doesn't exist
-    if(memoGetSubsequentIntersectionManager == null) {
-      memoGetSubsequentIntersectionManager =
-        new HashMap<IntersectionManager, IntersectionManager>();
-      IntersectionManager lastIM = null;
-      // Now run through the IntersectionManagers in order and set up
-      // the cache
-      for(IntersectionManager currIM : intersectionManagers.values()) {
-        // Don't include the first one as a value, since it isn't subsequent
-        // to anything
-        if(lastIM != null) {
-          memoGetSubsequentIntersectionManager.put(lastIM, currIM);
-        }
-        lastIM = currIM;
-      }
-      // Link up to the next Lane
-      if(lastIM != null && lane.hasNextLane()) {
-        memoGetSubsequentIntersectionManager.put(lastIM,
-                                                 lane.getNextLane().
-                                                 getLaneIM().
-                                                 firstIntersectionManager());
-      }
+    // A lane is managed by very few IntersectionManagers, so a linear scan
+    // of the frozen array is cheaper than a hash lookup
+    Compiled c = compiled();
+    int i = c.indexOf(im);
+    if(i < 0) {
+      return null;
+    }
+    if(i + 1 < c.ims.length) {
+      return c.ims[i + 1];
     }
-    return memoGetSubsequentIntersectionManager.get(im);
+    // Link up to the next Lane
+    if(lane.hasNextLane()) {
+      return lane.getNextLane().getLaneIM().firstIntersectionManager();
+    }
+    return null;
   }
 
   /**
@@ -495,4 +585,29 @@ public class LaneIM {
     }
   }
 
+
+
+  /////////////////////////////////
+  // PRIVATE METHODS
+  /////////////////////////////////
+
+  /**
+   * Get the frozen form of this lane, freezing it if necessary.
+   *
+   * @return the frozen form of this lane
+   */
+  private Compiled compiled() {
+    Compiled c = compiled;
+    if (c == null) {
+      synchronized(this) {
+        c = compiled;
+        if (c == null) {
+          c = new Compiled(lane, intersectionManagers);
+          compiled = c;
+        }
+      }
+    }
+    return c;
+  }
+
 }
@@ -17,6 +17,7 @@ import java.util.*;
  * and Junctions.
  */
 public abstract class BasicConnection implements RoadConnection {
+    private static final long serialVersionUID = 1L;
 
     /////////////////////////////////
     // PROTECTED FIELDS
@@ -286,6 +287,45 @@ public abstract class BasicConnection implements RoadConnection {
         areaOfConnection.add(new Area(gp));
     }
 
+    /**
+     * Find the first point at which a lane crosses the perimeter, ignoring
+     * the segments on which the given point lies.
+     *
+     * @param lane The lane.
+     * @param perimeterSegments The perimeter segments of the area of the connection.
+     * @param excludedPoint The start or end point of the lane, or null.
+     * @return the point at which the lane crosses the perimeter, or null if it does not.
+     */
+    protected Point2D findPerimeterCrossing(Lane lane, List<Line2D> perimeterSegments,
+                                            Point2D excludedPoint) {
+        for (Line2D segment : perimeterSegments) {
+            Point2D crossing = lane.intersectionPoint(segment);
+            if (crossing != null &&
+                    (excludedPoint == null || !isPointOnPerimeterSegment(excludedPoint, segment))) {
+                return crossing;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Find all the points at which a lane crosses the perimeter.
+     *
+     * @param lane The lane.
+     * @param perimeterSegments The perimeter segments of the area of the connection.
+     * @return the points at which the lane crosses the perimeter.
+     */
+    protected List<Point2D> findPerimeterCrossings(Lane lane, List<Line2D> perimeterSegments) {
+        List<Point2D> crossings = new ArrayList<Point2D>(2);
+        for (Line2D segment : perimeterSegments) {
+            Point2D crossing = lane.intersectionPoint(segment);
+            if (crossing != null) {
+                crossings.add(crossing);
+            }
+        }
+        return crossings;
+    }
+
     /**
      * Does a lane start on or inside the perimeter.
      *
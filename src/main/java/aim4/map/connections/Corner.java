@@ -14,6 +14,7 @@ import java.util.*;
  */
 // TODO CPM Rename to make it more specific, CornerRightAngleOneLane
 public class Corner extends BasicConnection {
+    private static final long serialVersionUID = 1L;
 
     /////////////////////////////////
     // CLASS CONSTRUCTORS
@@ -103,24 +104,16 @@ public class Corner extends BasicConnection {
             Point2D exitPoint;
             // If this lane starts in the corner, then it must have an exit point
             if (startsInCorner) {
-                for (Line2D segment : perimeterSegments) {
-                    // If the lane intersects (but not with it's start point)
-                    if (lane.intersectionPoint(segment) != null &&
-                            !isPointOnPerimeterSegment(lane.getStartPoint(), segment)) {
-                        exitPoint = lane.intersectionPoint(segment);
-                        establishAsExitPoint(road, lane, exitPoint);
-                        break;
-                    }
+                // Where the lane crosses the perimeter (but not at it's start point)
+                exitPoint = findPerimeterCrossing(lane, perimeterSegments, lane.getStartPoint());
+                if (exitPoint != null) {
+                    establishAsExitPoint(road, lane, exitPoint);
                 }
             } else {   // If this lane ends in the corner, then it must have an entry point
-                for (Line2D segment : perimeterSegments) {
-                    // If the lane intersects (but not with it's end point)
-                    if (lane.intersectionPoint(segment) != null &&
-                            !isPointOnPerimeterSegment(lane.getEndPoint(), segment)) {
-                        entryPoint = lane.intersectionPoint(segment);
-                        establishAsEntryPoint(road, lane, entryPoint);
-                        break;
-                    }
+                // Where the lane crosses the perimeter (but not at it's end point)
+                entryPoint = findPerimeterCrossing(lane, perimeterSegments, lane.getEndPoint());
+                if (entryPoint != null) {
+                    establishAsEntryPoint(road, lane, entryPoint);
                 }
             }
         }
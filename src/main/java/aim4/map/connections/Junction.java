@@ -8,7 +8,6 @@ import aim4.util.GeomMath;
 import java.awt.geom.Area;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -17,6 +16,7 @@ import java.util.List;
  */
 // TODO Rename to make it more specific, TJunctionRightAngleOneLane
 public class Junction extends BasicConnection{
+    private static final long serialVersionUID = 1L;
 
     /////////////////////////////////
     // CLASS CONSTRUCTORS
@@ -92,34 +92,21 @@ public class Junction extends BasicConnection{
             Point2D exitPoint;
             if (startsInJunction) {
                 // If this lane starts in the junction, then it must have an exit point
-                for (Line2D segment : perimeterSegments) {
-                    // If the lane intersects (but not with it's start point)
-                    if (lane.intersectionPoint(segment) != null &&
-                            !isPointOnPerimeterSegment(lane.getStartPoint(), segment)) {
-                        exitPoint = lane.intersectionPoint(segment);
-                        establishAsExitPoint(road, lane, exitPoint);
-                        break;
-                    }
+                // Where the lane crosses the perimeter (but not at it's start point)
+                exitPoint = findPerimeterCrossing(lane, perimeterSegments, lane.getStartPoint());
+                if (exitPoint != null) {
+                    establishAsExitPoint(road, lane, exitPoint);
                 }
             } else if (endsInJunction) {
                 // If this lane ends in the junction, then it must have an entry point
-                for (Line2D segment : perimeterSegments) {
-                    // If the lane intersects (but not with it's end point)
-                    if (lane.intersectionPoint(segment) != null &&
-                            !isPointOnPerimeterSegment(lane.getEndPoint(), segment)) {
-                        entryPoint = lane.intersectionPoint(segment);
-                        establishAsEntryPoint(road, lane, entryPoint);
-                        break;
-                    }
+                // Where the lane crosses the perimeter (but not at it's end point)
+                entryPoint = findPerimeterCrossing(lane, perimeterSegments, lane.getEndPoint());
+                if (entryPoint != null) {
+                    establishAsEntryPoint(road, lane, entryPoint);
                 }
             } else { // if (!endsInJunction && !startsInJunction)
                 // If this lane runs straight through the junction, then it must have an entry and an exit point
-                List<Point2D> intersectionPoints = new ArrayList<Point2D>();
-                for (Line2D segment : perimeterSegments) {
-                    if (lane.intersectionPoint(segment) != null) {
-                        intersectionPoints.add(lane.intersectionPoint(segment));
-                    }
-                }
+                List<Point2D> intersectionPoints = findPerimeterCrossings(lane, perimeterSegments);
                 assert(intersectionPoints.size() == 2);
 
                 // Now decide which point is the entry and which is the exit
@@ -9,6 +9,8 @@ import java.util.List;
  * Created by Callum on 10/04/2017.
  */
 public abstract class MergeConnection extends BasicConnection {
+    private static final long serialVersionUID = 1L;
+
     /**
      * Basic class constructor.
      * Takes the Roads which meet to make this connection.
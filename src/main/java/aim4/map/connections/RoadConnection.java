@@ -1,7 +1,9 @@
 package aim4.map.connections;
 
+import java.io.Serializable;
+
 /**
  * Created by Becci on 02-Mar-17.
  */
-public interface RoadConnection {
+public interface RoadConnection extends Serializable {
 }
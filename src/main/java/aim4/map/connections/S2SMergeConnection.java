@@ -14,6 +14,8 @@ import java.util.List;
  * Created by Callum on 10/04/2017.
  */
 public class S2SMergeConnection extends MergeConnection {
+    private static final long serialVersionUID = 1L;
+
     private Point2D targetEntryPoint;
     private Point2D mergeEntryPoint;
     private Point2D exitPoint;
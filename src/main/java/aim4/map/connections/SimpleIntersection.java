@@ -8,7 +8,6 @@ import aim4.util.GeomMath;
 import java.awt.geom.Area;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -16,6 +15,7 @@ import java.util.List;
  * intersection of 2 or 3 roads, each with one lane.
  */
 public class SimpleIntersection extends BasicConnection {
+    private static final long serialVersionUID = 1L;
 
     /////////////////////////////////
     // CLASS CONSTRUCTORS
@@ -91,12 +91,7 @@ public class SimpleIntersection extends BasicConnection {
                 Point2D entryPoint;
                 Point2D exitPoint;
                 // Lanes run straight through the intersection so must have an entry and an exit point
-                List<Point2D> intersectionPoints = new ArrayList<Point2D>();
-                for (Line2D segment : perimeterSegments) {
-                    if (lane.intersectionPoint(segment) != null) {
-                        intersectionPoints.add(lane.intersectionPoint(segment));
-                    }
-                }
+                List<Point2D> intersectionPoints = findPerimeterCrossings(lane, perimeterSegments);
                 assert (intersectionPoints.size() == 2);
 
                 // Now decide which point is the entry and which is the exit
@@ -116,26 +111,14 @@ public class SimpleIntersection extends BasicConnection {
                 establishAsExitPoint(road, lane, exitPoint);
             } else if (startsInIntersection){
                 // This road will only have an exit point
-                Point2D exitPoint = null;
-                for (Line2D segment : perimeterSegments) {
-                    if (lane.intersectionPoint(segment) != null &&
-                            !isPointOnPerimeterSegment(lane.getStartPoint(), segment)) {
-                        exitPoint = lane.intersectionPoint(segment);
-                        break;
-                    }
-                }
+                Point2D exitPoint =
+                        findPerimeterCrossing(lane, perimeterSegments, lane.getStartPoint());
                 assert(exitPoint != null);
                 establishAsExitPoint(road, lane, exitPoint);
             } else { // if (endsInIntersection)
                 // This road will only have an entry point
-                Point2D entryPoint = null;
-                for (Line2D segment : perimeterSegments) {
-                    if (lane.intersectionPoint(segment) != null &&
-                            !isPointOnPerimeterSegment(lane.getEndPoint(), segment)) {
-                        entryPoint = lane.intersectionPoint(segment);
-                        break;
-                    }
-                }
+                Point2D entryPoint =
+                        findPerimeterCrossing(lane, perimeterSegments, lane.getEndPoint());
                 assert(entryPoint != null);
                 establishAsEntryPoint(road, lane, entryPoint);
             }
@@ -0,0 +1,321 @@
+package aim4.map.cpm;
+
+import com.csvreader.CsvReader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+
+/**
+ * A trace of the arrivals at a car park, giving the entry time and the
+ * parking time of each vehicle, in order of increasing entry time.
+ * <p>
+ * The trace is read from its file lazily, a batch of rows at a time, so
+ * that the memory used does not depend on the length of the trace.  The
+ * file is either a CSV file with the columns "Entry" and "Parking", each
+ * giving a time either in seconds or in the format hh:mm:ss, or a binary
+ * file written by {@link #convertToBinary(String, String)}, which does not
+ * need to be parsed.
+ * <p>
+ * A trace which is saved with a simulation snapshot is reopened when the
+ * snapshot is restored, and carries on from the same row.
+ */
+public class CPMArrivalTrace implements Closeable, Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /////////////////////////////////
+    // NESTED CLASSES
+    /////////////////////////////////
+
+    /**
+     * An arrival in the trace.  The same object is reused for each arrival.
+     */
+    public static class Arrival implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        /** The time at which the vehicle enters the car park. */
+        private double entryTime;
+        /** The time for which the vehicle parks. */
+        private double parkingTime;
+
+        /**
+         * Get the time at which the vehicle enters the car park.
+         * @return the entry time, in seconds
+         */
+        public double getEntryTime() {
+            return entryTime;
+        }
+
+        /**
+         * Get the time for which the vehicle parks.
+         * @return the parking time, in seconds
+         */
+        public double getParkingTime() {
+            return parkingTime;
+        }
+    }
+
+    /////////////////////////////////
+    // CONSTANTS
+    /////////////////////////////////
+
+    /** The number of rows read ahead. */
+    public static final int BATCH_SIZE = 256;
+
+    /** The first int of a binary trace. */
+    private static final int MAGIC = 0x43504D54; // "CPMT"
+
+    /////////////////////////////////
+    // PRIVATE FIELDS
+    /////////////////////////////////
+
+    /** The path of the file. */
+    private final String filepath;
+    /** The CSV file, or null if the trace is binary or has been read. */
+    private transient CsvReader csvFile;
+    /** The binary file, or null if the trace is CSV or has been read. */
+    private transient DataInputStream binaryFile;
+    /** Whether the file has been closed. */
+    private boolean closed;
+    /** The number of rows read from the file so far. */
+    private long numOfRowsRead;
+    /** The entry times of the rows read ahead. */
+    private final double[] entryTimes = new double[BATCH_SIZE];
+    /** The parking times of the rows read ahead. */
+    private final double[] parkingTimes = new double[BATCH_SIZE];
+    /** The number of rows read ahead. */
+    private int numOfRows;
+    /** The index of the next row. */
+    private int nextRow;
+    /** The next arrival. */
+    private final Arrival arrival = new Arrival();
+
+    /////////////////////////////////
+    // CONSTRUCTORS
+    /////////////////////////////////
+
+    /**
+     * Open an arrival trace.  Only the first batch of rows is read.
+     * @param filepath the path of the CSV or binary file.
+     */
+    public CPMArrivalTrace(String filepath) {
+        // TODO CPM this check should be done way before now so user can try again.
+        File file = new File(filepath);
+        if (!file.exists()){
+            throw new RuntimeException("This file doesn't exist.");
+        }
+        if (!file.canRead()) {
+            throw new RuntimeException("This file cannot be read.");
+        }
+        this.filepath = filepath;
+        open();
+        readBatch();
+    }
+
+    /////////////////////////////////
+    // PUBLIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Get the next arrival, without removing it from the trace.
+     * @return the next arrival, or null if there are no more arrivals.
+     *         The object returned is only valid until {@link #next()}.
+     */
+    public Arrival peek() {
+        if (nextRow == numOfRows) {
+            return null;
+        }
+        arrival.entryTime = entryTimes[nextRow];
+        arrival.parkingTime = parkingTimes[nextRow];
+        return arrival;
+    }
+
+    /**
+     * Remove the next arrival from the trace, reading the next batch of
+     * rows if needed.
+     */
+    public void next() {
+        if (nextRow < numOfRows) {
+            nextRow++;
+            if (nextRow == numOfRows) {
+                readBatch();
+            }
+        }
+    }
+
+    /**
+     * Close the file of the trace.  No more rows are read from it.
+     * @throws RuntimeException if the file cannot be closed.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (csvFile != null) {
+            csvFile.close();
+            csvFile = null;
+        }
+        if (binaryFile != null) {
+            DataInputStream in = binaryFile;
+            binaryFile = null;
+            try {
+                in.close();
+            } catch (IOException e) {
+                throw new RuntimeException("Cannot close the arrival trace " + filepath, e);
+            }
+        }
+    }
+
+    /////////////////////////////////
+    // PUBLIC STATIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Convert a CSV arrival trace into a binary one, which can be opened
+     * without being parsed.
+     * @param csvFilepath the path of the CSV file.
+     * @param binaryFilepath the path of the binary file to write.
+     */
+    public static void convertToBinary(String csvFilepath, String binaryFilepath) {
+        CPMArrivalTrace trace = new CPMArrivalTrace(csvFilepath);
+        try {
+            DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(new FileOutputStream(binaryFilepath)));
+            try {
+                out.writeInt(MAGIC);
+                for (Arrival a = trace.peek(); a != null; trace.next(), a = trace.peek()) {
+                    out.writeDouble(a.getEntryTime());
+                    out.writeDouble(a.getParkingTime());
+                }
+            } finally {
+                out.close();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot write the arrival trace " + binaryFilepath, e);
+        } finally {
+            trace.close();
+        }
+    }
+
+    /////////////////////////////////
+    // PRIVATE METHODS
+    /////////////////////////////////
+
+    /**
+     * Open the file, positioned at the first row.
+     */
+    private void open() {
+        try {
+            if (isBinary(new File(filepath))) {
+                binaryFile = new DataInputStream(
+                        new BufferedInputStream(new FileInputStream(filepath)));
+                binaryFile.readInt(); // the magic number
+            } else {
+                csvFile = new CsvReader(filepath);
+                csvFile.readHeaders();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot read the arrival trace " + filepath, e);
+        }
+    }
+
+    /**
+     * Reopen the file of a restored trace, skipping the rows which had
+     * already been read.
+     * @param in the stream the trace is read from.
+     * @throws IOException if the trace cannot be read.
+     * @throws ClassNotFoundException if a class of the trace cannot be found.
+     */
+    private void readObject(ObjectInputStream in)
+            throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (!closed) {
+            open();
+            for (long i = 0; i < numOfRowsRead; i++) {
+                if (csvFile != null) {
+                    csvFile.readRecord();
+                } else {
+                    binaryFile.readDouble();
+                    binaryFile.readDouble();
+                }
+            }
+        }
+    }
+
+    /**
+     * Read the next batch of rows, closing the file once it has all been
+     * read.
+     */
+    private void readBatch() {
+        numOfRows = 0;
+        nextRow = 0;
+        try {
+            if (csvFile != null) {
+                while (numOfRows < BATCH_SIZE && csvFile.readRecord()) {
+                    entryTimes[numOfRows] = parseTime(csvFile.get("Entry"));
+                    parkingTimes[numOfRows] = parseTime(csvFile.get("Parking"));
+                    numOfRows++;
+                }
+            } else if (binaryFile != null) {
+                while (numOfRows < BATCH_SIZE) {
+                    double entryTime;
+                    try {
+                        entryTime = binaryFile.readDouble();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    entryTimes[numOfRows] = entryTime;
+                    parkingTimes[numOfRows] = binaryFile.readDouble();
+                    numOfRows++;
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Cannot read the arrival trace", e);
+        }
+        numOfRowsRead += numOfRows;
+        if (numOfRows < BATCH_SIZE) {
+            close();
+        }
+    }
+
+    /**
+     * Parse a time given either in seconds or in the format hh:mm:ss.
+     * @param timeString the time.
+     * @return the time in seconds.
+     */
+    private static double parseTime(String timeString) {
+        try {
+            return Double.parseDouble(timeString);
+        } catch (NumberFormatException e) {
+            String[] data = timeString.split(":");
+            double hours = Double.parseDouble(data[0]);
+            double minutes = Double.parseDouble(data[1]);
+            double seconds = Double.parseDouble(data[2]);
+            return (3600*hours) + (60*minutes) + seconds;
+        }
+    }
+
+    /**
+     * Whether a file is a binary arrival trace.
+     * @param file the file.
+     * @return whether the file starts with the magic number.
+     */
+    private static boolean isBinary(File file) throws IOException {
+        DataInputStream in = new DataInputStream(new FileInputStream(file));
+        try {
+            return in.readInt() == MAGIC;
+        } catch (EOFException e) {
+            return false;
+        } finally {
+            in.close();
+        }
+    }
+}
@@ -27,6 +27,8 @@ import java.util.Map;
  * The base class for all CPM Maps.
  */
 public abstract class CPMBasicMap implements CPMMap{
+    private static final long serialVersionUID = 1L;
+
     /////////////////////////////////
     // CONSTANTS
     /////////////////////////////////
@@ -19,6 +19,8 @@ import java.util.List;
  * A car park map with a parking area.
  */
 public class CPMCarParkWithStatus extends CPMBasicMap {
+    private static final long serialVersionUID = 1L;
+
     // TODO CPM Decide if this should extend CPMBasicMap or CPMMapCarPark
 
     /** The number of parking lanes. */
@@ -1,6 +1,8 @@
 package aim4.map.cpm;
 
 import aim4.map.DataCollectionLine;
+import aim4.sim.simulator.cpm.helper.CPMEventLog;
+import aim4.sim.simulator.cpm.helper.CPMEventType;
 import aim4.vehicle.VehicleSimModel;
 import aim4.vehicle.cpm.CPMBasicAutoVehicle;
 
@@ -14,6 +16,7 @@ import java.util.Map;
  * The data collection line for CPM simulations.
  */
 public class CPMExitDataCollectionLine extends DataCollectionLine {
+    private static final long serialVersionUID = 1L;
 
     /** The record of the estimated distance travelled of the vehicle passing through the line */
     private Map<Integer,Double> vinToEstimatedDistanceTravelled;
@@ -74,7 +77,9 @@ public class CPMExitDataCollectionLine extends DataCollectionLine {
                 vinToParkingTime.put(vin, parkingTime);
                 vinToEstimatedDistanceTravelled.put(vin, ((CPMBasicAutoVehicle) v).getEstimatedDistanceTravelled());
                 vinToNumberOfReEntries.put(vin, ((CPMBasicAutoVehicle) v).getNumberOfReEntries());
-                System.out.println("INTERSECT WITH DCL");
+                if (CPMEventLog.MAP) {
+                    CPMEventLog.log(CPMEventType.EXIT_LINE_CROSSED, vin, time);
+                }
                 return true;
             } else {
                 return false;
@@ -3,20 +3,15 @@ package aim4.map.cpm;
 import aim4.config.SimConfig;
 import aim4.map.cpm.CPMSpawnPoint.*;
 import aim4.map.lane.Lane;
+import aim4.sim.simulator.cpm.helper.CPMEventLog;
+import aim4.sim.simulator.cpm.helper.CPMEventType;
 import aim4.util.Util;
 import aim4.vehicle.VehicleSpec;
 import aim4.vehicle.VehicleSpecDatabase;
-import javafx.util.Pair;
 
 import java.awt.geom.Point2D;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
-
-import com.csvreader.CsvReader;
 
 /**
  * Utility class for CPM maps.
@@ -41,6 +36,8 @@ public class CPMMapUtil {
      * The spec generator that generates a finite number of vehicles of the same spec.
      */
     public static class FiniteSpawnSingleSpecGenerator implements CPMSpawnSpecGenerator {
+        private static final long serialVersionUID = 1L;
+
         /** The vehicle specification */
         private VehicleSpec vehicleSpec;
         /** Number of vehicles to be spawned. */
@@ -83,7 +80,10 @@ public class CPMMapUtil {
                         double parkingTime = generateParkingTime();
                         result.add(new CPMSpawnSpec(spawnPoint.getCurrentTime(),vehicleSpec, parkingTime));
                         numberOfSpawnedVehicles += 1;
-                        System.out.println("Vehicle spawned!");
+                        if (CPMEventLog.MAP) {
+                            CPMEventLog.log(CPMEventType.VEHICLE_SPAWNED, -1,
+                                    spawnPoint.getCurrentTime(), vehicleSpec.getName());
+                        }
                     }
                 }
             }
@@ -99,6 +99,8 @@ public class CPMMapUtil {
      * The spec generator that continuously generates vehicles of the same spec.
      */
     public static class InfiniteSpawnSingleSpecGenerator implements CPMSpawnSpecGenerator {
+        private static final long serialVersionUID = 1L;
+
         /** The vehicle specification */
         private VehicleSpec vehicleSpec;
         /** The probability of generating a vehicle in each spawn time step */
@@ -126,7 +128,10 @@ public class CPMMapUtil {
                 if (Util.random.nextDouble() < spawnProbability) {
                     double parkingTime = generateParkingTime();
                     result.add(new CPMSpawnSpec(spawnPoint.getCurrentTime(),vehicleSpec, parkingTime));
-                    System.out.println("Vehicle spawned!");
+                    if (CPMEventLog.MAP) {
+                        CPMEventLog.log(CPMEventType.VEHICLE_SPAWNED, -1,
+                                spawnPoint.getCurrentTime(), vehicleSpec.getName());
+                    }
                 }
             }
             return result;
@@ -137,8 +142,7 @@ public class CPMMapUtil {
             // Returns a random double
             double rangeMin = 2000.0;
             double rangeMax = 20000.0;
-            Random r = new Random();
-            return rangeMin + (rangeMax - rangeMin) * r.nextDouble();
+            return rangeMin + (rangeMax - rangeMin) * Util.random.nextDouble();
         }
     }
 
@@ -147,10 +151,12 @@ public class CPMMapUtil {
      * specify the spawn times and parking times.
      */
     public static class SpecificSpawnSingleSpecGenerator implements CPMSpawnSpecGenerator {
+        private static final long serialVersionUID = 1L;
+
         /** The vehicle specification */
         private VehicleSpec vehicleSpec;
-        /** A list of entry time and parking time pairs */
-        private List<Pair<Double, Double>> spawnTimes = new ArrayList<Pair<Double, Double>>();
+        /** The entry times and parking times of the vehicles to spawn */
+        private CPMArrivalTrace spawnTimes;
         /** Whether the spawn point has finished spawning vehicles */
         private boolean isDone = false;
 
@@ -158,91 +164,9 @@ public class CPMMapUtil {
         /**
          * Create a spec generator that infinitely generates vehicles of the same spec.
          */
-        public SpecificSpawnSingleSpecGenerator(Pair<Boolean, String> useCSVFilePair) {
+        public SpecificSpawnSingleSpecGenerator(String arrivalTrace) {
             vehicleSpec = VehicleSpecDatabase.getVehicleSpecByName("COUPE");
-            processCSV(useCSVFilePair);
-        }
-
-        private void processCSV(Pair<Boolean, String> useCSVFilePair){
-            // Ensure we are meant to be using a file
-            boolean useCSV = useCSVFilePair.getKey();
-            assert useCSV;
-
-            // Ensure the given location is valid
-            // TODO CPM this check should be done way before now so user can try again.
-            String filepath = useCSVFilePair.getValue();
-            File file = new File(filepath);
-            if (!file.exists()){
-                throw new RuntimeException("This file doesn't exist.");
-            }
-            if (!file.canRead()) {
-                throw new RuntimeException("This file cannot be read.");
-            }
-
-            try {
-                readCSV(filepath);
-            } catch (FileNotFoundException e) {
-                e.printStackTrace();
-            }
-        }
-
-        /**
-         * Read the CSV file, adding the entry time and parking time as a pair to spawnTimes.
-         * The CSV file should either give the times in seconds, or in the format hh:mm:ss.
-         * The CSV file should be ordered by increasing entry time.
-         * @param filepath for the CSV file
-         * @throws FileNotFoundException
-         */
-        private void readCSV(String filepath) throws FileNotFoundException {
-            try {
-
-                CsvReader csvFile = new CsvReader(filepath);
-
-                try {
-                    csvFile.readHeaders();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-
-                while (csvFile.readRecord())
-                {
-                    String entryString = csvFile.get("Entry");
-                    String parkingString = csvFile.get("Parking");
-
-                    Double entry;
-                    Double parking;
-                    try {
-                        entry = Double.parseDouble(entryString);
-                    } catch (NumberFormatException e) {
-                        entry = convertTimeToSeconds(entryString);
-                    }
-                    try {
-                        parking = Double.parseDouble(parkingString);
-                    } catch (NumberFormatException e) {
-                        parking = convertTimeToSeconds(parkingString);
-                    }
-
-                    Pair<Double, Double> pair = new Pair<Double, Double>(entry, parking);
-                    spawnTimes.add(pair);
-                }
-
-                csvFile.close();
-
-            } catch (FileNotFoundException e) {
-                e.printStackTrace();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-
-        }
-
-        private Double convertTimeToSeconds(String timeString){
-            String[] data = timeString.split(":");
-            double hours = Double.parseDouble(data[0]);
-            double minutes = Double.parseDouble(data[1]);
-            double seconds = Double.parseDouble(data[2]);
-            double totalSeconds = (3600*hours) + (60*minutes) + seconds;
-            return totalSeconds;
+            spawnTimes = new CPMArrivalTrace(arrivalTrace);
         }
 
         /**
@@ -252,17 +176,21 @@ public class CPMMapUtil {
         public List<CPMSpawnSpec> act(CPMSpawnPoint spawnPoint, double timeStep) {
             List<CPMSpawnSpec> result = new ArrayList<CPMSpawnSpec>(1);
 
-            if (spawnTimes.isEmpty()) {
+            CPMArrivalTrace.Arrival arrival = spawnTimes.peek();
+            if (arrival == null) {
                 isDone = true;
             }
 
             double initTime = spawnPoint.getCurrentTime();
             if (!isDone) {
-                if (spawnTimes.get(0).getKey() < initTime) {
-                    double parkingTime = spawnTimes.get(0).getValue();
+                if (arrival.getEntryTime() < initTime) {
+                    double parkingTime = arrival.getParkingTime();
                     result.add(new CPMSpawnSpec(spawnPoint.getCurrentTime(), vehicleSpec, parkingTime));
-                    spawnTimes.remove(0);
-                    System.out.println("Vehicle spawned at time: " + initTime);
+                    spawnTimes.next();
+                    if (CPMEventLog.MAP) {
+                        CPMEventLog.log(CPMEventType.VEHICLE_SPAWNED, -1,
+                                spawnPoint.getCurrentTime(), vehicleSpec.getName());
+                    }
                 }
             }
 
@@ -274,8 +202,7 @@ public class CPMMapUtil {
             // Returns a random double
             double rangeMin = 2000.0;
             double rangeMax = 20000.0;
-            Random r = new Random();
-            return rangeMin + (rangeMax - rangeMin) * r.nextDouble();
+            return rangeMin + (rangeMax - rangeMin) * Util.random.nextDouble();
         }
     }
 
@@ -284,6 +211,8 @@ public class CPMMapUtil {
      * randomly selecting the spec of each one.
      */
     public static class FiniteSpawnRandomSpecGenerator implements CPMSpawnSpecGenerator {
+        private static final long serialVersionUID = 1L;
+
         /** The proportion of each spec */
         private List<Double> proportion;
         /** Number of vehicles to be spawned. */
@@ -338,7 +267,10 @@ public class CPMMapUtil {
                                 vehicleSpec,
                                 parkingTime));
                         numberOfSpawnedVehicles += 1;
-                        System.out.println("Vehicle " + vehicleSpec.getName() + " spawned!");
+                        if (CPMEventLog.MAP) {
+                            CPMEventLog.log(CPMEventType.VEHICLE_SPAWNED, -1,
+                                    spawnPoint.getCurrentTime(), vehicleSpec.getName());
+                        }
                     }
                 }
             }
@@ -354,6 +286,8 @@ public class CPMMapUtil {
      * The spec generator that infinitely generates vehicles with a random spec.
      */
     public static class InfiniteSpawnRandomSpecGenerator implements CPMSpawnSpecGenerator {
+        private static final long serialVersionUID = 1L;
+
         /** The proportion of each spec */
         private List<Double> proportion;
         /** The probability of generating a vehicle in each spawn time step */
@@ -392,7 +326,10 @@ public class CPMMapUtil {
                     result.add(new CPMSpawnSpec(spawnPoint.getCurrentTime(),
                                                 vehicleSpec,
                                                 parkingTime));
-                    System.out.println("Vehicle " + vehicleSpec.getName() + " spawned!");
+                    if (CPMEventLog.MAP) {
+                        CPMEventLog.log(CPMEventType.VEHICLE_SPAWNED, -1,
+                                spawnPoint.getCurrentTime(), vehicleSpec.getName());
+                    }
                 }
             }
 
@@ -404,8 +341,7 @@ public class CPMMapUtil {
             // Returns a random double
             double rangeMin = 2000.0;
             double rangeMax = 20000.0;
-            Random r = new Random();
-            return rangeMin + (rangeMax - rangeMin) * r.nextDouble();
+            return rangeMin + (rangeMax - rangeMin) * Util.random.nextDouble();
         }
     }
 
@@ -414,8 +350,10 @@ public class CPMMapUtil {
      * specify the spawn times and parking times.
      */
     public static class SpecificSpawnRandomSpecGenerator implements CPMSpawnSpecGenerator {
-        /** A list of entry time and parking time pairs */
-        private List<Pair<Double, Double>> spawnTimes = new ArrayList<Pair<Double, Double>>();
+        private static final long serialVersionUID = 1L;
+
+        /** The entry times and parking times of the vehicles to spawn */
+        private CPMArrivalTrace spawnTimes;
         /** Whether the spawn point has finished spawning vehicles */
         private boolean isDone = false;
         /** The proportion of each spec */
@@ -425,8 +363,8 @@ public class CPMMapUtil {
         /**
          * Create a spec generator that infinitely generates vehicles of the same spec.
          */
-        public SpecificSpawnRandomSpecGenerator(Pair<Boolean, String> useCSVFilePair) {
-            processCSV(useCSVFilePair);
+        public SpecificSpawnRandomSpecGenerator(String arrivalTrace) {
+            spawnTimes = new CPMArrivalTrace(arrivalTrace);
 
             int n = VehicleSpecDatabase.getNumOfSpec();
             proportion = new ArrayList<Double>(n);
@@ -436,86 +374,6 @@ public class CPMMapUtil {
             }
         }
 
-        private void processCSV(Pair<Boolean, String> useCSVFilePair){
-            // Ensure we are meant to be using a file
-            boolean useCSV = useCSVFilePair.getKey();
-            assert useCSV;
-
-            // Ensure the given location is valid
-            // TODO CPM this check should be done way before now so user can try again.
-            String filepath = useCSVFilePair.getValue();
-            File file = new File(filepath);
-            if (!file.exists()){
-                throw new RuntimeException("This file doesn't exist.");
-            }
-            if (!file.canRead()) {
-                throw new RuntimeException("This file cannot be read.");
-            }
-
-            try {
-                readCSV(filepath);
-            } catch (FileNotFoundException e) {
-                e.printStackTrace();
-            }
-        }
-
-        /**
-         * Read the CSV file, adding the entry time and parking time as a pair to spawnTimes.
-         * The CSV file should either give the times in seconds, or in the format hh:mm:ss.
-         * The CSV file should be ordered by increasing entry time.
-         * @param filepath for the CSV file
-         * @throws FileNotFoundException
-         */
-        private void readCSV(String filepath) throws FileNotFoundException {
-            try {
-
-                CsvReader csvFile = new CsvReader(filepath);
-
-                try {
-                    csvFile.readHeaders();
-                } catch (IOException e) {
-                    e.printStackTrace();
-                }
-
-                while (csvFile.readRecord())
-                {
-                    String entryString = csvFile.get("Entry");
-                    String parkingString = csvFile.get("Parking");
-
-                    Double entry;
-                    Double parking;
-                    try {
-                        entry = Double.parseDouble(entryString);
-                        parking = Double.parseDouble(parkingString);
-                    } catch (NumberFormatException e) {
-                        entry = convertTimeToSeconds(entryString);
-                        parking = convertTimeToSeconds(parkingString);
-
-                    }
-
-                    Pair<Double, Double> pair = new Pair<Double, Double>(entry, parking);
-                    spawnTimes.add(pair);
-                }
-
-                csvFile.close();
-
-            } catch (FileNotFoundException e) {
-                e.printStackTrace();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-
-        }
-
-        private Double convertTimeToSeconds(String timeString){
-            String[] data = timeString.split(":");
-            double hours = Double.parseDouble(data[0]);
-            double minutes = Double.parseDouble(data[1]);
-            double seconds = Double.parseDouble(data[2]);
-            double totalSeconds = (3600*hours) + (60*minutes) + seconds;
-            return totalSeconds;
-        }
-
         /**
          * {@inheritDoc}
          */
@@ -523,19 +381,23 @@ public class CPMMapUtil {
         public List<CPMSpawnSpec> act(CPMSpawnPoint spawnPoint, double timeStep) {
             List<CPMSpawnSpec> result = new ArrayList<CPMSpawnSpec>(1);
 
-            if (spawnTimes.isEmpty()) {
+            CPMArrivalTrace.Arrival arrival = spawnTimes.peek();
+            if (arrival == null) {
                 isDone = true;
             }
 
             double initTime = spawnPoint.getCurrentTime();
             if (!isDone) {
-                if (spawnTimes.get(0).getKey() < initTime) {
+                if (arrival.getEntryTime() < initTime) {
                     int i = Util.randomIndex(proportion);
                     VehicleSpec vehicleSpec = VehicleSpecDatabase.getVehicleSpecById(i);
-                    double parkingTime = spawnTimes.get(0).getValue();
+                    double parkingTime = arrival.getParkingTime();
                     result.add(new CPMSpawnSpec(spawnPoint.getCurrentTime(), vehicleSpec, parkingTime));
-                    spawnTimes.remove(0);
-                    System.out.println("Vehicle " + vehicleSpec.getName() +" spawned at time: " + initTime);
+                    spawnTimes.next();
+                    if (CPMEventLog.MAP) {
+                        CPMEventLog.log(CPMEventType.VEHICLE_SPAWNED, -1,
+                                spawnPoint.getCurrentTime(), vehicleSpec.getName());
+                    }
                 }
             }
 
@@ -547,8 +409,7 @@ public class CPMMapUtil {
             // Returns a random double
             double rangeMin = 2000.0;
             double rangeMax = 20000.0;
-            Random r = new Random();
-            return rangeMin + (rangeMax - rangeMin) * r.nextDouble();
+            return rangeMin + (rangeMax - rangeMin) * Util.random.nextDouble();
         }
     }
 
@@ -559,6 +420,8 @@ public class CPMMapUtil {
      * to relocate.
      */
     public static class SimpleRelocateSpawnSpecGenerator implements CPMSpawnSpecGenerator {
+        private static final long serialVersionUID = 1L;
+
         /** The vehicle specification */
         private VehicleSpec vehicleSpec;
         /** The probability of generating a vehicle in each spawn time step */
@@ -598,7 +461,10 @@ public class CPMMapUtil {
                     if (Util.random.nextDouble() < spawnProbability) {
                         double parkingTime = generateParkingTime();
                         result.add(new CPMSpawnSpec(spawnPoint.getCurrentTime(),vehicleSpec, parkingTime));
-                        System.out.println("Vehicle spawned!");
+                        if (CPMEventLog.MAP) {
+                            CPMEventLog.log(CPMEventType.VEHICLE_SPAWNED, -1,
+                                    spawnPoint.getCurrentTime(), vehicleSpec.getName());
+                        }
                         numberOfSpawnedVehicles += 1;
                     }
                 }
@@ -634,19 +500,19 @@ public class CPMMapUtil {
         }
     }
 
-    public static void setUpSpecificSingleSpecVehicleSpawnPoint(CPMMap map, Pair<Boolean, String> useCSVPair){
+    public static void setUpSpecificSingleSpecVehicleSpawnPoint(CPMMap map, String arrivalTrace){
         // The spawn point will infinitely spawn vehicles of the same spec.
         for(CPMSpawnPoint sp : map.getSpawnPoints()) {
             sp.setVehicleSpecChooser(
-                    new SpecificSpawnSingleSpecGenerator(useCSVPair));
+                    new SpecificSpawnSingleSpecGenerator(arrivalTrace));
         }
     }
 
-    public static void setUpSpecificRandomSpecVehicleSpawnPoint(CPMMap map, Pair<Boolean, String> useCSVPair){
+    public static void setUpSpecificRandomSpecVehicleSpawnPoint(CPMMap map, String arrivalTrace){
         // The spawn point will infinitely spawn vehicles of the same spec.
         for(CPMSpawnPoint sp : map.getSpawnPoints()) {
             sp.setVehicleSpecChooser(
-                    new SpecificSpawnRandomSpecGenerator(useCSVPair));
+                    new SpecificSpawnRandomSpecGenerator(arrivalTrace));
         }
     }
 
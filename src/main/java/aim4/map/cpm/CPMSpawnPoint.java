@@ -6,12 +6,14 @@ import aim4.vehicle.VehicleSpec;
 
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.io.Serializable;
 import java.util.List;
 
 /**
  * A SpawnPoint for CPM simulations.
  */
 public class CPMSpawnPoint extends SpawnPoint {
+    private static final long serialVersionUID = 1L;
 
     /////////////////////////////////
     // NESTED CLASSES
@@ -19,6 +21,7 @@ public class CPMSpawnPoint extends SpawnPoint {
 
     /** The specification of a spawn */
     public static class CPMSpawnSpec extends SpawnSpec {
+        private static final long serialVersionUID = 1L;
 
         double parkingTime;
 
@@ -39,7 +42,7 @@ public class CPMSpawnPoint extends SpawnPoint {
     /**
      * The interface of the spawn specification generator.
      */
-    public static interface CPMSpawnSpecGenerator {
+    public static interface CPMSpawnSpecGenerator extends Serializable {
         List<CPMSpawnSpec> act(CPMSpawnPoint spawnPoint, double timestep);
         double generateParkingTime();
     }
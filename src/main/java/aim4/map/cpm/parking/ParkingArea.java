@@ -7,6 +7,7 @@ import aim4.util.Registry;
 
 import java.awt.*;
 import java.awt.geom.Point2D;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -18,7 +19,8 @@ import java.util.List;
  * Essentially, the start point given must be the top left
  * corner of the parking area to be created.
  */
-public class ParkingArea {
+public class ParkingArea implements Serializable {
+    private static final long serialVersionUID = 1L;
 
     /////////////////////////////////
     // CONSTANTS
@@ -2,14 +2,21 @@ package aim4.map.cpm.parking;
 
 import aim4.map.Road;
 import aim4.map.lane.LineSegmentLane;
+import aim4.vehicle.cpm.CPMBasicAutoVehicle;
 
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
+import java.util.Arrays;
 
 /**
  * A lane where vehicles can park.
  */
 public class ParkingLane extends LineSegmentLane {
+    private static final long serialVersionUID = 1L;
+
+    /** The initial capacity of the index of the vehicles on the lane. */
+    private static final int INITIAL_CAPACITY = 16;
+
     /**The point on the lane where the parking section begins.*/
     private Point2D parkingStartPoint;
     /**The point on the lane where the parking section ends.*/
@@ -22,6 +29,12 @@ public class ParkingLane extends LineSegmentLane {
     private double overlappingRoadWidth;
     /** The road this parking lane belongs to */
     private Road road;
+    /** The vehicles on this lane, sorted by their x-coordinates. */
+    private CPMBasicAutoVehicle[] vehicles = new CPMBasicAutoVehicle[INITIAL_CAPACITY];
+    /** The x-coordinates of the vehicles on this lane, in increasing order. */
+    private double[] vehicleXs = new double[INITIAL_CAPACITY];
+    /** The number of vehicles on this lane. */
+    private int numOfVehicles;
 
     public ParkingLane(Line2D line, double laneWidth, double accessLength,
                        double overlappingRoadWidth, double speedLimit, Road road) {
@@ -64,4 +77,89 @@ public class ParkingLane extends LineSegmentLane {
         return road.getName();
     }
     
+    /**
+     * Remove all vehicles from the index of the vehicles on this lane.
+     */
+    public void clearVehicles() {
+        Arrays.fill(vehicles, 0, numOfVehicles, null);
+        numOfVehicles = 0;
+    }
+
+    /**
+     * Add a vehicle to the index of the vehicles on this lane, at its
+     * current position. Vehicles at the same position keep the order in
+     * which they were added.
+     *
+     * @param vehicle the vehicle on this lane.
+     */
+    public void addVehicle(CPMBasicAutoVehicle vehicle) {
+        if (numOfVehicles == vehicles.length) {
+            vehicles = Arrays.copyOf(vehicles, 2 * numOfVehicles);
+            vehicleXs = Arrays.copyOf(vehicleXs, 2 * numOfVehicles);
+        }
+        double x = vehicle.getPosition().getX();
+        // Vehicles are mostly added in order, so this rarely shifts far
+        int i = numOfVehicles;
+        while (i > 0 && vehicleXs[i-1] > x) {
+            vehicles[i] = vehicles[i-1];
+            vehicleXs[i] = vehicleXs[i-1];
+            i--;
+        }
+        vehicles[i] = vehicle;
+        vehicleXs[i] = x;
+        numOfVehicles++;
+    }
+
+    /**
+     * Get the number of vehicles in the index of the vehicles on this lane.
+     *
+     * @return the number of vehicles on this lane.
+     */
+    public int getNumOfVehicles() {
+        return numOfVehicles;
+    }
+
+    /**
+     * Get the vehicle on this lane that is directly in front of a position.
+     *
+     * @param x the x-coordinate of the position.
+     * @return the vehicle with the smallest x-coordinate larger than the
+     * given one, or null if there is none.
+     */
+    public CPMBasicAutoVehicle getVehicleInFront(double x) {
+        // Find the first vehicle whose x-coordinate is larger than x
+        int lo = 0;
+        int hi = numOfVehicles;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (vehicleXs[mid] > x) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return (lo < numOfVehicles) ? vehicles[lo] : null;
+    }
+
+    /**
+     * Get the vehicle on this lane that is directly behind a position.
+     *
+     * @param x the x-coordinate of the position.
+     * @return the vehicle with the largest x-coordinate smaller than the
+     * given one, or null if there is none.
+     */
+    public CPMBasicAutoVehicle getVehicleBehind(double x) {
+        // Find the first vehicle whose x-coordinate is not smaller than x
+        int lo = 0;
+        int hi = numOfVehicles;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (vehicleXs[mid] >= x) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return (lo > 0) ? vehicles[lo-1] : null;
+    }
 }
@@ -1,10 +1,13 @@
 package aim4.map.cpm.parking;
 
+import aim4.sim.simulator.cpm.helper.CPMEventLog;
+import aim4.sim.simulator.cpm.helper.CPMEventType;
 import aim4.vehicle.VehicleSimModel;
 
 import java.awt.*;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -16,7 +19,8 @@ import java.util.Map;
  * to update it's records of the car park, and whether any
  * messages need to be sent to CPMBasicCoordinator.
  */
-public class SensoredLine {
+public class SensoredLine implements Serializable {
+    private static final long serialVersionUID = 1L;
 
     public enum SensoredLineType {
         /** Is crossed on entry to the car park. */
@@ -89,7 +93,9 @@ public class SensoredLine {
                 } else {
                     vinToTime.get(vin).add(time);
                 }
-                System.out.println("INTERSECT WITH " + type + " SENSORED LINE: " + time);
+                if (CPMEventLog.MAP) {
+                    CPMEventLog.log(CPMEventType.SENSORED_LINE_CROSSED, vin, time, type);
+                }
                 return true;
             } else {
                 return false;
@@ -2,8 +2,11 @@ package aim4.map.cpm.parking;
 
 import aim4.driver.cpm.CPMV2VDriver;
 import aim4.sim.simulator.cpm.CPMAutoDriverSimulator;
+import aim4.sim.simulator.cpm.helper.CPMEventLog;
+import aim4.sim.simulator.cpm.helper.CPMEventType;
 import aim4.vehicle.cpm.CPMBasicAutoVehicle;
 
+import java.io.Serializable;
 import java.util.*;
 
 /**
@@ -11,13 +14,22 @@ import java.util.*;
  * including the space left in each parking lane and the
  * remaining capacity of the car park.
  */
-public class StatusMonitor {
+public class StatusMonitor implements Serializable {
+    private static final long serialVersionUID = 1L;
 
     /** The parking area that we are recording the status of. */
     private ParkingArea parkingArea;
-    /** A mapping from parking lanes to the amount of
-     * space left for parking on that lane. */
-    private Map<ParkingLane, Double> parkingLanesSpace = new HashMap<ParkingLane, Double>();
+    /** The parking lanes, indexed by slot. */
+    private ParkingLane[] parkingLanes;
+    /** The amount of space left for parking on each parking lane, indexed by slot. */
+    private double[] parkingLanesSpace;
+    /** The slot of each parking lane. */
+    private Map<ParkingLane, Integer> parkingLaneSlots = new HashMap<ParkingLane, Integer>();
+    /** A max-heap of the slots of the parking lanes, ordered by the space
+     * left on the lane and then by lowest lane ID. */
+    private int[] heap;
+    /** The position of each slot in the heap. */
+    private int[] heapPositions;
     /** A list of vehicles which are currently in the car park,
      * and the lane they are parked in. */
     private Map<CPMBasicAutoVehicle, ParkingLane> vehicles = new HashMap<CPMBasicAutoVehicle, ParkingLane>();
@@ -42,13 +54,28 @@ public class StatusMonitor {
 
     /**
      * Create a mapping from each parking lane to the length of
-     * the parking space available in that lane.
+     * the parking space available in that lane, and index the
+     * parking lanes by the space available.
      * @param parkingArea The parking area to extract the parking
      *                    lanes from.
      */
     private void initialiseParkingLanesSpace(ParkingArea parkingArea){
-        for (ParkingLane lane : parkingArea.getParkingLanes()) {
-            parkingLanesSpace.put(lane, lane.getTotalParkingLength());
+        List<ParkingLane> lanes = parkingArea.getParkingLanes();
+        int n = lanes.size();
+        parkingLanes = new ParkingLane[n];
+        parkingLanesSpace = new double[n];
+        heap = new int[n];
+        heapPositions = new int[n];
+        for (int slot = 0; slot < n; slot++) {
+            ParkingLane lane = lanes.get(slot);
+            parkingLanes[slot] = lane;
+            parkingLanesSpace[slot] = lane.getTotalParkingLength();
+            parkingLaneSlots.put(lane, slot);
+            heap[slot] = slot;
+            heapPositions[slot] = slot;
+        }
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(i);
         }
     }
 
@@ -59,14 +86,14 @@ public class StatusMonitor {
      */
     public boolean roomForVehicle(double vehicleLength) {
         // Find the lane with the most room available
-        Map.Entry<ParkingLane, Double>  parkingLaneEntry = findLeastFullParkingLane();
+        int slot = findLeastFullParkingLane();
 
 
         // Check there is room for this vehicle
         double distanceBetweenVehicles = CPMAutoDriverSimulator.MIN_DISTANCE_BETWEEN_PARKED_VEHICLES;;
         double spaceNeeded = vehicleLength + distanceBetweenVehicles;
 
-        if (willVehicleFit(parkingLaneEntry, spaceNeeded)) {
+        if (willVehicleFit(slot, spaceNeeded)) {
             numberOfAllowedEntries++;
             return true;
         }
@@ -89,18 +116,21 @@ public class StatusMonitor {
         }
 
         // Find the lane with the most room available
-        Map.Entry<ParkingLane, Double>  parkingLaneEntry = findLeastFullParkingLane();
+        int slot = findLeastFullParkingLane();
 
         // Update the space available on that lane
-        decreaseCapacity(vehicle, parkingLaneEntry);
+        decreaseCapacity(vehicle, slot);
 
         // Allocate this parking lane to the vehicle by sending message
-        System.out.println("Status monitor sending parking lane to vehicle.");
-        sendParkingLaneMessage(vehicle, parkingLaneEntry.getKey());
+        if (CPMEventLog.STATUS_MONITOR) {
+            CPMEventLog.log(CPMEventType.PARKING_LANE_SENT, vehicle.getVIN(),
+                    vehicle.gaugeTime());
+        }
+        sendParkingLaneMessage(vehicle, parkingLanes[slot]);
 
         // Register the vehicle with the StatusMonitor, along with the
         // parking lane it has been allocated
-        vehicles.put(vehicle, parkingLaneEntry.getKey());
+        vehicles.put(vehicle, parkingLanes[slot]);
     }
 
     /**
@@ -113,19 +143,22 @@ public class StatusMonitor {
         increaseCapacity(vehicle);
 
         // Find the lane with the most room available
-        Map.Entry<ParkingLane, Double>  parkingLaneEntry = findLeastFullParkingLane();
+        int slot = findLeastFullParkingLane();
 
         // Update the space available on that lane
-        decreaseCapacity(vehicle, parkingLaneEntry);
+        decreaseCapacity(vehicle, slot);
 
         // Allocate this parking lane to the vehicle by sending message
-        System.out.println("Status monitor sending parking lane to vehicle.");
-        sendParkingLaneMessage(vehicle, parkingLaneEntry.getKey());
+        if (CPMEventLog.STATUS_MONITOR) {
+            CPMEventLog.log(CPMEventType.PARKING_LANE_SENT, vehicle.getVIN(),
+                    vehicle.gaugeTime());
+        }
+        sendParkingLaneMessage(vehicle, parkingLanes[slot]);
 
         // Update the vehicles parking lane in StatusMonitor records, along with the
         // parking lane it has been allocated
         // TODO CPM rename vehicles to vehiclesToLane
-        vehicles.put(vehicle, parkingLaneEntry.getKey());
+        vehicles.put(vehicle, parkingLanes[slot]);
     }
 
     /**
@@ -147,25 +180,28 @@ public class StatusMonitor {
      */
     private void increaseCapacity(CPMBasicAutoVehicle vehicle){
         ParkingLane laneToUpdate = vehicles.get(vehicle);
-        Map.Entry<ParkingLane, Double>  entryToUpdate = findParkingLaneSpace(laneToUpdate);
+        int slot = findParkingLaneSpace(laneToUpdate);
         double spaceFreed = calculateTotalVehicleSpace(vehicle);
-        parkingLanesSpace.put(entryToUpdate.getKey(), entryToUpdate.getValue() + spaceFreed);
+        parkingLanesSpace[slot] += spaceFreed;
+        siftUp(heapPositions[slot]);
     }
 
     /**
      * Decrease the capacity when a vehicle is entering the parking area.
      * This is on ENTRERING and RELOCATING
      * @param vehicle The vehicle entering the parking area.
+     * @param slot The slot of the parking lane the vehicle is allocated.
      */
-    private void decreaseCapacity(CPMBasicAutoVehicle vehicle, Map.Entry<ParkingLane, Double>  parkingLaneEntry){
+    private void decreaseCapacity(CPMBasicAutoVehicle vehicle, int slot){
         double spaceTaken = calculateTotalVehicleSpace(vehicle);
-        if (!willVehicleFit(parkingLaneEntry, spaceTaken)){
+        if (!willVehicleFit(slot, spaceTaken)){
             assert vehicle.getDriver() instanceof CPMV2VDriver;
             throw new RuntimeException("There's not enough room in the car " +
                     "park for this vehicle to park! Vehicle is " +
                     ((CPMV2VDriver)vehicle.getDriver()).getParkingStatus());
         }
-        parkingLanesSpace.put(parkingLaneEntry.getKey(), parkingLaneEntry.getValue() - spaceTaken);
+        parkingLanesSpace[slot] -= spaceTaken;
+        siftDown(heapPositions[slot]);
     }
 
     private double calculateTotalVehicleSpace(CPMBasicAutoVehicle vehicle) {
@@ -174,46 +210,100 @@ public class StatusMonitor {
         return vehicleLength + distanceBetweenVehicles;
     }
 
-    private Map.Entry<ParkingLane, Double> findParkingLaneSpace(ParkingLane parkingLane) {
-        for (Map.Entry<ParkingLane, Double> entry : parkingLanesSpace.entrySet())
-        {
-            if (entry.getKey() == parkingLane) {
-                return entry;
-            }
+    private int findParkingLaneSpace(ParkingLane parkingLane) {
+        Integer slot = parkingLaneSlots.get(parkingLane);
+        if (slot == null) {
+            throw new RuntimeException("Parking lane could not be found.");
         }
-        throw new RuntimeException("Parking lane could not be found.");
-    }
-
-    private Map.Entry<ParkingLane, Double> findLeastFullParkingLane() {
-        Map.Entry<ParkingLane, Double> maxEntry = null;
-        String name = null;
-
-        for (Map.Entry<ParkingLane, Double> entry : parkingLanesSpace.entrySet())
-        {
-            boolean hasLowerId = false;
-            if (maxEntry != null && entry.getKey().getId() < maxEntry.getKey().getId()){ hasLowerId = true; }
-            if (maxEntry == null ||
-                    entry.getValue().compareTo(maxEntry.getValue()) > 0 ||
-                    (entry.getValue().equals(maxEntry.getValue()) && hasLowerId))
-            {
-                maxEntry = entry;
-                name = entry.getKey().getRoadName();
-            }
+        return slot;
+    }
+
+    /**
+     * Find the parking lane with the most space left. Ties are broken
+     * in favour of the lane with the lowest ID.
+     * @return the slot of the parking lane with the most space left.
+     */
+    private int findLeastFullParkingLane() {
+        if (heap.length == 0) {
+            throw new RuntimeException("There are no parking lanes.");
+        }
+        int slot = heap[0];
+        if (CPMEventLog.STATUS_MONITOR) {
+            CPMEventLog.log(CPMEventType.LANE_WITH_MOST_ROOM, -1, Double.NaN,
+                    parkingLanes[slot].getRoadName());
         }
-        System.out.println("Lane with most room is " + name);
-        return maxEntry;
+        return slot;
     }
 
-    private boolean willVehicleFit(Map.Entry<ParkingLane, Double> parkingLaneEntry,
-                                   Double spaceNeeded) {
+    private boolean willVehicleFit(int slot, double spaceNeeded) {
 
-        double spaceOnParkingLane = parkingLaneEntry.getValue();
+        double spaceOnParkingLane = parkingLanesSpace[slot];
         if (spaceOnParkingLane > (spaceNeeded)) {
             return true;
         }
         return false;
     }
 
+    /**
+     * Whether a parking lane should be allocated before another one.
+     * @param slot1 the slot of the first parking lane.
+     * @param slot2 the slot of the second parking lane.
+     * @return true if the first parking lane has more space left, or
+     * the same space and a lower ID.
+     */
+    private boolean isBefore(int slot1, int slot2) {
+        int c = Double.compare(parkingLanesSpace[slot1], parkingLanesSpace[slot2]);
+        if (c != 0) {
+            return c > 0;
+        }
+        return parkingLanes[slot1].getId() < parkingLanes[slot2].getId();
+    }
+
+    /**
+     * Move a slot up the heap until its parent comes before it.
+     * @param i the position of the slot in the heap.
+     */
+    private void siftUp(int i) {
+        int slot = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!isBefore(slot, heap[parent])) {
+                break;
+            }
+            heap[i] = heap[parent];
+            heapPositions[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = slot;
+        heapPositions[slot] = i;
+    }
+
+    /**
+     * Move a slot down the heap until it comes before its children.
+     * @param i the position of the slot in the heap.
+     */
+    private void siftDown(int i) {
+        int slot = heap[i];
+        int n = heap.length;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) {
+                break;
+            }
+            if (child + 1 < n && isBefore(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!isBefore(heap[child], slot)) {
+                break;
+            }
+            heap[i] = heap[child];
+            heapPositions[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = slot;
+        heapPositions[slot] = i;
+    }
+
     private void sendParkingLaneMessage(CPMBasicAutoVehicle vehicle, ParkingLane parkingLane) {
         vehicle.sendMessageToI2VInbox(parkingLane);
     }
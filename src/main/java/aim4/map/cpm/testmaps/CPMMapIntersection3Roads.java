@@ -20,6 +20,7 @@ import java.util.List;
  * road has only one lane.
  */
 public class CPMMapIntersection3Roads extends CPMBasicMap {
+    private static final long serialVersionUID = 1L;
 
     /**
      * Create a map with an intersection made up of 3 roads.
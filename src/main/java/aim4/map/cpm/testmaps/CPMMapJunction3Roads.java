@@ -17,6 +17,7 @@ import java.util.List;
  * Map with a T-Junction with 3 roads.
  */
 public class CPMMapJunction3Roads extends CPMBasicMap {
+    private static final long serialVersionUID = 1L;
 
     /**
      * Create a map with a T-Junction with 3 roads.
@@ -15,6 +15,7 @@ import java.util.Collections;
  * A map with one corner.
  */
 public class CPMMapOneCorner extends CPMBasicMap{
+    private static final long serialVersionUID = 1L;
 
     /**
      * Create a map with one corner.
@@ -17,6 +17,7 @@ import java.util.List;
  * Created by Becci on 12-Apr-17.
  */
 public class CPMMapParkingLane extends CPMBasicMap {
+    private static final long serialVersionUID = 1L;
 
     ParkingLane onlyParkingLane;
 
@@ -15,6 +15,7 @@ import java.util.*;
  * Roads only have 1 lane.
  */
 public class CPMMapWithCornersOneLane extends CPMBasicMap {
+    private static final long serialVersionUID = 1L;
 
     /**
      * Create a very simple map.
@@ -16,6 +16,7 @@ import java.util.List;
  * A car park map with a parking area.
  */
 public class CPMMapWithParkingArea extends CPMBasicMap {
+    private static final long serialVersionUID = 1L;
 
     private int numberOfParkingLanes;
     private double parkingLength;
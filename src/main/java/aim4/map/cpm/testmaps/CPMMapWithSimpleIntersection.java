@@ -16,6 +16,7 @@ import java.util.*;
  * in the centre of the map, and each road has only one lane.
  */
 public class CPMMapWithSimpleIntersection extends CPMBasicMap {
+    private static final long serialVersionUID = 1L;
 
 
     /**
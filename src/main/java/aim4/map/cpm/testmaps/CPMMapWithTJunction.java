@@ -14,6 +14,7 @@ import java.util.*;
  * Map with a T-Junction with 2 roads.
  */
 public class CPMMapWithTJunction extends CPMBasicMap {
+    private static final long serialVersionUID = 1L;
 
     /**
      * Create a map with a T-Junction with 2 roads.
@@ -45,6 +45,7 @@ import java.awt.geom.Point2D;
  * the implementation of the Lane.
  */
 public abstract class AbstractLane implements Lane {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // PRIVATE FIELDS
@@ -36,6 +36,7 @@ import aim4.map.merge.LaneMM;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
 import java.awt.Shape;
+import java.io.Serializable;
 
 /**
  * This is a base class for all lanes. Creates an ID system for lanes such
@@ -43,7 +44,7 @@ import java.awt.Shape;
  * generation methods, and other things that are the same no matter
  * the implementation of the Lane.
  */
-public interface Lane {
+public interface Lane extends Serializable {
 
   /////////////////////////////////
   // PUBLIC METHODS
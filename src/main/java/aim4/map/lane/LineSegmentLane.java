@@ -41,6 +41,7 @@ import aim4.util.GeomMath;
  * A lane class that can be represented by a directed line segment.
  */
 public class LineSegmentLane extends AbstractLane {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // PRIVATE FIELDS
@@ -4,6 +4,7 @@ import aim4.im.merge.MergeManager;
 import aim4.map.lane.Lane;
 
 import java.awt.geom.Point2D;
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.SortedMap;
@@ -16,7 +17,9 @@ import java.util.TreeMap;
 /**
  * A lane and merge manager relationship object.
  */
-public class LaneMM {
+public class LaneMM implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     //PRIVATE FIELDS//
     /** The lane*/
     private Lane lane;
@@ -22,6 +22,8 @@ import java.util.Map;
  * Created by Callum on 08/03/2017.
  */
 public class MergeMap implements BasicMap {
+    private static final long serialVersionUID = 1L;
+
     //BASIC MAP PROPERTIES//
     /** The dimensions of the map */
     private Rectangle2D dimensions;
@@ -29,6 +29,7 @@ import org.json.simple.parser.ParseException;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.*;
 
 /**
@@ -139,6 +140,7 @@ public class MergeMapUtil {
 
     // SPAWN SPEC GENERATORS //
     public static class NoSpawnSpecGenerator implements MergeSpawnSpecGenerator {
+        private static final long serialVersionUID = 1L;
 
         @Override
         public List<MergeSpawnSpec> act(MergeSpawnPoint spawnPoint, double timestep) {
@@ -147,6 +149,8 @@ public class MergeMapUtil {
     }
 
     public static class SingleSpawnSpecGenerator implements MergeSpawnSpecGenerator {
+        private static final long serialVersionUID = 1L;
+
         private List<Double> proportion;
         private VehicleSpec spec;
         private List<MergeSpawnPoint> spawnPointAlreadySpawned;
@@ -200,6 +204,8 @@ public class MergeMapUtil {
     }
 
     public static class UniformSpawnSpecGenerator implements MergeSpawnSpecGenerator {
+        private static final long serialVersionUID = 1L;
+
         /** The proportion of each spec */
         private List<Double> proportion;
         /** probability of generating a vehicle in each spawn time step */
@@ -242,8 +248,12 @@ public class MergeMapUtil {
     }
 
     public static class JsonScheduleSpawnSpecGenerator implements MergeSpawnSpecGenerator {
+        private static final long serialVersionUID = 1L;
+
         // NESTED CLASSES //
-        public static class ScheduledSpawn {
+        public static class ScheduledSpawn implements Serializable {
+            private static final long serialVersionUID = 1L;
+
             private String specName;
             private Double spawnTime;
 
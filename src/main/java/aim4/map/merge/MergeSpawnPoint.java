@@ -6,12 +6,15 @@ import aim4.vehicle.VehicleSpec;
 
 import java.awt.geom.Path2D;
 import java.awt.geom.Point2D;
+import java.io.Serializable;
 import java.util.List;
 
 /**
  * Created by Callum on 13/03/2017.
  */
 public class MergeSpawnPoint extends SpawnPoint {
+    private static final long serialVersionUID = 1L;
+
     private MergeSpawnSpecGenerator vehicleSpecChooser;
 
     /**
@@ -30,6 +33,8 @@ public class MergeSpawnPoint extends SpawnPoint {
     }
 
     public static class MergeSpawnSpec extends SpawnSpec {
+        private static final long serialVersionUID = 1L;
+
         /**
          * Create a spawn specification.
          *
@@ -41,7 +46,7 @@ public class MergeSpawnPoint extends SpawnPoint {
         }
     }
 
-    public static interface MergeSpawnSpecGenerator {
+    public static interface MergeSpawnSpecGenerator extends Serializable {
         List<MergeSpawnSpec> act(MergeSpawnPoint spawnPoint, double timestep);
     }
 
@@ -13,6 +13,8 @@ import java.awt.geom.Rectangle2D;
  * Created by Callum on 08/03/2017.
  */
 public class S2SMergeMap extends MergeMap {
+    private static final long serialVersionUID = 1L;
+
     private MergeSpawnPoint mergeSpawnPoint;
     private MergeSpawnPoint targetSpawnPoint;
 
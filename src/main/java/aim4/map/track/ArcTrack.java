@@ -43,6 +43,7 @@ import aim4.util.Util;
  * The arc-shape track.
  */
 public class ArcTrack implements Track {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // NESTED CLASSES
@@ -52,6 +53,7 @@ public class ArcTrack implements Track {
    * A position of the arc-shape track.
    */
   public class Position implements TrackPosition {
+    private static final long serialVersionUID = 1L;
 
     /** The angle from the center to the position */
     double theta;
@@ -39,6 +39,7 @@ import java.awt.geom.Line2D;
  * A track segment that is a straight line
  */
 public class LineTrack implements Track {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // NESTED CLASSES
@@ -48,6 +49,7 @@ public class LineTrack implements Track {
    * A position on this track.
    */
   public class Position implements TrackPosition {
+    private static final long serialVersionUID = 1L;
 
     /**
      * The normalized path length of the position
@@ -41,6 +41,7 @@ import java.awt.geom.GeneralPath;
  * A track created by joining multiple tracks.
  */
 public class PathTrack implements Track {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // NESTED CLASSES
@@ -50,6 +51,7 @@ public class PathTrack implements Track {
    * A position on the track.
    */
   public class Position implements TrackPosition {
+    private static final long serialVersionUID = 1L;
 
     /** The track position */
     TrackPosition pos;
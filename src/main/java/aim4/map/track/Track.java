@@ -31,11 +31,12 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 package aim4.map.track;
 
 import java.awt.Shape;
+import java.io.Serializable;
 
 /**
  * The interface of track segments.
  */
-public interface Track {
+public interface Track extends Serializable {
 
   /**
    * Get the starting waypoint of the track segment.
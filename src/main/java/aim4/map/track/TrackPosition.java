@@ -30,10 +30,12 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package aim4.map.track;
 
+import java.io.Serializable;
+
 /**
  * A position on a track.
  */
-public interface TrackPosition {
+public interface TrackPosition extends Serializable {
   /**
    * Get the x-coordinate of the current position.
    *
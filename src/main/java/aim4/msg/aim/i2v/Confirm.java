@@ -39,6 +39,7 @@ import aim4.config.Constants;
  * reservation request.
  */
 public class Confirm extends I2VMessage {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // PRIVATE FIELDS
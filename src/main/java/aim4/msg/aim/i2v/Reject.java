@@ -37,6 +37,7 @@ import aim4.config.Constants;
  * reservation request.
  */
 public class Reject extends I2VMessage {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // NESTED CLASSES
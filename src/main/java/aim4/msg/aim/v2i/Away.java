@@ -37,6 +37,7 @@ import aim4.config.Constants;
  * has exited the Admission Control Zone.
  */
 public class Away extends V2IMessage {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // PRIVATE FIELDS
@@ -37,6 +37,7 @@ import aim4.config.Constants;
  * cancel a reservation.
  */
 public class Cancel extends V2IMessage {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // PRIVATE FIELDS
@@ -37,6 +37,7 @@ import aim4.config.Constants;
  * has completed its reservation.
  */
 public class Done extends V2IMessage {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // PRIVATE FIELDS
@@ -0,0 +1,110 @@
+package aim4.msg.aim.v2v;
+
+import java.io.Serializable;
+
+import aim4.config.Constants;
+
+/**
+ * A message sent from a Vehicle to other Vehicles.  A message is either
+ * broadcast to every Vehicle within the transmission range of the sender, or
+ * sent to a single Vehicle, which must also be within range.  Protocols built
+ * on V2V communication extend this class with their own content.
+ */
+public class V2VMessage implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  /////////////////////////////////
+  // CONSTANTS
+  /////////////////////////////////
+
+  /** The destination ID of a broadcast message. */
+  public static final int BROADCAST = -1;
+
+  /////////////////////////////////
+  // PRIVATE FIELDS
+  /////////////////////////////////
+
+  /**
+   * The ID number of the Vehicle sending this message.
+   */
+  private int sourceVin;
+  /**
+   * The ID number of the Vehicle to which this message is being sent, or
+   * {@link #BROADCAST}.
+   */
+  private int destinationVin;
+
+  /////////////////////////////////
+  // PROTECTED FIELDS
+  /////////////////////////////////
+
+  /**
+   * The size, in bits, of this message.
+   */
+  protected int size = 2 * Constants.INTEGER_SIZE;
+
+  /////////////////////////////////
+  // CLASS CONSTRUCTORS
+  /////////////////////////////////
+
+  /**
+   * Create a broadcast message.
+   *
+   * @param sourceVin  the ID number of the Vehicle sending this message
+   */
+  public V2VMessage(int sourceVin) {
+    this(sourceVin, BROADCAST);
+  }
+
+  /**
+   * Create a message to a single Vehicle.
+   *
+   * @param sourceVin       the ID number of the Vehicle sending this message
+   * @param destinationVin  the ID number of the Vehicle to which this
+   *                        message is being sent
+   */
+  public V2VMessage(int sourceVin, int destinationVin) {
+    this.sourceVin = sourceVin;
+    this.destinationVin = destinationVin;
+  }
+
+  /////////////////////////////////
+  // PUBLIC METHODS
+  /////////////////////////////////
+
+  /**
+   * Get the ID number of the Vehicle sending this message.
+   *
+   * @return the ID number of the Vehicle sending this message
+   */
+  public int getSourceVin() {
+    return sourceVin;
+  }
+
+  /**
+   * Get the ID number of the Vehicle to which this message is being sent.
+   *
+   * @return the ID number of the receiving Vehicle, or {@link #BROADCAST}
+   */
+  public int getDestinationVin() {
+    return destinationVin;
+  }
+
+  /**
+   * Whether this message is broadcast to all Vehicles in range.
+   *
+   * @return whether this message is a broadcast message
+   */
+  public boolean isBroadcast() {
+    return destinationVin == BROADCAST;
+  }
+
+  /**
+   * Get the size of this message in bits.
+   *
+   * @return the size of this message in bits
+   */
+  public int getSize() {
+    return size;
+  }
+}
@@ -0,0 +1,5 @@
+/**
+ * This package contains the implementation of the V2V messages exchanged
+ * directly between vehicles.
+ */
+package aim4.msg.aim.v2v;
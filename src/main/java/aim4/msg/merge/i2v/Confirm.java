@@ -10,6 +10,8 @@ import java.util.Queue;
  * Created by Callum on 13/04/2017.
  */
 public class Confirm extends I2VMergeMessage {
+    private static final long serialVersionUID = 1L;
+
     /////////////////////////////////
     // PRIVATE FIELDS
     /////////////////////////////////
@@ -4,6 +4,8 @@ package aim4.msg.merge.v2i;
  * Created by Callum on 19/04/2017.
  */
 public class QRequest extends V2IMergeMessage {
+    private static final long serialVersionUID = 1L;
+
     // PRIVATE FIELDS//
     private double distanceToMerge;
     private int vehicleInFrontVin;
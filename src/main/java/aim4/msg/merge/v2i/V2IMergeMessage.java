@@ -1,9 +1,13 @@
 package aim4.msg.merge.v2i;
 
+import java.io.Serializable;
+
 /**
  * Created by Callum on 13/04/2017.
  */
-public class V2IMergeMessage {
+public class V2IMergeMessage implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     // NESTED CLASSES //
     /**
      * The different types of Vehicle to Merge Manager
@@ -35,6 +35,7 @@ package aim4.noise;
  * does nothing to values to which it is applied.
  */
 public class BasicNoiseFunction implements NoiseFunction {
+  private static final long serialVersionUID = 1L;
 
   /**
    * Holds the one instance of the singleton class.
@@ -30,13 +30,16 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package aim4.noise;
 
+import java.io.Serializable;
+
 import aim4.util.Util;
 
 /**
  * A gauge that holds doubles.  This gauge also can apply noise
  * functions to incoming data to simulate a noisy gauge.
  */
-public class DoubleGauge {
+public class DoubleGauge implements Serializable {
+  private static final long serialVersionUID = 1L;
 
   /**
    * The actual value being measured by the gauge.
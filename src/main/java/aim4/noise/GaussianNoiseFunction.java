@@ -36,6 +36,7 @@ import java.util.Random;
  * NoiseFunction that adds Gaussian noise to a value.
  */
 public class GaussianNoiseFunction implements NoiseFunction {
+  private static final long serialVersionUID = 1L;
 
   /** Random seed for creating noise. */
   protected static Random rnd = new Random();
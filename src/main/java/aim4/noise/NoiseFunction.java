@@ -30,11 +30,13 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package aim4.noise;
 
+import java.io.Serializable;
+
 /**
  * Interface for noise functions that can affect double values.
  * This allows gauges, for example, to be noisy.
  */
-public interface NoiseFunction {
+public interface NoiseFunction extends Serializable {
 
     /**
      * Apply the noise function to the given value.
@@ -37,6 +37,7 @@ import aim4.util.Util;
  * true value.
  */
 public class UniformFixedNoiseFunction implements NoiseFunction {
+  private static final long serialVersionUID = 1L;
 
   /**
    * The amount to vary in either direction.  For example, if this is 10, then
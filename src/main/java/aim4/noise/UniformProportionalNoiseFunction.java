@@ -37,6 +37,7 @@ import aim4.util.Util;
  * true value.
  */
 public class UniformProportionalNoiseFunction implements NoiseFunction {
+  private static final long serialVersionUID = 1L;
 
   /**
    * The proportion of the true value to use as a range for noise.  For
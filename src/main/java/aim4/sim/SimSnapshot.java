@@ -0,0 +1,322 @@
+package aim4.sim;
+
+import aim4.config.Debug;
+import aim4.map.aim.BasicIntersectionMap;
+import aim4.util.RestorableRandom;
+import aim4.util.Util;
+import aim4.vehicle.VinRegistry;
+
+import java.awt.geom.Area;
+import java.awt.geom.Path2D;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A copy of the complete state of a running simulator: its map, vehicles,
+ * drivers, intersection and merge managers with their reservations, the
+ * messages in flight and the statistics collected so far, together with the
+ * global state the simulator relies on, namely the {@link VinRegistry} and
+ * the random number generator {@link Util#random}.
+ * <p>
+ * A snapshot can be restored any number of times, each time giving a new
+ * simulator which carries on exactly as the original would have.  This is
+ * used to warm a simulation up once and then branch it, e.g.
+ * <pre>
+ *     SimSnapshot warm = SimSnapshot.take(sim);
+ *     for (Policy variant : variants) {
+ *         Simulator branch = warm.restore();
+ *         ...
+ *     }
+ * </pre>
+ * As the VIN registry and the random number generator are global, only the
+ * simulator restored last can be stepped; to run branches side by side, run
+ * them in separate class spaces (see {@link aim4.sim.batch.IsolatedJobRunner}).
+ * <p>
+ * The simulators which can be saved are {@link
+ * aim4.sim.simulator.aim.AutoDriverOnlySimulator}, {@link
+ * aim4.sim.simulator.merge.CoreMergeSimulator} and its subclasses, and
+ * {@link aim4.sim.simulator.cpm.CPMAutoDriverSimulator}.  A snapshot can
+ * only be read by the same build of the simulator that wrote it.
+ */
+public final class SimSnapshot {
+
+    /////////////////////////////////
+    // NESTED CLASSES
+    /////////////////////////////////
+
+    /**
+     * The content of a snapshot.
+     */
+    private static class State implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        /** The simulator */
+        private final Simulator sim;
+        /** The VIN registry */
+        private final VinRegistry.State vinRegistry;
+        /** The state of the global random number generator */
+        private final RestorableRandom.State random;
+
+        private State(Simulator sim, VinRegistry.State vinRegistry,
+                      RestorableRandom.State random) {
+            this.sim = sim;
+            this.vinRegistry = vinRegistry;
+            this.random = random;
+        }
+    }
+
+    /**
+     * The serialized form of an {@link Area}, which is not serializable
+     * itself.
+     */
+    private static class AreaForm implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        /** The outline of the area */
+        private final Path2D.Double path;
+
+        private AreaForm(Area area) {
+            this.path = new Path2D.Double(area);
+        }
+    }
+
+    /**
+     * An output stream which writes areas as their outline.
+     */
+    private static class StateOutputStream extends ObjectOutputStream {
+        StateOutputStream(OutputStream out) throws IOException {
+            super(out);
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(Object obj) {
+            if (obj != null && obj.getClass() == Area.class) {
+                return new AreaForm((Area) obj);
+            }
+            return obj;
+        }
+    }
+
+    /**
+     * An input stream which turns the outlines back into areas.
+     */
+    private static class StateInputStream extends ObjectInputStream {
+        StateInputStream(InputStream in) throws IOException {
+            super(in);
+            enableResolveObject(true);
+        }
+
+        @Override
+        protected Object resolveObject(Object obj) {
+            if (obj instanceof AreaForm) {
+                return new Area(((AreaForm) obj).path);
+            }
+            return obj;
+        }
+    }
+
+    /////////////////////////////////
+    // CONSTANTS
+    /////////////////////////////////
+
+    /** The first bytes of a snapshot file */
+    private static final int MAGIC = 0x41494D53;  // "AIMS"
+
+    /** The version of the snapshot file format */
+    private static final int FORMAT_VERSION = 2;
+
+    /////////////////////////////////
+    // PUBLIC STATIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Take a snapshot of a simulator between two steps.
+     *
+     * @param sim  the simulator
+     * @return the snapshot
+     * @throws IllegalArgumentException if the simulator cannot be saved
+     */
+    public static SimSnapshot take(Simulator sim) {
+        if (!(sim instanceof Serializable)) {
+            throw new IllegalArgumentException(sim.getClass().getSimpleName()
+                    + " cannot be saved in a snapshot.");
+        }
+        State state = new State(sim, VinRegistry.saveState(), Util.random.saveState());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            ObjectOutputStream out = new StateOutputStream(bytes);
+            out.writeObject(state);
+            out.close();
+        } catch (IOException e) {
+            // Only a part of the simulator which cannot be serialized can
+            // make writing to memory fail
+            throw new IllegalArgumentException(sim.getClass().getSimpleName()
+                    + " cannot be saved in a snapshot: " + e, e);
+        }
+        return new SimSnapshot(bytes.toByteArray());
+    }
+
+    /**
+     * Make an independent copy of a simulator, which carries on exactly as
+     * the simulator would.  The global state is set for the copy, so the
+     * original should not be stepped again until it is restored from a
+     * snapshot of its own.
+     *
+     * @param sim  the simulator
+     * @return the copy of the simulator
+     * @throws IllegalArgumentException if the simulator cannot be saved
+     */
+    public static Simulator fork(Simulator sim) {
+        return take(sim).restore();
+    }
+
+    /**
+     * Read a snapshot written by {@link #write(OutputStream)}.
+     *
+     * @param in  the input stream
+     * @return the snapshot
+     * @throws IOException if the stream cannot be read or does not hold a
+     *                     snapshot
+     */
+    public static SimSnapshot read(InputStream in) throws IOException {
+        DataInputStream data =
+                new DataInputStream(new GZIPInputStream(in));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a simulation snapshot.");
+        }
+        int version = data.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format version "
+                    + version + ".");
+        }
+        byte[] bytes = new byte[data.readInt()];
+        data.readFully(bytes);
+        return new SimSnapshot(bytes);
+    }
+
+    /**
+     * Read a snapshot from a file.
+     *
+     * @param file  the file
+     * @return the snapshot
+     * @throws IOException if the file cannot be read or does not hold a
+     *                     snapshot
+     */
+    public static SimSnapshot load(File file) throws IOException {
+        InputStream in = new BufferedInputStream(new FileInputStream(file));
+        try {
+            return read(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    /////////////////////////////////
+    // PRIVATE FIELDS
+    /////////////////////////////////
+
+    /** The serialized state */
+    private final byte[] bytes;
+
+    /////////////////////////////////
+    // CLASS CONSTRUCTORS
+    /////////////////////////////////
+
+    /**
+     * Create a snapshot from the serialized state.
+     *
+     * @param bytes  the serialized state
+     */
+    private SimSnapshot(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    /////////////////////////////////
+    // PUBLIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Restore the simulator of the snapshot.  Each call gives a new copy of
+     * the simulator, and sets the VIN registry and the random number
+     * generator to their state when the snapshot was taken.
+     *
+     * @return the simulator
+     */
+    public Simulator restore() {
+        State state;
+        try {
+            ObjectInputStream in =
+                    new StateInputStream(new ByteArrayInputStream(bytes));
+            state = (State) in.readObject();
+            in.close();
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupt simulation snapshot.", e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(
+                    "The snapshot was written by another build.", e);
+        }
+        VinRegistry.restoreState(state.vinRegistry);
+        Util.random.restoreState(state.random);
+        if (state.sim.getMap() instanceof BasicIntersectionMap) {
+            Debug.currentMap = (BasicIntersectionMap) state.sim.getMap();
+        }
+        return state.sim;
+    }
+
+    /**
+     * Get the size of the snapshot in memory.
+     *
+     * @return the number of bytes of the serialized state
+     */
+    public int size() {
+        return bytes.length;
+    }
+
+    /**
+     * Write the snapshot in compressed form.
+     *
+     * @param out  the output stream; it is not closed
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void write(OutputStream out) throws IOException {
+        GZIPOutputStream gzip = new GZIPOutputStream(out);
+        DataOutputStream data = new DataOutputStream(gzip);
+        data.writeInt(MAGIC);
+        data.writeInt(FORMAT_VERSION);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+        data.flush();
+        gzip.finish();
+    }
+
+    /**
+     * Write the snapshot to a file.
+     *
+     * @param file  the file
+     * @throws IOException if the file cannot be written
+     */
+    public void save(File file) throws IOException {
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(file));
+        try {
+            write(out);
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -31,13 +31,14 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 package aim4.sim;
 
 import java.io.PrintStream;
+import java.io.Serializable;
 
 /**
  * The statistic collector.
  *
  * @param <T> the type of the statistic collector
  */
-public interface StatCollector<T> {
+public interface StatCollector<T> extends Serializable {
   /**
    * Collect the statistic about a given object.
    *
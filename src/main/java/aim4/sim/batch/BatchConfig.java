@@ -0,0 +1,494 @@
+package aim4.sim.batch;
+
+import aim4.config.SimConfig;
+import aim4.map.cpm.CPMMapUtil.SpawnSpecType;
+import aim4.sim.results.BinaryVehicleResultSink;
+import aim4.sim.results.CSVVehicleResultSink;
+import aim4.sim.results.VehicleResultSink;
+import aim4.sim.setup.SimSetup;
+import aim4.sim.setup.aim.Approx4PhasesTrafficSignalSimSetup;
+import aim4.sim.setup.aim.ApproxNPhasesTrafficSignalSimSetup;
+import aim4.sim.setup.aim.ApproxSimpleTrafficSignalSimSetup;
+import aim4.sim.setup.aim.ApproxStopSignSimSetup;
+import aim4.sim.setup.aim.AutoDriverOnlySimSetup;
+import aim4.sim.setup.aim.BasicSimSetup;
+import aim4.sim.setup.aim.MergeMimicSimSetup;
+import aim4.sim.setup.cpm.BasicCPMSimSetup;
+import aim4.sim.setup.cpm.CPMAutoDriverSimSetup;
+import aim4.sim.setup.cpm.CPMMultiCarParkSimSetup;
+import aim4.sim.setup.merge.S2SSimSetup;
+import aim4.sim.setup.merge.SingleLaneSimSetup;
+import aim4.sim.setup.merge.enums.ProtocolType;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * The configuration of a simulation run without the GUI, read from a
+ * properties file.  The key <code>setup</code> names the kind of simulation,
+ * one of {@link SetupType}, and the other keys give the parameters of the
+ * setup, the time limit of the run and where to write the results, e.g.
+ * <pre>
+ *     setup = S2S
+ *     protocol = QUEUE
+ *     trafficLevel = 0.2778
+ *     timeLimit = 1000
+ *     seed = 1
+ *     output = results/queue_1000_1.csv
+ * </pre>
+ * Parameters which are not given take the defaults of the GUI.  With
+ * <code>steadyState = true</code> the run stops as soon as its estimate is
+ * stable or it is saturated, and the time limit is only an upper bound; see
+ * {@link SteadyStateMonitor}.  With <code>vehiclesOutput</code> the records
+ * of the vehicles are written to that file as they complete, as CSV or, with
+ * <code>vehiclesFormat = BINARY</code>, in the format of
+ * {@link BinaryVehicleResultSink}, and only the global results are written
+ * to <code>output</code>, so that long runs do not keep them in memory.
+ * With <code>eventLogOutput</code> the events of the car park simulations
+ * are written to that file as CSV; see
+ * {@link aim4.sim.simulator.cpm.helper.CPMEventLog}.
+ */
+public class BatchConfig {
+
+    /////////////////////////////////
+    // NESTED CLASSES
+    /////////////////////////////////
+
+    /**
+     * The kinds of simulation which can be set up.
+     */
+    public enum SetupType {
+        /** {@link AutoDriverOnlySimSetup} */
+        AUTO_DRIVER_ONLY,
+        /** {@link ApproxStopSignSimSetup} */
+        STOP_SIGN,
+        /** {@link ApproxSimpleTrafficSignalSimSetup} */
+        SIMPLE_TRAFFIC_SIGNAL,
+        /** {@link Approx4PhasesTrafficSignalSimSetup} */
+        FOUR_PHASES_TRAFFIC_SIGNAL,
+        /** {@link ApproxNPhasesTrafficSignalSimSetup} */
+        N_PHASES_TRAFFIC_SIGNAL,
+        /** {@link MergeMimicSimSetup} */
+        MERGE_MIMIC,
+        /** {@link S2SSimSetup} */
+        S2S,
+        /** {@link SingleLaneSimSetup} */
+        SINGLE_LANE,
+        /** {@link CPMAutoDriverSimSetup} */
+        CPM_AUTO_DRIVER,
+        /** {@link CPMMultiCarParkSimSetup} */
+        CPM_MULTI_CAR_PARK
+    }
+
+    /**
+     * The formats of the records of the vehicles.
+     */
+    public enum VehiclesFormat {
+        /** {@link CSVVehicleResultSink} */
+        CSV,
+        /** {@link BinaryVehicleResultSink} */
+        BINARY
+    }
+
+    /////////////////////////////////
+    // CONSTANTS
+    /////////////////////////////////
+
+    /** The key of the kind of simulation */
+    public static final String SETUP = "setup";
+    /** The key of the simulated time at which the run stops, in seconds */
+    public static final String TIME_LIMIT = "timeLimit";
+    /** The key of the time step, in seconds */
+    public static final String TIME_STEP = "timeStep";
+    /** The key of the seed of the random number generator */
+    public static final String SEED = "seed";
+    /** The key of the file to which the results are written */
+    public static final String OUTPUT = "output";
+    /** The key of the file to which the data collection lines are written */
+    public static final String DATA_COLLECTION_LINES_OUTPUT = "dataCollectionLinesOutput";
+    /** The key of the file to which the records of the vehicles are written as they complete */
+    public static final String VEHICLES_OUTPUT = "vehiclesOutput";
+    /** The key of the file to which the events of the car park simulations are written */
+    public static final String EVENT_LOG_OUTPUT = "eventLogOutput";
+    /** The key of the format of the records of the vehicles, CSV or BINARY */
+    public static final String VEHICLES_FORMAT = "vehiclesFormat";
+    /** The key of whether the run stops once it is in steady state */
+    public static final String STEADY_STATE = "steadyState";
+    /** The key of the metric whose estimate must be stable, DELAY or THROUGHPUT */
+    public static final String STEADY_STATE_METRIC = "steadyStateMetric";
+    /** The key of the length of the batches of the steady state monitor, in seconds */
+    public static final String STEADY_STATE_BATCH_LENGTH = "steadyStateBatchLength";
+    /** The key of the relative half width of the confidence interval to reach */
+    public static final String STEADY_STATE_PRECISION = "steadyStatePrecision";
+    /** The key of the minimum number of batches after the warm-up */
+    public static final String STEADY_STATE_MIN_BATCHES = "steadyStateMinBatches";
+
+    /** The default time limit, in seconds */
+    public static final double DEFAULT_TIME_LIMIT = 1000.0;
+
+    /////////////////////////////////
+    // PRIVATE FIELDS
+    /////////////////////////////////
+
+    /** The properties */
+    private final Properties properties;
+
+    /////////////////////////////////
+    // CONSTRUCTORS
+    /////////////////////////////////
+
+    /**
+     * Create a configuration from properties.
+     *
+     * @param properties  the properties; they are copied
+     */
+    public BatchConfig(Properties properties) {
+        this.properties = new Properties();
+        this.properties.putAll(properties);
+    }
+
+    /**
+     * Read a configuration from a properties file.
+     *
+     * @param file  the file
+     * @return the configuration
+     * @throws IOException if the file cannot be read
+     */
+    public static BatchConfig read(File file) throws IOException {
+        Properties properties = new Properties();
+        InputStream in = new FileInputStream(file);
+        try {
+            properties.load(in);
+        } finally {
+            in.close();
+        }
+        return new BatchConfig(properties);
+    }
+
+    /////////////////////////////////
+    // PUBLIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Create a copy of this configuration with one parameter changed.
+     *
+     * @param key    the key of the parameter
+     * @param value  the new value
+     * @return the new configuration
+     */
+    public BatchConfig with(String key, String value) {
+        BatchConfig config = new BatchConfig(properties);
+        config.properties.setProperty(key, value);
+        return config;
+    }
+
+    /**
+     * Get the properties of this configuration.
+     *
+     * @return a copy of the properties
+     */
+    public Properties getProperties() {
+        Properties copy = new Properties();
+        copy.putAll(properties);
+        return copy;
+    }
+
+    /**
+     * Get the kind of simulation.
+     *
+     * @return the kind of simulation
+     */
+    public SetupType getSetupType() {
+        if (properties.getProperty(SETUP) == null) {
+            throw new IllegalArgumentException("The key \"" + SETUP + "\" is missing.");
+        }
+        return getEnum(SETUP, SetupType.class, null);
+    }
+
+    /**
+     * Get the simulated time at which the run stops.
+     *
+     * @return the time limit, in seconds
+     */
+    public double getTimeLimit() {
+        return getDouble(TIME_LIMIT, DEFAULT_TIME_LIMIT);
+    }
+
+    /**
+     * Get the time step.
+     *
+     * @return the time step, in seconds
+     */
+    public double getTimeStep() {
+        return getDouble(TIME_STEP, SimConfig.TIME_STEP);
+    }
+
+    /**
+     * Whether a seed is given for the random number generator.
+     *
+     * @return whether a seed is given
+     */
+    public boolean hasSeed() {
+        return properties.getProperty(SEED) != null;
+    }
+
+    /**
+     * Get the seed of the random number generator.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return getLong(SEED, 0L);
+    }
+
+    /**
+     * Get the file to which the results are written.
+     *
+     * @return the file, or null if the results are written to the standard
+     *         output
+     */
+    public File getOutput() {
+        String value = properties.getProperty(OUTPUT);
+        return (value == null) ? null : new File(value.trim());
+    }
+
+    /**
+     * Get the file to which the data of the data collection lines of the map
+     * are written.
+     *
+     * @return the file, or null if they are not written
+     */
+    public File getDataCollectionLinesOutput() {
+        return getFile(DATA_COLLECTION_LINES_OUTPUT);
+    }
+
+    /**
+     * Get the file to which the events of the car park simulations are
+     * written.
+     *
+     * @return the file, or null if they are not written
+     */
+    public File getEventLogOutput() {
+        return getFile(EVENT_LOG_OUTPUT);
+    }
+
+    /**
+     * Create the sink to which the records of the vehicles are written as
+     * they complete, instead of with the results at the end of the run.
+     *
+     * @return the sink, or null if the records are written with the results
+     * @throws IOException if the file of the records cannot be opened
+     */
+    public VehicleResultSink makeVehicleResultSink() throws IOException {
+        File file = getFile(VEHICLES_OUTPUT);
+        if (file == null) {
+            return null;
+        }
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create the directory " + dir);
+        }
+        switch (getEnum(VEHICLES_FORMAT, VehiclesFormat.class, VehiclesFormat.CSV)) {
+            case BINARY:
+                return new BinaryVehicleResultSink(file);
+            default:
+                return new CSVVehicleResultSink(file);
+        }
+    }
+
+    /**
+     * Whether the run stops as soon as it is in steady state or saturated,
+     * rather than at the time limit.
+     *
+     * @return whether the run is monitored for steady state
+     */
+    public boolean isSteadyState() {
+        return getBoolean(STEADY_STATE, false);
+    }
+
+    /**
+     * Create the monitor which tells when the run is in steady state.
+     *
+     * @return the monitor
+     */
+    public SteadyStateMonitor makeSteadyStateMonitor() {
+        return new SteadyStateMonitor(
+                getEnum(STEADY_STATE_METRIC, SteadyStateMonitor.Metric.class,
+                        SteadyStateMonitor.Metric.DELAY),
+                getDouble(STEADY_STATE_BATCH_LENGTH, SteadyStateMonitor.DEFAULT_BATCH_LENGTH),
+                getDouble(STEADY_STATE_PRECISION, SteadyStateMonitor.DEFAULT_PRECISION),
+                getInt(STEADY_STATE_MIN_BATCHES, SteadyStateMonitor.DEFAULT_MIN_BATCHES));
+    }
+
+    /**
+     * Create the simulation setup.
+     *
+     * @return the simulation setup
+     */
+    public SimSetup makeSimSetup() {
+        switch (getSetupType()) {
+            case AUTO_DRIVER_ONLY: {
+                AutoDriverOnlySimSetup simSetup =
+                        new AutoDriverOnlySimSetup(makeBasicSimSetup());
+                simSetup.setIsBaseLineMode(getBoolean("baseLineMode", false));
+                simSetup.setIsBatchMode(getBoolean("batchMode", false));
+                if (properties.getProperty("batchModeProcessingInterval") != null) {
+                    simSetup.setBatchModeProcessingInterval(
+                            getDouble("batchModeProcessingInterval", 0.0));
+                }
+                simSetup.setMesoscopicDistance(getDouble("mesoscopicDistance", -1.0));
+                if (properties.getProperty("trafficVolume") != null) {
+                    simSetup.setTrafficVolume(getString("trafficVolume", null));
+                }
+                return simSetup;
+            }
+            case STOP_SIGN:
+                return new ApproxStopSignSimSetup(makeBasicSimSetup());
+            case SIMPLE_TRAFFIC_SIGNAL:
+                return new ApproxSimpleTrafficSignalSimSetup(makeBasicSimSetup());
+            case FOUR_PHASES_TRAFFIC_SIGNAL:
+                return new Approx4PhasesTrafficSignalSimSetup(makeBasicSimSetup());
+            case N_PHASES_TRAFFIC_SIGNAL: {
+                ApproxNPhasesTrafficSignalSimSetup simSetup =
+                        new ApproxNPhasesTrafficSignalSimSetup(makeBasicSimSetup(),
+                                getString("signalPhases", "/SignalPhases/AIM4Phases.csv"));
+                simSetup.setTrafficVolume(
+                        getString("trafficVolume", "/SignalPhases/AIM4Volumes.csv"));
+                return simSetup;
+            }
+            case MERGE_MIMIC:
+                return new MergeMimicSimSetup(getFile("mergeSchedule"),
+                        getFile("targetSchedule"),
+                        getDouble("speedLimit", S2SSimSetup.DEFAULT_TARGET_LANE_SPEED_LIMIT),
+                        getDouble("leadInDistance", S2SSimSetup.DEFAULT_TARGET_LEAD_IN_DISTANCE));
+            case S2S:
+                return new S2SSimSetup(getEnum("protocol", ProtocolType.class, ProtocolType.AIM_GRID),
+                        getDouble("trafficLevel", S2SSimSetup.DEFAULT_TRAFFIC_LEVEL),
+                        getDouble("targetLaneSpeedLimit", S2SSimSetup.DEFAULT_TARGET_LANE_SPEED_LIMIT),
+                        getDouble("mergingLaneSpeedLimit", S2SSimSetup.DEFAULT_MERGING_LANE_SPEED_LIMIT),
+                        getDouble("targetLeadInDistance", S2SSimSetup.DEFAULT_TARGET_LEAD_IN_DISTANCE),
+                        getDouble("targetLeadOutDistance", S2SSimSetup.DEFAULT_TARGET_LEAD_OUT_DISTANCE),
+                        getDouble("mergeLeadInDistance", S2SSimSetup.DEFAULT_MERGE_LEAD_IN_DISTANCE),
+                        getDouble("mergingAngle", S2SSimSetup.DEFAULT_MERGING_ANGLE),
+                        getFile("targetSchedule"),
+                        getFile("mergeSchedule"));
+            case SINGLE_LANE:
+                return new SingleLaneSimSetup(
+                        getDouble("trafficLevel", S2SSimSetup.DEFAULT_TRAFFIC_LEVEL),
+                        getDouble("speedLimit", S2SSimSetup.DEFAULT_TARGET_LANE_SPEED_LIMIT),
+                        getDouble("laneLength", S2SSimSetup.DEFAULT_TARGET_LEAD_IN_DISTANCE));
+            case CPM_AUTO_DRIVER:
+                return new CPMAutoDriverSimSetup(makeBasicCPMSimSetup());
+            case CPM_MULTI_CAR_PARK:
+                return new CPMMultiCarParkSimSetup(makeBasicCPMSimSetup(),
+                        getInt("numberOfCarParks", 1),
+                        getInt("numberOfThreads", Runtime.getRuntime().availableProcessors()));
+            default:
+                throw new IllegalArgumentException("Unknown setup " + getSetupType());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return properties.toString();
+    }
+
+    /////////////////////////////////
+    // PRIVATE METHODS
+    /////////////////////////////////
+
+    /**
+     * Create the basic setup of the intersection simulations.
+     *
+     * @return the basic setup
+     */
+    private BasicSimSetup makeBasicSimSetup() {
+        return new BasicSimSetup(getInt("columns", 1),
+                getInt("rows", 1),
+                getDouble("laneWidth", 4.0),
+                getDouble("speedLimit", 25.0),
+                getInt("lanesPerRoad", 3),
+                getDouble("medianSize", 1.0),
+                getDouble("distanceBetween", 150.0),
+                getDouble("trafficLevel", 0.28),
+                getDouble("stopDistBeforeIntersection", 1.0));
+    }
+
+    /**
+     * Create the basic setup of the car park simulations.
+     *
+     * @return the basic setup
+     */
+    private BasicCPMSimSetup makeBasicCPMSimSetup() {
+        return new BasicCPMSimSetup(getDouble("speedLimit", 5.0),
+                getDouble("trafficLevel", 0.28),
+                getDouble("laneWidth", 2.0),
+                getInt("numberOfParkingLanes", 1),
+                getDouble("parkingLength", 50.0),
+                getDouble("accessLength", 1.0),
+                getEnum("spawnSpecType", SpawnSpecType.class, SpawnSpecType.SINGLE),
+                getString("arrivalTrace", null));
+    }
+
+    private String getString(String key, String defaultValue) {
+        String value = properties.getProperty(key);
+        return (value == null) ? defaultValue : value.trim();
+    }
+
+    private File getFile(String key) {
+        String value = getString(key, null);
+        return (value == null) ? null : new File(value);
+    }
+
+    private double getDouble(String key, double defaultValue) {
+        String value = getString(key, null);
+        try {
+            return (value == null) ? defaultValue : Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("\"" + key + "\" is not a number: " + value);
+        }
+    }
+
+    private int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        try {
+            return (value == null) ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("\"" + key + "\" is not an integer: " + value);
+        }
+    }
+
+    private long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        try {
+            return (value == null) ? defaultValue : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("\"" + key + "\" is not an integer: " + value);
+        }
+    }
+
+    private boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return (value == null) ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    private <E extends Enum<E>> E getEnum(String key, Class<E> type, E defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Enum.valueOf(type, value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("\"" + key + "\" must be one of "
+                    + Arrays.toString(type.getEnumConstants()) + ": " + value);
+        }
+    }
+}
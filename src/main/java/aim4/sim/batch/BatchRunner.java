@@ -0,0 +1,343 @@
+package aim4.sim.batch;
+
+import aim4.map.DataCollectionLine;
+import aim4.sim.Simulator;
+import aim4.sim.Simulator.SimStepResult;
+import aim4.sim.results.VehicleResultSink;
+import aim4.sim.simulator.aim.AIMSimulator;
+import aim4.sim.simulator.aim.AutoDriverOnlySimulator;
+import aim4.sim.simulator.aim.AutoDriverOnlySimulator.AutoDriverOnlySimStepResult;
+import aim4.sim.simulator.cpm.CPMMultiCarParkSimulator;
+import aim4.sim.simulator.cpm.helper.CPMEventLog;
+import aim4.sim.simulator.merge.CoreMergeSimulator.CoreMergeSimStepResult;
+import aim4.sim.simulator.merge.MergeSimulator;
+import aim4.util.Util;
+import aim4.vehicle.VinRegistry;
+import aim4.vehicle.merge.MergeVehicleSimModel;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs simulations without the GUI.  Each run is described by a
+ * {@link BatchConfig}; the simulator is stepped up to the time limit and its
+ * results are written as CSV.  No GUI class is loaded, so the runs can be
+ * done on a machine without a display.
+ * <p>
+ * Usage:
+ * <pre>
+ *     java -cp aim4.jar aim4.sim.batch.BatchRunner config.properties... [key=value]...
+ * </pre>
+ * The configuration files are run in turn; each <code>key=value</code>
+ * argument overrides a parameter of all of them.
+ * <p>
+ * A run which is monitored for steady state stops as soon as its estimate is
+ * stable or it is saturated, and the outcome of the monitoring is added to
+ * the global results, the first two lines of the CSV.
+ */
+public class BatchRunner {
+
+    /** This class should never be instantiated. */
+    private BatchRunner(){};
+
+    /////////////////////////////////
+    // PUBLIC STATIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Create the simulator of a run, resetting the VIN registry and seeding
+     * the random number generator if the configuration gives a seed.
+     *
+     * @param config  the configuration of the run
+     * @return the simulator
+     */
+    public static Simulator makeSimulator(BatchConfig config) {
+        VinRegistry.reset();
+        if (config.hasSeed()) {
+            Util.random.setSeed(config.getSeed());
+        }
+        return config.makeSimSetup().getSimulator();
+    }
+
+    /**
+     * Step a simulator up to the time limit of a run.
+     *
+     * @param sim     the simulator
+     * @param config  the configuration of the run
+     */
+    public static void stepToTimeLimit(Simulator sim, BatchConfig config) {
+        double timeLimit = config.getTimeLimit();
+        double timeStep = config.getTimeStep();
+        while (sim.getSimulationTime() < timeLimit) {
+            sim.step(timeStep);
+        }
+        if (sim instanceof CPMMultiCarParkSimulator) {
+            ((CPMMultiCarParkSimulator) sim).shutdown();
+        }
+    }
+
+    /**
+     * Step a simulator until it is in steady state or saturated, or up to the
+     * time limit of a run.
+     *
+     * @param sim     the simulator
+     * @param config  the configuration of the run
+     * @return the monitor, which tells why the run stopped
+     */
+    public static SteadyStateMonitor stepToSteadyState(Simulator sim, BatchConfig config) {
+        SteadyStateMonitor monitor = config.makeSteadyStateMonitor();
+        double timeLimit = config.getTimeLimit();
+        double timeStep = config.getTimeStep();
+        while (sim.getSimulationTime() < timeLimit) {
+            addDelays(sim, sim.step(timeStep), monitor);
+            int numOfCompleted = sim.getNumCompletedVehicles();
+            if (monitor.update(sim.getSimulationTime(), numOfCompleted,
+                    VinRegistry.getNumOfRegisteredVehicles() - numOfCompleted)) {
+                break;
+            }
+        }
+        monitor.timeLimitReached();
+        if (sim instanceof CPMMultiCarParkSimulator) {
+            ((CPMMultiCarParkSimulator) sim).shutdown();
+        }
+        return monitor;
+    }
+
+    /**
+     * Get the results of a simulator as CSV.  The intersection simulators
+     * outside merge mode do not record the results of the completed vehicles,
+     * so for them only a summary is given.
+     *
+     * @param sim  the simulator
+     * @return the results
+     */
+    public static String produceResultsCSV(Simulator sim) {
+        if (sim instanceof AutoDriverOnlySimulator
+                && !((AutoDriverOnlySimulator) sim).isMergeMode()) {
+            return "Simulation Time,Completed Vehicles,"
+                    + "Average Bits Transmitted,Average Bits Received\n"
+                    + sim.getSimulationTime() + ","
+                    + sim.getNumCompletedVehicles() + ","
+                    + sim.getAvgBitsTransmittedByCompletedVehicles() + ","
+                    + sim.getAvgBitsReceivedByCompletedVehicles() + "\n";
+        }
+        return sim.produceResultsCSV();
+    }
+
+    /**
+     * Do a run and write its results to the output of the configuration.
+     *
+     * @param config  the configuration of the run
+     * @return the simulator, at the end of the run
+     * @throws IOException if the results cannot be written
+     */
+    public static Simulator run(BatchConfig config) throws IOException {
+        Writer eventLog = startEventLog(config.getEventLogOutput());
+        Simulator sim;
+        String csv;
+        VehicleResultSink sink = null;
+        try {
+            sim = makeSimulator(config);
+            sink = config.makeVehicleResultSink();
+            setVehicleResultSink(sim, sink);
+            if (config.isSteadyState()) {
+                SteadyStateMonitor monitor = stepToSteadyState(sim, config);
+                csv = appendGlobalColumns(produceResultsCSV(sim),
+                        SteadyStateMonitor.produceCSVHeader(), monitor.produceCSV());
+            } else {
+                stepToTimeLimit(sim, config);
+                csv = produceResultsCSV(sim);
+            }
+            if (sink != null) {
+                setVehicleResultSink(sim, null);
+            }
+        } finally {
+            if (sink != null) {
+                sink.close();
+            }
+            if (eventLog != null) {
+                try {
+                    CPMEventLog.stop();
+                } finally {
+                    eventLog.close();
+                }
+            }
+        }
+        if (config.getDataCollectionLinesOutput() != null) {
+            sim.getMap().printDataCollectionLinesData(
+                    config.getDataCollectionLinesOutput().getPath());
+        }
+
+        File output = config.getOutput();
+        if (output == null) {
+            Writer out = new OutputStreamWriter(System.out);
+            out.write(csv);
+            out.flush();
+        } else {
+            File dir = output.getAbsoluteFile().getParentFile();
+            if (dir != null && !dir.exists() && !dir.mkdirs()) {
+                throw new IOException("Cannot create the directory " + dir);
+            }
+            Writer out = new BufferedWriter(new FileWriter(output));
+            try {
+                out.write(csv);
+            } finally {
+                out.close();
+            }
+        }
+        return sim;
+    }
+
+    /////////////////////////////////
+    // PRIVATE STATIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Start writing the events of the car park simulations to a file.
+     *
+     * @param file  the file, or null if the events are not written
+     * @return the output of the events, or null if they are not written
+     * @throws IOException if the file cannot be opened
+     */
+    private static Writer startEventLog(File file) throws IOException {
+        if (file == null) {
+            return null;
+        }
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("Cannot create the directory " + dir);
+        }
+        Writer out = new BufferedWriter(new FileWriter(file));
+        CPMEventLog.start(out);
+        return out;
+    }
+
+    /**
+     * Have a simulator write the records of the vehicles to a sink as they
+     * complete.  The simulators which do not record the vehicles leave the
+     * sink empty.
+     *
+     * @param sim   the simulator
+     * @param sink  the sink, or null to keep the records
+     */
+    private static void setVehicleResultSink(Simulator sim, VehicleResultSink sink) {
+        if (sim instanceof AIMSimulator) {
+            ((AIMSimulator) sim).setVehicleResultSink(sink);
+        } else if (sim instanceof MergeSimulator) {
+            ((MergeSimulator) sim).setVehicleResultSink(sink);
+        }
+    }
+
+    /**
+     * Give the monitor the delays of the vehicles completed in a step.  The
+     * intersection simulators do not work out the delays of the vehicles, so
+     * for them the time between the first and the last data collection line
+     * a vehicle crossed is used instead, which differs from the delay by the
+     * travel time at the speed limit.  The car park simulators give no
+     * delays.
+     *
+     * @param sim      the simulator
+     * @param result   the result of the step
+     * @param monitor  the monitor
+     */
+    private static void addDelays(Simulator sim, SimStepResult result,
+                                  SteadyStateMonitor monitor) {
+        if (result instanceof CoreMergeSimStepResult) {
+            for (MergeVehicleSimModel vehicle :
+                    ((CoreMergeSimStepResult) result).getCompletedVehicles().values()) {
+                monitor.addDelay(vehicle.getDelay());
+            }
+        } else if (result instanceof AutoDriverOnlySimStepResult) {
+            List<DataCollectionLine> lines = sim.getMap().getDataCollectionLines();
+            for (int vin : ((AutoDriverOnlySimStepResult) result).getCompletedVINs()) {
+                double first = Double.POSITIVE_INFINITY;
+                double last = Double.NEGATIVE_INFINITY;
+                for (DataCollectionLine line : lines) {
+                    List<Double> times = line.getTimes(vin);
+                    if (times != null) {
+                        first = Math.min(first, times.get(0));
+                        last = Math.max(last, times.get(times.size() - 1));
+                    }
+                }
+                if (last > first) {
+                    monitor.addDelay(last - first);
+                }
+            }
+        }
+    }
+
+    /**
+     * Add columns to the global results of a CSV, its first two lines.
+     *
+     * @param csv     the CSV
+     * @param header  the header of the columns
+     * @param values  the values of the columns
+     * @return the CSV with the columns added
+     */
+    private static String appendGlobalColumns(String csv, String header, String values) {
+        int headerEnd = csv.indexOf('\n');
+        int valuesEnd = (headerEnd < 0) ? -1 : csv.indexOf('\n', headerEnd + 1);
+        if (valuesEnd < 0) {
+            return header + "\n" + values + "\n" + csv;
+        }
+        return csv.substring(0, headerEnd) + "," + header
+                + csv.substring(headerEnd, valuesEnd) + "," + values
+                + csv.substring(valuesEnd);
+    }
+
+    /////////////////////////////////
+    // THE MAIN FUNCTION
+    /////////////////////////////////
+
+    /**
+     * Do the runs given on the command line.
+     *
+     * @param args  the configuration files, followed by the parameters to
+     *              override in all of them as <code>key=value</code>
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+
+        List<File> configFiles = new ArrayList<File>();
+        List<String[]> overrides = new ArrayList<String[]>();
+        for (String arg : args) {
+            int i = arg.indexOf('=');
+            if (i > 0 && !new File(arg).isFile()) {
+                overrides.add(new String[]{arg.substring(0, i), arg.substring(i + 1)});
+            } else {
+                configFiles.add(new File(arg));
+            }
+        }
+        if (configFiles.isEmpty()) {
+            System.err.println("Usage: BatchRunner config.properties... [key=value]...");
+            System.exit(2);
+        }
+
+        int numOfFailures = 0;
+        for (File configFile : configFiles) {
+            try {
+                BatchConfig config = BatchConfig.read(configFile);
+                for (String[] override : overrides) {
+                    config = config.with(override[0], override[1]);
+                }
+                long start = System.currentTimeMillis();
+                Simulator sim = run(config);
+                System.err.printf("%s: %.1f s simulated, %d vehicles completed, %d ms%n",
+                        configFile, sim.getSimulationTime(),
+                        sim.getNumCompletedVehicles(),
+                        System.currentTimeMillis() - start);
+            } catch (Exception e) {
+                System.err.println(configFile + ":");
+                e.printStackTrace();
+                numOfFailures++;
+            }
+        }
+        System.exit(numOfFailures == 0 ? 0 : 1);
+    }
+}
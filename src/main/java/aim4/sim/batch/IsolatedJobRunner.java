@@ -0,0 +1,189 @@
+package aim4.sim.batch;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Does the runs of a sweep in this JVM.  The simulator keeps some of its
+ * state in static fields, such as the {@link aim4.vehicle.VinRegistry} and
+ * the random number generator, as well as caches and counters which carry
+ * over from one run to the next.  Each run therefore loads its own copy of
+ * the simulator classes with a class loader of its own, so that the runs
+ * done at the same time do not share any state, and a run gives the same
+ * results whichever runs were done before it on the same worker.  For the
+ * same reason the runs do not share the caches of the simulator, such as the
+ * compiled topology of the intersection, which each run computes again.
+ * <p>
+ * If the topology is shared, each worker thread keeps the classes it loaded
+ * for a kind of simulation and does its later runs of the same kind with
+ * them, so that these runs share the caches of the simulator.  The runs
+ * still do not share any state with the runs done at the same time by the
+ * other workers.  The state which carries over is reset or seeded by
+ * {@link BatchRunner#makeSimulator(BatchConfig)}, or is set again by the
+ * setup of each run, which is the same for all the runs of a class space.
+ */
+public class IsolatedJobRunner implements JobRunner, Closeable {
+
+    /////////////////////////////////
+    // CONSTANTS
+    /////////////////////////////////
+
+    /**
+     * The system property telling a {@link QueueWorker} to share the topology
+     * between its runs.
+     */
+    public static final String SHARE_TOPOLOGY_PROPERTY = "aim4.shareTopology";
+
+    /////////////////////////////////
+    // PRIVATE FIELDS
+    /////////////////////////////////
+
+    /** The class path of the simulator */
+    private final URL[] classPath;
+    /** Whether the runs of a worker share their class space */
+    private final boolean isTopologyShared;
+    /** The class loaders of the current thread, by kind of simulation */
+    private final ThreadLocal<Map<BatchConfig.SetupType, URLClassLoader>> sharedLoaders =
+            new ThreadLocal<Map<BatchConfig.SetupType, URLClassLoader>>() {
+                @Override
+                protected Map<BatchConfig.SetupType, URLClassLoader> initialValue() {
+                    return new HashMap<BatchConfig.SetupType, URLClassLoader>();
+                }
+            };
+    /** All the class loaders kept by the worker threads; guarded by itself */
+    private final List<URLClassLoader> allSharedLoaders = new ArrayList<URLClassLoader>();
+
+    /////////////////////////////////
+    // CONSTRUCTORS
+    /////////////////////////////////
+
+    /**
+     * Create a job runner which loads the simulator from the class path of
+     * this JVM.
+     */
+    public IsolatedJobRunner() {
+        this(false);
+    }
+
+    /**
+     * Create a job runner which loads the simulator from the class path of
+     * this JVM.
+     *
+     * @param isTopologyShared  whether the runs of a worker share the
+     *                          topology, and the other caches, of the
+     *                          simulator
+     */
+    public IsolatedJobRunner(boolean isTopologyShared) {
+        this(System.getProperty("java.class.path"), isTopologyShared);
+    }
+
+    /**
+     * Create a job runner.
+     *
+     * @param classPath         the class path of the simulator
+     * @param isTopologyShared  whether the runs of a worker share the
+     *                          topology, and the other caches, of the
+     *                          simulator
+     */
+    public IsolatedJobRunner(String classPath, boolean isTopologyShared) {
+        List<URL> urls = new ArrayList<URL>();
+        for (String entry : classPath.split(File.pathSeparator)) {
+            if (!entry.isEmpty()) {
+                try {
+                    urls.add(new File(entry).toURI().toURL());
+                } catch (MalformedURLException e) {
+                    throw new IllegalArgumentException("Bad class path entry " + entry, e);
+                }
+            }
+        }
+        this.classPath = urls.toArray(new URL[urls.size()]);
+        this.isTopologyShared = isTopologyShared;
+    }
+
+    /////////////////////////////////
+    // PUBLIC METHODS
+    /////////////////////////////////
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void run(SweepJob job, File output) throws Exception {
+        Properties properties = job.getConfig().with(BatchConfig.OUTPUT, output.getPath())
+                .getProperties();
+        URLClassLoader loader;
+        if (isTopologyShared) {
+            Map<BatchConfig.SetupType, URLClassLoader> loaders = sharedLoaders.get();
+            loader = loaders.get(job.getConfig().getSetupType());
+            if (loader == null) {
+                loader = newLoader();
+                loaders.put(job.getConfig().getSetupType(), loader);
+                synchronized (allSharedLoaders) {
+                    allSharedLoaders.add(loader);
+                }
+            }
+        } else {
+            loader = newLoader();
+        }
+        try {
+            Class<?> configClass = Class.forName(BatchConfig.class.getName(), true, loader);
+            Class<?> runnerClass = Class.forName(BatchRunner.class.getName(), true, loader);
+            Constructor<?> newConfig = configClass.getConstructor(Properties.class);
+            Method run = runnerClass.getMethod("run", configClass);
+            run.invoke(null, newConfig.newInstance(properties));
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw (Error) cause;
+        } finally {
+            if (!isTopologyShared) {
+                loader.close();
+            }
+        }
+    }
+
+    /**
+     * Close the class loaders kept by the worker threads.  The runner must
+     * not be used afterwards.
+     *
+     * @throws IOException if a class loader cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (allSharedLoaders) {
+            for (URLClassLoader loader : allSharedLoaders) {
+                loader.close();
+            }
+            allSharedLoaders.clear();
+        }
+    }
+
+    /////////////////////////////////
+    // PRIVATE METHODS
+    /////////////////////////////////
+
+    /**
+     * Create a class loader of the simulator classes.
+     *
+     * @return the class loader
+     */
+    private URLClassLoader newLoader() {
+        // The parent is above the application class loader, so that the
+        // simulator classes are loaded again rather than shared
+        return new URLClassLoader(classPath, ClassLoader.getSystemClassLoader().getParent());
+    }
+}
@@ -0,0 +1,431 @@
+package aim4.sim.batch;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * A queue of runs in a directory, shared by worker processes on one host.
+ * Nothing but atomic renames of files within the directory is needed to
+ * share it, so no worker waits for a lock:
+ * <ul>
+ *     <li>a run is submitted as a file <code>todo/&lt;id&gt;@&lt;attempt&gt;</code>
+ *     holding its configuration;</li>
+ *     <li>a worker claims it by renaming it to
+ *     <code>running/&lt;id&gt;@&lt;attempt&gt;@&lt;worker&gt;</code>, which
+ *     only one worker can do;</li>
+ *     <li>once the run is done the worker renames it to
+ *     <code>done/&lt;id&gt;</code>, or, if the run failed, writes the reason
+ *     to <code>failed/&lt;id&gt;</code>.</li>
+ * </ul>
+ * Each worker touches its file in <code>workers</code> while it is alive.  A
+ * run claimed by a worker whose file is missing or has not been touched for
+ * a while is put back in <code>todo</code>, with its attempt counted, so that
+ * the runs of a worker which crashed are done by the others; a run whose
+ * workers crash too many times is failed instead.  Any worker, and whoever
+ * submitted the runs, may do this.
+ */
+public class JobQueue {
+
+    /////////////////////////////////
+    // NESTED CLASSES
+    /////////////////////////////////
+
+    /**
+     * A run claimed by a worker.
+     */
+    public static class Claim {
+        /** The name of the run */
+        private final String id;
+        /** The number of times the run was started before */
+        private final int attempt;
+        /** The file of the claim */
+        private final File file;
+        /** The configuration of the run */
+        private final BatchConfig config;
+
+        private Claim(String id, int attempt, File file, BatchConfig config) {
+            this.id = id;
+            this.attempt = attempt;
+            this.file = file;
+            this.config = config;
+        }
+
+        /**
+         * Get the name of the run.
+         *
+         * @return the name of the run
+         */
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * Get the number of times the run was started before, by workers
+         * which crashed.
+         *
+         * @return the number of attempts before this one
+         */
+        public int getAttempt() {
+            return attempt;
+        }
+
+        /**
+         * Get the configuration of the run, with the file its results are
+         * written to as its output.
+         *
+         * @return the configuration
+         */
+        public BatchConfig getConfig() {
+            return config;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return id + " (attempt " + (attempt + 1) + ")";
+        }
+    }
+
+    /////////////////////////////////
+    // CONSTANTS
+    /////////////////////////////////
+
+    /** The directory of the runs to do */
+    public static final String TODO_DIR = "todo";
+    /** The directory of the runs being done */
+    public static final String RUNNING_DIR = "running";
+    /** The directory of the runs done */
+    public static final String DONE_DIR = "done";
+    /** The directory of the runs which failed */
+    public static final String FAILED_DIR = "failed";
+    /** The directory of the files touched by the workers */
+    public static final String WORKERS_DIR = "workers";
+    /** The file telling the workers that no more runs will be submitted */
+    public static final String CLOSED_FILE = "closed";
+
+    /** The separator of the parts of the names of the files of the runs */
+    private static final char SEPARATOR = '@';
+
+    /** The default time between two touches of the file of a worker, in ms */
+    public static final long DEFAULT_HEARTBEAT_INTERVAL = 2000L;
+    /** The default time after which a worker not seen is dead, in ms */
+    public static final long DEFAULT_STALE_AFTER = 15000L;
+    /** The default number of times a run is started before it fails */
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    /////////////////////////////////
+    // PRIVATE FIELDS
+    /////////////////////////////////
+
+    /** The directory of the queue */
+    private final File dir;
+    /** The time after which a worker not seen is dead, in ms */
+    private final long staleAfter;
+    /** The number of times a run is started before it fails */
+    private final int maxAttempts;
+
+    /////////////////////////////////
+    // CONSTRUCTORS
+    /////////////////////////////////
+
+    /**
+     * Open a queue with the default time after which a worker is dead and
+     * number of attempts, creating its directories if needed.
+     *
+     * @param dir  the directory of the queue
+     * @throws IOException if the directories cannot be created
+     */
+    public JobQueue(File dir) throws IOException {
+        this(dir, DEFAULT_STALE_AFTER, DEFAULT_MAX_ATTEMPTS);
+    }
+
+    /**
+     * Open a queue, creating its directories if needed.
+     *
+     * @param dir          the directory of the queue
+     * @param staleAfter   the time after which a worker not seen is dead, in
+     *                     ms
+     * @param maxAttempts  the number of times a run is started before it
+     *                     fails
+     * @throws IOException if the directories cannot be created
+     */
+    public JobQueue(File dir, long staleAfter, int maxAttempts) throws IOException {
+        this.dir = dir;
+        this.staleAfter = staleAfter;
+        this.maxAttempts = maxAttempts;
+        for (String name : Arrays.asList(TODO_DIR, RUNNING_DIR, DONE_DIR, FAILED_DIR,
+                WORKERS_DIR)) {
+            File subdir = new File(dir, name);
+            if (!subdir.isDirectory() && !subdir.mkdirs()) {
+                throw new IOException("Cannot create the directory " + subdir);
+            }
+        }
+    }
+
+    /////////////////////////////////
+    // PUBLIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Remove the runs left in the queue by an earlier use of it, and open it
+     * to the workers again.
+     */
+    public void reset() {
+        for (String name : Arrays.asList(TODO_DIR, RUNNING_DIR, DONE_DIR, FAILED_DIR)) {
+            for (File file : list(name)) {
+                file.delete();
+            }
+        }
+        new File(dir, CLOSED_FILE).delete();
+    }
+
+    /**
+     * Submit a run.
+     *
+     * @param id      the name of the run, unique in the queue, without
+     *                <code>@</code>
+     * @param config  the configuration of the run, with the file its results
+     *                are written to as its output
+     * @throws IOException if the run cannot be submitted
+     */
+    public void submit(String id, BatchConfig config) throws IOException {
+        if (id.indexOf(SEPARATOR) >= 0) {
+            throw new IllegalArgumentException("Bad name of a run: " + id);
+        }
+        File temp = File.createTempFile("job", ".tmp", dir);
+        OutputStream out = new FileOutputStream(temp);
+        try {
+            config.getProperties().store(out, id);
+        } finally {
+            out.close();
+        }
+        moveInto(temp, new File(new File(dir, TODO_DIR), id + SEPARATOR + 0));
+    }
+
+    /**
+     * Claim the next run to do.
+     *
+     * @param worker  the name of the worker, without <code>@</code>
+     * @return the run, or null if there is none to do
+     * @throws IOException if the configuration of the run cannot be read
+     */
+    public Claim claim(String worker) throws IOException {
+        File[] todo = list(TODO_DIR);
+        Arrays.sort(todo);
+        for (File file : todo) {
+            File claimed = new File(new File(dir, RUNNING_DIR),
+                    file.getName() + SEPARATOR + worker);
+            if (file.renameTo(claimed)) {
+                String[] parts = claimed.getName().split(String.valueOf(SEPARATOR));
+                Properties properties = new Properties();
+                InputStream in = new FileInputStream(claimed);
+                try {
+                    properties.load(in);
+                } finally {
+                    in.close();
+                }
+                return new Claim(parts[0], Integer.parseInt(parts[1]), claimed,
+                        new BatchConfig(properties));
+            }
+            // else claimed by another worker first
+        }
+        return null;
+    }
+
+    /**
+     * Record that a claimed run is done.
+     *
+     * @param claim  the run
+     * @return whether the run was still claimed by the worker; if not, it was
+     *         given to another worker since this one was thought dead, and
+     *         its results must be thrown away
+     */
+    public boolean complete(Claim claim) {
+        return claim.file.renameTo(new File(new File(dir, DONE_DIR), claim.id));
+    }
+
+    /**
+     * Record that a claimed run failed.
+     *
+     * @param claim   the run
+     * @param reason  why the run failed
+     * @throws IOException if the failure cannot be recorded
+     */
+    public void fail(Claim claim, String reason) throws IOException {
+        if (claim.file.delete()) {
+            writeFailure(claim.id, reason);
+        }
+    }
+
+    /**
+     * Whether a run is done.
+     *
+     * @param id  the name of the run
+     * @return whether the run is done
+     */
+    public boolean isDone(String id) {
+        return new File(new File(dir, DONE_DIR), id).exists();
+    }
+
+    /**
+     * Get why a run failed.
+     *
+     * @param id  the name of the run
+     * @return why the run failed, or null if it has not failed
+     * @throws IOException if the reason cannot be read
+     */
+    public String getFailure(String id) throws IOException {
+        File file = new File(new File(dir, FAILED_DIR), id);
+        if (!file.exists()) {
+            return null;
+        }
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Remove a run which is done or failed from the queue.
+     *
+     * @param id  the name of the run
+     */
+    public void remove(String id) {
+        new File(new File(dir, DONE_DIR), id).delete();
+        new File(new File(dir, FAILED_DIR), id).delete();
+    }
+
+    /**
+     * Record that a worker is alive.
+     *
+     * @param worker  the name of the worker
+     * @throws IOException if the file of the worker cannot be touched
+     */
+    public void heartbeat(String worker) throws IOException {
+        File file = new File(new File(dir, WORKERS_DIR), worker);
+        if (!file.createNewFile() && !file.setLastModified(System.currentTimeMillis())) {
+            throw new IOException("Cannot touch " + file);
+        }
+    }
+
+    /**
+     * Record that a worker has stopped, so that any run it claimed is put
+     * back at once.
+     *
+     * @param worker  the name of the worker
+     */
+    public void retire(String worker) {
+        new File(new File(dir, WORKERS_DIR), worker).delete();
+    }
+
+    /**
+     * Put back the runs claimed by dead workers, or fail those which have
+     * been started too many times.
+     *
+     * @return the number of runs put back or failed
+     * @throws IOException if a failure cannot be recorded
+     */
+    public int recover() throws IOException {
+        int n = 0;
+        long now = System.currentTimeMillis();
+        for (File file : list(RUNNING_DIR)) {
+            String[] parts = file.getName().split(String.valueOf(SEPARATOR));
+            if (parts.length != 3) {
+                continue;
+            }
+            File worker = new File(new File(dir, WORKERS_DIR), parts[2]);
+            long seen = worker.lastModified();  // 0 if it does not exist
+            if (now - seen <= staleAfter) {
+                continue;
+            }
+            int attempt = Integer.parseInt(parts[1]) + 1;
+            if (attempt < maxAttempts) {
+                if (file.renameTo(new File(new File(dir, TODO_DIR),
+                        parts[0] + SEPARATOR + attempt))) {
+                    System.err.printf("%s put back: worker %s died%n", parts[0], parts[2]);
+                    n++;
+                }
+            } else if (file.delete()) {
+                writeFailure(parts[0], "The workers of the run died " + attempt + " times");
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Tell the workers that no more runs will be submitted, so that they stop
+     * once there are no runs to do.
+     *
+     * @throws IOException if the queue cannot be closed
+     */
+    public void close() throws IOException {
+        new File(dir, CLOSED_FILE).createNewFile();
+    }
+
+    /**
+     * Whether no more runs will be submitted.
+     *
+     * @return whether the queue is closed
+     */
+    public boolean isClosed() {
+        return new File(dir, CLOSED_FILE).exists();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return dir.getPath();
+    }
+
+    /////////////////////////////////
+    // PRIVATE METHODS
+    /////////////////////////////////
+
+    /**
+     * List the files of a directory of the queue.
+     *
+     * @param name  the name of the directory
+     * @return the files
+     */
+    private File[] list(String name) {
+        File[] files = new File(dir, name).listFiles();
+        return (files == null) ? new File[0] : files;
+    }
+
+    /**
+     * Write why a run failed.
+     *
+     * @param id      the name of the run
+     * @param reason  why the run failed
+     * @throws IOException if the failure cannot be written
+     */
+    private void writeFailure(String id, String reason) throws IOException {
+        File temp = File.createTempFile("job", ".tmp", dir);
+        Files.write(temp.toPath(), String.valueOf(reason).getBytes(StandardCharsets.UTF_8));
+        moveInto(temp, new File(new File(dir, FAILED_DIR), id));
+    }
+
+    /**
+     * Move a file written in full into place.
+     *
+     * @param from  the file
+     * @param to    where it goes
+     * @throws IOException if the file cannot be moved
+     */
+    private static void moveInto(File from, File to) throws IOException {
+        if (!from.renameTo(to)) {
+            from.delete();
+            throw new IOException("Cannot rename " + from + " to " + to);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package aim4.sim.batch;
+
+import java.io.File;
+
+/**
+ * A way of doing the runs of a sweep.  A job runner is called from several
+ * threads at once, one job per thread, so the runs must not share any
+ * simulation state.
+ */
+public interface JobRunner {
+
+    /**
+     * Do a run and write its results to a file.
+     *
+     * @param job     the job
+     * @param output  the file to which the results are written
+     * @throws Exception if the run fails
+     */
+    void run(SweepJob job, File output) throws Exception;
+}
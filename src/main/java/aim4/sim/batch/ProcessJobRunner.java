@@ -0,0 +1,99 @@
+package aim4.sim.batch;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Does each run of a sweep in a new JVM, running {@link BatchRunner} on a
+ * configuration file written next to the output.  The output of the JVM is
+ * written to a log file next to the output too.
+ */
+public class ProcessJobRunner implements JobRunner {
+
+    /////////////////////////////////
+    // PRIVATE FIELDS
+    /////////////////////////////////
+
+    /** The command starting a JVM, up to the name of the main class */
+    private final List<String> javaCommand;
+
+    /////////////////////////////////
+    // CONSTRUCTORS
+    /////////////////////////////////
+
+    /**
+     * Create a job runner which starts JVMs like this one, with the same
+     * class path.
+     *
+     * @param jvmOptions  the options of the JVMs, such as "-Xmx1g"
+     */
+    public ProcessJobRunner(List<String> jvmOptions) {
+        javaCommand = makeJavaCommand(jvmOptions, BatchRunner.class);
+    }
+
+    /////////////////////////////////
+    // PUBLIC METHODS
+    /////////////////////////////////
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void run(SweepJob job, File output) throws Exception {
+        File configFile = new File(output.getPath() + ".properties");
+        File logFile = new File(output.getPath() + ".log");
+        OutputStream out = new FileOutputStream(configFile);
+        try {
+            job.getConfig().with(BatchConfig.OUTPUT, output.getPath())
+                    .getProperties().store(out, job.getId());
+        } finally {
+            out.close();
+        }
+
+        List<String> command = new ArrayList<String>(javaCommand);
+        command.add(configFile.getPath());
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile)
+                .start();
+        try {
+            int exitValue = process.waitFor();
+            if (exitValue != 0) {
+                throw new IOException("The run exited with " + exitValue
+                        + "; see " + logFile);
+            }
+        } finally {
+            process.destroy();
+        }
+        configFile.delete();
+        logFile.delete();
+    }
+
+    /////////////////////////////////
+    // PRIVATE METHODS
+    /////////////////////////////////
+
+    /**
+     * Make the command starting a headless JVM like this one, with the same
+     * class path.
+     *
+     * @param jvmOptions  the options of the JVM
+     * @param mainClass   the main class
+     * @return the command, up to the name of the main class
+     */
+    static List<String> makeJavaCommand(List<String> jvmOptions, Class<?> mainClass) {
+        List<String> command = new ArrayList<String>();
+        command.add(System.getProperty("java.home") + File.separator + "bin"
+                + File.separator + "java");
+        command.addAll(jvmOptions);
+        command.add("-Djava.awt.headless=true");
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(mainClass.getName());
+        return command;
+    }
+}
@@ -0,0 +1,204 @@
+package aim4.sim.batch;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.ProcessBuilder.Redirect;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Does the runs of a sweep with long-lived worker processes which pull them
+ * from a {@link JobQueue}, so that a worker which gets long runs does not
+ * hold up the others, and the JVMs are not started again for each run.  The
+ * runner starts the workers, starts them again when they die, and puts back
+ * the runs of the workers which died, which the other workers then do.
+ */
+public class QueueJobRunner implements JobRunner, Closeable {
+
+    /////////////////////////////////
+    // CONSTANTS
+    /////////////////////////////////
+
+    /** The time between two looks at the queue or the workers, in ms */
+    private static final long POLL_INTERVAL = 100L;
+    /** The time the workers are given to stop once the queue is closed, in s */
+    private static final long STOP_TIMEOUT = 10L;
+
+    /////////////////////////////////
+    // PRIVATE FIELDS
+    /////////////////////////////////
+
+    /** The directory of the queue */
+    private final File queueDir;
+    /** The number of worker processes */
+    private final int numOfWorkers;
+    /** The command starting a worker, up to the name of the main class */
+    private final List<String> javaCommand;
+
+    /** The queue, once it is open; guarded by this */
+    private JobQueue queue;
+    /** The worker processes; guarded by this */
+    private Process[] workers;
+    /** The names of the worker processes; guarded by this */
+    private String[] workerNames;
+    /** The number of worker processes started; guarded by this */
+    private int numOfStarts;
+    /** The thread watching the workers */
+    private Thread supervisor;
+
+    /////////////////////////////////
+    // CONSTRUCTORS
+    /////////////////////////////////
+
+    /**
+     * Create a job runner.
+     *
+     * @param queueDir      the directory of the queue
+     * @param numOfWorkers  the number of worker processes
+     * @param jvmOptions    the options of the JVMs of the workers
+     */
+    public QueueJobRunner(File queueDir, int numOfWorkers, List<String> jvmOptions) {
+        this.queueDir = queueDir;
+        this.numOfWorkers = numOfWorkers;
+        this.javaCommand = ProcessJobRunner.makeJavaCommand(jvmOptions, QueueWorker.class);
+    }
+
+    /////////////////////////////////
+    // PUBLIC METHODS
+    /////////////////////////////////
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void run(SweepJob job, File output) throws Exception {
+        JobQueue queue = start();
+        queue.submit(job.getId(), job.getConfig().with(BatchConfig.OUTPUT, output.getPath()));
+        while (true) {
+            if (queue.isDone(job.getId())) {
+                queue.remove(job.getId());
+                return;
+            }
+            String failure = queue.getFailure(job.getId());
+            if (failure != null) {
+                queue.remove(job.getId());
+                throw new IOException(failure);
+            }
+            Thread.sleep(POLL_INTERVAL);
+        }
+    }
+
+    /**
+     * Close the queue and wait for the workers to stop.
+     *
+     * @throws IOException if the queue cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        Process[] stopping;
+        synchronized (this) {
+            if (queue == null) {
+                return;
+            }
+            queue.close();
+            supervisor.interrupt();
+            stopping = workers;
+            queue = null;
+        }
+        for (Process worker : stopping) {
+            try {
+                if (!worker.waitFor(STOP_TIMEOUT, TimeUnit.SECONDS)) {
+                    worker.destroy();
+                }
+            } catch (InterruptedException e) {
+                worker.destroy();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /////////////////////////////////
+    // PRIVATE METHODS
+    /////////////////////////////////
+
+    /**
+     * Open the queue, emptying it, and start the workers and the thread
+     * watching them, unless this has been done already.
+     *
+     * @return the queue
+     * @throws IOException if the queue cannot be opened or a worker cannot
+     *                     be started
+     */
+    private synchronized JobQueue start() throws IOException {
+        if (queue == null) {
+            queue = new JobQueue(queueDir);
+            queue.reset();
+            workers = new Process[numOfWorkers];
+            workerNames = new String[numOfWorkers];
+            for (int i = 0; i < numOfWorkers; i++) {
+                startWorker(i);
+            }
+            supervisor = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        while (!Thread.interrupted()) {
+                            superviseWorkers();
+                            Thread.sleep(JobQueue.DEFAULT_HEARTBEAT_INTERVAL / 2);
+                        }
+                    } catch (InterruptedException e) {
+                        // closed
+                    }
+                }
+            }, "queue supervisor");
+            supervisor.setDaemon(true);
+            supervisor.start();
+        }
+        return queue;
+    }
+
+    /**
+     * Start a worker process, which logs to a file in the directory of the
+     * workers.
+     *
+     * @param i  the index of the worker
+     * @throws IOException if the process cannot be started
+     */
+    private synchronized void startWorker(int i) throws IOException {
+        String name = "worker" + numOfStarts++;
+        List<String> command = new ArrayList<String>(javaCommand);
+        command.add(queueDir.getPath());
+        command.add(name);
+        File log = new File(new File(queueDir, JobQueue.WORKERS_DIR), name + ".log");
+        workers[i] = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(Redirect.appendTo(log))
+                .start();
+        workerNames[i] = name;
+    }
+
+    /**
+     * Start again the workers which died, putting back their runs, and put
+     * back the runs of any other worker which died.
+     */
+    private synchronized void superviseWorkers() {
+        if (queue == null) {
+            return;
+        }
+        try {
+            for (int i = 0; i < workers.length; i++) {
+                if (!workers[i].isAlive()) {
+                    System.err.printf("%s stopped with %d; starting another%n",
+                            workerNames[i], workers[i].exitValue());
+                    queue.retire(workerNames[i]);
+                    startWorker(i);
+                }
+            }
+            queue.recover();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package aim4.sim.batch;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+
+/**
+ * A worker process of a {@link JobQueue}: it claims the runs of the queue
+ * one after the other and does them, each with the simulator classes loaded
+ * afresh as in {@link IsolatedJobRunner}, until the queue is closed and has
+ * no runs left.  Any number of workers can share a queue, and more can be
+ * started at any time:
+ * <pre>
+ *     java -cp aim4.jar aim4.sim.batch.QueueWorker queueDir [name]
+ * </pre>
+ * While it is idle, a worker also puts back the runs of the workers which
+ * died.  With the system property
+ * {@value IsolatedJobRunner#SHARE_TOPOLOGY_PROPERTY} set to true, the runs of
+ * a worker share the compiled topology of the intersection.
+ */
+public class QueueWorker {
+
+    /////////////////////////////////
+    // CONSTANTS
+    /////////////////////////////////
+
+    /** The time between two looks at an empty queue, in ms */
+    private static final long POLL_INTERVAL = 200L;
+
+    /////////////////////////////////
+    // PRIVATE FIELDS
+    /////////////////////////////////
+
+    /** The queue */
+    private final JobQueue queue;
+    /** The name of the worker */
+    private final String name;
+    /** The runner of the runs */
+    private final JobRunner jobRunner;
+
+    /////////////////////////////////
+    // CONSTRUCTORS
+    /////////////////////////////////
+
+    /**
+     * Create a worker.
+     *
+     * @param queue  the queue
+     * @param name   the name of the worker, unique among the workers of the
+     *               queue
+     */
+    public QueueWorker(JobQueue queue, String name) {
+        this.queue = queue;
+        this.name = name;
+        this.jobRunner = new IsolatedJobRunner(
+                Boolean.getBoolean(IsolatedJobRunner.SHARE_TOPOLOGY_PROPERTY));
+    }
+
+    /////////////////////////////////
+    // PUBLIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Do the runs of the queue until it is closed and has no runs left.
+     *
+     * @return the number of runs which failed
+     * @throws IOException if the queue cannot be used
+     * @throws InterruptedException if interrupted while waiting for runs
+     */
+    public int run() throws IOException, InterruptedException {
+        Thread heartbeat = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    while (true) {
+                        queue.heartbeat(name);
+                        Thread.sleep(JobQueue.DEFAULT_HEARTBEAT_INTERVAL);
+                    }
+                } catch (InterruptedException e) {
+                    // stopped
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }, "heartbeat");
+        heartbeat.setDaemon(true);
+        queue.heartbeat(name);
+        heartbeat.start();
+
+        int numOfFailures = 0;
+        try {
+            while (true) {
+                JobQueue.Claim claim = queue.claim(name);
+                if (claim == null) {
+                    if (queue.isClosed()) {
+                        break;
+                    }
+                    queue.recover();
+                    Thread.sleep(POLL_INTERVAL);
+                } else if (!runClaim(claim)) {
+                    numOfFailures++;
+                }
+            }
+        } finally {
+            heartbeat.interrupt();
+            queue.retire(name);
+        }
+        return numOfFailures;
+    }
+
+    /////////////////////////////////
+    // PRIVATE METHODS
+    /////////////////////////////////
+
+    /**
+     * Do a run.  The results are written to a file of this worker and then
+     * renamed, so that a worker thought dead whose run was given to another
+     * worker cannot leave part of the results; as the runs are repeatable,
+     * either of them may write the results.
+     *
+     * @param claim  the run
+     * @return whether the run was done
+     * @throws IOException if the outcome cannot be recorded
+     */
+    private boolean runClaim(JobQueue.Claim claim) throws IOException {
+        BatchConfig config = claim.getConfig();
+        File output = config.getOutput();
+        File partial = new File(output.getPath() + "." + name);
+        long start = System.currentTimeMillis();
+        try {
+            jobRunner.run(new SweepJob(config, Collections.<String, String>emptyMap(),
+                    config.getSeed()), partial);
+            if (!partial.renameTo(output)) {
+                throw new IOException("Cannot rename " + partial + " to " + output);
+            }
+        } catch (Exception e) {
+            partial.delete();
+            System.err.println(claim + " failed:");
+            e.printStackTrace();
+            queue.fail(claim, e.toString());
+            return false;
+        }
+        if (queue.complete(claim)) {
+            System.err.printf("%s done in %d ms%n", claim,
+                    System.currentTimeMillis() - start);
+        }
+        return true;
+    }
+
+    /////////////////////////////////
+    // THE MAIN FUNCTION
+    /////////////////////////////////
+
+    /**
+     * Do the runs of a queue.
+     *
+     * @param args  the directory of the queue, and optionally the name of
+     *              the worker, by default made of its process ID and host
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length == 0) {
+            System.err.println("Usage: QueueWorker queueDir [name]");
+            System.exit(2);
+        }
+        String name = (args.length > 1) ? args[1]
+                : ManagementFactory.getRuntimeMXBean().getName();
+        try {
+            int numOfFailures = new QueueWorker(new JobQueue(new File(args[0])),
+                    name.replace('@', '-')).run();
+            System.exit(numOfFailures == 0 ? 0 : 1);
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
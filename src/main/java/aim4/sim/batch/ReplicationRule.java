@@ -0,0 +1,232 @@
+package aim4.sim.batch;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The rule which tells when a point of a sweep has enough replications: the
+ * 95% confidence interval of the mean of each of the chosen metrics, over the
+ * replications done, must be narrower than a relative precision, with a
+ * minimum and a maximum number of replications.  The metrics are columns of
+ * the global results of the runs, e.g.
+ * <pre>
+ *     sweep.ci.metrics = Average Delay,Throughput
+ *     sweep.ci.precision = 0.05
+ *     sweep.ci.minReplications = 5
+ *     sweep.ci.maxReplications = 50
+ * </pre>
+ */
+public class ReplicationRule {
+
+    /////////////////////////////////
+    // CONSTANTS
+    /////////////////////////////////
+
+    /** The prefix of the keys of the rule */
+    public static final String PREFIX = SweepExecutor.PREFIX + "ci.";
+
+    /** The default relative half width of the confidence intervals */
+    public static final double DEFAULT_PRECISION = 0.05;
+    /** The default minimum number of replications */
+    public static final int DEFAULT_MIN_REPLICATIONS = 5;
+    /** The default maximum number of replications */
+    public static final int DEFAULT_MAX_REPLICATIONS = 50;
+
+    /////////////////////////////////
+    // PRIVATE FIELDS
+    /////////////////////////////////
+
+    /** The names of the columns of the metrics */
+    private final List<String> metrics;
+    /** The relative half width of the confidence intervals to reach */
+    private final double precision;
+    /** The minimum number of replications */
+    private final int minReplications;
+    /** The maximum number of replications */
+    private final int maxReplications;
+
+    /////////////////////////////////
+    // CONSTRUCTORS
+    /////////////////////////////////
+
+    /**
+     * Create a rule.
+     *
+     * @param metrics          the names of the columns of the metrics
+     * @param precision        the relative half width of the confidence
+     *                         intervals to reach
+     * @param minReplications  the minimum number of replications, at least
+     *                         four so that the confidence intervals are
+     *                         accurate
+     * @param maxReplications  the maximum number of replications
+     */
+    public ReplicationRule(List<String> metrics, double precision,
+                           int minReplications, int maxReplications) {
+        if (metrics.isEmpty() || precision <= 0.0 || minReplications < 4
+                || maxReplications < minReplications) {
+            throw new IllegalArgumentException("Bad replication rule: " + metrics
+                    + ", " + precision + ", " + minReplications + ", " + maxReplications);
+        }
+        this.metrics = Collections.unmodifiableList(new ArrayList<String>(metrics));
+        this.precision = precision;
+        this.minReplications = minReplications;
+        this.maxReplications = maxReplications;
+    }
+
+    /**
+     * Read the rule of a sweep.
+     *
+     * @param sweep  the properties of the sweep
+     * @return the rule, or null if the sweep has a fixed number of
+     *         replications
+     */
+    public static ReplicationRule read(Properties sweep) {
+        String value = sweep.getProperty(PREFIX + "metrics");
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        List<String> metrics = new ArrayList<String>();
+        for (String metric : value.split(",")) {
+            if (!metric.trim().isEmpty()) {
+                metrics.add(metric.trim());
+            }
+        }
+        return new ReplicationRule(metrics,
+                Double.parseDouble(sweep.getProperty(PREFIX + "precision",
+                        Double.toString(DEFAULT_PRECISION)).trim()),
+                Integer.parseInt(sweep.getProperty(PREFIX + "minReplications",
+                        Integer.toString(DEFAULT_MIN_REPLICATIONS)).trim()),
+                Integer.parseInt(sweep.getProperty(PREFIX + "maxReplications",
+                        Integer.toString(DEFAULT_MAX_REPLICATIONS)).trim()));
+    }
+
+    /////////////////////////////////
+    // PUBLIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Get the names of the columns of the metrics.
+     *
+     * @return the names
+     */
+    public List<String> getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Get the minimum number of replications.
+     *
+     * @return the minimum number of replications
+     */
+    public int getMinReplications() {
+        return minReplications;
+    }
+
+    /**
+     * Get the maximum number of replications.
+     *
+     * @return the maximum number of replications
+     */
+    public int getMaxReplications() {
+        return maxReplications;
+    }
+
+    /**
+     * Whether the replications done are enough.
+     *
+     * @param results  the global results of the replications, by column
+     * @return whether the confidence interval of each metric is narrow enough
+     */
+    public boolean isPrecise(List<Map<String, Double>> results) {
+        if (results.size() < minReplications) {
+            return false;
+        }
+        for (String metric : metrics) {
+            if (!(relativeHalfWidth(values(results, metric)) <= precision)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the values of a metric in the results of the replications.
+     *
+     * @param results  the global results of the replications, by column
+     * @param metric   the name of the column of the metric
+     * @return the values, NaN where a result has no such column
+     */
+    public static List<Double> values(List<Map<String, Double>> results, String metric) {
+        List<Double> values = new ArrayList<Double>(results.size());
+        for (Map<String, Double> result : results) {
+            Double value = result.get(metric);
+            values.add(value == null ? Double.NaN : value);
+        }
+        return values;
+    }
+
+    /**
+     * Get the mean of values.
+     *
+     * @param values  the values
+     * @return the mean
+     */
+    public static double mean(List<Double> values) {
+        double sum = 0.0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.size();
+    }
+
+    /**
+     * Get the half width of the 95% confidence interval of the mean of
+     * values.
+     *
+     * @param values  the values
+     * @return the half width, or NaN if there are fewer than two values
+     */
+    public static double halfWidth(List<Double> values) {
+        int n = values.size();
+        if (n < 2) {
+            return Double.NaN;
+        }
+        double mean = mean(values);
+        double var = 0.0;
+        for (double value : values) {
+            var += (value - mean) * (value - mean);
+        }
+        var /= (n - 1);
+        return SteadyStateMonitor.tQuantile(n - 1, SteadyStateMonitor.Z_95)
+                * Math.sqrt(var / n);
+    }
+
+    /**
+     * Get the half width of the 95% confidence interval of the mean of values
+     * relative to the mean.
+     *
+     * @param values  the values
+     * @return the relative half width, 0 if the values are all zero, or NaN
+     *         if it is not defined
+     */
+    public static double relativeHalfWidth(List<Double> values) {
+        double halfWidth = halfWidth(values);
+        double mean = Math.abs(mean(values));
+        if (halfWidth == 0.0) {
+            return 0.0;
+        }
+        return (mean == 0.0) ? Double.POSITIVE_INFINITY : halfWidth / mean;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return metrics + " within " + precision + " in " + minReplications
+                + "-" + maxReplications + " replications";
+    }
+}
@@ -0,0 +1,352 @@
+package aim4.sim.batch;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * A cache on disk of the results of runs, so that a sweep run again after
+ * one of its parameters is changed does not do again the runs which did not
+ * change.  The results of a run are stored under a key which is the SHA-256
+ * hash of
+ * <ul>
+ *     <li>the parameters of the run, including its seed, in the order of
+ *     their keys, leaving out where the results are written;</li>
+ *     <li>the contents of the files named by the parameters, such as the
+ *     spawn schedules in <code>schedules/trafficLevel</code> and
+ *     <code>schedules/speedLimit</code>;</li>
+ *     <li>the version of the code, which by default is the hash of the
+ *     classes and resources of the simulator.</li>
+ * </ul>
+ * Since any change of the code changes the key, stale results are never
+ * returned, but they stay on disk until they are removed with
+ * {@link #invalidate(BatchConfig)} or {@link #clear()}, or from the command
+ * line:
+ * <pre>
+ *     java -cp aim4.jar aim4.sim.batch.ResultCache cacheDir clear
+ *     java -cp aim4.jar aim4.sim.batch.ResultCache cacheDir invalidate config.properties...
+ * </pre>
+ */
+public class ResultCache {
+
+    /////////////////////////////////
+    // CONSTANTS
+    /////////////////////////////////
+
+    /** The suffix of the files of the results */
+    public static final String SUFFIX = ".csv";
+
+    /** The keys of the parameters which say where results are written */
+    private static final List<String> OUTPUT_KEYS = Arrays.asList(
+            BatchConfig.OUTPUT, BatchConfig.DATA_COLLECTION_LINES_OUTPUT,
+            BatchConfig.EVENT_LOG_OUTPUT);
+
+    /////////////////////////////////
+    // PRIVATE FIELDS
+    /////////////////////////////////
+
+    /** The version of the code of the simulator, computed once */
+    private static String classesVersion;
+
+    /** The directory of the cache */
+    private final File dir;
+    /** The version of the code, or null for the code being run */
+    private final String codeVersion;
+
+    /////////////////////////////////
+    // CONSTRUCTORS
+    /////////////////////////////////
+
+    /**
+     * Create a cache for the code of the simulator being run.
+     *
+     * @param dir  the directory of the cache
+     */
+    public ResultCache(File dir) {
+        this(dir, null);
+    }
+
+    /**
+     * Create a cache for a version of the code.
+     *
+     * @param dir          the directory of the cache
+     * @param codeVersion  the version of the code, or null for the hash of
+     *                     the code being run
+     */
+    public ResultCache(File dir, String codeVersion) {
+        this.dir = dir;
+        this.codeVersion = codeVersion;
+    }
+
+    /////////////////////////////////
+    // PUBLIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Get the key of the results of a run.
+     *
+     * @param config  the configuration of the run
+     * @return the key, in hexadecimal
+     * @throws IOException if a file named by the configuration, or the code,
+     *                     cannot be read
+     */
+    public String key(BatchConfig config) throws IOException {
+        MessageDigest digest = newDigest();
+        String version = (codeVersion == null) ? getClassesVersion() : codeVersion;
+        update(digest, "code=" + version + "\n");
+        Properties properties = config.getProperties();
+        for (String key : new TreeSet<String>(properties.stringPropertyNames())) {
+            if (OUTPUT_KEYS.contains(key)) {
+                continue;
+            }
+            String value = properties.getProperty(key).trim();
+            update(digest, key + "=" + value + "\n");
+            File file = new File(value);
+            if (!value.isEmpty() && file.isFile()) {
+                update(digest, "file " + file.length() + "\n");
+                updateWithFile(digest, file);
+            }
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Get the file in which the results of a run are stored.
+     *
+     * @param config  the configuration of the run
+     * @return the file, which may not exist
+     * @throws IOException if a file named by the configuration cannot be read
+     */
+    public File getFile(BatchConfig config) throws IOException {
+        String key = key(config);
+        return new File(new File(dir, key.substring(0, 2)), key + SUFFIX);
+    }
+
+    /**
+     * Copy the stored results of a run, if there are any.
+     *
+     * @param config  the configuration of the run
+     * @param output  the file to which the results are copied
+     * @return whether the results were in the cache
+     * @throws IOException if the results cannot be copied
+     */
+    public boolean fetch(BatchConfig config, File output) throws IOException {
+        File file = getFile(config);
+        if (!file.isFile()) {
+            return false;
+        }
+        Files.copy(file.toPath(), output.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return true;
+    }
+
+    /**
+     * Store the results of a run.  The results are written to a temporary
+     * file first, so that a cache shared by several processes never holds
+     * part of the results of a run.
+     *
+     * @param config   the configuration of the run
+     * @param results  the file of the results
+     * @throws IOException if the results cannot be stored
+     */
+    public void put(BatchConfig config, File results) throws IOException {
+        File file = getFile(config);
+        File parent = file.getParentFile();
+        if (!parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Cannot create the directory " + parent);
+        }
+        File temp = File.createTempFile(file.getName(), ".tmp", parent);
+        try {
+            Files.copy(results.toPath(), temp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            temp.delete();
+        }
+    }
+
+    /**
+     * Remove the stored results of a run.
+     *
+     * @param config  the configuration of the run
+     * @return whether there were results to remove
+     * @throws IOException if a file named by the configuration cannot be read
+     */
+    public boolean invalidate(BatchConfig config) throws IOException {
+        return getFile(config).delete();
+    }
+
+    /**
+     * Remove all the stored results, of any version of the code.
+     *
+     * @return the number of results removed
+     */
+    public int clear() {
+        int n = 0;
+        File[] subdirs = dir.listFiles();
+        if (subdirs == null) {
+            return 0;
+        }
+        for (File subdir : subdirs) {
+            File[] files = subdir.listFiles();
+            if (files == null) {
+                continue;
+            }
+            for (File file : files) {
+                if (file.getName().endsWith(SUFFIX) && file.delete()) {
+                    n++;
+                }
+            }
+            subdir.delete();
+        }
+        return n;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return dir.getPath();
+    }
+
+    /////////////////////////////////
+    // PRIVATE METHODS
+    /////////////////////////////////
+
+    /**
+     * Get the version of the code of the simulator: the hash of the jar file
+     * or the directory of classes it is loaded from.
+     *
+     * @return the version of the code
+     * @throws IOException if the code cannot be read
+     */
+    private static synchronized String getClassesVersion() throws IOException {
+        if (classesVersion == null) {
+            CodeSource source = ResultCache.class.getProtectionDomain().getCodeSource();
+            URL location = (source == null) ? null : source.getLocation();
+            if (location == null) {
+                throw new IOException("Cannot find the code of the simulator");
+            }
+            File file;
+            try {
+                file = new File(location.toURI());
+            } catch (URISyntaxException e) {
+                throw new IOException("Cannot find the code of the simulator: " + location);
+            }
+            MessageDigest digest = newDigest();
+            if (file.isDirectory()) {
+                List<File> files = new ArrayList<File>();
+                listFiles(file, files);
+                int prefix = file.getPath().length();
+                for (File f : files) {
+                    update(digest, f.getPath().substring(prefix) + "\n");
+                    updateWithFile(digest, f);
+                }
+            } else {
+                updateWithFile(digest, file);
+            }
+            classesVersion = toHex(digest.digest());
+        }
+        return classesVersion;
+    }
+
+    /**
+     * List the files in a directory and its subdirectories, in order.
+     *
+     * @param dir    the directory
+     * @param files  the list to which the files are added
+     */
+    private static void listFiles(File dir, List<File> files) {
+        File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+        Arrays.sort(children);
+        for (File child : children) {
+            if (child.isDirectory()) {
+                listFiles(child, files);
+            } else {
+                files.add(child);
+            }
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 is not supported", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String s) {
+        digest.update(s.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void updateWithFile(MessageDigest digest, File file) throws IOException {
+        byte[] buffer = new byte[8192];
+        InputStream in = new FileInputStream(file);
+        try {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, n);
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+
+    /////////////////////////////////
+    // THE MAIN FUNCTION
+    /////////////////////////////////
+
+    /**
+     * Remove results from a cache.
+     *
+     * @param args  the directory of the cache, followed by <code>clear</code>
+     *              or by <code>invalidate</code> and configuration files
+     */
+    public static void main(String[] args) {
+        if (args.length < 2 || !(args[1].equals("clear") || args[1].equals("invalidate"))) {
+            System.err.println("Usage: ResultCache cacheDir clear");
+            System.err.println("       ResultCache cacheDir invalidate config.properties...");
+            System.exit(2);
+        }
+        try {
+            ResultCache cache = new ResultCache(new File(args[0]));
+            if (args[1].equals("clear")) {
+                System.err.println(cache.clear() + " results removed");
+            } else {
+                for (int i = 2; i < args.length; i++) {
+                    boolean removed = cache.invalidate(BatchConfig.read(new File(args[i])));
+                    System.err.println(args[i] + (removed ? ": removed" : ": not cached"));
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
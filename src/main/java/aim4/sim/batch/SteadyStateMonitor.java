@@ -0,0 +1,481 @@
+package aim4.sim.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Watches a run as it goes, to tell when it can stop.  The run is cut into
+ * batches of a fixed simulated length, and for each batch the monitor keeps
+ * the throughput, the mean delay of the vehicles completed in it and the
+ * number of vehicles in the system at its end.
+ * <p>
+ * The end of the warm-up period is found with the MSER truncation rule on the
+ * batch means of the estimated metric: the first <i>d</i> batches are dropped,
+ * where <i>d</i> minimizes the squared standard error of the mean of the
+ * batches that are left.  The truncation is accepted once <i>d</i> is in the
+ * first half of the batches.  The run is then in steady state as soon as the
+ * confidence interval of the mean of the batches after the warm-up is
+ * narrower than the requested precision.
+ * <p>
+ * The run is saturated if, over the last half of the batches, the number of
+ * vehicles in the system or the mean delay grows with a significant trend by
+ * a large part of its level; the queues then grow without bound, and no
+ * amount of simulated time gives a steady state estimate.  A simulator which
+ * drops the vehicles it cannot spawn settles at its capacity instead once its
+ * entrances are blocked, and is then reported in steady state; a throughput
+ * below the offered traffic shows it.
+ */
+public class SteadyStateMonitor {
+
+    /////////////////////////////////
+    // NESTED CLASSES
+    /////////////////////////////////
+
+    /**
+     * The metrics whose mean can be estimated.
+     */
+    public enum Metric {
+        /** The mean delay of the completed vehicles */
+        DELAY,
+        /** The number of vehicles completed per unit of time */
+        THROUGHPUT
+    }
+
+    /**
+     * Why a run stopped.
+     */
+    public enum StopReason {
+        /** The time limit was reached before the estimate was stable */
+        TIME_LIMIT,
+        /** The estimate is stable */
+        STEADY_STATE,
+        /** The queues grow without bound */
+        SATURATED
+    }
+
+    /////////////////////////////////
+    // CONSTANTS
+    /////////////////////////////////
+
+    /** The default length of a batch, in seconds */
+    public static final double DEFAULT_BATCH_LENGTH = 60.0;
+    /** The default relative half width of the confidence interval */
+    public static final double DEFAULT_PRECISION = 0.05;
+    /** The default minimum number of batches after the warm-up */
+    public static final int DEFAULT_MIN_BATCHES = 10;
+
+    /** The quantile of the normal distribution for a 95% confidence level */
+    static final double Z_95 = 1.959964;
+    /** The t statistic above which a trend is significant */
+    private static final double TREND_T = 3.0;
+    /**
+     * The growth over the last half of the batches, as a fraction of the
+     * mean level, above which a significant trend means saturation.
+     */
+    private static final double SATURATION_GROWTH = 0.25;
+    /**
+     * The mean delay below which the half width of the confidence interval
+     * is taken relative to this delay instead, in seconds, so that runs
+     * without any delay can stop.
+     */
+    private static final double MIN_DELAY = 1.0;
+
+    /////////////////////////////////
+    // PRIVATE FIELDS
+    /////////////////////////////////
+
+    /** The length of a batch, in seconds */
+    private final double batchLength;
+    /** The relative half width of the confidence interval to reach */
+    private final double precision;
+    /** The minimum number of batches after the warm-up */
+    private final int minBatches;
+    /** The estimated metric */
+    private final Metric metric;
+
+    /** The end time of the current batch */
+    private double batchEnd;
+    /** The number of completed vehicles at the start of the current batch */
+    private int numOfCompletedAtBatchStart = 0;
+    /** The sum of the delays in the current batch */
+    private double delaySum = 0.0;
+    /** The number of delays in the current batch */
+    private int numOfDelays = 0;
+    /** Whether a delay has been given at all */
+    private boolean hasDelays = false;
+
+    /** The throughput of each batch, in vehicles per second */
+    private final List<Double> throughputs = new ArrayList<Double>();
+    /** The mean delay of each batch, or NaN if no delay was given in it */
+    private final List<Double> delays = new ArrayList<Double>();
+    /** The number of vehicles in the system at the end of each batch */
+    private final List<Double> numsInSystem = new ArrayList<Double>();
+
+    /** The number of batches of the warm-up, or -1 if not found yet */
+    private int numOfWarmUpBatches = -1;
+    /** The relative half width of the confidence interval, if known */
+    private double relativeHalfWidth = Double.NaN;
+    /** Why the run stopped, or null if it has not */
+    private StopReason stopReason = null;
+
+    /////////////////////////////////
+    // CONSTRUCTORS
+    /////////////////////////////////
+
+    /**
+     * Create a monitor.
+     *
+     * @param metric       the metric whose mean is estimated; the throughput
+     *                     is used if no delay is ever given
+     * @param batchLength  the length of a batch, in seconds
+     * @param precision    the relative half width of the 95% confidence
+     *                     interval of the mean at which the run can stop
+     * @param minBatches   the minimum number of batches after the warm-up
+     */
+    public SteadyStateMonitor(Metric metric, double batchLength,
+                              double precision, int minBatches) {
+        if (batchLength <= 0.0 || precision <= 0.0 || minBatches < 2) {
+            throw new IllegalArgumentException("Bad steady state parameters: "
+                    + batchLength + ", " + precision + ", " + minBatches);
+        }
+        this.metric = metric;
+        this.batchLength = batchLength;
+        this.precision = precision;
+        this.minBatches = minBatches;
+        this.batchEnd = batchLength;
+    }
+
+    /////////////////////////////////
+    // PUBLIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Add the delay of a vehicle completed in the current step.  Delays which
+     * are not known, given as NaN or {@link Double#MAX_VALUE}, are ignored.
+     *
+     * @param delay  the delay, in seconds
+     */
+    public void addDelay(double delay) {
+        if (!Double.isNaN(delay) && delay != Double.MAX_VALUE) {
+            delaySum += delay;
+            numOfDelays++;
+            hasDelays = true;
+        }
+    }
+
+    /**
+     * Update the monitor at the end of a step.
+     *
+     * @param time                    the simulated time
+     * @param numOfCompletedVehicles  the number of vehicles completed so far
+     * @param numOfVehiclesInSystem   the number of vehicles in the system
+     * @return whether the run can stop
+     */
+    public boolean update(double time, int numOfCompletedVehicles,
+                          int numOfVehiclesInSystem) {
+        while (stopReason == null && time >= batchEnd) {
+            throughputs.add((numOfCompletedVehicles - numOfCompletedAtBatchStart)
+                    / batchLength);
+            delays.add(numOfDelays == 0 ? Double.NaN : delaySum / numOfDelays);
+            numsInSystem.add((double) numOfVehiclesInSystem);
+            numOfCompletedAtBatchStart = numOfCompletedVehicles;
+            delaySum = 0.0;
+            numOfDelays = 0;
+            batchEnd += batchLength;
+            evaluate();
+        }
+        return stopReason != null;
+    }
+
+    /**
+     * Record that the run stopped at its time limit, unless it could stop
+     * already.
+     */
+    public void timeLimitReached() {
+        if (stopReason == null) {
+            stopReason = StopReason.TIME_LIMIT;
+        }
+    }
+
+    /**
+     * Get why the run stopped.
+     *
+     * @return the reason, or null if the run can go on
+     */
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    /**
+     * Get the metric which is estimated.  It is the throughput if no delay
+     * has been given.
+     *
+     * @return the metric
+     */
+    public Metric getMetric() {
+        return hasDelays ? metric : Metric.THROUGHPUT;
+    }
+
+    /**
+     * Get the number of complete batches.
+     *
+     * @return the number of batches
+     */
+    public int getNumOfBatches() {
+        return throughputs.size();
+    }
+
+    /**
+     * Get the end of the warm-up period.
+     *
+     * @return the simulated time at which the warm-up ended, or NaN if it
+     *         has not been found
+     */
+    public double getWarmUpTime() {
+        return numOfWarmUpBatches < 0 ? Double.NaN : numOfWarmUpBatches * batchLength;
+    }
+
+    /**
+     * Get the mean throughput after the warm-up, or over the whole run if the
+     * warm-up has not been found.
+     *
+     * @return the throughput, in vehicles per hour
+     */
+    public double getThroughput() {
+        return mean(throughputs, Math.max(numOfWarmUpBatches, 0)) * 3600.0;
+    }
+
+    /**
+     * Get the mean of the batch mean delays after the warm-up, or over the
+     * whole run if the warm-up has not been found.
+     *
+     * @return the mean delay, in seconds, or NaN if no delay was given
+     */
+    public double getMeanDelay() {
+        return mean(delays, Math.max(numOfWarmUpBatches, 0));
+    }
+
+    /**
+     * Get the relative half width of the 95% confidence interval of the mean
+     * of the metric after the warm-up.
+     *
+     * @return the relative half width, or NaN if the warm-up has not been
+     *         found
+     */
+    public double getRelativeHalfWidth() {
+        return relativeHalfWidth;
+    }
+
+    /**
+     * Get the header of the CSV columns of {@link #produceCSV()}.
+     *
+     * @return the header, without a line break
+     */
+    public static String produceCSVHeader() {
+        return "Stop Reason,Warm-up Time,Steady Throughput,Steady Mean Delay,"
+                + "Relative Half Width";
+    }
+
+    /**
+     * Get the outcome of the monitoring as CSV columns.
+     *
+     * @return the columns, without a line break
+     */
+    public String produceCSV() {
+        return stopReason + "," + getWarmUpTime() + "," + getThroughput() + ","
+                + getMeanDelay() + "," + relativeHalfWidth;
+    }
+
+    /////////////////////////////////
+    // PRIVATE METHODS
+    /////////////////////////////////
+
+    /**
+     * Check whether the run can stop, after a batch is complete.
+     */
+    private void evaluate() {
+        int n = numsInSystem.size();
+        if (n >= 2 * minBatches
+                && (isGrowing(numsInSystem, n / 2)
+                    || (hasDelays && isGrowing(delays, n / 2)))) {
+            stopReason = StopReason.SATURATED;
+            return;
+        }
+
+        List<Double> series = new ArrayList<Double>();
+        for (double y : (getMetric() == Metric.DELAY) ? delays : throughputs) {
+            if (!Double.isNaN(y)) {
+                series.add(y);
+            }
+        }
+        int d = truncation(series, minBatches);
+        if (d < 0) {
+            return;
+        }
+        int m = series.size() - d;
+        double mean = mean(series, d);
+        double var = 0.0;
+        for (int i = d; i < series.size(); i++) {
+            var += (series.get(i) - mean) * (series.get(i) - mean);
+        }
+        var /= (m - 1);
+        // the warm-up is counted in batches of the run, whichever batches
+        // were left out of the series
+        numOfWarmUpBatches = indexOf(d);
+        double level = (getMetric() == Metric.DELAY)
+                ? Math.max(Math.abs(mean), MIN_DELAY)
+                : Math.abs(mean);
+        relativeHalfWidth = (level == 0.0)
+                ? Double.POSITIVE_INFINITY
+                : tQuantile(m - 1, Z_95) * Math.sqrt(var / m) / level;
+        if (relativeHalfWidth <= precision) {
+            stopReason = StopReason.STEADY_STATE;
+        }
+    }
+
+    /**
+     * Get the index among all the batches of a batch of the estimated series,
+     * which leaves out the batches without a delay.
+     *
+     * @param k  the index in the series
+     * @return the index among all the batches
+     */
+    private int indexOf(int k) {
+        if (getMetric() == Metric.THROUGHPUT) {
+            return k;
+        }
+        int i = 0;
+        for (int seen = 0; i < delays.size(); i++) {
+            if (!Double.isNaN(delays.get(i))) {
+                if (seen == k) {
+                    break;
+                }
+                seen++;
+            }
+        }
+        return i;
+    }
+
+    /////////////////////////////////
+    // STATIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Find the truncation point of a series with the MSER rule.
+     *
+     * @param y        the series
+     * @param minLeft  the minimum number of values left after the truncation
+     * @return the number of values to drop, or -1 if the series is too short
+     *         or the truncation point is in its second half
+     */
+    static int truncation(List<Double> y, int minLeft) {
+        int n = y.size();
+        if (n < minLeft) {
+            return -1;
+        }
+        // suffix sums, so that each truncation point takes constant time
+        double sum = 0.0;
+        double sumSq = 0.0;
+        double best = Double.POSITIVE_INFINITY;
+        int bestD = -1;
+        for (int d = n - 1; d >= 0; d--) {
+            sum += y.get(d);
+            sumSq += y.get(d) * y.get(d);
+            int m = n - d;
+            if (m >= minLeft) {
+                double sse = Math.max(sumSq - sum * sum / m, 0.0);
+                double stat = sse / ((double) m * m);
+                if (stat <= best) {
+                    best = stat;
+                    bestD = d;
+                }
+            }
+        }
+        return (bestD <= n / 2) ? bestD : -1;
+    }
+
+    /**
+     * Whether a series has a significant upward trend from an index on, which
+     * amounts to a large part of its level.  Missing values, given as NaN,
+     * are left out.
+     *
+     * @param y     the series
+     * @param from  the first index
+     * @return whether the series grows
+     */
+    static boolean isGrowing(List<Double> y, int from) {
+        int k = 0;
+        double sx = 0.0;
+        double sy = 0.0;
+        for (int i = from; i < y.size(); i++) {
+            if (!Double.isNaN(y.get(i))) {
+                k++;
+                sx += i;
+                sy += y.get(i);
+            }
+        }
+        if (k < 3) {
+            return false;
+        }
+        double mx = sx / k;
+        double my = sy / k;
+        double sxx = 0.0;
+        double sxy = 0.0;
+        for (int i = from; i < y.size(); i++) {
+            if (!Double.isNaN(y.get(i))) {
+                sxx += (i - mx) * (i - mx);
+                sxy += (i - mx) * (y.get(i) - my);
+            }
+        }
+        double slope = sxy / sxx;
+        double sse = 0.0;
+        for (int i = from; i < y.size(); i++) {
+            if (!Double.isNaN(y.get(i))) {
+                double r = y.get(i) - my - slope * (i - mx);
+                sse += r * r;
+            }
+        }
+        double se = Math.sqrt(sse / (k - 2) / sxx);
+        double growth = slope * (y.size() - from);
+        return slope > 0.0
+                && (se == 0.0 || slope / se > TREND_T)
+                && growth > SATURATION_GROWTH * Math.max(Math.abs(my), 1.0);
+    }
+
+    /**
+     * Get a quantile of Student's t distribution from the quantile of the
+     * normal distribution at the same probability, with the Cornish-Fisher
+     * expansion, which is accurate to a few parts in a thousand from three
+     * degrees of freedom.
+     *
+     * @param df  the number of degrees of freedom
+     * @param z   the quantile of the normal distribution
+     * @return the quantile of the t distribution
+     */
+    static double tQuantile(int df, double z) {
+        double z2 = z * z;
+        return z
+                + z * (z2 + 1) / (4.0 * df)
+                + z * ((5 * z2 + 16) * z2 + 3) / (96.0 * df * df)
+                + z * (((3 * z2 + 19) * z2 + 17) * z2 - 15) / (384.0 * df * df * df);
+    }
+
+    /**
+     * Get the mean of a series from an index on, leaving out missing values.
+     *
+     * @param y     the series
+     * @param from  the first index
+     * @return the mean, or NaN if there are no values
+     */
+    private static double mean(List<Double> y, int from) {
+        double sum = 0.0;
+        int k = 0;
+        for (int i = from; i < y.size(); i++) {
+            if (!Double.isNaN(y.get(i))) {
+                sum += y.get(i);
+                k++;
+            }
+        }
+        return (k == 0) ? Double.NaN : sum / k;
+    }
+}
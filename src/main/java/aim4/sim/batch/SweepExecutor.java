@@ -0,0 +1,779 @@
+package aim4.sim.batch;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a parameter sweep: every point of a grid of parameters, with every
+ * seed of a list, as independent jobs done concurrently by a pool of
+ * workers.
+ * <p>
+ * A sweep is described by a properties file holding the configuration
+ * shared by all the runs, as for {@link BatchConfig}, and the keys
+ * <pre>
+ *     sweep.grid.&lt;key&gt; = value1,value2,...   the values of a parameter
+ *     sweep.seeds = 1-20                      the seeds, as a range or a list
+ *     sweep.outputDir = results/queue         where the results are written
+ *     sweep.workers = 8                       the number of concurrent runs
+ *     sweep.mode = ISOLATED                   ISOLATED, PROCESS or QUEUE
+ *     sweep.shareTopology = false             whether the runs of a worker share the topology
+ *     sweep.jvmOptions = -Xmx1g               the options of PROCESS and QUEUE workers
+ *     sweep.queueDir = results/queue/queue    the directory of the QUEUE
+ * </pre>
+ * The results of each job are written to <code>jobs/&lt;id&gt;.csv</code> in
+ * the output directory as soon as the job finishes, and the first two lines
+ * of them, the global results, are appended to <code>results.csv</code>
+ * with the parameters and seed of the job.  A job is done once its results
+ * file exists, so a sweep which was stopped can be run again to do the rest
+ * of it.
+ * <p>
+ * In QUEUE mode the jobs are done by <code>sweep.workers</code> worker JVMs
+ * which take them from a {@link JobQueue} as they become free, and the jobs
+ * of a worker which crashes are done by the others; see
+ * {@link QueueJobRunner}.
+ * <p>
+ * With <code>sweep.shareTopology = true</code>, in ISOLATED and QUEUE mode,
+ * each worker keeps the simulator classes it loaded for a kind of
+ * simulation, so that its runs of that kind share the compiled topology of
+ * the intersection rather than computing it again; see
+ * {@link IsolatedJobRunner}.  The runs done at the same time by different
+ * workers still do not share it, nor do the runs of PROCESS mode, which
+ * each have a JVM of their own.  Only the intersections of the grid maps
+ * have a shared topology: the merge maps and the car parks are built afresh
+ * by every run.
+ * <p>
+ * If the sweep gives the metrics of a {@link ReplicationRule} with
+ * <code>sweep.ci.metrics</code>, the number of replications of each point is
+ * not fixed: the seeds are taken in turn, by default from 1 up to the
+ * maximum number of replications, until the confidence intervals of the
+ * metrics over the replications of the point are narrow enough.  Whether a
+ * point is done depends on the replications of its first seeds only, so it
+ * does not depend on the order in which the jobs finish, although a few more
+ * replications may have been started by then.  The mean and half width of
+ * each metric, by point, are then written to <code>summary.csv</code>.
+ * <p>
+ * With <code>sweep.cache</code> naming a directory, the results of the jobs
+ * are kept in a {@link ResultCache} there, and a job whose parameters, seed,
+ * schedule files and code are those of a run in the cache is not run again,
+ * even in another sweep.  With <code>sweep.cache.refresh = true</code> the
+ * jobs are all run again and their results replace those in the cache.
+ */
+public class SweepExecutor {
+
+    /////////////////////////////////
+    // NESTED CLASSES
+    /////////////////////////////////
+
+    /**
+     * The replications of a point of the grid, when their number is decided
+     * by a {@link ReplicationRule}.  Guarded by the executor.
+     */
+    private static class Point {
+        /** The jobs of the point, in the order of their seeds */
+        final List<SweepJob> jobs;
+        /**
+         * The global results of the jobs, by column; null until the job is
+         * done, and empty if it failed
+         */
+        final List<Map<String, Double>> results;
+        /** The number of jobs started, or found done */
+        int numOfStarted = 0;
+        /** The number of jobs running */
+        int numOfRunning = 0;
+        /** Whether the replications done are enough */
+        boolean isPrecise = false;
+        /** The number of replications which were enough, once they are */
+        int numOfReplications;
+
+        Point(List<SweepJob> jobs) {
+            this.jobs = jobs;
+            this.results = new ArrayList<Map<String, Double>>(
+                    Collections.<Map<String, Double>>nCopies(jobs.size(), null));
+        }
+
+        /**
+         * Get the results of the jobs of the first seeds up to the first job
+         * which is not done, leaving out the failed jobs.  Once the
+         * replications are enough, only those which were needed are kept.
+         */
+        List<Map<String, Double>> getResults() {
+            List<Map<String, Double>> done = new ArrayList<Map<String, Double>>();
+            for (Map<String, Double> result : results) {
+                if (result == null) {
+                    break;
+                }
+                if (!result.isEmpty()) {
+                    done.add(result);
+                }
+            }
+            return isPrecise ? done.subList(0, numOfReplications) : done;
+        }
+
+        /** Whether no more jobs are to be started or are running */
+        boolean isDone() {
+            return isPrecise || (numOfStarted == jobs.size() && numOfRunning == 0);
+        }
+    }
+
+    /**
+     * How the jobs are run.
+     */
+    public enum Mode {
+        /**
+         * In this JVM, with the simulator classes loaded once per job, or
+         * once per worker and kind of simulation if the topology is shared
+         */
+        ISOLATED,
+        /** In a new JVM per job */
+        PROCESS,
+        /** In worker JVMs pulling the jobs from a {@link JobQueue} */
+        QUEUE
+    }
+
+    /////////////////////////////////
+    // CONSTANTS
+    /////////////////////////////////
+
+    /** The prefix of the keys of the sweep */
+    public static final String PREFIX = "sweep.";
+    /** The prefix of the keys of the parameters of the grid */
+    public static final String GRID_PREFIX = PREFIX + "grid.";
+    /** The name of the file of the global results of all the jobs */
+    public static final String RESULTS_FILE = "results.csv";
+    /** The name of the directory of the results of each job */
+    public static final String JOBS_DIR = "jobs";
+    /** The name of the file of the confidence intervals of the points */
+    public static final String SUMMARY_FILE = "summary.csv";
+
+    /////////////////////////////////
+    // PRIVATE FIELDS
+    /////////////////////////////////
+
+    /** The jobs, in order */
+    private final List<SweepJob> jobs;
+    /** The keys of the parameters of the grid */
+    private final List<String> gridKeys;
+    /** The output directory */
+    private final File outputDir;
+    /** The number of concurrent runs */
+    private final int numOfWorkers;
+    /** The job runner */
+    private final JobRunner jobRunner;
+    /** The rule deciding the number of replications, or null if it is fixed */
+    private final ReplicationRule replicationRule;
+    /** The cache of the results of the runs, or null if there is none */
+    private final ResultCache cache;
+    /** Whether the results in the cache are replaced rather than used */
+    private final boolean isCacheRefreshed;
+
+    /** The file of the global results; guarded by this */
+    private Writer resultsWriter;
+    /** The jobs whose global results are in the results file; guarded by this */
+    private Set<String> recordedJobs;
+    /** Whether the header of the results file has been written; guarded by this */
+    private boolean hasHeader;
+    /** The number of jobs which failed in this run of the sweep */
+    private AtomicInteger numOfFailures;
+    /** The number of jobs running; guarded by this */
+    private int numOfJobsRunning;
+
+    /////////////////////////////////
+    // CONSTRUCTORS
+    /////////////////////////////////
+
+    /**
+     * Create the executor of a sweep.
+     *
+     * @param sweep  the properties of the sweep
+     */
+    public SweepExecutor(Properties sweep) {
+        Properties base = new Properties();
+        Map<String, List<String>> grid = new TreeMap<String, List<String>>();
+        for (String key : sweep.stringPropertyNames()) {
+            if (key.startsWith(GRID_PREFIX)) {
+                List<String> values = new ArrayList<String>();
+                for (String value : sweep.getProperty(key).split(",")) {
+                    values.add(value.trim());
+                }
+                grid.put(key.substring(GRID_PREFIX.length()), values);
+            } else if (!key.startsWith(PREFIX)) {
+                base.setProperty(key, sweep.getProperty(key));
+            }
+        }
+        base.remove(BatchConfig.OUTPUT);
+
+        this.replicationRule = ReplicationRule.read(sweep);
+        List<Long> seeds;
+        if (replicationRule == null) {
+            seeds = parseSeeds(sweep.getProperty(PREFIX + "seeds", "1"));
+        } else {
+            int max = replicationRule.getMaxReplications();
+            seeds = parseSeeds(sweep.getProperty(PREFIX + "seeds", "1-" + max));
+            seeds = seeds.subList(0, Math.min(max, seeds.size()));
+        }
+        this.gridKeys = new ArrayList<String>(grid.keySet());
+        this.jobs = expand(new BatchConfig(base), grid, seeds);
+        this.outputDir = new File(sweep.getProperty(PREFIX + "outputDir", "results").trim());
+        this.numOfWorkers = Integer.parseInt(sweep.getProperty(PREFIX + "workers",
+                Integer.toString(Runtime.getRuntime().availableProcessors())).trim());
+
+        String cacheDir = sweep.getProperty(PREFIX + "cache");
+        this.cache = (cacheDir == null) ? null : new ResultCache(new File(cacheDir.trim()));
+        this.isCacheRefreshed = Boolean.parseBoolean(
+                sweep.getProperty(PREFIX + "cache.refresh", "false").trim());
+
+        Mode mode = Mode.valueOf(sweep.getProperty(PREFIX + "mode", "ISOLATED").trim().toUpperCase());
+        String options = sweep.getProperty(PREFIX + "jvmOptions", "").trim();
+        List<String> jvmOptions = options.isEmpty()
+                ? Collections.<String>emptyList()
+                : Arrays.asList(options.split("\\s+"));
+        boolean isTopologyShared = Boolean.parseBoolean(
+                sweep.getProperty(PREFIX + "shareTopology", "false").trim());
+        if (mode == Mode.PROCESS) {
+            this.jobRunner = new ProcessJobRunner(jvmOptions);
+        } else if (mode == Mode.QUEUE) {
+            if (isTopologyShared) {
+                jvmOptions = new ArrayList<String>(jvmOptions);
+                jvmOptions.add("-D" + IsolatedJobRunner.SHARE_TOPOLOGY_PROPERTY + "=true");
+            }
+            String queueDir = sweep.getProperty(PREFIX + "queueDir");
+            this.jobRunner = new QueueJobRunner((queueDir == null)
+                    ? new File(outputDir, "queue") : new File(queueDir.trim()),
+                    numOfWorkers, jvmOptions);
+        } else {
+            this.jobRunner = new IsolatedJobRunner(isTopologyShared);
+        }
+    }
+
+    /////////////////////////////////
+    // PUBLIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Get the jobs of the sweep.  If the number of replications is decided by
+     * a {@link ReplicationRule}, these are all the jobs which may be done.
+     *
+     * @return the jobs, in order
+     */
+    public List<SweepJob> getJobs() {
+        return jobs;
+    }
+
+    /**
+     * Get the file to which the results of a job are written.
+     *
+     * @param job  the job
+     * @return the file
+     */
+    public File getOutput(SweepJob job) {
+        return new File(new File(outputDir, JOBS_DIR), job.getId() + ".csv");
+    }
+
+    /**
+     * Do the jobs of the sweep which have not been done yet.
+     *
+     * @return the number of jobs which failed
+     * @throws IOException if the results cannot be written
+     * @throws InterruptedException if interrupted while waiting for the jobs
+     */
+    public int run() throws IOException, InterruptedException {
+        File jobsDir = new File(outputDir, JOBS_DIR);
+        if (!jobsDir.isDirectory() && !jobsDir.mkdirs()) {
+            throw new IOException("Cannot create the directory " + jobsDir);
+        }
+        openResults();
+        numOfFailures = new AtomicInteger();
+        try {
+            ExecutorService workers = Executors.newFixedThreadPool(numOfWorkers);
+            if (replicationRule == null) {
+                runAll(workers);
+            } else {
+                runSequentially(workers);
+            }
+            workers.shutdown();
+            while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting
+            }
+        } finally {
+            if (jobRunner instanceof Closeable) {
+                ((Closeable) jobRunner).close();
+            }
+            closeResults();
+        }
+        return numOfFailures.get();
+    }
+
+    /////////////////////////////////
+    // PRIVATE METHODS
+    /////////////////////////////////
+
+    /**
+     * Start all the jobs which have not been done yet.
+     *
+     * @param workers  the workers
+     * @throws IOException if the results cannot be written
+     */
+    private void runAll(ExecutorService workers) throws IOException {
+        List<SweepJob> todo = new ArrayList<SweepJob>();
+        for (SweepJob job : jobs) {
+            if (getOutput(job).exists()) {
+                // Done by an earlier run of the sweep
+                recordResults(job);
+            } else {
+                todo.add(job);
+            }
+        }
+        System.err.printf("%d of %d jobs to do%n", todo.size(), jobs.size());
+
+        for (final SweepJob job : todo) {
+            workers.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        runJob(job);
+                    } catch (Throwable e) {
+                        numOfFailures.incrementAndGet();
+                        System.err.println(job + " failed:");
+                        e.printStackTrace();
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Do the replications of each point until they are enough, and write the
+     * summary of the points.
+     *
+     * @param workers  the workers
+     * @throws IOException if the results cannot be written
+     * @throws InterruptedException if interrupted while waiting for the jobs
+     */
+    private void runSequentially(ExecutorService workers)
+            throws IOException, InterruptedException {
+        Map<Map<String, String>, List<SweepJob>> jobsByPoint =
+                new LinkedHashMap<Map<String, String>, List<SweepJob>>();
+        for (SweepJob job : jobs) {
+            List<SweepJob> pointJobs = jobsByPoint.get(job.getParameters());
+            if (pointJobs == null) {
+                pointJobs = new ArrayList<SweepJob>();
+                jobsByPoint.put(job.getParameters(), pointJobs);
+            }
+            pointJobs.add(job);
+        }
+        List<Point> points = new ArrayList<Point>();
+        for (List<SweepJob> pointJobs : jobsByPoint.values()) {
+            points.add(new Point(pointJobs));
+        }
+        System.err.printf("%d points, %s%n", points.size(), replicationRule);
+
+        synchronized (this) {
+            for (Point point : points) {
+                schedule(point, points, workers);
+            }
+            while (numOfJobsRunning > 0) {
+                wait();
+            }
+        }
+        writeSummary(points);
+    }
+
+    /**
+     * Start the next replications of a point, unless the replications done
+     * are enough.  Replications done by an earlier run of the sweep are
+     * counted without being started again.  After the minimum number of
+     * replications, a point has about its share of the workers running.
+     *
+     * @param point    the point
+     * @param points   all the points
+     * @param workers  the workers
+     * @throws IOException if the results of a job cannot be read
+     */
+    private synchronized void schedule(final Point point, final List<Point> points,
+                                       final ExecutorService workers) throws IOException {
+        int numOfActivePoints = 0;
+        for (Point p : points) {
+            if (!p.isDone()) {
+                numOfActivePoints++;
+            }
+        }
+        int share = Math.max(1, (numOfWorkers + numOfActivePoints - 1)
+                / Math.max(1, numOfActivePoints));
+        while (!point.isPrecise && point.numOfStarted < point.jobs.size()) {
+            if (checkPrecise(point)) {
+                break;
+            }
+            if (point.numOfStarted >= replicationRule.getMinReplications()
+                    && point.numOfRunning >= share) {
+                break;
+            }
+            final int i = point.numOfStarted++;
+            final SweepJob job = point.jobs.get(i);
+            if (getOutput(job).exists()) {
+                // Done by an earlier run of the sweep
+                recordResults(job);
+                point.results.set(i, readGlobalResults(job));
+                continue;
+            }
+            point.numOfRunning++;
+            numOfJobsRunning++;
+            workers.execute(new Runnable() {
+                @Override
+                public void run() {
+                    boolean isDone = false;
+                    try {
+                        runJob(job);
+                        isDone = true;
+                    } catch (Throwable e) {
+                        numOfFailures.incrementAndGet();
+                        System.err.println(job + " failed:");
+                        e.printStackTrace();
+                    }
+                    jobFinished(point, i, isDone, points, workers);
+                }
+            });
+        }
+        if (!point.isPrecise) {
+            checkPrecise(point);
+        }
+    }
+
+    /**
+     * Check whether the replications of a point done so far are enough.  The
+     * fewest replications of the first seeds which are enough are kept, so
+     * that they do not depend on the order in which the jobs finished.
+     *
+     * @param point  the point
+     * @return whether the replications are enough
+     */
+    private boolean checkPrecise(Point point) {
+        List<Map<String, Double>> results = point.getResults();
+        for (int n = replicationRule.getMinReplications(); n <= results.size(); n++) {
+            if (replicationRule.isPrecise(results.subList(0, n))) {
+                point.isPrecise = true;
+                point.numOfReplications = n;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Record that a replication of a point is finished, and start the next
+     * ones if they are needed.
+     *
+     * @param point    the point
+     * @param i        the index of the replication
+     * @param isDone   whether the job was done, rather than failed
+     * @param points   all the points
+     * @param workers  the workers
+     */
+    private synchronized void jobFinished(Point point, int i, boolean isDone,
+                                          List<Point> points, ExecutorService workers) {
+        point.numOfRunning--;
+        numOfJobsRunning--;
+        try {
+            Map<String, Double> results = Collections.emptyMap();
+            if (isDone) {
+                results = readGlobalResults(point.jobs.get(i));
+                if (!results.keySet().containsAll(replicationRule.getMetrics())) {
+                    // no replication of the point can reach the precision
+                    numOfFailures.incrementAndGet();
+                    System.err.println(point.jobs.get(i) + " has not all the columns of "
+                            + replicationRule.getMetrics());
+                    point.numOfStarted = point.jobs.size();
+                }
+            }
+            point.results.set(i, results);
+            schedule(point, points, workers);
+        } catch (IOException e) {
+            numOfFailures.incrementAndGet();
+            e.printStackTrace();
+        } finally {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Write the mean and the confidence interval of each metric of each
+     * point.
+     *
+     * @param points  the points
+     * @throws IOException if the summary cannot be written
+     */
+    private synchronized void writeSummary(List<Point> points) throws IOException {
+        Writer out = new BufferedWriter(new FileWriter(new File(outputDir, SUMMARY_FILE)));
+        try {
+            for (String key : gridKeys) {
+                out.write(key + ",");
+            }
+            out.write("Replications,Precise");
+            for (String metric : replicationRule.getMetrics()) {
+                out.write("," + metric + " Mean," + metric + " Half Width");
+            }
+            out.write("\n");
+            for (Point point : points) {
+                Map<String, String> parameters = point.jobs.get(0).getParameters();
+                for (String key : gridKeys) {
+                    out.write(parameters.get(key) + ",");
+                }
+                List<Map<String, Double>> results = point.getResults();
+                out.write(results.size() + "," + point.isPrecise);
+                for (String metric : replicationRule.getMetrics()) {
+                    List<Double> values = ReplicationRule.values(results, metric);
+                    out.write("," + ReplicationRule.mean(values)
+                            + "," + ReplicationRule.halfWidth(values));
+                }
+                out.write("\n");
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Do a job, writing its results to a temporary file which is renamed
+     * once it is complete.
+     *
+     * @param job  the job
+     * @throws Exception if the job fails
+     */
+    private void runJob(SweepJob job) throws Exception {
+        File output = getOutput(job);
+        File partial = new File(output.getPath() + ".part");
+        long start = System.currentTimeMillis();
+        if (cache != null && !isCacheRefreshed && cache.fetch(job.getConfig(), partial)) {
+            if (!partial.renameTo(output)) {
+                throw new IOException("Cannot rename " + partial + " to " + output);
+            }
+            recordResults(job);
+            System.err.printf("%s found in the cache%n", job);
+            return;
+        }
+        jobRunner.run(job, partial);
+        if (cache != null) {
+            cache.put(job.getConfig(), partial);
+        }
+        if (!partial.renameTo(output)) {
+            throw new IOException("Cannot rename " + partial + " to " + output);
+        }
+        recordResults(job);
+        System.err.printf("%s done in %d ms%n", job, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Open the file of the global results, reading which jobs it already
+     * holds.
+     *
+     * @throws IOException if the file cannot be read or opened
+     */
+    private synchronized void openResults() throws IOException {
+        File resultsFile = new File(outputDir, RESULTS_FILE);
+        recordedJobs = new HashSet<String>();
+        hasHeader = false;
+        if (resultsFile.exists()) {
+            BufferedReader reader = new BufferedReader(new FileReader(resultsFile));
+            try {
+                String line = reader.readLine();
+                hasHeader = (line != null);
+                while ((line = reader.readLine()) != null) {
+                    int i = line.indexOf(',');
+                    recordedJobs.add(i < 0 ? line : line.substring(0, i));
+                }
+            } finally {
+                reader.close();
+            }
+        }
+        resultsWriter = new BufferedWriter(new FileWriter(resultsFile, true));
+    }
+
+    /**
+     * Close the file of the global results.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    private synchronized void closeResults() throws IOException {
+        resultsWriter.close();
+        resultsWriter = null;
+    }
+
+    /**
+     * Read the global results of a job, the first two lines of its results.
+     *
+     * @param job  the job
+     * @return the numeric values of the global results, by column
+     * @throws IOException if the results cannot be read
+     */
+    private Map<String, Double> readGlobalResults(SweepJob job) throws IOException {
+        Map<String, Double> results = new LinkedHashMap<String, Double>();
+        BufferedReader reader = new BufferedReader(new FileReader(getOutput(job)));
+        try {
+            String header = reader.readLine();
+            String values = reader.readLine();
+            if (header == null || values == null) {
+                return results;
+            }
+            String[] keys = header.split(",");
+            String[] fields = values.split(",");
+            for (int i = 0; i < keys.length && i < fields.length; i++) {
+                try {
+                    results.put(keys[i].trim(), Double.parseDouble(fields[i].trim()));
+                } catch (NumberFormatException e) {
+                    // not a number, such as the reason a run stopped
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return results;
+    }
+
+    /**
+     * Append the global results of a job to the results file, unless they are
+     * there already.
+     *
+     * @param job  the job
+     * @throws IOException if the results cannot be read or written
+     */
+    private synchronized void recordResults(SweepJob job) throws IOException {
+        if (recordedJobs.contains(job.getId())) {
+            return;
+        }
+        String header;
+        String values;
+        BufferedReader reader = new BufferedReader(new FileReader(getOutput(job)));
+        try {
+            header = reader.readLine();
+            values = reader.readLine();
+        } finally {
+            reader.close();
+        }
+        if (!hasHeader) {
+            resultsWriter.write("Job");
+            for (String key : gridKeys) {
+                resultsWriter.write("," + key);
+            }
+            resultsWriter.write(",Seed," + (header == null ? "" : header) + "\n");
+            hasHeader = true;
+        }
+        resultsWriter.write(job.getId());
+        for (String key : gridKeys) {
+            resultsWriter.write("," + job.getParameters().get(key));
+        }
+        resultsWriter.write("," + job.getSeed() + "," + (values == null ? "" : values) + "\n");
+        resultsWriter.flush();
+        recordedJobs.add(job.getId());
+    }
+
+    /**
+     * Expand a grid of parameters and a list of seeds into jobs.
+     *
+     * @param base   the configuration shared by all the jobs
+     * @param grid   the values of each parameter of the grid
+     * @param seeds  the seeds
+     * @return the jobs, with the seeds varying fastest
+     */
+    private static List<SweepJob> expand(BatchConfig base, Map<String, List<String>> grid,
+                                         List<Long> seeds) {
+        List<Map<String, String>> points = new ArrayList<Map<String, String>>();
+        points.add(new LinkedHashMap<String, String>());
+        for (Map.Entry<String, List<String>> parameter : grid.entrySet()) {
+            List<Map<String, String>> next = new ArrayList<Map<String, String>>();
+            for (Map<String, String> point : points) {
+                for (String value : parameter.getValue()) {
+                    Map<String, String> p = new LinkedHashMap<String, String>(point);
+                    p.put(parameter.getKey(), value);
+                    next.add(p);
+                }
+            }
+            points = next;
+        }
+        List<SweepJob> jobs = new ArrayList<SweepJob>();
+        for (Map<String, String> point : points) {
+            for (long seed : seeds) {
+                jobs.add(new SweepJob(base, point, seed));
+            }
+        }
+        return Collections.unmodifiableList(jobs);
+    }
+
+    /**
+     * Parse a list of seeds, given as comma separated seeds or ranges such as
+     * <code>1-20</code>.
+     *
+     * @param value  the list of seeds
+     * @return the seeds
+     */
+    static List<Long> parseSeeds(String value) {
+        List<Long> seeds = new ArrayList<Long>();
+        for (String part : value.split(",")) {
+            part = part.trim();
+            int i = part.indexOf('-', 1);
+            if (i > 0) {
+                long first = Long.parseLong(part.substring(0, i).trim());
+                long last = Long.parseLong(part.substring(i + 1).trim());
+                for (long seed = first; seed <= last; seed++) {
+                    seeds.add(seed);
+                }
+            } else if (!part.isEmpty()) {
+                seeds.add(Long.parseLong(part));
+            }
+        }
+        return seeds;
+    }
+
+    /////////////////////////////////
+    // THE MAIN FUNCTION
+    /////////////////////////////////
+
+    /**
+     * Run the sweep described by a properties file.
+     *
+     * @param args  the properties file of the sweep, followed by keys to
+     *              override as <code>key=value</code>
+     */
+    public static void main(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length == 0) {
+            System.err.println("Usage: SweepExecutor sweep.properties [key=value]...");
+            System.exit(2);
+        }
+        try {
+            Properties sweep = BatchConfig.read(new File(args[0])).getProperties();
+            for (int i = 1; i < args.length; i++) {
+                int j = args[i].indexOf('=');
+                if (j > 0) {
+                    sweep.setProperty(args[i].substring(0, j), args[i].substring(j + 1));
+                }
+            }
+            int numOfFailures = new SweepExecutor(sweep).run();
+            if (numOfFailures > 0) {
+                System.err.println(numOfFailures + " jobs failed");
+            }
+            System.exit(numOfFailures == 0 ? 0 : 1);
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
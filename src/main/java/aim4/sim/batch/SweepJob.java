@@ -0,0 +1,100 @@
+package aim4.sim.batch;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One run of a parameter sweep: a point of the parameter grid with a seed.
+ */
+public class SweepJob {
+
+    /////////////////////////////////
+    // PRIVATE FIELDS
+    /////////////////////////////////
+
+    /** The name of the job, unique within the sweep */
+    private final String id;
+    /** The values of the parameters of the grid, in order */
+    private final Map<String, String> parameters;
+    /** The seed */
+    private final long seed;
+    /** The configuration of the run */
+    private final BatchConfig config;
+
+    /////////////////////////////////
+    // CONSTRUCTORS
+    /////////////////////////////////
+
+    /**
+     * Create a job.
+     *
+     * @param baseConfig  the configuration shared by all the jobs of the sweep
+     * @param parameters  the values of the parameters of the grid
+     * @param seed        the seed
+     */
+    public SweepJob(BatchConfig baseConfig, Map<String, String> parameters, long seed) {
+        this.parameters = Collections.unmodifiableMap(
+                new LinkedHashMap<String, String>(parameters));
+        this.seed = seed;
+
+        StringBuilder sb = new StringBuilder();
+        BatchConfig config = baseConfig;
+        for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+            config = config.with(parameter.getKey(), parameter.getValue());
+            sb.append(parameter.getKey()).append('=').append(parameter.getValue()).append('_');
+        }
+        sb.append("seed=").append(seed);
+        this.config = config.with(BatchConfig.SEED, Long.toString(seed));
+        this.id = sb.toString().replaceAll("[^A-Za-z0-9.=+-]", "_");
+    }
+
+    /////////////////////////////////
+    // PUBLIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Get the name of the job, which is made of its parameters and seed, so
+     * that it is the same each time the sweep is expanded.
+     *
+     * @return the name of the job
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Get the values of the parameters of the grid.
+     *
+     * @return the values of the parameters, by key
+     */
+    public Map<String, String> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Get the seed.
+     *
+     * @return the seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Get the configuration of the run, without an output.
+     *
+     * @return the configuration
+     */
+    public BatchConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return id;
+    }
+}
@@ -1,8 +1,9 @@
 package aim4.sim.results;
 
-import aim4.map.merge.RoadNames;
-
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.List;
 
 /**
@@ -10,104 +11,24 @@ import java.util.List;
  */
 public class AIMResult implements SimulatorResult {
     private List<AIMVehicleResult> vehicleResults;
-    private double maxDelay;
-    private double maxTargetDelay;
-    private double maxMergeDelay;
-    private double minDelay;
-    private double minTargetDelay;
-    private double minMergeDelay;
-    private double averageDelay;
-    private double averageTargetDelay;
-    private double averageMergeDelay;
-    private double stdDevDelay;
-    private double stdDevTargetDelay;
-    private double stdDevMergeDelay;
-    private double throughput;
-    private double throughputTarget;
-    private double throughputMerge;
-    private int completedVehicles;
-    private int completedTargetVehicles;
-    private int completedMergeVehicles;
+    private VehicleResultAggregates aggregates;
 
     public AIMResult(List<AIMVehicleResult> vehicleResults) {
-        this.vehicleResults = vehicleResults;
-        List<AIMVehicleResult> targetVehicleResults = new ArrayList<AIMVehicleResult>();
-        List<AIMVehicleResult> mergeVehicleResults = new ArrayList<AIMVehicleResult>();
-
-        this.completedVehicles = 0;
-        this.completedMergeVehicles = 0;
-        this.completedTargetVehicles = 0;
-        double lastVehicleTime = 0;
-        double lastTargetVehicleTime = 0;
-        double lastMergeVehicleTime = 0;
-
-        this.maxDelay = Double.MIN_VALUE;
-        this.maxTargetDelay = Double.MIN_VALUE;
-        this.maxMergeDelay = Double.MIN_VALUE;
-        this.minDelay = Double.MAX_VALUE;
-        this.minTargetDelay = Double.MAX_VALUE;
-        this.minMergeDelay = Double.MAX_VALUE;
-        double totalDelay = 0;
-        double totalTargetDelay = 0;
-        double totalMergeDelay = 0;
-
-        for(AIMVehicleResult result : vehicleResults) {
-            //Split Vehicles
-            if(result.getStartingRoad() == RoadNames.TARGET_ROAD.toString()) {
-                targetVehicleResults.add(result);
-                //Completed Vehicles
-                this.completedTargetVehicles++;
-                //Throughput Help
-                if(lastTargetVehicleTime < result.getFinishTime())
-                    lastTargetVehicleTime = result.getFinishTime();
-                //Delay
-                if(maxTargetDelay < result.getDelayTime())
-                    maxTargetDelay = result.getDelayTime();
-                if(minTargetDelay > result.getDelayTime())
-                    minTargetDelay = result.getDelayTime();
-                totalTargetDelay += result.getDelayTime();
-
-            }
-            else if(result.getStartingRoad() == RoadNames.MERGING_ROAD.toString()) {
-                mergeVehicleResults.add(result);
-                //Completed Vehicles
-                this.completedMergeVehicles++;
-                //Throughput Help
-                if(lastMergeVehicleTime < result.getFinishTime())
-                    lastMergeVehicleTime = result.getFinishTime();
-                //Delay
-                if(maxMergeDelay < result.getDelayTime())
-                    maxMergeDelay = result.getDelayTime();
-                if(minMergeDelay > result.getDelayTime())
-                    minMergeDelay = result.getDelayTime();
-                totalMergeDelay += result.getDelayTime();
-            }
-            //Completed Vehicles
-            this.completedVehicles++;
-            //Throughput Help
-            if(lastVehicleTime < result.getFinishTime())
-                lastVehicleTime = result.getFinishTime();
-            //Delay
-            if(maxDelay < result.getDelayTime())
-                maxDelay = result.getDelayTime();
-            if(minDelay > result.getDelayTime())
-                minDelay = result.getDelayTime();
-            totalDelay += result.getDelayTime();
-        }
-        //Average Delay
-        this.averageDelay = totalDelay / completedVehicles;
-        this.averageTargetDelay = totalTargetDelay / completedTargetVehicles;
-        this.averageMergeDelay = totalMergeDelay / completedMergeVehicles;
-
-        //Std. Dev Delay
-        this.stdDevDelay = calculateStdDeviationDelay(vehicleResults, averageDelay);
-        this.stdDevTargetDelay = calculateStdDeviationDelay(targetVehicleResults, averageTargetDelay);
-        this.stdDevMergeDelay = calculateStdDeviationDelay(mergeVehicleResults, averageMergeDelay);
+        this(vehicleResults, new VehicleResultAggregates(vehicleResults));
+    }
 
-        //Throughput
-        this.throughput = completedVehicles / lastVehicleTime;
-        this.throughputTarget = completedTargetVehicles / lastTargetVehicleTime;
-        this.throughputMerge = completedMergeVehicles / lastMergeVehicleTime;
+    /**
+     * Create the results of a simulation whose global statistics were
+     * computed as the vehicles completed.
+     *
+     * @param vehicleResults  the records of the vehicles kept, which may be
+     *                        none if they were written to a
+     *                        {@link VehicleResultSink}
+     * @param aggregates      the global statistics of all the vehicles
+     */
+    public AIMResult(List<AIMVehicleResult> vehicleResults, VehicleResultAggregates aggregates) {
+        this.vehicleResults = vehicleResults;
+        this.aggregates = aggregates;
     }
 
     public List<AIMVehicleResult> getVehicleResults() {
@@ -115,86 +36,132 @@ public class AIMResult implements SimulatorResult {
     }
 
     public double getMaxDelay() {
-        return maxDelay;
+        return aggregates.getAll().getMaxDelay();
     }
 
     public double getMaxTargetDelay() {
-        return maxTargetDelay;
+        return aggregates.getTarget().getMaxDelay();
     }
 
     public double getMaxMergeDelay() {
-        return maxMergeDelay;
+        return aggregates.getMerge().getMaxDelay();
     }
 
     public double getMinDelay() {
-        return minDelay;
+        return aggregates.getAll().getMinDelay();
     }
 
     public double getMinTargetDelay() {
-        return minTargetDelay;
+        return aggregates.getTarget().getMinDelay();
     }
 
     public double getMinMergeDelay() {
-        return minMergeDelay;
+        return aggregates.getMerge().getMinDelay();
     }
 
     public double getAverageDelay() {
-        return averageDelay;
+        return aggregates.getAll().getAverageDelay();
     }
 
     public double getAverageTargetDelay() {
-        return averageTargetDelay;
+        return aggregates.getTarget().getAverageDelay();
     }
 
     public double getAverageMergeDelay() {
-        return averageMergeDelay;
+        return aggregates.getMerge().getAverageDelay();
     }
 
-    public double getStdDevDelay() { return stdDevDelay; }
+    public double getStdDevDelay() { return aggregates.getAll().getStdDevDelay(); }
 
-    public double getStdDevTargetDelay() { return stdDevTargetDelay; }
+    public double getStdDevTargetDelay() { return aggregates.getTarget().getStdDevDelay(); }
 
-    public double getStdDevMergeDelay() { return stdDevMergeDelay; }
+    public double getStdDevMergeDelay() { return aggregates.getMerge().getStdDevDelay(); }
 
     public double getThroughput() {
-        return throughput;
+        return aggregates.getAll().getThroughput();
     }
 
     public double getThroughputTarget() {
-        return throughputTarget;
+        return aggregates.getTarget().getThroughput();
     }
 
     public double getThroughputMerge() {
-        return throughputMerge;
+        return aggregates.getMerge().getThroughput();
     }
 
     public double getCompletedVehicles() {
-        return completedVehicles;
+        return aggregates.getAll().getCount();
     }
 
     public double getCompletedTargetVehicles() {
-        return completedTargetVehicles;
+        return aggregates.getTarget().getCount();
     }
 
     public double getCompletedMergeVehicles() {
-        return completedMergeVehicles;
+        return aggregates.getMerge().getCount();
+    }
+
+    public double getMedianDelay() {
+        return aggregates.getAll().getDelayQuantile(0.5);
+    }
+
+    public double getMedianTargetDelay() {
+        return aggregates.getTarget().getDelayQuantile(0.5);
+    }
+
+    public double getMedianMergeDelay() {
+        return aggregates.getMerge().getDelayQuantile(0.5);
+    }
+
+    public double getPercentile95Delay() {
+        return aggregates.getAll().getDelayQuantile(0.95);
+    }
+
+    public double getPercentile95TargetDelay() {
+        return aggregates.getTarget().getDelayQuantile(0.95);
+    }
+
+    public double getPercentile95MergeDelay() {
+        return aggregates.getMerge().getDelayQuantile(0.95);
+    }
+
+    public double getPercentile99Delay() {
+        return aggregates.getAll().getDelayQuantile(0.99);
+    }
+
+    public double getPercentile99TargetDelay() {
+        return aggregates.getTarget().getDelayQuantile(0.99);
+    }
+
+    public double getPercentile99MergeDelay() {
+        return aggregates.getMerge().getDelayQuantile(0.99);
     }
 
     public String produceCSVString() {
-        StringBuilder sb = new StringBuilder();
+        StringWriter out = new StringWriter();
+        try {
+            writeCSV(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    public void writeCSV(Writer out) throws IOException {
         //Global Stats
-        sb.append(produceGlobalStatsCSVHeader());
-        sb.append('\n');
-        sb.append(produceGlobalStatsCSV());
-        sb.append('\n');
-        sb.append('\n');
+        out.write(produceGlobalStatsCSVHeader());
+        out.write('\n');
+        out.write(produceGlobalStatsCSV());
+        out.write('\n');
+        out.write('\n');
         //Vehicles
-        sb.append(produceVehicleStatsCSVHeader());
-        sb.append('\n');
-        sb.append(produceVehicleStatsCSV());
-        sb.append('\n');
-
-        return sb.toString();
+        out.write(produceVehicleStatsCSVHeader());
+        out.write('\n');
+        for (AIMVehicleResult vr : vehicleResults) {
+            out.write(vr.produceCSV());
+            out.write('\n');
+        }
+        out.write('\n');
     }
 
     public static String produceGlobalStatsCSVHeader() {
@@ -234,6 +201,24 @@ public class AIMResult implements SimulatorResult {
         sb.append("Completed Target Vehicles");
         sb.append(',');
         sb.append("Completed Merge Vehicles");
+        sb.append(',');
+        sb.append("Median Delay");
+        sb.append(',');
+        sb.append("Median Target Delay");
+        sb.append(',');
+        sb.append("Median Merge Delay");
+        sb.append(',');
+        sb.append("95th Percentile Delay");
+        sb.append(',');
+        sb.append("95th Percentile Target Delay");
+        sb.append(',');
+        sb.append("95th Percentile Merge Delay");
+        sb.append(',');
+        sb.append("99th Percentile Delay");
+        sb.append(',');
+        sb.append("99th Percentile Target Delay");
+        sb.append(',');
+        sb.append("99th Percentile Merge Delay");
 
         return sb.toString();
     }
@@ -275,75 +260,38 @@ public class AIMResult implements SimulatorResult {
         sb.append(getCompletedTargetVehicles());
         sb.append(',');
         sb.append(getCompletedMergeVehicles());
-
-        return sb.toString();
-    }
-
-    public static String produceVehicleStatsCSVHeader(){
-        StringBuilder sb = new StringBuilder();
-        //Headings
-        sb.append("VIN");
         sb.append(',');
-        sb.append("Starting Road");
+        sb.append(getMedianDelay());
         sb.append(',');
-        sb.append("Vehicle Spec");
+        sb.append(getMedianTargetDelay());
         sb.append(',');
-        sb.append("Start Time");
+        sb.append(getMedianMergeDelay());
         sb.append(',');
-        sb.append("Finish Time");
+        sb.append(getPercentile95Delay());
         sb.append(',');
-        sb.append("Delay");
+        sb.append(getPercentile95TargetDelay());
         sb.append(',');
-        sb.append("Final Velocity");
+        sb.append(getPercentile95MergeDelay());
         sb.append(',');
-        sb.append("Max Velocity");
+        sb.append(getPercentile99Delay());
         sb.append(',');
-        sb.append("Min Velocity");
+        sb.append(getPercentile99TargetDelay());
         sb.append(',');
-        sb.append("Final X Position");
-        sb.append(',');
-        sb.append("Final Y Position");
+        sb.append(getPercentile99MergeDelay());
+
         return sb.toString();
     }
 
+    public static String produceVehicleStatsCSVHeader(){
+        return VehicleResult.produceCSVHeader();
+    }
+
     public String produceVehicleStatsCSV(){
         StringBuilder sb = new StringBuilder();
         for(AIMVehicleResult vr : vehicleResults){
-            sb.append(vr.getVin());
-            sb.append(',');
-            sb.append(vr.getStartingRoad());
-            sb.append(',');
-            sb.append(vr.getSpecType());
-            sb.append(',');
-            sb.append(vr.getStartTime());
-            sb.append(',');
-            sb.append(vr.getFinishTime());
-            sb.append(',');
-            sb.append(vr.getDelayTime());
-            sb.append(',');
-            sb.append(vr.getFinalVelocity());
-            sb.append(',');
-            sb.append(vr.getMaxVelocity());
-            sb.append(',');
-            sb.append(vr.getMinVelocity());
-            sb.append(',');
-            sb.append(vr.getFinalXPos());
-            sb.append(',');
-            sb.append(vr.getFinalYPos());
+            sb.append(vr.produceCSV());
             sb.append('\n');
         }
         return sb.toString();
     }
-
-    private double calculateStdDeviationDelay(List<AIMVehicleResult> results, double mean) {
-        double variance = 0;
-
-        double temp = 0;
-        for(AIMVehicleResult result : results) {
-            temp += (result.getDelayTime() - mean)*(result.getDelayTime() - mean);
-        }
-        variance = temp / results.size();
-
-        return Math.sqrt(variance);
-    }
 }
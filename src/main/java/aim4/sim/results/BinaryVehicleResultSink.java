@@ -0,0 +1,212 @@
+package aim4.sim.results;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the records of the vehicles to a compact binary file, a few times
+ * smaller than the CSV and much faster to read back.  The records are
+ * buffered in blocks of a fixed number of records, and each block is written
+ * column by column.  The names of the roads and the vehicle specifications
+ * are written once, the first time they are used, and referred to by number
+ * afterwards.  The layout is
+ * <pre>
+ *     int MAGIC, int VERSION
+ *     per block: int n (&gt; 0), int k, k new names (UTF),
+ *                n VINs (int), n roads (int), n specs (int),
+ *                n of each of the eight times, velocities and positions (double)
+ *     int 0
+ * </pre>
+ * The file can be read back with {@link #read(File, VehicleResultSink)}.
+ */
+public class BinaryVehicleResultSink implements VehicleResultSink {
+
+    /** The first int of the file */
+    public static final int MAGIC = 0x41494d56;
+    /** The version of the layout */
+    public static final int VERSION = 1;
+    /** The default number of records in a block */
+    public static final int DEFAULT_BLOCK_SIZE = 4096;
+
+    /** The output */
+    private final DataOutputStream out;
+    /** The records of the current block */
+    private final List<VehicleResult> block;
+    /** The number of records in a block */
+    private final int blockSize;
+    /** The numbers of the names written so far */
+    private final Map<String, Integer> names = new HashMap<String, Integer>();
+    /** The names used for the first time in the current block */
+    private final List<String> newNames = new ArrayList<String>();
+
+    /**
+     * Create a sink writing to a file, with the default block size.
+     *
+     * @param file  the file
+     * @throws IOException if the file cannot be opened
+     */
+    public BinaryVehicleResultSink(File file) throws IOException {
+        this(file, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Create a sink writing to a file.
+     *
+     * @param file       the file
+     * @param blockSize  the number of records in a block
+     * @throws IOException if the file cannot be opened
+     */
+    public BinaryVehicleResultSink(File file, int blockSize) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        this.blockSize = blockSize;
+        this.block = new ArrayList<VehicleResult>(blockSize);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+    }
+
+    @Override
+    public void write(VehicleResult result) throws IOException {
+        block.add(result);
+        if (block.size() == blockSize) {
+            writeBlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            writeBlock();
+            out.writeInt(0);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Read the records of a file written by this sink, passing them to
+     * another sink in order.  Only one block is held in memory at a time.
+     *
+     * @param file  the file
+     * @param to    the sink to which the records are passed; it is not closed
+     * @return the number of records read
+     * @throws IOException if the file cannot be read or is not such a file
+     */
+    public static int read(File file, VehicleResultSink to) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(file + " is not a file of vehicle records");
+            }
+            List<String> names = new ArrayList<String>();
+            int total = 0;
+            int n;
+            while ((n = in.readInt()) > 0) {
+                int k = in.readInt();
+                for (int i = 0; i < k; i++) {
+                    names.add(in.readUTF());
+                }
+                int[] vins = readInts(in, n);
+                int[] roads = readInts(in, n);
+                int[] specs = readInts(in, n);
+                double[][] columns = new double[8][];
+                for (int c = 0; c < columns.length; c++) {
+                    columns[c] = new double[n];
+                    for (int i = 0; i < n; i++) {
+                        columns[c][i] = in.readDouble();
+                    }
+                }
+                for (int i = 0; i < n; i++) {
+                    to.write(new VehicleResult(vins[i], names.get(roads[i]), names.get(specs[i]),
+                            columns[0][i], columns[1][i], columns[2][i], columns[3][i],
+                            columns[4][i], columns[5][i], columns[6][i], columns[7][i]));
+                }
+                total += n;
+            }
+            return total;
+        } finally {
+            in.close();
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (block.isEmpty()) {
+            return;
+        }
+        int n = block.size();
+        int[] roads = new int[n];
+        int[] specs = new int[n];
+        for (int i = 0; i < n; i++) {
+            roads[i] = nameIndex(block.get(i).getStartingRoad());
+            specs[i] = nameIndex(block.get(i).getSpecType());
+        }
+        out.writeInt(n);
+        out.writeInt(newNames.size());
+        for (String name : newNames) {
+            out.writeUTF(name);
+        }
+        newNames.clear();
+        for (VehicleResult result : block) {
+            out.writeInt(result.getVin());
+        }
+        for (int road : roads) {
+            out.writeInt(road);
+        }
+        for (int spec : specs) {
+            out.writeInt(spec);
+        }
+        for (VehicleResult result : block) {
+            out.writeDouble(result.getStartTime());
+        }
+        for (VehicleResult result : block) {
+            out.writeDouble(result.getFinishTime());
+        }
+        for (VehicleResult result : block) {
+            out.writeDouble(result.getDelayTime());
+        }
+        for (VehicleResult result : block) {
+            out.writeDouble(result.getFinalVelocity());
+        }
+        for (VehicleResult result : block) {
+            out.writeDouble(result.getMaxVelocity());
+        }
+        for (VehicleResult result : block) {
+            out.writeDouble(result.getMinVelocity());
+        }
+        for (VehicleResult result : block) {
+            out.writeDouble(result.getFinalXPos());
+        }
+        for (VehicleResult result : block) {
+            out.writeDouble(result.getFinalYPos());
+        }
+        block.clear();
+    }
+
+    private int nameIndex(String name) {
+        String key = String.valueOf(name);
+        Integer index = names.get(key);
+        if (index == null) {
+            index = names.size();
+            names.put(key, index);
+            newNames.add(key);
+        }
+        return index;
+    }
+
+    private static int[] readInts(DataInputStream in, int n) throws IOException {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,303 @@
+package aim4.sim.results;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The results of a simulation of one or more car parks: a row of counts for
+ * each car park, in order, followed by a row of totals.  The car park
+ * simulators do not keep the records of the completed vehicles, so there are
+ * no per-vehicle rows.
+ */
+public class CPMResult implements SimulatorResult {
+
+    /**
+     * The results of one car park.
+     */
+    public static class CarPark {
+        private final double simulationTime;
+        private final int completedVehicles;
+        private final int activeVehicles;
+        private final int parkedVehicles;
+        private final int allowedEntries;
+        private final int deniedEntries;
+        private final int mostVehicles;
+        private final double avgBitsTransmitted;
+        private final double avgBitsReceived;
+
+        /**
+         * Create the results of a car park.
+         *
+         * @param simulationTime      the time simulated
+         * @param completedVehicles   the number of vehicles which have left
+         * @param activeVehicles      the number of vehicles still in the car
+         *                            park
+         * @param parkedVehicles      the number of those which are parked
+         * @param allowedEntries      the number of vehicles let in by the
+         *                            status monitor
+         * @param deniedEntries       the number of vehicles turned away by
+         *                            the status monitor
+         * @param mostVehicles        the most vehicles in the car park at once
+         * @param avgBitsTransmitted  the average number of bits transmitted
+         *                            by the completed vehicles
+         * @param avgBitsReceived     the average number of bits received by
+         *                            the completed vehicles
+         */
+        public CarPark(double simulationTime, int completedVehicles,
+                       int activeVehicles, int parkedVehicles,
+                       int allowedEntries, int deniedEntries, int mostVehicles,
+                       double avgBitsTransmitted, double avgBitsReceived) {
+            this.simulationTime = simulationTime;
+            this.completedVehicles = completedVehicles;
+            this.activeVehicles = activeVehicles;
+            this.parkedVehicles = parkedVehicles;
+            this.allowedEntries = allowedEntries;
+            this.deniedEntries = deniedEntries;
+            this.mostVehicles = mostVehicles;
+            this.avgBitsTransmitted = avgBitsTransmitted;
+            this.avgBitsReceived = avgBitsReceived;
+        }
+
+        public double getSimulationTime() {
+            return simulationTime;
+        }
+
+        public int getCompletedVehicles() {
+            return completedVehicles;
+        }
+
+        public int getActiveVehicles() {
+            return activeVehicles;
+        }
+
+        public int getParkedVehicles() {
+            return parkedVehicles;
+        }
+
+        public int getAllowedEntries() {
+            return allowedEntries;
+        }
+
+        public int getDeniedEntries() {
+            return deniedEntries;
+        }
+
+        public int getMostVehicles() {
+            return mostVehicles;
+        }
+
+        public double getAvgBitsTransmitted() {
+            return avgBitsTransmitted;
+        }
+
+        public double getAvgBitsReceived() {
+            return avgBitsReceived;
+        }
+    }
+
+    private final List<CarPark> carParks;
+
+    public CPMResult(CarPark carPark) {
+        this(Collections.singletonList(carPark));
+    }
+
+    public CPMResult(List<CarPark> carParks) {
+        this.carParks = Collections.unmodifiableList(new ArrayList<CarPark>(carParks));
+    }
+
+    /**
+     * Merge the results of several simulations of car parks, keeping the
+     * car parks in order.
+     *
+     * @param results  the results
+     * @return the results of all the car parks
+     */
+    public static CPMResult merge(List<CPMResult> results) {
+        List<CarPark> carParks = new ArrayList<CarPark>();
+        for (CPMResult result : results) {
+            carParks.addAll(result.carParks);
+        }
+        return new CPMResult(carParks);
+    }
+
+    public List<CarPark> getCarParks() {
+        return carParks;
+    }
+
+    /**
+     * Get the longest time simulated by any of the car parks.
+     *
+     * @return the time simulated
+     */
+    public double getSimulationTime() {
+        double time = 0.0;
+        for (CarPark carPark : carParks) {
+            time = Math.max(time, carPark.simulationTime);
+        }
+        return time;
+    }
+
+    public int getCompletedVehicles() {
+        int total = 0;
+        for (CarPark carPark : carParks) {
+            total += carPark.completedVehicles;
+        }
+        return total;
+    }
+
+    public int getActiveVehicles() {
+        int total = 0;
+        for (CarPark carPark : carParks) {
+            total += carPark.activeVehicles;
+        }
+        return total;
+    }
+
+    public int getParkedVehicles() {
+        int total = 0;
+        for (CarPark carPark : carParks) {
+            total += carPark.parkedVehicles;
+        }
+        return total;
+    }
+
+    public int getAllowedEntries() {
+        int total = 0;
+        for (CarPark carPark : carParks) {
+            total += carPark.allowedEntries;
+        }
+        return total;
+    }
+
+    public int getDeniedEntries() {
+        int total = 0;
+        for (CarPark carPark : carParks) {
+            total += carPark.deniedEntries;
+        }
+        return total;
+    }
+
+    /**
+     * Get the average number of bits transmitted by the completed vehicles
+     * of all the car parks.
+     *
+     * @return the average, weighted by the completed vehicles of each car
+     *         park, or 0 if no vehicle has completed
+     */
+    public double getAvgBitsTransmitted() {
+        double total = 0.0;
+        for (CarPark carPark : carParks) {
+            total += carPark.avgBitsTransmitted * carPark.completedVehicles;
+        }
+        int completedVehicles = getCompletedVehicles();
+        return (completedVehicles == 0) ? 0.0 : total / completedVehicles;
+    }
+
+    /**
+     * Get the average number of bits received by the completed vehicles of
+     * all the car parks.
+     *
+     * @return the average, weighted by the completed vehicles of each car
+     *         park, or 0 if no vehicle has completed
+     */
+    public double getAvgBitsReceived() {
+        double total = 0.0;
+        for (CarPark carPark : carParks) {
+            total += carPark.avgBitsReceived * carPark.completedVehicles;
+        }
+        int completedVehicles = getCompletedVehicles();
+        return (completedVehicles == 0) ? 0.0 : total / completedVehicles;
+    }
+
+    public String produceCSVString() {
+        StringWriter out = new StringWriter();
+        try {
+            writeCSV(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    public void writeCSV(Writer out) throws IOException {
+        out.write(produceCSVHeader());
+        out.write('\n');
+        for (int i = 0; i < carParks.size(); i++) {
+            CarPark carPark = carParks.get(i);
+            out.write(produceCSVRow(Integer.toString(i), carPark.simulationTime,
+                    carPark.completedVehicles, carPark.activeVehicles,
+                    carPark.parkedVehicles, carPark.allowedEntries,
+                    carPark.deniedEntries, Integer.toString(carPark.mostVehicles),
+                    carPark.avgBitsTransmitted, carPark.avgBitsReceived));
+            out.write('\n');
+        }
+        // The car parks need not be at their most at the same time, so the
+        // most vehicles of all of them at once is not known
+        out.write(produceCSVRow("Total", getSimulationTime(),
+                getCompletedVehicles(), getActiveVehicles(),
+                getParkedVehicles(), getAllowedEntries(), getDeniedEntries(),
+                "", getAvgBitsTransmitted(), getAvgBitsReceived()));
+        out.write('\n');
+    }
+
+    public static String produceCSVHeader() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Car Park");
+        sb.append(',');
+        sb.append("Simulation Time");
+        sb.append(',');
+        sb.append("Completed Vehicles");
+        sb.append(',');
+        sb.append("Active Vehicles");
+        sb.append(',');
+        sb.append("Parked Vehicles");
+        sb.append(',');
+        sb.append("Allowed Entries");
+        sb.append(',');
+        sb.append("Denied Entries");
+        sb.append(',');
+        sb.append("Most Vehicles In Car Park");
+        sb.append(',');
+        sb.append("Average Bits Transmitted");
+        sb.append(',');
+        sb.append("Average Bits Received");
+
+        return sb.toString();
+    }
+
+    private static String produceCSVRow(String name, double simulationTime,
+                                        int completedVehicles,
+                                        int activeVehicles, int parkedVehicles,
+                                        int allowedEntries, int deniedEntries,
+                                        String mostVehicles,
+                                        double avgBitsTransmitted,
+                                        double avgBitsReceived) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(name);
+        sb.append(',');
+        sb.append(simulationTime);
+        sb.append(',');
+        sb.append(completedVehicles);
+        sb.append(',');
+        sb.append(activeVehicles);
+        sb.append(',');
+        sb.append(parkedVehicles);
+        sb.append(',');
+        sb.append(allowedEntries);
+        sb.append(',');
+        sb.append(deniedEntries);
+        sb.append(',');
+        sb.append(mostVehicles);
+        sb.append(',');
+        sb.append(avgBitsTransmitted);
+        sb.append(',');
+        sb.append(avgBitsReceived);
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,51 @@
+package aim4.sim.results;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes the records of the vehicles as CSV, one line per vehicle as it
+ * completes, with the columns of the vehicle section of
+ * {@link SimulatorResult#produceCSVString()}.
+ */
+public class CSVVehicleResultSink implements VehicleResultSink {
+
+    /** The writer */
+    private final Writer out;
+
+    /**
+     * Create a sink writing to a file.
+     *
+     * @param file  the file
+     * @throws IOException if the file cannot be opened
+     */
+    public CSVVehicleResultSink(File file) throws IOException {
+        this(new BufferedWriter(new FileWriter(file)));
+    }
+
+    /**
+     * Create a sink writing to a writer, which is closed with the sink.
+     *
+     * @param out  the writer
+     * @throws IOException if the header cannot be written
+     */
+    public CSVVehicleResultSink(Writer out) throws IOException {
+        this.out = out;
+        out.write(VehicleResult.produceCSVHeader());
+        out.write('\n');
+    }
+
+    @Override
+    public void write(VehicleResult result) throws IOException {
+        out.write(result.produceCSV());
+        out.write('\n');
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
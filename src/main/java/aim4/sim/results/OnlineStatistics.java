@@ -0,0 +1,240 @@
+package aim4.sim.results;
+
+import java.io.Serializable;
+
+/**
+ * The statistics of a stream of values, updated as each value arrives in
+ * constant time and memory: the count, minimum, maximum, mean and variance,
+ * the latter two with Welford's method, and quantiles from a histogram with
+ * logarithmic buckets.
+ * <p>
+ * The buckets split each power of two into {@link #SUB_BUCKETS} equal parts,
+ * from 2<sup>{@link #MIN_EXPONENT}</sup> to 2<sup>{@link #MAX_EXPONENT}</sup>,
+ * so that a quantile in that range is within 1/{@link #SUB_BUCKETS} of its
+ * value, about 3%.  Values below the range, including zero and negative
+ * values, and values above it are counted apart, and the quantiles which fall
+ * among them are given as the minimum and the maximum.  The histogram takes
+ * about 17 KB, allocated when the first value in its range is added.
+ */
+public class OnlineStatistics implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /////////////////////////////////
+    // CONSTANTS
+    /////////////////////////////////
+
+    /** The number of bits of the mantissa which choose the sub-bucket */
+    private static final int SUB_BUCKET_BITS = 5;
+    /** The number of buckets of each power of two */
+    public static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** The exponent of the smallest value of the histogram, about 1e-6 */
+    public static final int MIN_EXPONENT = -20;
+    /** The exponent beyond which values are above the histogram, about 1e14 */
+    public static final int MAX_EXPONENT = 47;
+
+    /** The shift of the bits of a double which leaves its bucket */
+    private static final int SHIFT = 52 - SUB_BUCKET_BITS;
+    /** The bucket of 2^MIN_EXPONENT in the shifted bits of a double */
+    private static final long FIRST_BUCKET =
+            Double.doubleToRawLongBits(Math.scalb(1.0, MIN_EXPONENT)) >>> SHIFT;
+    /** The number of buckets */
+    private static final int NUM_OF_BUCKETS = (MAX_EXPONENT - MIN_EXPONENT) * SUB_BUCKETS;
+
+    /////////////////////////////////
+    // PRIVATE FIELDS
+    /////////////////////////////////
+
+    /** The number of values */
+    private long count;
+    /** The smallest value */
+    private double min = Double.NaN;
+    /** The largest value */
+    private double max = Double.NaN;
+    /** The mean of the values */
+    private double mean;
+    /** The sum of the squares of the differences from the mean */
+    private double sumOfSquares;
+    /** The number of values below the histogram */
+    private long underflow;
+    /** The number of values above the histogram */
+    private long overflow;
+    /** The number of values in each bucket, or null if there are none */
+    private long[] buckets;
+
+    /////////////////////////////////
+    // CONSTRUCTORS
+    /////////////////////////////////
+
+    /**
+     * Create the statistics of no values.
+     */
+    public OnlineStatistics() {
+    }
+
+    /**
+     * Create a copy of statistics, which the updates of the original do not
+     * change.
+     *
+     * @param other  the statistics
+     */
+    public OnlineStatistics(OnlineStatistics other) {
+        this.count = other.count;
+        this.min = other.min;
+        this.max = other.max;
+        this.mean = other.mean;
+        this.sumOfSquares = other.sumOfSquares;
+        this.underflow = other.underflow;
+        this.overflow = other.overflow;
+        this.buckets = (other.buckets == null) ? null : other.buckets.clone();
+    }
+
+    /////////////////////////////////
+    // PUBLIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Add a value, which must not be NaN.
+     *
+     * @param value  the value
+     */
+    public void add(double value) {
+        count++;
+        if (count == 1) {
+            min = value;
+            max = value;
+        } else if (value < min) {
+            min = value;
+        } else if (value > max) {
+            max = value;
+        }
+        double d = value - mean;
+        mean += d / count;
+        sumOfSquares += d * (value - mean);
+
+        int bucket = bucket(value);
+        if (bucket < 0) {
+            underflow++;
+        } else if (bucket >= NUM_OF_BUCKETS) {
+            overflow++;
+        } else {
+            if (buckets == null) {
+                buckets = new long[NUM_OF_BUCKETS];
+            }
+            buckets[bucket]++;
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Get the smallest value.
+     *
+     * @return the smallest value, or NaN if there are no values
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * Get the largest value.
+     *
+     * @return the largest value, or NaN if there are no values
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * Get the mean of the values.
+     *
+     * @return the mean, or NaN if there are no values
+     */
+    public double getMean() {
+        return (count == 0) ? Double.NaN : mean;
+    }
+
+    /**
+     * Get the variance of the values, taking them as the whole population.
+     *
+     * @return the variance, or NaN if there are no values
+     */
+    public double getPopulationVariance() {
+        return (count == 0) ? Double.NaN : sumOfSquares / count;
+    }
+
+    /**
+     * Get the variance of the values, taking them as a sample.
+     *
+     * @return the variance, or NaN if there are fewer than two values
+     */
+    public double getSampleVariance() {
+        return (count < 2) ? Double.NaN : sumOfSquares / (count - 1);
+    }
+
+    /**
+     * Get the standard deviation of the values, taking them as the whole
+     * population.
+     *
+     * @return the standard deviation, or NaN if there are no values
+     */
+    public double getPopulationStdDev() {
+        return Math.sqrt(getPopulationVariance());
+    }
+
+    /**
+     * Get a quantile of the values: the value of rank
+     * <code>ceil(q * count)</code> in increasing order, to the precision of
+     * the histogram.
+     *
+     * @param q  the quantile, between 0 and 1, e.g. 0.95 for the 95th
+     *           percentile
+     * @return the quantile, or NaN if there are no values
+     */
+    public double getQuantile(double q) {
+        if (q < 0.0 || q > 1.0) {
+            throw new IllegalArgumentException("Not a quantile: " + q);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = Math.max((long) Math.ceil(q * count), 1L);
+        if (rank <= underflow) {
+            return min;
+        }
+        if (rank > count - overflow) {
+            return max;
+        }
+        long seen = underflow;
+        int bucket = 0;
+        while (seen + buckets[bucket] < rank) {
+            seen += buckets[bucket];
+            bucket++;
+        }
+        double low = Double.longBitsToDouble((FIRST_BUCKET + bucket) << SHIFT);
+        double high = Double.longBitsToDouble((FIRST_BUCKET + bucket + 1) << SHIFT);
+        return Math.min(Math.max((low + high) / 2.0, min), max);
+    }
+
+    /////////////////////////////////
+    // PRIVATE METHODS
+    /////////////////////////////////
+
+    /**
+     * Get the bucket of a value.  The bits of positive doubles are in the
+     * order of their values, and the top bits of the mantissa split each
+     * power of two into equal parts.
+     *
+     * @param value  the value
+     * @return the bucket, negative if the value is below the histogram, and
+     *         at least NUM_OF_BUCKETS if it is above
+     */
+    private static int bucket(double value) {
+        if (!(value > 0.0)) {
+            return -1;
+        }
+        long bucket = (Double.doubleToRawLongBits(value) >>> SHIFT) - FIRST_BUCKET;
+        return (int) Math.max(Math.min(bucket, NUM_OF_BUCKETS), -1L);
+    }
+}
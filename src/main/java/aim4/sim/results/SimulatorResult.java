@@ -1,8 +1,20 @@
 package aim4.sim.results;
 
+import java.io.IOException;
+import java.io.Writer;
+
 /**
  * Created by Callum on 28/04/2017.
  */
 public interface SimulatorResult {
     public String produceCSVString();
+
+    /**
+     * Write what {@link #produceCSVString()} returns, without building it in
+     * memory first.
+     *
+     * @param out  the writer
+     * @throws IOException if the CSV cannot be written
+     */
+    public void writeCSV(Writer out) throws IOException;
 }
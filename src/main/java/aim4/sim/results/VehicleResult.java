@@ -0,0 +1,142 @@
+package aim4.sim.results;
+
+import java.io.Serializable;
+
+/**
+ * The record of a vehicle which completed its journey through a simulation.
+ */
+public class VehicleResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private int vin;
+    private String startingRoad;
+    private String specType;
+    private double startTime;
+    private double finishTime;
+    private double delayTime;
+    private double finalVelocity;
+    private double maxVelocity;
+    private double minVelocity;
+    private double finalXPos;
+    private double finalYPos;
+
+    public VehicleResult(int vin, String startingRoad, String specType, double startTime, double finishTime, double delayTime, double finalVelocity, double maxVelocity, double minVelocity, double finalXPos, double finalYPos) {
+        this.vin = vin;
+        this.startingRoad = startingRoad;
+        this.specType = specType;
+        this.startTime = startTime;
+        this.finishTime = finishTime;
+        this.delayTime = delayTime;
+        this.finalVelocity = finalVelocity;
+        this.maxVelocity = maxVelocity;
+        this.minVelocity = minVelocity;
+        this.finalXPos = finalXPos;
+        this.finalYPos = finalYPos;
+    }
+
+    public int getVin() {
+        return vin;
+    }
+
+    public String getStartingRoad() {
+        return startingRoad;
+    }
+
+    public String getSpecType() {
+        return specType;
+    }
+
+    public double getStartTime() {
+        return startTime;
+    }
+
+    public double getFinishTime() {
+        return finishTime;
+    }
+
+    public double getDelayTime() {
+        return delayTime;
+    }
+
+    public double getFinalVelocity() {
+        return finalVelocity;
+    }
+
+    public double getMaxVelocity() {
+        return maxVelocity;
+    }
+
+    public double getMinVelocity() {
+        return minVelocity;
+    }
+
+    public double getFinalXPos() {
+        return finalXPos;
+    }
+
+    public double getFinalYPos() {
+        return finalYPos;
+    }
+
+    /**
+     * Get the header of the CSV of the records of the vehicles.
+     *
+     * @return the header, without a new line
+     */
+    public static String produceCSVHeader() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("VIN");
+        sb.append(',');
+        sb.append("Starting Road");
+        sb.append(',');
+        sb.append("Vehicle Spec");
+        sb.append(',');
+        sb.append("Start Time");
+        sb.append(',');
+        sb.append("Finish Time");
+        sb.append(',');
+        sb.append("Delay");
+        sb.append(',');
+        sb.append("Final Velocity");
+        sb.append(',');
+        sb.append("Max Velocity");
+        sb.append(',');
+        sb.append("Min Velocity");
+        sb.append(',');
+        sb.append("Final X Position");
+        sb.append(',');
+        sb.append("Final Y Position");
+        return sb.toString();
+    }
+
+    /**
+     * Get this record as a line of CSV.
+     *
+     * @return the line, without a new line
+     */
+    public String produceCSV() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(vin);
+        sb.append(',');
+        sb.append(startingRoad);
+        sb.append(',');
+        sb.append(specType);
+        sb.append(',');
+        sb.append(startTime);
+        sb.append(',');
+        sb.append(finishTime);
+        sb.append(',');
+        sb.append(delayTime);
+        sb.append(',');
+        sb.append(finalVelocity);
+        sb.append(',');
+        sb.append(maxVelocity);
+        sb.append(',');
+        sb.append(minVelocity);
+        sb.append(',');
+        sb.append(finalXPos);
+        sb.append(',');
+        sb.append(finalYPos);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,183 @@
+package aim4.sim.results;
+
+import aim4.map.merge.RoadNames;
+
+import java.io.Serializable;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The global statistics of the records of the vehicles, for all the vehicles
+ * and for those starting on each road, updated as each vehicle completes so
+ * that the records need not be kept.  The statistics of the delays are
+ * {@link OnlineStatistics}, so they include quantiles as well as the mean.
+ */
+public class VehicleResultAggregates implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The statistics of a group of vehicles.
+     */
+    public static class Group implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final OnlineStatistics delay;
+        private double lastFinishTime;
+
+        private Group() {
+            this.delay = new OnlineStatistics();
+        }
+
+        private Group(Group other) {
+            this.delay = new OnlineStatistics(other.delay);
+            this.lastFinishTime = other.lastFinishTime;
+        }
+
+        private void add(VehicleResult result) {
+            delay.add(result.getDelayTime());
+            if (lastFinishTime < result.getFinishTime())
+                lastFinishTime = result.getFinishTime();
+        }
+
+        public int getCount() {
+            return (int) delay.getCount();
+        }
+
+        public OnlineStatistics getDelay() {
+            return delay;
+        }
+
+        public double getMaxDelay() {
+            return delay.getMax();
+        }
+
+        public double getMinDelay() {
+            return delay.getMin();
+        }
+
+        public double getAverageDelay() {
+            return delay.getMean();
+        }
+
+        /**
+         * Get the standard deviation of the delays, taking the vehicles as
+         * the whole population.
+         *
+         * @return the standard deviation, NaN if there are no vehicles
+         */
+        public double getStdDevDelay() {
+            return delay.getPopulationStdDev();
+        }
+
+        /**
+         * Get a quantile of the delays.
+         *
+         * @param q  the quantile, e.g. 0.95 for the 95th percentile
+         * @return the quantile, NaN if there are no vehicles
+         * @see OnlineStatistics#getQuantile(double)
+         */
+        public double getDelayQuantile(double q) {
+            return delay.getQuantile(q);
+        }
+
+        /**
+         * Get the number of vehicles completed per second, up to the time the
+         * last one completed.
+         *
+         * @return the throughput
+         */
+        public double getThroughput() {
+            return getCount() / lastFinishTime;
+        }
+    }
+
+    private final Group all;
+    private final Map<RoadNames, Group> roads;
+
+    /**
+     * Create the statistics of no vehicles.
+     */
+    public VehicleResultAggregates() {
+        this.all = new Group();
+        this.roads = new EnumMap<RoadNames, Group>(RoadNames.class);
+        for (RoadNames road : RoadNames.values()) {
+            roads.put(road, new Group());
+        }
+    }
+
+    /**
+     * Create a copy of statistics, which the updates of the original do not
+     * change.
+     *
+     * @param other  the statistics
+     */
+    public VehicleResultAggregates(VehicleResultAggregates other) {
+        this.all = new Group(other.all);
+        this.roads = new EnumMap<RoadNames, Group>(RoadNames.class);
+        for (Map.Entry<RoadNames, Group> entry : other.roads.entrySet()) {
+            roads.put(entry.getKey(), new Group(entry.getValue()));
+        }
+    }
+
+    /**
+     * Create the statistics of records.
+     *
+     * @param results  the records
+     */
+    public VehicleResultAggregates(Iterable<? extends VehicleResult> results) {
+        this();
+        for (VehicleResult result : results) {
+            add(result);
+        }
+    }
+
+    /**
+     * Add the record of a vehicle which has just completed.
+     *
+     * @param result  the record
+     */
+    public void add(VehicleResult result) {
+        RoadNames road = toRoadName(result.getStartingRoad());
+        if (road != null) {
+            roads.get(road).add(result);
+        }
+        all.add(result);
+    }
+
+    public Group getAll() {
+        return all;
+    }
+
+    /**
+     * Get the statistics of the vehicles starting on a road.
+     *
+     * @param road  the road
+     * @return the statistics
+     */
+    public Group get(RoadNames road) {
+        return roads.get(road);
+    }
+
+    public Group getTarget() {
+        return get(RoadNames.TARGET_ROAD);
+    }
+
+    public Group getMerge() {
+        return get(RoadNames.MERGING_ROAD);
+    }
+
+    /**
+     * Get the road of a name written in a record.
+     *
+     * @param name  the name
+     * @return the road, or null if no road has that name
+     */
+    private static RoadNames toRoadName(String name) {
+        for (RoadNames road : RoadNames.values()) {
+            if (road.equalsName(name)) {
+                return road;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,19 @@
+package aim4.sim.results;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Where the records of the vehicles go as soon as they complete, so that a
+ * simulator need not keep them all until the end of the run.
+ */
+public interface VehicleResultSink extends Closeable {
+
+    /**
+     * Write the record of a vehicle which has just completed.
+     *
+     * @param result  the record
+     * @throws IOException if the record cannot be written
+     */
+    void write(VehicleResult result) throws IOException;
+}
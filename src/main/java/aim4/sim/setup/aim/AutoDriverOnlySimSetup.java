@@ -87,6 +87,11 @@ public class AutoDriverOnlySimSetup extends BasicSimSetup implements AIMSimSetup
   private double processingInterval = RoadBasedReordering.DEFAULT_PROCESSING_INTERVAL;
   /** The name of the file about the traffic volume */
   private String trafficVolumeFileName = null;
+  /**
+   * The distance to the next intersection beyond which vehicles are
+   * advanced by the mesoscopic lane model; non-positive if disabled
+   */
+  private double mesoscopicDistance = -1.0;
 
   /////////////////////////////////
   // CONSTRUCTORS
@@ -160,6 +165,17 @@ public class AutoDriverOnlySimSetup extends BasicSimSetup implements AIMSimSetup
     this.processingInterval = processingInterval;
   }
 
+  /**
+   * Set the distance to the next intersection beyond which vehicles are
+   * advanced by the mesoscopic lane model instead of the full vehicle model.
+   *
+   * @param mesoscopicDistance  the distance; a non-positive value disables
+   *                            the mesoscopic lane model
+   */
+  public void setMesoscopicDistance(double mesoscopicDistance) {
+    this.mesoscopicDistance = mesoscopicDistance;
+  }
+
   /**
    * Set the uniform random traffic.
    *
@@ -307,6 +323,10 @@ public class AutoDriverOnlySimSetup extends BasicSimSetup implements AIMSimSetup
 
     V2IPilot.DEFAULT_STOP_DISTANCE_BEFORE_INTERSECTION =
             stopDistBeforeIntersection;
-    return new AutoDriverOnlySimulator(layout);
+    AutoDriverOnlySimulator sim = new AutoDriverOnlySimulator(layout);
+    if (mesoscopicDistance > 0.0) {
+      sim.enableMesoscopicMode(mesoscopicDistance);
+    }
+    return sim;
   }
 }
@@ -2,7 +2,6 @@ package aim4.sim.setup.cpm;
 
 import aim4.map.cpm.CPMMapUtil.*;
 import aim4.sim.Simulator;
-import javafx.util.Pair;
 
 /**
  * The basic simulation setup for CPM. Common for all CPM simulation types.
@@ -24,8 +23,11 @@ public class BasicCPMSimSetup implements CPMSimSetup {
     protected double accessLength;
     /** The type of spawn specification. */
     protected SpawnSpecType spawnSpecType;
-    /** Whether to use a CSV file for the spawn times and parking times, and the location of the file */
-    protected Pair<Boolean, String> useCSVFile;
+    /**
+     * The location of the CSV or binary file of the spawn times and parking
+     * times, or null if the vehicles are spawned at random
+     */
+    protected String arrivalTrace;
 
     /**
      * Create a copy of a given basic simulator setup.
@@ -40,18 +42,21 @@ public class BasicCPMSimSetup implements CPMSimSetup {
         this.parkingLength = basicSimSetup.parkingLength;
         this.accessLength = basicSimSetup.accessLength;
         this.spawnSpecType = basicSimSetup.spawnSpecType;
-        this.useCSVFile = basicSimSetup.useCSVFile;
+        this.arrivalTrace = basicSimSetup.arrivalTrace;
     }
 
     /**
      * Create a basic simulator setup.
      *
      * @param speedLimit                  the speed limit in the car park
+     * @param arrivalTrace                the location of the file of the spawn
+     *                                    times and parking times, or null to
+     *                                    spawn the vehicles at random
      */
     public BasicCPMSimSetup(double speedLimit, double trafficLevel,
                             double laneWidth, int numberOfParkingLanes,
                             double parkingLength, double accessLength,
-                            SpawnSpecType spawnSpecType, Pair<Boolean, String> useCSVFile) {
+                            SpawnSpecType spawnSpecType, String arrivalTrace) {
         this.speedLimit = speedLimit;
         this.trafficLevel = trafficLevel;
         this.laneWidth = laneWidth;
@@ -59,7 +64,7 @@ public class BasicCPMSimSetup implements CPMSimSetup {
         this.parkingLength = parkingLength;
         this.accessLength = accessLength;
         this.spawnSpecType = spawnSpecType;
-        this.useCSVFile = useCSVFile;
+        this.arrivalTrace = arrivalTrace;
     }
 
     @Override
@@ -117,11 +122,11 @@ public class BasicCPMSimSetup implements CPMSimSetup {
 
     public void setSpawnSpecType(SpawnSpecType spawnSpecType) { this.spawnSpecType = spawnSpecType; }
 
-    public Pair<Boolean, String> getUseCSVFile() {
-        return useCSVFile;
+    public String getArrivalTrace() {
+        return arrivalTrace;
     }
 
-    public void setUseCSVFile(Pair<Boolean, String> useCSVFile) {
-        this.useCSVFile = useCSVFile;
+    public void setArrivalTrace(String arrivalTrace) {
+        this.arrivalTrace = arrivalTrace;
     }
 }
\ No newline at end of file
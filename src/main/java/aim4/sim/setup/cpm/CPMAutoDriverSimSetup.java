@@ -26,6 +26,15 @@ public class CPMAutoDriverSimSetup extends BasicCPMSimSetup {
      */
     @Override
     public Simulator getSimulator() {
+        return new CPMAutoDriverSimulator(makeCarPark());
+    }
+
+    /**
+     * Create the map of a car park with its spawn points.
+     *
+     * @return the map of the car park
+     */
+    protected CPMBasicMap makeCarPark() {
         double currentTime = 0.0;
 
         CPMBasicMap layout = new CPMCarParkWithStatus(laneWidth, // laneWidth
@@ -39,21 +48,21 @@ public class CPMAutoDriverSimSetup extends BasicCPMSimSetup {
         // Set up the correct spawn point
         switch(spawnSpecType) {
             case SINGLE:
-                if (!useCSVFile.getKey()){
+                if (arrivalTrace == null){
                     CPMMapUtil.setUpInfiniteSingleSpecVehicleSpawnPoint(layout, trafficLevel);
                 } else {
-                    CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(layout, useCSVFile);
+                    CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(layout, arrivalTrace);
                 }
                 break;
             case RANDOM:
-                if (!useCSVFile.getKey()){
+                if (arrivalTrace == null){
                     CPMMapUtil.setUpInfiniteRandomSpecVehicleSpawnPoint(layout, trafficLevel);
                 } else {
-                    CPMMapUtil.setUpSpecificRandomSpecVehicleSpawnPoint(layout, useCSVFile);
+                    CPMMapUtil.setUpSpecificRandomSpecVehicleSpawnPoint(layout, arrivalTrace);
                 }
                 break;
         }
 
-        return new CPMAutoDriverSimulator(layout);
+        return layout;
     }
 }
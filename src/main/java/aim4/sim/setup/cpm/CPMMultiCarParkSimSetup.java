@@ -0,0 +1,64 @@
+package aim4.sim.setup.cpm;
+
+import aim4.sim.Simulator;
+import aim4.sim.simulator.cpm.CPMAutoDriverSimulator;
+import aim4.sim.simulator.cpm.CPMMultiCarParkSimulator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Setup for simulation of several identical, independent car parks, stepped
+ * in parallel over a shared clock.
+ */
+public class CPMMultiCarParkSimSetup extends CPMAutoDriverSimSetup {
+
+    /** The number of car parks */
+    private int numberOfCarParks;
+    /** The number of worker threads */
+    private int numberOfThreads;
+
+    /**
+     * Create a setup for the simulator of several car parks, each set up
+     * as by {@link CPMAutoDriverSimSetup}.
+     *
+     * @param basicSimSetup     the basic simulator setup of each car park
+     * @param numberOfCarParks  the number of car parks
+     * @param numberOfThreads   the number of worker threads
+     */
+    public CPMMultiCarParkSimSetup(BasicCPMSimSetup basicSimSetup,
+                                   int numberOfCarParks, int numberOfThreads) {
+        super(basicSimSetup);
+        this.numberOfCarParks = numberOfCarParks;
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Simulator getSimulator() {
+        List<CPMAutoDriverSimulator> carParks =
+                new ArrayList<CPMAutoDriverSimulator>(numberOfCarParks);
+        for (int i = 0; i < numberOfCarParks; i++) {
+            carParks.add(new CPMAutoDriverSimulator(makeCarPark()));
+        }
+        return new CPMMultiCarParkSimulator(carParks, numberOfThreads);
+    }
+
+    public int getNumberOfCarParks() {
+        return numberOfCarParks;
+    }
+
+    public void setNumberOfCarParks(int numberOfCarParks) {
+        this.numberOfCarParks = numberOfCarParks;
+    }
+
+    public int getNumberOfThreads() {
+        return numberOfThreads;
+    }
+
+    public void setNumberOfThreads(int numberOfThreads) {
+        this.numberOfThreads = numberOfThreads;
+    }
+}
@@ -3,6 +3,7 @@ package aim4.sim.simulator.aim;
 import aim4.map.aim.BasicIntersectionMap;
 import aim4.sim.Simulator;
 import aim4.sim.results.AIMResult;
+import aim4.sim.results.VehicleResultSink;
 import aim4.vehicle.aim.AIMVehicleSimModel;
 import aim4.vehicle.aim.ProxyVehicleSimModel;
 
@@ -30,4 +31,13 @@ public interface AIMSimulator extends Simulator {
     void addProxyVehicle(ProxyVehicleSimModel vehicle);
 
     AIMResult produceResult();
+
+    /**
+     * Write the records of the vehicles to a sink as they complete, instead
+     * of keeping them for {@link #produceResult()}, whose global statistics
+     * still cover all the vehicles.
+     *
+     * @param sink  the sink, or null to keep the records
+     */
+    void setVehicleResultSink(VehicleResultSink sink);
 }
@@ -47,6 +47,12 @@ import aim4.msg.aim.i2v.I2VMessage;
 import aim4.msg.aim.v2i.V2IMessage;
 import aim4.sim.results.AIMResult;
 import aim4.sim.results.AIMVehicleResult;
+import aim4.sim.results.VehicleResultAggregates;
+import aim4.sim.results.VehicleResultSink;
+import aim4.sim.simulator.aim.helper.IntersectionManagerScheduler;
+import aim4.sim.simulator.aim.helper.LRFSensingHelper;
+import aim4.sim.simulator.aim.helper.MesoscopicLaneHelper;
+import aim4.sim.simulator.aim.helper.V2VDeliveryHelper;
 import aim4.vehicle.VehicleSpec;
 import aim4.vehicle.VehicleSpecDatabase;
 import aim4.vehicle.VehicleUtil;
@@ -57,6 +63,8 @@ import java.awt.*;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.io.Serializable;
 import java.util.*;
 import java.util.List;
 import java.util.Queue;
@@ -64,7 +72,8 @@ import java.util.Queue;
 /**
  * The autonomous drivers only simulator.
  */
-public class AutoDriverOnlySimulator implements AIMSimulator {
+public class AutoDriverOnlySimulator implements AIMSimulator, Serializable {
+    private static final long serialVersionUID = 1L;
 
     /////////////////////////////////
     // NESTED CLASSES
@@ -116,12 +125,38 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
 
     //Results aids//
     private List<AIMVehicleResult> vehiclesRecord;
+    /** The global statistics of the completed vehicles */
+    private VehicleResultAggregates vehiclesAggregates;
+    /** Where the records go instead of vehiclesRecord, if not null */
+    private transient VehicleResultSink vehicleResultSink;
     private Map<String, Double> specToExpectedTimeMergeLane;
     private Map<String, Double> specToExpectedTimeTargetLane;
 
     //Merge aids//
     private boolean mergeMode;
 
+    /**
+     * The model of the vehicles far away from the next intersection, or
+     * <code>null</code> if all vehicles are fully simulated.
+     */
+    private MesoscopicLaneHelper mesoscopicLanes;
+
+    /** The scheduler of the intersection managers */
+    private IntersectionManagerScheduler imScheduler;
+    /** The delivery of the V2V messages */
+    private V2VDeliveryHelper v2vDelivery = new V2VDeliveryHelper();
+    /** The number of V2I messages delivered in the last time step */
+    private int numOfV2IMessagesDelivered;
+    /** The number of bits delivered by V2I messages in the last time step */
+    private long numOfV2IBitsDelivered;
+    /** The number of I2V messages delivered in the last time step */
+    private int numOfI2VMessagesDelivered;
+    /** The number of bits delivered by I2V messages in the last time step */
+    private long numOfI2VBitsDelivered;
+
+    /** The laser range finders of the vehicles */
+    private LRFSensingHelper lrfSensing = new LRFSensingHelper();
+
     /////////////////////////////////
     // CLASS CONSTRUCTORS
     /////////////////////////////////
@@ -152,6 +187,7 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
             for(int specID = 0; specID < VehicleSpecDatabase.getNumOfSpec(); specID++)
                 fakeDelayTimes.put(VehicleSpecDatabase.getVehicleSpecById(specID).getName(), new Double(0));
             this.vehiclesRecord = new ArrayList<AIMVehicleResult>();
+            this.vehiclesAggregates = new VehicleResultAggregates();
             if(specToExpectedTimeMergeLane != null)
                 this.specToExpectedTimeMergeLane = specToExpectedTimeMergeLane;
             else
@@ -163,6 +199,9 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
             this.specToExpectedTimeTargetLane = specToExpectedTimeTargetLane;
         }
 
+        this.imScheduler = new IntersectionManagerScheduler(
+                basicIntersectionMap.getIntersectionManagers());
+
         currentTime = 0.0;
         numOfCompletedVehicles = 0;
         totalBitsTransmittedByCompletedVehicles = 0;
@@ -182,6 +221,14 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
     public synchronized AutoDriverOnlySimStepResult step(double timeStep) {
         if (Debug.PRINT_SIMULATOR_STAGE) {
             System.err.printf("--------------------------------------\n");
+        }
+        if (mesoscopicLanes != null) {
+            if (Debug.PRINT_SIMULATOR_STAGE) {
+                System.err.printf("------SIM:promoteMesoscopicVehicles---------------\n");
+            }
+            promoteMesoscopicVehicles();
+        }
+        if (Debug.PRINT_SIMULATOR_STAGE) {
             System.err.printf("------SIM:spawnVehicles---------------\n");
         }
         spawnVehicles(timeStep);
@@ -216,6 +263,13 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
 
         List<Integer> completedVINs = cleanUpCompletedVehicles();
 
+        if (mesoscopicLanes != null) {
+            if (Debug.PRINT_SIMULATOR_STAGE) {
+                System.err.printf("------SIM:demoteVehicles---------------\n");
+            }
+            demoteVehicles();
+        }
+
         if(mergeMode) {
             provideCompletedVehiclesWithResultsInfo(completedVehicles);
             recordCompletedVehicles(completedVehicles);
@@ -258,6 +312,16 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
         return numOfCompletedVehicles;
     }
 
+    /**
+     * Whether the simulator is in merge mode, in which the results of the
+     * completed vehicles are recorded.
+     *
+     * @return whether the simulator is in merge mode
+     */
+    public boolean isMergeMode() {
+        return mergeMode;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -301,10 +365,120 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
     }
 
 
+    /**
+     * Get the number of vehicles advanced by the mesoscopic lane model.
+     * These vehicles are not included in {@link #getActiveVehicles()}.
+     *
+     * @return the number of vehicles advanced by the mesoscopic lane model
+     */
+    public synchronized int getNumOfMesoscopicVehicles() {
+        return (mesoscopicLanes == null) ? 0 : mesoscopicLanes.getNumOfVehicles();
+    }
+
+    /**
+     * Get the number of V2I messages delivered in the last time step.
+     *
+     * @return the number of V2I messages delivered in the last time step
+     */
+    public synchronized int getNumOfV2IMessagesDeliveredInLastStep() {
+        return numOfV2IMessagesDelivered;
+    }
+
+    /**
+     * Get the number of bits delivered by V2I messages in the last time step.
+     *
+     * @return the number of bits delivered by V2I messages in the last time
+     *         step
+     */
+    public synchronized long getNumOfV2IBitsDeliveredInLastStep() {
+        return numOfV2IBitsDelivered;
+    }
+
+    /**
+     * Get the number of I2V messages delivered in the last time step.
+     *
+     * @return the number of I2V messages delivered in the last time step
+     */
+    public synchronized int getNumOfI2VMessagesDeliveredInLastStep() {
+        return numOfI2VMessagesDelivered;
+    }
+
+    /**
+     * Get the number of bits delivered by I2V messages in the last time step.
+     *
+     * @return the number of bits delivered by I2V messages in the last time
+     *         step
+     */
+    public synchronized long getNumOfI2VBitsDeliveredInLastStep() {
+        return numOfI2VBitsDelivered;
+    }
+
+    /**
+     * Get the number of intersection managers that acted in the last time
+     * step.
+     *
+     * @return the number of intersection managers that acted in the last
+     *         time step
+     */
+    public synchronized int getNumOfIntersectionManagersActedInLastStep() {
+        return imScheduler.getNumOfIntersectionManagersActedInLastStep();
+    }
+
+    /**
+     * Get the number of V2V messages delivered in the last time step.  A
+     * broadcast message counts once for every receiver.
+     *
+     * @return the number of V2V messages delivered in the last time step
+     */
+    public synchronized int getNumOfV2VMessagesDeliveredInLastStep() {
+        return v2vDelivery.getNumOfMessagesDelivered();
+    }
+
+    /**
+     * Get the number of bits delivered by V2V messages in the last time step.
+     *
+     * @return the number of bits delivered by V2V messages in the last time
+     *         step
+     */
+    public synchronized long getNumOfV2VBitsDeliveredInLastStep() {
+        return v2vDelivery.getNumOfBitsDelivered();
+    }
+
+    /**
+     * Get the total number of bits delivered by V2V messages.
+     *
+     * @return the total number of bits delivered by V2V messages
+     */
+    public synchronized long getTotalNumOfV2VBitsDelivered() {
+        return v2vDelivery.getTotalNumOfBitsDelivered();
+    }
+
+
     /////////////////////////////////
     // PUBLIC METHODS
     /////////////////////////////////
 
+    /**
+     * Advance the vehicles on straight lanes that are farther than the given
+     * distance from the next intersection with a cheap car-following model
+     * instead of the full vehicle and driver model.  The vehicles return to
+     * the full model when they come within this distance, or within the
+     * communication range of the vehicle or the intersection manager if
+     * that is larger.  Vehicles stay in the full model until they have
+     * passed every data collection line before the next intersection, so
+     * that the lines record them.  It has no effect in merge mode, in which
+     * every vehicle is recorded in detail.
+     *
+     * @param promotionDistance  the distance to the next intersection at
+     *                           which vehicles return to the full model
+     */
+    public synchronized void enableMesoscopicMode(double promotionDistance) {
+        if (!mergeMode) {
+            mesoscopicLanes = new MesoscopicLaneHelper(promotionDistance,
+                    basicIntersectionMap.getDataCollectionLines());
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -340,6 +514,20 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
     // PRIVATE METHODS
     /////////////////////////////////
 
+    /////////////////////////////////
+    // STEP 0
+    /////////////////////////////////
+
+    /**
+     * Return the vehicles that have reached their promotion points in the
+     * mesoscopic lane model to the full model.
+     */
+    private void promoteMesoscopicVehicles() {
+        for(AIMVehicleSimModel vehicle : mesoscopicLanes.promote(currentTime)) {
+            vinToVehicles.put(vehicle.getVIN(), vehicle);
+        }
+    }
+
     /////////////////////////////////
     // STEP 1
     /////////////////////////////////
@@ -382,6 +570,10 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
                 return false;
             }
         }
+        if (mesoscopicLanes != null
+                && mesoscopicLanes.intersects(spawnPoint.getLane(), noVehicleZone)) {
+            return false;
+        }
         return true;
     }
 
@@ -545,6 +737,10 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
     private void provideIntervalInfo(
             Map<AIMVehicleSimModel, AIMVehicleSimModel> nextVehicle) {
 
+        // The positions of the vehicles are only indexed if some vehicle
+        // uses its laser range finder
+        boolean isLRFIndexed = false;
+
         // Now that we have this list set up, let's provide input to all the
         // Vehicles.
         for(AIMVehicleSimModel vehicle: vinToVehicles.values()) {
@@ -564,18 +760,32 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
                         } else { // Otherwise, just set it to the maximum possible value
                             interval = Double.MAX_VALUE;
                         }
+                        // The vehicle in front may be in the mesoscopic lane model
+                        if (mesoscopicLanes != null) {
+                            interval = Math.min(interval,
+                                    mesoscopicLanes.intervalToVehicleAhead(autoVehicle));
+                        }
                         // Now actually record it in the vehicle
                         autoVehicle.getIntervalometer().record(interval);
                         autoVehicle.setLRFSensing(false); // Vehicle is not using
                         // the LRF sensor
                         break;
                     case LIMITED:
-                        // FIXME
-                        autoVehicle.setLRFSensing(true); // Vehicle is using the LRF sensor
-                        break;
                     case ENABLED:
-                        // FIXME
-                        autoVehicle.setLRFSensing(true); // Vehicle is using the LRF sensor
+                        if (!isLRFIndexed) {
+                            lrfSensing.update(vinToVehicles.values());
+                            isLRFIndexed = true;
+                        }
+                        // Cast the beams against the neighbouring vehicles
+                        double distance = lrfSensing.sense(autoVehicle);
+                        // The vehicle in front may be in the mesoscopic lane model
+                        if (mesoscopicLanes != null) {
+                            double mesoInterval =
+                                    mesoscopicLanes.intervalToVehicleAhead(autoVehicle);
+                            if (mesoInterval < distance) {
+                                LRFSensingHelper.record(autoVehicle, mesoInterval, 0.0);
+                            }
+                        }
                         break;
                     default:
                         throw new RuntimeException("Unknown LRF Mode: " +
@@ -583,6 +793,9 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
                 }
             }
         }
+        if (isLRFIndexed) {
+            lrfSensing.clear();
+        }
     }
 
     /**
@@ -765,14 +978,13 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
     /////////////////////////////////
 
     /**
-     * Allow each intersection manager to act.
+     * Allow each intersection manager that is due or has received messages
+     * to act.
      *
      * @param timeStep  the time step
      */
     private void letIntersectionManagersAct(double timeStep) {
-        for(IntersectionManager im : basicIntersectionMap.getIntersectionManagers()) {
-            im.act(timeStep);
-        }
+        imScheduler.act(currentTime, timeStep);
     }
 
     /////////////////////////////////
@@ -785,13 +997,15 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
     private void communication() {
         deliverV2IMessages();
         deliverI2VMessages();
-//    deliverV2VMessages();
+        deliverV2VMessages();
     }
 
     /**
      * Deliver the V2I messages.
      */
     private void deliverV2IMessages() {
+        numOfV2IMessagesDelivered = 0;
+        numOfV2IBitsDelivered = 0;
         // Go through each vehicle and deliver each of its messages
         for(AIMVehicleSimModel vehicle : vinToVehicles.values()) {
             // Start with V2I messages
@@ -810,7 +1024,10 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
                     if(transmit(txDistance, sender.getTransmissionPower())) {
                         // Actually deliver the message
                         receiver.receive(msg);
+                        imScheduler.wakeUp(receiver);
                         // Add the delivery to the debugging information
+                        numOfV2IMessagesDelivered++;
+                        numOfV2IBitsDelivered += msg.getSize();
                     }
                     // Either way, we increment the number of transmitted messages
                 }
@@ -822,6 +1039,8 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
      * Deliver the I2V messages.
      */
     private void deliverI2VMessages() {
+        numOfI2VMessagesDelivered = 0;
+        numOfI2VBitsDelivered = 0;
         // Now deliver all the I2V messages
         for(IntersectionManager im : basicIntersectionMap.getIntersectionManagers()) {
             V2IManager senderIM = (V2IManager)im;
@@ -829,8 +1048,12 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
                 i2vIter.hasNext();) {
                 I2VMessage msg = i2vIter.next();
                 AIMAutoVehicleSimModel vehicle =
-                        (AIMAutoVehicleSimModel)VinRegistry.getVehicleFromVIN(
-                                msg.getVin());
+                        (AIMAutoVehicleSimModel)vinToVehicles.get(msg.getVin());
+                if (vehicle == null) {
+                    // The vehicle has left the simulation or is advanced by
+                    // the mesoscopic lane model
+                    continue;
+                }
                 // Calculate the distance the message must travel
                 double txDistance =
                         senderIM.getIntersection().getCentroid().distance(
@@ -839,6 +1062,8 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
                 if(transmit(txDistance, senderIM.getTransmissionPower())) {
                     // Actually deliver the message
                     vehicle.receive(msg);
+                    numOfI2VMessagesDelivered++;
+                    numOfI2VBitsDelivered += msg.getSize();
                 }
             }
             // Done delivering the IntersectionManager's messages, so clear the
@@ -847,78 +1072,15 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
         }
     }
 
-//  private void deliverV2VMessages() {
-//
-//    // Create a place to store broadcast messages until they can be sent so
-//    // that we don't have to run through the list of Vehicles for each one
-//    List<V2VMessage> broadcastMessages = new ArrayList<V2VMessage>();
-//
-//    // Go through each vehicle and deliver each of its messages
-//    for(AIMVehicleSimModel vehicle : vinToVehicles.values()) {
-//      // Then do V2V messages.
-//      if (vehicle instanceof AIMAutoVehicleSimModel) {
-//        AIMAutoVehicleSimModel sender = (AIMAutoVehicleSimModel)vehicle;
-//        for(V2VMessage msg : sender.getV2VOutbox()) {
-//          if(msg.isBroadcast()) {
-//            // If it's a broadcast message, we save it and worry about it later
-//            broadcastMessages.add(msg);
-//          } else {
-//            // Otherwise, we just deliver it! Woo!
-//            // TODO: need to check whether the vehicle is AutoVehicleSpec
-//            AIMAutoVehicleSimModel receiver =
-//              (AIMAutoVehicleSimModel)VinRegistry.getVehicleFromVIN(
-//                msg.getDestinationID());
-//            // Calculate the distance the message must travel
-//            double txDistance =
-//              sender.getPosition().distance(receiver.getPosition());
-//            // Find out if the message will make it that far
-//            if(transmit(txDistance, sender.getTransmissionPower())) {
-//              // Actually deliver the message
-//              receiver.receive(msg);
-//              // Add the delivery to the debugging information
-//            }
-//          }
-//        }
-//        // Done delivering the V2V messages (except broadcast which we will
-//        // handle in a moment), so clear the outbox
-//        sender.getV2VOutbox().clear();
-//      }
-//    }
-//    // Now go through the vehicles and deliver the broadcast messages
-//    for(V2VMessage msg : broadcastMessages) {
-//      // Send a copy to the IM for debugging/statistics purposes
-//      IntersectionManager im =
-//        basicIntersectionMap.getImRegistry().get(msg.getIntersectionManagerID());
-////      if(im != null) {
-////        switch(im.getIntersectionType()) {
-////        case V2V:
-////          ((V2VManager) im).logBroadcast(msg);
-////        }
-////      }
-//      // Determine who sent this message
-//      // TODO: need to check whether the vehicle is AutoVehicleSpec
-//      AIMAutoVehicleSimModel sender =
-//        (AIMAutoVehicleSimModel)VinRegistry.getVehicleFromVIN(
-//          msg.getSourceID());
-//      // Deliver to each vehicle
-//      for(AIMVehicleSimModel vehicle : vinToVehicles.values()) {
-//        if (vehicle instanceof AIMAutoVehicleSimModel) {
-//          AIMAutoVehicleSimModel receiver = (AIMAutoVehicleSimModel)vehicle;
-//          // Except the one that sent it
-//          if(sender != receiver) {
-//            // Find out how far away they are
-//            double txDistance =
-//              sender.getPosition().distance(receiver.getPosition());
-//            // See if this Vehicle is close enough to receive the message
-//            if(transmit(txDistance, sender.getTransmissionPower())) {
-//              // Actually deliver the message
-//              receiver.receive(msg);
-//            }
-//          }
-//        } // else ignore other non-autonomous vehicle
-//      }
-//    }
-//  }
+    /**
+     * Deliver the V2V messages.  Receivers are found through a spatial
+     * index of the vehicle positions, so the cost grows with the number of
+     * vehicles in range rather than with the square of the number of
+     * vehicles.
+     */
+    private void deliverV2VMessages() {
+        v2vDelivery.deliver(vinToVehicles.values());
+    }
 
 
     /**
@@ -944,6 +1106,11 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
      * @param timeStep  the time step
      */
     private void moveVehicles(double timeStep) {
+        if (mesoscopicLanes != null) {
+            // uses the positions of the vehicles in the full model before
+            // they move, as their sensors did
+            mesoscopicLanes.advance(timeStep, vinToVehicles.values());
+        }
         for(AIMVehicleSimModel vehicle : vinToVehicles.values()) {
             Point2D p1 = vehicle.getPosition();
             vehicle.move(timeStep);
@@ -1016,6 +1183,19 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
         return completedVINs;
     }
 
+    /**
+     * Move the vehicles that are far enough away from the next intersection
+     * into the mesoscopic lane model.
+     */
+    private void demoteVehicles() {
+        for(Iterator<AIMVehicleSimModel> iter = vinToVehicles.values().iterator();
+            iter.hasNext();) {
+            if (mesoscopicLanes.demote(iter.next())) {
+                iter.remove();
+            }
+        }
+    }
+
     // RESULTS //
     private List<AIMVehicleSimModel> calculateCompletedVehicles() {
         List<AIMVehicleSimModel> completedVehicles = new LinkedList<AIMVehicleSimModel>();
@@ -1031,7 +1211,7 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
 
     private void recordCompletedVehicles(List<AIMVehicleSimModel> completedVehicles) {
         for(AIMVehicleSimModel vehicle : completedVehicles) {
-            vehiclesRecord.add(new AIMVehicleResult(
+            AIMVehicleResult result = new AIMVehicleResult(
                     vehicle.getVIN(),
                     vehicle.getStartingRoad().toString(),
                     vehicle.getSpec().getName(),
@@ -1043,7 +1223,17 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
                     vehicle.getMinVelocity(),
                     vehicle.getFinalXPos(),
                     vehicle.getFinalYPos()
-            ));
+            );
+            vehiclesAggregates.add(result);
+            if(vehicleResultSink == null)
+                vehiclesRecord.add(result);
+            else {
+                try {
+                    vehicleResultSink.write(result);
+                } catch (IOException e) {
+                    throw new RuntimeException("Cannot write the record of vehicle " + vehicle.getVIN(), e);
+                }
+            }
         }
     }
 
@@ -1097,7 +1287,12 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
     }
 
     public AIMResult produceResult() {
-        return new AIMResult(vehiclesRecord);
+        return new AIMResult(vehiclesRecord, new VehicleResultAggregates(vehiclesAggregates));
+    }
+
+    @Override
+    public void setVehicleResultSink(VehicleResultSink sink) {
+        this.vehicleResultSink = sink;
     }
 
     protected String resultsToCSV(AIMResult result) {
@@ -1187,10 +1382,8 @@ public class AutoDriverOnlySimulator implements AIMSimulator {
         for(AIMVehicleSimModel vehicle: vinToVehicles.values()) {
             vehicle.checkCurrentTime(currentTime);
         }
-        // Check the clocks for all the intersection managers.
-        for(IntersectionManager im : basicIntersectionMap.getIntersectionManagers()) {
-            im.checkCurrentTime(currentTime);
-        }
+        // Check the clocks for the intersection managers that have acted.
+        imScheduler.checkClocks(currentTime);
     }
 
 
@@ -0,0 +1,219 @@
+package aim4.sim.simulator.aim.helper;
+
+import aim4.im.aim.IntersectionManager;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lets the intersection managers act only when they have something to do.
+ * Every intersection manager declares the next time at which it needs to
+ * act; the scheduler keeps these wake-up times in a binary min-heap and, in
+ * each time step, calls only the intersection managers that are due or that
+ * have received a message.  The clock of an intersection manager that has
+ * been skipped is advanced over the skipped time steps, one step at a time,
+ * just before it acts again, so its clock reads exactly as if it had acted
+ * in every time step.
+ */
+public class IntersectionManagerScheduler implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /////////////////////////////////
+    // PRIVATE FIELDS
+    /////////////////////////////////
+
+    /** The intersection managers, in the order in which they are called */
+    private final IntersectionManager[] ims;
+    /** The slot of each intersection manager, indexed by its ID */
+    private final int[] idToSlot;
+    /** The wake-up time of each intersection manager */
+    private final double[] wakeUpTimes;
+    /** The last time step in which each intersection manager acted */
+    private final long[] lastActStep;
+
+    /** The wake-up times in the heap */
+    private double[] heapTimes;
+    /** The slots of the intersection managers in the heap */
+    private int[] heapSlots;
+    /** The number of entries in the heap */
+    private int heapSize;
+
+    /** The slots of the intersection managers that acted in the last step */
+    private final int[] due;
+    /** The number of intersection managers that acted in the last step */
+    private int numOfDue;
+    /** The number of time steps so far */
+    private long step;
+
+    /////////////////////////////////
+    // CONSTRUCTORS
+    /////////////////////////////////
+
+    /**
+     * Create a scheduler for the given intersection managers.  Every
+     * intersection manager acts in the first time step.
+     *
+     * @param ims  the intersection managers
+     */
+    public IntersectionManagerScheduler(List<IntersectionManager> ims) {
+        int n = ims.size();
+        this.ims = ims.toArray(new IntersectionManager[n]);
+        int maxId = -1;
+        for (IntersectionManager im : this.ims) {
+            maxId = Math.max(maxId, im.getId());
+        }
+        idToSlot = new int[maxId + 1];
+        Arrays.fill(idToSlot, -1);
+        for (int i = 0; i < n; i++) {
+            idToSlot[this.ims[i].getId()] = i;
+        }
+        wakeUpTimes = new double[n];
+        Arrays.fill(wakeUpTimes, Double.POSITIVE_INFINITY);
+        lastActStep = new long[n];
+        Arrays.fill(lastActStep, -1);
+        heapTimes = new double[Math.max(n, 1)];
+        heapSlots = new int[Math.max(n, 1)];
+        due = new int[n];
+        for (int i = 0; i < n; i++) {
+            schedule(i, Double.NEGATIVE_INFINITY);
+        }
+    }
+
+    /////////////////////////////////
+    // PUBLIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Let the intersection managers that are due act.
+     *
+     * @param currentTime  the current time
+     * @param timeStep     the size of the time step to simulate, in seconds
+     */
+    public void act(double currentTime, double timeStep) {
+        // An intersection manager acting early does nothing harmful, but one
+        // acting late does, so round the wake-up times down by half a step
+        double horizon = currentTime + timeStep / 2;
+        numOfDue = 0;
+        while (heapSize > 0 && heapTimes[0] <= horizon) {
+            int slot = heapSlots[0];
+            double time = heapTimes[0];
+            pop();
+            if (time == wakeUpTimes[slot]) {
+                wakeUpTimes[slot] = Double.POSITIVE_INFINITY;
+                due[numOfDue++] = slot;
+            } // else the entry has been superseded by an earlier wake-up time
+        }
+        // Keep the order in which the simulator used to call them
+        Arrays.sort(due, 0, numOfDue);
+        for (int k = 0; k < numOfDue; k++) {
+            int slot = due[k];
+            IntersectionManager im = ims[slot];
+            for (long s = lastActStep[slot] + 1; s < step; s++) {
+                im.skip(timeStep);
+            }
+            im.act(timeStep);
+            lastActStep[slot] = step;
+            schedule(slot, im.getNextWakeUpTime());
+        }
+        step++;
+    }
+
+    /**
+     * Make an intersection manager act in the next time step, for example
+     * because a message has been delivered to it.
+     *
+     * @param im  the intersection manager
+     */
+    public void wakeUp(IntersectionManager im) {
+        schedule(idToSlot[im.getId()], Double.NEGATIVE_INFINITY);
+    }
+
+    /**
+     * Get the number of intersection managers that acted in the last time
+     * step.
+     *
+     * @return the number of intersection managers that acted in the last
+     *         time step
+     */
+    public int getNumOfIntersectionManagersActedInLastStep() {
+        return numOfDue;
+    }
+
+    /**
+     * Check the clocks of the intersection managers that acted in the last
+     * time step.  The clocks of the others are brought up to date when they
+     * next act.
+     *
+     * @param currentTime  the current time
+     */
+    public void checkClocks(double currentTime) {
+        for (int k = 0; k < numOfDue; k++) {
+            ims[due[k]].checkCurrentTime(currentTime);
+        }
+    }
+
+    /////////////////////////////////
+    // PRIVATE METHODS
+    /////////////////////////////////
+
+    /**
+     * Schedule an intersection manager at the given time, unless it is
+     * already scheduled at an earlier time.
+     *
+     * @param slot  the slot of the intersection manager
+     * @param time  the wake-up time
+     */
+    private void schedule(int slot, double time) {
+        if (time >= wakeUpTimes[slot] || time == Double.POSITIVE_INFINITY) {
+            return;
+        }
+        wakeUpTimes[slot] = time;
+        if (heapSize == heapTimes.length) {
+            heapTimes = Arrays.copyOf(heapTimes, 2 * heapSize);
+            heapSlots = Arrays.copyOf(heapSlots, 2 * heapSize);
+        }
+        int i = heapSize++;
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (heapTimes[parent] <= time) {
+                break;
+            }
+            heapTimes[i] = heapTimes[parent];
+            heapSlots[i] = heapSlots[parent];
+            i = parent;
+        }
+        heapTimes[i] = time;
+        heapSlots[i] = slot;
+    }
+
+    /**
+     * Remove the earliest entry of the heap.
+     */
+    private void pop() {
+        heapSize--;
+        if (heapSize == 0) {
+            return;
+        }
+        double time = heapTimes[heapSize];
+        int slot = heapSlots[heapSize];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapTimes[child + 1] < heapTimes[child]) {
+                child++;
+            }
+            if (time <= heapTimes[child]) {
+                break;
+            }
+            heapTimes[i] = heapTimes[child];
+            heapSlots[i] = heapSlots[child];
+            i = child;
+        }
+        heapTimes[i] = time;
+        heapSlots[i] = slot;
+    }
+}
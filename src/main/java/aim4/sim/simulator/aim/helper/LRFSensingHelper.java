@@ -0,0 +1,350 @@
+package aim4.sim.simulator.aim.helper;
+
+import java.awt.geom.Point2D;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import aim4.map.lane.Lane;
+import aim4.util.Util;
+import aim4.vehicle.AutoVehicleDriverModel.LRFMode;
+import aim4.vehicle.VehicleSpec;
+import aim4.vehicle.aim.AIMAutoVehicleSimModel;
+import aim4.vehicle.aim.AIMVehicleSimModel;
+
+/**
+ * Simulates the laser range finders of the vehicles.  Each beam is cast
+ * from the middle of the front of the vehicle and tested analytically
+ * against the oriented rectangles of the vehicles found near the sensing
+ * vehicle in a {@link VehicleGrid}, so the cost of a step grows with the
+ * number of neighbours rather than with the number of vehicles.
+ * <p>
+ * In {@link LRFMode#LIMITED} mode only the beam straight ahead is cast; in
+ * {@link LRFMode#ENABLED} mode a fan of beams covers the field of view.  The
+ * reading is the distance to the car in front, so only the hits within the
+ * current lane of the vehicle, or the lanes following it within range, count,
+ * as the intervalometer only measures the vehicles on that lane; vehicles on
+ * the adjacent lanes, oncoming or crossing elsewhere are ignored.  The
+ * nearest such hit is written to the distance and angle gauges of the
+ * vehicle.
+ */
+public class LRFSensingHelper implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /////////////////////////////////
+    // CONSTANTS
+    /////////////////////////////////
+
+    /** The default range of a laser range finder, in meters. */
+    public static final double DEFAULT_RANGE = 100.0;
+
+    /** The field of view of a fully enabled laser range finder. */
+    public static final double FIELD_OF_VIEW = Math.PI / 2; // radians
+
+    /** The number of beams of a fully enabled laser range finder. */
+    public static final int NUM_OF_BEAMS = 91;
+
+    /////////////////////////////////
+    // PRIVATE FIELDS
+    /////////////////////////////////
+
+    /** The range of the laser range finders */
+    private final double range;
+    /** The angles of the beams of a fully enabled laser range finder */
+    private final double[] beamAngles = new double[NUM_OF_BEAMS];
+    /** The positions of the vehicles */
+    private VehicleGrid grid = new VehicleGrid();
+    /**
+     * The largest distance from the position of a vehicle to a point of the
+     * vehicle
+     */
+    private double maxReach;
+
+    /** The distance to the nearest hit of the vehicle being sensed for */
+    private double hitDistance;
+    /** The angle of the nearest hit of the vehicle being sensed for */
+    private double hitAngle;
+    /**
+     * The lanes on which the hits of the vehicle being sensed for count, or
+     * none if the hits are not limited to a lane
+     */
+    private final List<Lane> sensedLanes = new ArrayList<Lane>();
+    /** The point of a hit, reused for the lane tests */
+    private final Point2D.Double hitPoint = new Point2D.Double();
+
+    /////////////////////////////////
+    // CONSTRUCTORS
+    /////////////////////////////////
+
+    /**
+     * Create a helper for laser range finders with the default range.
+     */
+    public LRFSensingHelper() {
+        this(DEFAULT_RANGE);
+    }
+
+    /**
+     * Create a helper for laser range finders.
+     *
+     * @param range  the range of the laser range finders, in meters
+     */
+    public LRFSensingHelper(double range) {
+        this.range = range;
+        for (int i = 0; i < NUM_OF_BEAMS; i++) {
+            beamAngles[i] = -FIELD_OF_VIEW / 2
+                    + FIELD_OF_VIEW * i / (NUM_OF_BEAMS - 1);
+        }
+    }
+
+    /////////////////////////////////
+    // PUBLIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Index the positions of the vehicles for this step.  This must be
+     * called before {@link #sense(AIMAutoVehicleSimModel)}.
+     *
+     * @param allVehicles  the vehicles in the simulation
+     */
+    public void update(Iterable<? extends AIMVehicleSimModel> allVehicles) {
+        grid.clear();
+        maxReach = 0.0;
+        for (AIMVehicleSimModel vehicle : allVehicles) {
+            grid.add(vehicle);
+            VehicleSpec spec = vehicle.getSpec();
+            maxReach = Math.max(maxReach,
+                    Math.hypot(spec.getLength(), spec.getWidth() / 2));
+        }
+        grid.build(range);
+    }
+
+    /**
+     * Release the vehicles indexed for this step.
+     */
+    public void clear() {
+        grid.clear();
+    }
+
+    /**
+     * Simulate the laser range finder of a vehicle and record the reading in
+     * its gauges.
+     *
+     * @param vehicle  the vehicle whose laser range finder is not disabled
+     * @return the distance to the nearest object sensed, or
+     *         <code>Double.MAX_VALUE</code> if nothing is in range
+     */
+    public double sense(AIMAutoVehicleSimModel vehicle) {
+        double ox = vehicle.getPosition().getX();
+        double oy = vehicle.getPosition().getY();
+        double heading = vehicle.getHeading();
+        findSensedLanes(vehicle.getDriver().getCurrentLane(), vehicle.getPosition());
+        hitDistance = Double.MAX_VALUE;
+        hitAngle = 0.0;
+
+        // The position of a vehicle is the middle of its front, so a vehicle
+        // can reach up to its diagonal behind its position
+        int n = grid.findWithin(ox, oy, range + maxReach);
+        for (int k = 0; k < n; k++) {
+            AIMVehicleSimModel other = grid.getVehicle(grid.getFound(k));
+            if (other == vehicle) {
+                continue;
+            }
+            if (vehicle.getLRFMode() == LRFMode.LIMITED) {
+                castBeam(ox, oy, heading, 0.0, other);
+            } else {
+                // Only cast the beams that can reach the circle around the
+                // other vehicle
+                VehicleSpec spec = other.getSpec();
+                double halfLength = spec.getLength() / 2;
+                double radius = Math.hypot(halfLength, spec.getWidth() / 2);
+                double cx = other.getPosition().getX()
+                        - halfLength * Math.cos(other.getHeading());
+                double cy = other.getPosition().getY()
+                        - halfLength * Math.sin(other.getHeading());
+                double d = Math.hypot(cx - ox, cy - oy);
+                int first = 0;
+                int last = NUM_OF_BEAMS - 1;
+                if (d > radius) {
+                    double bearing = Util.recenter(
+                            Math.atan2(cy - oy, cx - ox) - heading,
+                            -Math.PI, Math.PI);
+                    double spread = Math.asin(radius / d);
+                    first = Math.max(first, beamIndexAbove(bearing - spread));
+                    last = Math.min(last, beamIndexBelow(bearing + spread));
+                }
+                for (int i = first; i <= last; i++) {
+                    castBeam(ox, oy, heading, beamAngles[i], other);
+                }
+            }
+        }
+        record(vehicle, hitDistance, hitAngle);
+        return hitDistance;
+    }
+
+    /**
+     * Record a reading in the gauges of a vehicle.
+     *
+     * @param vehicle   the vehicle
+     * @param distance  the distance to the object sensed, or
+     *                  <code>Double.MAX_VALUE</code> if nothing is sensed
+     * @param angle     the angle of the object sensed, relative to the
+     *                  heading of the vehicle
+     */
+    public static void record(AIMAutoVehicleSimModel vehicle, double distance,
+                              double angle) {
+        if (distance < Double.MAX_VALUE) {
+            vehicle.getLRFDistance().record(distance);
+            vehicle.getLRFAngle().record(angle);
+            vehicle.setLRFSensing(true);
+        } else {
+            vehicle.setLRFSensing(false);
+        }
+    }
+
+    /////////////////////////////////
+    // PRIVATE METHODS
+    /////////////////////////////////
+
+    /**
+     * Find the lanes on which the hits of a vehicle count: its current lane
+     * and the lanes following it up to the range of the laser range finder.
+     *
+     * @param lane      the current lane of the vehicle, or null if the hits
+     *                  are not limited to a lane
+     * @param position  the position of the vehicle
+     */
+    private void findSensedLanes(Lane lane, Point2D position) {
+        sensedLanes.clear();
+        if (lane == null) {
+            return;
+        }
+        sensedLanes.add(lane);
+        double ahead = lane.remainingDistanceAlongLane(position);
+        while (ahead < range && lane.hasNextLane()) {
+            lane = lane.getNextLane();
+            sensedLanes.add(lane);
+            ahead += lane.getLength();
+        }
+    }
+
+    /**
+     * Whether a hit is on one of the lanes on which the hits count.
+     *
+     * @param x  the x-coordinate of the hit
+     * @param y  the y-coordinate of the hit
+     * @return whether the hit counts
+     */
+    private boolean isOnSensedLanes(double x, double y) {
+        if (sensedLanes.isEmpty()) {
+            return true;
+        }
+        hitPoint.setLocation(x, y);
+        for (int i = 0; i < sensedLanes.size(); i++) {
+            Lane lane = sensedLanes.get(i);
+            if (lane.nearestDistance(hitPoint) <= lane.getWidth() / 2) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Get the index of the first beam whose angle is not smaller than the
+     * given angle.
+     *
+     * @param angle  the angle relative to the heading
+     * @return the index of the beam
+     */
+    private static int beamIndexAbove(double angle) {
+        return (int) Math.ceil(
+                (angle + FIELD_OF_VIEW / 2) * (NUM_OF_BEAMS - 1) / FIELD_OF_VIEW);
+    }
+
+    /**
+     * Get the index of the last beam whose angle is not larger than the
+     * given angle.
+     *
+     * @param angle  the angle relative to the heading
+     * @return the index of the beam
+     */
+    private static int beamIndexBelow(double angle) {
+        return (int) Math.floor(
+                (angle + FIELD_OF_VIEW / 2) * (NUM_OF_BEAMS - 1) / FIELD_OF_VIEW);
+    }
+
+    /**
+     * Cast a beam against the rectangle of a vehicle and keep the hit if it
+     * is on the lanes on which the hits count and the nearest so far.
+     *
+     * @param ox       the x-coordinate of the origin of the beam
+     * @param oy       the y-coordinate of the origin of the beam
+     * @param heading  the heading of the sensing vehicle
+     * @param angle    the angle of the beam relative to the heading
+     * @param other    the vehicle the beam is tested against
+     */
+    private void castBeam(double ox, double oy, double heading, double angle,
+                          AIMVehicleSimModel other) {
+        double dirX = Math.cos(heading + angle);
+        double dirY = Math.sin(heading + angle);
+        double t = rayRectangleDistance(ox, oy, dirX, dirY, other);
+        if (t <= range && t < hitDistance
+                && isOnSensedLanes(ox + t * dirX, oy + t * dirY)) {
+            hitDistance = t;
+            hitAngle = angle;
+        }
+    }
+
+    /**
+     * Find the distance along a ray to the rectangle of a vehicle.
+     *
+     * @param ox     the x-coordinate of the origin of the ray
+     * @param oy     the y-coordinate of the origin of the ray
+     * @param dirX   the x-component of the unit direction of the ray
+     * @param dirY   the y-component of the unit direction of the ray
+     * @param other  the vehicle
+     * @return the distance along the ray to the rectangle, 0 if the origin is
+     *         inside it, or <code>Double.MAX_VALUE</code> if the ray misses
+     */
+    private static double rayRectangleDistance(double ox, double oy,
+                                               double dirX, double dirY,
+                                               AIMVehicleSimModel other) {
+        VehicleSpec spec = other.getSpec();
+        double h = other.getHeading();
+        double cos = Math.cos(h);
+        double sin = Math.sin(h);
+        double halfLength = spec.getLength() / 2;
+        double halfWidth = spec.getWidth() / 2;
+        // The center of the rectangle is half a length behind the position
+        double cx = other.getPosition().getX() - halfLength * cos;
+        double cy = other.getPosition().getY() - halfLength * sin;
+        // Express the ray in the frame of the rectangle
+        double px = (ox - cx) * cos + (oy - cy) * sin;
+        double py = -(ox - cx) * sin + (oy - cy) * cos;
+        double dx = dirX * cos + dirY * sin;
+        double dy = -dirX * sin + dirY * cos;
+        // Slab test
+        double tMin = 0.0;
+        double tMax = Double.MAX_VALUE;
+        if (Math.abs(dx) < 1e-12) {
+            if (Math.abs(px) > halfLength) {
+                return Double.MAX_VALUE;
+            }
+        } else {
+            double t1 = (-halfLength - px) / dx;
+            double t2 = (halfLength - px) / dx;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        if (Math.abs(dy) < 1e-12) {
+            if (Math.abs(py) > halfWidth) {
+                return Double.MAX_VALUE;
+            }
+        } else {
+            double t1 = (-halfWidth - py) / dy;
+            double t2 = (halfWidth - py) / dy;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        return (tMin <= tMax) ? tMin : Double.MAX_VALUE;
+    }
+}
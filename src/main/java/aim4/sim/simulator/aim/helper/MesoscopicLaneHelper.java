@@ -0,0 +1,557 @@
+package aim4.sim.simulator.aim.helper;
+
+import aim4.driver.Coordinator;
+import aim4.driver.aim.AIMAutoDriver;
+import aim4.driver.aim.coordinator.V2ICoordinator;
+import aim4.driver.aim.pilot.V2IPilot;
+import aim4.im.aim.IntersectionManager;
+import aim4.im.aim.v2i.V2IManager;
+import aim4.map.DataCollectionLine;
+import aim4.map.aim.lane.LaneIM;
+import aim4.map.lane.Lane;
+import aim4.map.lane.LineSegmentLane;
+import aim4.util.Util;
+import aim4.vehicle.VehicleUtil;
+import aim4.vehicle.aim.AIMBasicAutoVehicle;
+import aim4.vehicle.aim.AIMVehicleSimModel;
+
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A cheap one-dimensional model for vehicles on the straight approach lanes
+ * far away from the next intersection.  Such vehicles are taken out of the
+ * full vehicle and driver model (shapes, gauges, sensors and coordinators)
+ * and advanced with a simple car-following rule on primitive arrays.  They
+ * are handed back to the full model once they come within the promotion
+ * distance of the next intersection manager, which is never shorter than
+ * the communication range of the vehicle or of the intersection manager.
+ * The data collection lines are not checked in the mesoscopic model, so
+ * vehicles are only taken out of the full model once no line is left
+ * between them and the next intersection.
+ */
+public class MesoscopicLaneHelper implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /////////////////////////////////
+    // CONSTANTS
+    /////////////////////////////////
+
+    /**
+     * The maximum difference between the heading of a vehicle and the
+     * heading of its lane for the vehicle to be taken out of the full model.
+     */
+    private static final double MAX_HEADING_ERROR = 0.01; // radians
+
+    /**
+     * The maximum distance between a vehicle and the center line of its lane
+     * for the vehicle to be taken out of the full model.
+     */
+    private static final double MAX_LATERAL_ERROR = 0.2; // meters
+
+    /** The initial capacity of the arrays of a lane */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /////////////////////////////////
+    // NESTED CLASSES
+    /////////////////////////////////
+
+    /**
+     * The vehicles in the mesoscopic model on one lane, ordered from the
+     * front of the lane (index 0) to the back.
+     */
+    private static class LaneState implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        /** The lane */
+        final Lane lane;
+        /** The number of vehicles on the lane */
+        int size = 0;
+        /** The vehicles */
+        AIMBasicAutoVehicle[] vehicles = new AIMBasicAutoVehicle[INITIAL_CAPACITY];
+        /** The distances of the front of the vehicles along the lane */
+        double[] pos = new double[INITIAL_CAPACITY];
+        /** The velocities of the vehicles */
+        double[] vel = new double[INITIAL_CAPACITY];
+        /** The distances along the lane at which the vehicles are promoted */
+        double[] promoteAt = new double[INITIAL_CAPACITY];
+        /** The lengths of the vehicles */
+        double[] length = new double[INITIAL_CAPACITY];
+        /** The maximum feasible velocities of the vehicles */
+        double[] maxVel = new double[INITIAL_CAPACITY];
+        /** The maximum accelerations of the vehicles */
+        double[] maxAccel = new double[INITIAL_CAPACITY];
+        /** The maximum decelerations of the vehicles */
+        double[] maxDecel = new double[INITIAL_CAPACITY];
+
+        /** The number of vehicles of the full model on the lane */
+        int microSize = 0;
+        /** The distances of the front of the full model vehicles */
+        double[] microFront = new double[INITIAL_CAPACITY];
+        /** The distances of the rear of the full model vehicles */
+        double[] microRear = new double[INITIAL_CAPACITY];
+
+        LaneState(Lane lane) {
+            this.lane = lane;
+        }
+
+        /**
+         * Insert a vehicle, keeping the order of the arrays.
+         *
+         * @return the index of the new vehicle
+         */
+        int insert(AIMBasicAutoVehicle vehicle, double p, double v,
+                   double promote) {
+            if (size == vehicles.length) {
+                grow();
+            }
+            int i = size;
+            while (i > 0 && pos[i - 1] < p) {
+                move(i - 1, i);
+                i--;
+            }
+            vehicles[i] = vehicle;
+            pos[i] = p;
+            vel[i] = v;
+            promoteAt[i] = promote;
+            length[i] = vehicle.getSpec().getLength();
+            maxVel[i] = Math.min(vehicle.getSpec().getMaxVelocity(),
+                                 lane.getSpeedLimit());
+            maxAccel[i] = vehicle.getSpec().getMaxAcceleration();
+            maxDecel[i] = vehicle.getSpec().getMaxDeceleration();
+            size++;
+            return i;
+        }
+
+        /**
+         * Copy the vehicle at one index to another index.
+         */
+        void move(int from, int to) {
+            vehicles[to] = vehicles[from];
+            pos[to] = pos[from];
+            vel[to] = vel[from];
+            promoteAt[to] = promoteAt[from];
+            length[to] = length[from];
+            maxVel[to] = maxVel[from];
+            maxAccel[to] = maxAccel[from];
+            maxDecel[to] = maxDecel[from];
+        }
+
+        /**
+         * Record a vehicle of the full model on the lane.
+         */
+        void addMicro(double front, double rear) {
+            if (microSize == microFront.length) {
+                int n = microFront.length * 2;
+                double[] f = new double[n];
+                double[] r = new double[n];
+                System.arraycopy(microFront, 0, f, 0, microSize);
+                System.arraycopy(microRear, 0, r, 0, microSize);
+                microFront = f;
+                microRear = r;
+            }
+            // insertion sort; the order rarely changes between time steps
+            int i = microSize;
+            while (i > 0 && microFront[i - 1] > front) {
+                microFront[i] = microFront[i - 1];
+                microRear[i] = microRear[i - 1];
+                i--;
+            }
+            microFront[i] = front;
+            microRear[i] = rear;
+            microSize++;
+        }
+
+        private void grow() {
+            int n = vehicles.length * 2;
+            AIMBasicAutoVehicle[] vs = new AIMBasicAutoVehicle[n];
+            System.arraycopy(vehicles, 0, vs, 0, size);
+            vehicles = vs;
+            pos = copyOf(pos, n);
+            vel = copyOf(vel, n);
+            promoteAt = copyOf(promoteAt, n);
+            length = copyOf(length, n);
+            maxVel = copyOf(maxVel, n);
+            maxAccel = copyOf(maxAccel, n);
+            maxDecel = copyOf(maxDecel, n);
+        }
+
+        private double[] copyOf(double[] a, int n) {
+            double[] b = new double[n];
+            System.arraycopy(a, 0, b, 0, size);
+            return b;
+        }
+    }
+
+    /////////////////////////////////
+    // PRIVATE FIELDS
+    /////////////////////////////////
+
+    /**
+     * The minimum distance to the next intersection at which vehicles are
+     * kept in the mesoscopic model.
+     */
+    private final double promotionDistance;
+    /** The data collection lines of the map */
+    private final List<DataCollectionLine> dataCollectionLines;
+    /** The lanes with vehicles in the mesoscopic model */
+    private final Map<Lane, LaneState> laneStates = new HashMap<Lane, LaneState>();
+    /** The lanes, for iterating without allocating */
+    private final List<LaneState> laneStateList = new ArrayList<LaneState>();
+    /** The vehicles promoted in the last call to {@link #promote(double)} */
+    private final List<AIMBasicAutoVehicle> promoted =
+            new ArrayList<AIMBasicAutoVehicle>();
+    /** The number of vehicles in the mesoscopic model */
+    private int numOfVehicles = 0;
+
+    /////////////////////////////////
+    // CONSTRUCTORS
+    /////////////////////////////////
+
+    /**
+     * Create a mesoscopic lane model.
+     *
+     * @param promotionDistance    the distance to the next intersection at
+     *                             which vehicles return to the full model
+     * @param dataCollectionLines  the data collection lines of the map
+     */
+    public MesoscopicLaneHelper(double promotionDistance,
+                                List<DataCollectionLine> dataCollectionLines) {
+        this.promotionDistance = promotionDistance;
+        this.dataCollectionLines = dataCollectionLines;
+    }
+
+    /////////////////////////////////
+    // PUBLIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Get the number of vehicles in the mesoscopic model.
+     *
+     * @return the number of vehicles in the mesoscopic model
+     */
+    public int getNumOfVehicles() {
+        return numOfVehicles;
+    }
+
+    /**
+     * Take a vehicle out of the full model if it is far enough away from
+     * the next intersection and nothing but lane following is left to do
+     * before it gets there.
+     *
+     * @param vehicle  the vehicle
+     * @return whether the vehicle has been taken into the mesoscopic model
+     */
+    public boolean demote(AIMVehicleSimModel vehicle) {
+        if (!(vehicle instanceof AIMBasicAutoVehicle)) {
+            return false;
+        }
+        AIMBasicAutoVehicle autoVehicle = (AIMBasicAutoVehicle) vehicle;
+        AIMAutoDriver driver = autoVehicle.getDriver();
+        Lane lane = driver.getCurrentLane();
+        if (!(lane instanceof LineSegmentLane)
+                || driver.getCurrentlyOccupiedLanes().size() != 1
+                || autoVehicle.getAccelSchedule() != null
+                || !isCoordinatorIdle(driver.getCurrentCoordinator())) {
+            return false;
+        }
+        Point2D p = autoVehicle.getPosition();
+        double headingError = Util.recenter(
+                autoVehicle.getHeading() - lane.getInitialHeading(),
+                -Math.PI, Math.PI);
+        if (Math.abs(headingError) > MAX_HEADING_ERROR
+                || lane.nearestDistance(p) > MAX_LATERAL_ERROR) {
+            return false;
+        }
+        LaneIM laneIM = lane.getLaneIM();
+        // the next intersection must be on this lane, so the vehicle never
+        // has to switch lanes while in the mesoscopic model
+        if (laneIM.laneToNextIntersection(p) != lane
+                || laneIM.distanceFromPrevIntersection(p)
+                   < autoVehicle.getSpec().getLength()) {
+            return false;
+        }
+        IntersectionManager im = laneIM.nextIntersectionManager(p);
+        double promote = promotionDistance;
+        promote = Math.max(promote, autoVehicle.getTransmissionPower());
+        if (im instanceof V2IManager) {
+            promote = Math.max(promote,
+                               ((V2IManager) im).getTransmissionPower());
+        }
+        double distToIM = laneIM.distanceToNextIntersection(p);
+        if (im == null || distToIM <= promote
+                || crossesDataCollectionLine(lane, p, distToIM)) {
+            return false;
+        }
+        double along = lane.distanceAlongLane(p);
+
+        // no request sent from here can have reached the intersection
+        // manager, so any coordination can start over after the promotion
+        driver.resetCoordinator();
+        autoVehicle.getV2IOutbox().clear();
+        autoVehicle.pollAllMessagesFromI2VInbox();
+
+        LaneState state = laneStates.get(lane);
+        if (state == null) {
+            state = new LaneState(lane);
+            laneStates.put(lane, state);
+            laneStateList.add(state);
+        }
+        state.insert(autoVehicle, along, Math.max(0.0, autoVehicle.getVelocity()),
+                     along + distToIM - promote);
+        numOfVehicles++;
+        return true;
+    }
+
+    /**
+     * Return the vehicles that have reached their promotion points to the
+     * full model.
+     *
+     * @param currentTime  the current time
+     * @return the promoted vehicles; the list is reused by the next call
+     */
+    public List<AIMBasicAutoVehicle> promote(double currentTime) {
+        promoted.clear();
+        for (int k = 0; k < laneStateList.size(); k++) {
+            LaneState s = laneStateList.get(k);
+            int j = 0;
+            for (int i = 0; i < s.size; i++) {
+                if (s.pos[i] >= s.promoteAt[i]) {
+                    AIMBasicAutoVehicle vehicle = s.vehicles[i];
+                    Point2D p = s.lane.getPointAtNormalizedDistance(
+                            s.lane.normalizedDistance(s.pos[i]));
+                    vehicle.resetMovement(p, s.lane.getInitialHeading(),
+                                          s.vel[i], currentTime);
+                    promoted.add(vehicle);
+                } else {
+                    if (i != j) {
+                        s.move(i, j);
+                    }
+                    j++;
+                }
+            }
+            for (int i = j; i < s.size; i++) {
+                s.vehicles[i] = null;
+            }
+            numOfVehicles -= s.size - j;
+            s.size = j;
+        }
+        return promoted;
+    }
+
+    /**
+     * Advance the vehicles in the mesoscopic model by one time step.  The
+     * vehicles cruise at their maximum feasible velocity and slow to a stop
+     * when the gap to the vehicle in front is less than the stopping distance
+     * plus the minimum following distance, as the pilot does in the default
+     * driving behavior.
+     *
+     * @param timeStep       the time step
+     * @param microVehicles  the vehicles in the full model
+     */
+    public void advance(double timeStep,
+                        Iterable<AIMVehicleSimModel> microVehicles) {
+        if (numOfVehicles == 0) {
+            return;
+        }
+        for (int k = 0; k < laneStateList.size(); k++) {
+            laneStateList.get(k).microSize = 0;
+        }
+        for (AIMVehicleSimModel vehicle : microVehicles) {
+            Lane lane = vehicle.getDriver().getCurrentLane();
+            LaneState s = laneStates.get(lane);
+            if (s != null && s.size > 0) {
+                double front = lane.distanceAlongLane(vehicle.getPosition());
+                s.addMicro(front, front - vehicle.getSpec().getLength());
+            }
+        }
+        for (int k = 0; k < laneStateList.size(); k++) {
+            advance(laneStateList.get(k), timeStep);
+        }
+    }
+
+    /**
+     * Get the distance from the front of a vehicle in the full model to the
+     * rear of the nearest vehicle ahead of it in the mesoscopic model.
+     *
+     * @param vehicle  the vehicle in the full model
+     * @return the distance, or <code>Double.MAX_VALUE</code> if there is no
+     *         such vehicle on the lane of the vehicle
+     */
+    public double intervalToVehicleAhead(AIMVehicleSimModel vehicle) {
+        Lane lane = vehicle.getDriver().getCurrentLane();
+        LaneState s = laneStates.get(lane);
+        if (s == null || s.size == 0) {
+            return Double.MAX_VALUE;
+        }
+        double front = lane.distanceAlongLane(vehicle.getPosition());
+        // binary search for the last vehicle (the one nearest the back of the
+        // lane) whose front is ahead of the given front
+        int lo = 0;
+        int hi = s.size - 1;
+        int found = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (s.pos[mid] > front) {
+                found = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        if (found < 0) {
+            return Double.MAX_VALUE;
+        }
+        return Math.max(0.0, s.pos[found] - s.length[found] - front);
+    }
+
+    /**
+     * Whether any vehicle in the mesoscopic model intersects an area of
+     * a lane, such as the no vehicle zone of a spawn point.
+     *
+     * @param lane  the lane
+     * @param zone  the area
+     * @return whether any vehicle in the mesoscopic model is in the area
+     */
+    public boolean intersects(Lane lane, Rectangle2D zone) {
+        LaneState s = laneStates.get(lane);
+        if (s == null || s.size == 0) {
+            return false;
+        }
+        double far = Math.max(
+                Math.max(lane.distanceAlongLane(new Point2D.Double(
+                                 zone.getMinX(), zone.getMinY())),
+                         lane.distanceAlongLane(new Point2D.Double(
+                                 zone.getMaxX(), zone.getMinY()))),
+                Math.max(lane.distanceAlongLane(new Point2D.Double(
+                                 zone.getMinX(), zone.getMaxY())),
+                         lane.distanceAlongLane(new Point2D.Double(
+                                 zone.getMaxX(), zone.getMaxY()))));
+        // check from the back of the lane until the vehicles are beyond the
+        // area
+        for (int i = s.size - 1; i >= 0 && s.pos[i] - s.length[i] <= far; i--) {
+            Point2D front = s.lane.getPointAtNormalizedDistance(
+                    lane.normalizedDistance(s.pos[i]));
+            Point2D rear = s.lane.getPointAtNormalizedDistance(
+                    lane.normalizedDistance(s.pos[i] - s.length[i]));
+            if (zone.intersectsLine(new Line2D.Double(front, rear))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /////////////////////////////////
+    // PRIVATE METHODS
+    /////////////////////////////////
+
+    /**
+     * Whether the coordinator of a driver has nothing to do but lane
+     * following, or is waiting for a response to a request that could not
+     * have been delivered.
+     *
+     * @param coordinator  the coordinator
+     * @return whether the driver can be taken out of the full model
+     */
+    private boolean isCoordinatorIdle(Coordinator coordinator) {
+        if (coordinator == null) {
+            return true;
+        }
+        if (coordinator instanceof V2ICoordinator) {
+            V2ICoordinator v2iCoordinator = (V2ICoordinator) coordinator;
+            if (v2iCoordinator.getReservationParameter() != null) {
+                return false;
+            }
+            switch (v2iCoordinator.getState()) {
+                case V2I_PLANNING:
+                case V2I_DEFAULT_DRIVING_BEHAVIOR:
+                case V2I_AWAITING_RESPONSE:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether the stretch of a lane from a point up to the next intersection
+     * crosses a data collection line.
+     *
+     * @param lane      the lane
+     * @param p         the point on the lane
+     * @param distToIM  the distance from the point to the next intersection
+     * @return whether a data collection line crosses the stretch
+     */
+    private boolean crossesDataCollectionLine(Lane lane, Point2D p,
+                                              double distToIM) {
+        if (dataCollectionLines.isEmpty()) {
+            return false;
+        }
+        Point2D end = lane.getPointAtNormalizedDistance(lane.normalizedDistance(
+                lane.distanceAlongLane(p) + distToIM));
+        for (DataCollectionLine line : dataCollectionLines) {
+            if (line.isCrossedBy(p, end)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Advance the vehicles on one lane, from the front of the lane to the
+     * back.
+     *
+     * @param s         the lane
+     * @param timeStep  the time step
+     */
+    private void advance(LaneState s, double timeStep) {
+        int m = s.microSize - 1;   // the full model vehicle nearest the front
+        double frontRear = Double.MAX_VALUE;
+        for (int i = 0; i < s.size; i++) {
+            // the obstacle is either the mesoscopic vehicle in front or a
+            // vehicle of the full model, whichever is nearer
+            double obstacle = (i == 0) ? Double.MAX_VALUE : frontRear;
+            while (m >= 0 && s.microFront[m] > s.pos[i]) {
+                m--;
+            }
+            if (m + 1 < s.microSize && s.microRear[m + 1] < obstacle) {
+                obstacle = s.microRear[m + 1];
+            }
+            double v = s.vel[i];
+            double gap = obstacle - s.pos[i];
+            double target;
+            double accel;
+            if (gap < VehicleUtil.calcDistanceToStop(v, s.maxDecel[i])
+                      + V2IPilot.MINIMUM_FOLLOWING_DISTANCE) {
+                target = 0.0;
+                accel = s.maxDecel[i];
+            } else if (v < s.maxVel[i]) {
+                target = s.maxVel[i];
+                accel = s.maxAccel[i];
+            } else {
+                target = s.maxVel[i];
+                accel = s.maxDecel[i];
+            }
+            double v2 = v + accel * timeStep;
+            if ((accel > 0.0 && v2 > target) || (accel < 0.0 && v2 < target)) {
+                v2 = target;
+            }
+            double p2 = s.pos[i] + (v + v2) / 2.0 * timeStep;
+            // never move into the vehicle in front
+            if (obstacle != Double.MAX_VALUE && p2 > obstacle) {
+                p2 = Math.max(s.pos[i], obstacle);
+                v2 = 0.0;
+            }
+            s.pos[i] = p2;
+            s.vel[i] = v2;
+            frontRear = p2 - s.length[i];
+        }
+    }
+}
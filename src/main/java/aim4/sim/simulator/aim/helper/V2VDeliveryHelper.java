@@ -0,0 +1,214 @@
+package aim4.sim.simulator.aim.helper;
+
+import aim4.msg.aim.v2v.V2VMessage;
+import aim4.vehicle.VehicleSimModel;
+import aim4.vehicle.VinRegistry;
+import aim4.vehicle.aim.AIMAutoVehicleSimModel;
+import aim4.vehicle.aim.AIMVehicleSimModel;
+
+import java.awt.geom.Point2D;
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Delivers the V2V messages of the autonomous vehicles.  The positions of
+ * the vehicles are put in a {@link VehicleGrid} whose cells are as large as
+ * the longest transmission range, so a broadcast only has to look at the
+ * vehicles around its sender instead of at every vehicle.
+ */
+public class V2VDeliveryHelper implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /////////////////////////////////
+    // CONSTANTS
+    /////////////////////////////////
+
+    /** The smallest size of a cell of the grid, in meters. */
+    private static final double MIN_CELL_SIZE = 10.0;
+
+    /////////////////////////////////
+    // PRIVATE FIELDS
+    /////////////////////////////////
+
+    /** The positions of the autonomous vehicles */
+    private VehicleGrid grid = new VehicleGrid();
+
+    /** The number of V2V messages sent in the last step */
+    private int numOfMessagesSent;
+    /** The number of V2V messages delivered in the last step */
+    private int numOfMessagesDelivered;
+    /** The number of bits delivered in the last step */
+    private long numOfBitsDelivered;
+    /** The total number of V2V messages delivered */
+    private long totalNumOfMessagesDelivered;
+    /** The total number of bits delivered */
+    private long totalNumOfBitsDelivered;
+
+    /////////////////////////////////
+    // PUBLIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Deliver the V2V messages in the outboxes of the given vehicles.  The
+     * inbox of every autonomous vehicle is cleared first, so that after the
+     * call it holds exactly the messages delivered in this step.
+     *
+     * @param allVehicles  the vehicles in the simulation
+     */
+    public void deliver(Iterable<? extends AIMVehicleSimModel> allVehicles) {
+        numOfMessagesSent = 0;
+        numOfMessagesDelivered = 0;
+        numOfBitsDelivered = 0;
+
+        double maxPower = 0.0;
+        grid.clear();
+        for (AIMVehicleSimModel vehicle : allVehicles) {
+            if (vehicle instanceof AIMAutoVehicleSimModel) {
+                AIMAutoVehicleSimModel v = (AIMAutoVehicleSimModel) vehicle;
+                v.clearV2VInbox();
+                if (!v.getV2VOutbox().isEmpty()) {
+                    numOfMessagesSent += v.getV2VOutbox().size();
+                    maxPower = Math.max(maxPower, v.getTransmissionPower());
+                }
+                grid.add(v);
+            }
+        }
+        if (numOfMessagesSent > 0) {
+            grid.build(Math.max(MIN_CELL_SIZE, maxPower));
+            for (int i = 0; i < grid.getNumOfVehicles(); i++) {
+                AIMAutoVehicleSimModel sender =
+                        (AIMAutoVehicleSimModel) grid.getVehicle(i);
+                List<V2VMessage> outbox = sender.getV2VOutbox();
+                for (int m = 0; m < outbox.size(); m++) {
+                    V2VMessage msg = outbox.get(m);
+                    if (msg.isBroadcast()) {
+                        broadcast(i, msg);
+                    } else {
+                        unicast(i, msg);
+                    }
+                }
+                outbox.clear();
+            }
+            totalNumOfMessagesDelivered += numOfMessagesDelivered;
+            totalNumOfBitsDelivered += numOfBitsDelivered;
+        }
+        // Do not keep the vehicles alive after they have left
+        grid.clear();
+    }
+
+    /**
+     * Get the number of V2V messages sent in the last step.
+     *
+     * @return the number of V2V messages sent in the last step
+     */
+    public int getNumOfMessagesSent() {
+        return numOfMessagesSent;
+    }
+
+    /**
+     * Get the number of V2V messages delivered in the last step.  A broadcast
+     * message counts once for every receiver.
+     *
+     * @return the number of V2V messages delivered in the last step
+     */
+    public int getNumOfMessagesDelivered() {
+        return numOfMessagesDelivered;
+    }
+
+    /**
+     * Get the number of bits delivered in the last step.
+     *
+     * @return the number of bits delivered in the last step
+     */
+    public long getNumOfBitsDelivered() {
+        return numOfBitsDelivered;
+    }
+
+    /**
+     * Get the total number of V2V messages delivered.
+     *
+     * @return the total number of V2V messages delivered
+     */
+    public long getTotalNumOfMessagesDelivered() {
+        return totalNumOfMessagesDelivered;
+    }
+
+    /**
+     * Get the total number of bits delivered by V2V messages.
+     *
+     * @return the total number of bits delivered by V2V messages
+     */
+    public long getTotalNumOfBitsDelivered() {
+        return totalNumOfBitsDelivered;
+    }
+
+    /////////////////////////////////
+    // PRIVATE METHODS
+    /////////////////////////////////
+
+    /**
+     * Deliver a broadcast message to every vehicle in range of its sender.
+     *
+     * @param sender  the index of the sender
+     * @param msg     the message
+     */
+    private void broadcast(int sender, V2VMessage msg) {
+        double power =
+                ((AIMAutoVehicleSimModel) grid.getVehicle(sender)).getTransmissionPower();
+        int n = grid.findWithin(grid.getX(sender), grid.getY(sender), power);
+        for (int k = 0; k < n; k++) {
+            int receiver = grid.getFound(k);
+            if (receiver != sender) {
+                deliver((AIMAutoVehicleSimModel) grid.getVehicle(receiver), msg);
+            }
+        }
+    }
+
+    /**
+     * Deliver a message to its receiver if the receiver is in range.  The
+     * receiver is looked up in the grid, so vehicles that are no longer
+     * simulated in full do not receive anything.
+     *
+     * @param sender  the index of the sender
+     * @param msg     the message
+     */
+    private void unicast(int sender, V2VMessage msg) {
+        VehicleSimModel v = VinRegistry.getVehicleFromVIN(msg.getDestinationVin());
+        if (!(v instanceof AIMAutoVehicleSimModel)) {
+            return;
+        }
+        int receiver = grid.indexOf((AIMAutoVehicleSimModel) v);
+        if (receiver >= 0 && receiver != sender) {
+            AIMAutoVehicleSimModel s = (AIMAutoVehicleSimModel) grid.getVehicle(sender);
+            if (transmit(Point2D.distance(grid.getX(sender), grid.getY(sender),
+                    grid.getX(receiver), grid.getY(receiver)),
+                    s.getTransmissionPower())) {
+                deliver((AIMAutoVehicleSimModel) v, msg);
+            }
+        }
+    }
+
+    /**
+     * Put a message in the inbox of a vehicle.
+     *
+     * @param receiver  the receiving vehicle
+     * @param msg       the message
+     */
+    private void deliver(AIMAutoVehicleSimModel receiver, V2VMessage msg) {
+        receiver.receive(msg);
+        numOfMessagesDelivered++;
+        numOfBitsDelivered += msg.getSize();
+    }
+
+    /**
+     * Whether the transmission of a message is successful.  This is the same
+     * model as the one the simulator uses for V2I messages.
+     *
+     * @param distance  the distance of the transmission
+     * @param power     the power of the transmission
+     * @return whether the transmission of a messsage is successful
+     */
+    private static boolean transmit(double distance, double power) {
+        return distance <= power;
+    }
+}
@@ -0,0 +1,244 @@
+package aim4.sim.simulator.aim.helper;
+
+import aim4.vehicle.aim.AIMVehicleSimModel;
+
+import java.awt.geom.Point2D;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * A uniform grid of vehicle positions for finding the vehicles near a point.
+ * The grid is a sorted array of packed cell keys, kept in primitive arrays
+ * that are reused from one step to the next; a query only looks at the
+ * cells within the query radius.
+ */
+public class VehicleGrid implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /////////////////////////////////
+    // CONSTANTS
+    /////////////////////////////////
+
+    /** The number of bits used for each cell coordinate in a cell key. */
+    private static final int COORD_BITS = 21;
+
+    /** The offset that makes the cell coordinates non-negative. */
+    private static final long COORD_OFFSET = 1L << (COORD_BITS - 1);
+
+    /** The number of bits used for the vehicle index in a sorted entry. */
+    private static final int INDEX_BITS = 21;
+
+    /** The mask of the vehicle index in a sorted entry. */
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+
+    /** The initial capacity of the arrays */
+    private static final int INITIAL_CAPACITY = 64;
+
+    /////////////////////////////////
+    // PRIVATE FIELDS
+    /////////////////////////////////
+
+    /** The vehicles in the grid */
+    private AIMVehicleSimModel[] vehicles =
+            new AIMVehicleSimModel[INITIAL_CAPACITY];
+    /** The x-coordinates of the vehicles */
+    private double[] xs = new double[INITIAL_CAPACITY];
+    /** The y-coordinates of the vehicles */
+    private double[] ys = new double[INITIAL_CAPACITY];
+    /** The cell keys of the vehicles, each followed by the vehicle index */
+    private long[] entries = new long[INITIAL_CAPACITY];
+    /** The number of vehicles in the grid */
+    private int numOfVehicles;
+    /** The size of a cell of the grid */
+    private double cellSize = 1.0;
+    /** The indices of the vehicles found by the last query */
+    private int[] found = new int[INITIAL_CAPACITY];
+
+    /////////////////////////////////
+    // PUBLIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Remove all vehicles from the grid.
+     */
+    public void clear() {
+        Arrays.fill(vehicles, 0, numOfVehicles, null);
+        numOfVehicles = 0;
+    }
+
+    /**
+     * Add a vehicle at its current position.  {@link #build(double)} must be
+     * called before the grid is queried.
+     *
+     * @param vehicle  the vehicle
+     * @return the index of the vehicle in the grid
+     */
+    public int add(AIMVehicleSimModel vehicle) {
+        int n = numOfVehicles;
+        if (n == vehicles.length) {
+            int newCapacity = 2 * n;
+            vehicles = Arrays.copyOf(vehicles, newCapacity);
+            xs = Arrays.copyOf(xs, newCapacity);
+            ys = Arrays.copyOf(ys, newCapacity);
+            entries = Arrays.copyOf(entries, newCapacity);
+        }
+        Point2D p = vehicle.getPosition();
+        vehicles[n] = vehicle;
+        xs[n] = p.getX();
+        ys[n] = p.getY();
+        numOfVehicles++;
+        return n;
+    }
+
+    /**
+     * Sort the vehicles added so far into cells of the given size.  Queries
+     * are cheapest when the cell size is close to the query radius.
+     *
+     * @param cellSize  the size of a cell, in meters
+     */
+    public void build(double cellSize) {
+        this.cellSize = cellSize;
+        for (int i = 0; i < numOfVehicles; i++) {
+            entries[i] = (cellKey(cellOf(xs[i]), cellOf(ys[i])) << INDEX_BITS) | i;
+        }
+        Arrays.sort(entries, 0, numOfVehicles);
+    }
+
+    /**
+     * Get the number of vehicles in the grid.
+     *
+     * @return the number of vehicles in the grid
+     */
+    public int getNumOfVehicles() {
+        return numOfVehicles;
+    }
+
+    /**
+     * Get the vehicle with the given index.
+     *
+     * @param i  the index of the vehicle
+     * @return the vehicle
+     */
+    public AIMVehicleSimModel getVehicle(int i) {
+        return vehicles[i];
+    }
+
+    /**
+     * Get the x-coordinate of the vehicle with the given index.
+     *
+     * @param i  the index of the vehicle
+     * @return the x-coordinate of the position of the vehicle
+     */
+    public double getX(int i) {
+        return xs[i];
+    }
+
+    /**
+     * Get the y-coordinate of the vehicle with the given index.
+     *
+     * @param i  the index of the vehicle
+     * @return the y-coordinate of the position of the vehicle
+     */
+    public double getY(int i) {
+        return ys[i];
+    }
+
+    /**
+     * Find the vehicles whose positions are within the given distance of a
+     * point.  The result is read with {@link #getFound(int)} and is valid
+     * until the next query.
+     *
+     * @param x       the x-coordinate of the point
+     * @param y       the y-coordinate of the point
+     * @param radius  the distance
+     * @return the number of vehicles found
+     */
+    public int findWithin(double x, double y, double radius) {
+        int count = 0;
+        long r = (long) Math.ceil(radius / cellSize);
+        long cx = cellOf(x);
+        long cy = cellOf(y);
+        for (long i = cx - r; i <= cx + r; i++) {
+            for (long j = cy - r; j <= cy + r; j++) {
+                long key = cellKey(i, j);
+                for (int k = firstEntry(key); k < numOfVehicles
+                        && (entries[k] >>> INDEX_BITS) == key; k++) {
+                    int v = (int) (entries[k] & INDEX_MASK);
+                    if (Point2D.distance(x, y, xs[v], ys[v]) <= radius) {
+                        if (count == found.length) {
+                            found = Arrays.copyOf(found, 2 * count);
+                        }
+                        found[count++] = v;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Get a vehicle found by the last query.
+     *
+     * @param k  the position in the result of the last query
+     * @return the index of the vehicle
+     */
+    public int getFound(int k) {
+        return found[k];
+    }
+
+    /**
+     * Get the index of the given vehicle.
+     *
+     * @param vehicle  the vehicle
+     * @return the index of the vehicle, or -1 if it is not in the grid
+     */
+    public int indexOf(AIMVehicleSimModel vehicle) {
+        Point2D p = vehicle.getPosition();
+        long key = cellKey(cellOf(p.getX()), cellOf(p.getY()));
+        for (int k = firstEntry(key); k < numOfVehicles
+                && (entries[k] >>> INDEX_BITS) == key; k++) {
+            int v = (int) (entries[k] & INDEX_MASK);
+            if (vehicles[v] == vehicle) {
+                return v;
+            }
+        }
+        return -1;
+    }
+
+    /////////////////////////////////
+    // PRIVATE METHODS
+    /////////////////////////////////
+
+    /**
+     * Get the index of the first sorted entry of the given cell.
+     *
+     * @param key  the cell key
+     * @return the index of the first sorted entry whose key is not smaller
+     *         than the given key
+     */
+    private int firstEntry(long key) {
+        int i = Arrays.binarySearch(entries, 0, numOfVehicles, key << INDEX_BITS);
+        return (i >= 0) ? i : -i - 1;
+    }
+
+    /**
+     * Get the cell coordinate of a position coordinate.
+     *
+     * @param c  the position coordinate
+     * @return the cell coordinate
+     */
+    private long cellOf(double c) {
+        return (long) Math.floor(c / cellSize);
+    }
+
+    /**
+     * Get the key of a cell.
+     *
+     * @param cx  the x cell coordinate
+     * @param cy  the y cell coordinate
+     * @return the key of the cell
+     */
+    private static long cellKey(long cx, long cy) {
+        return ((cx + COORD_OFFSET) << COORD_BITS) | (cy + COORD_OFFSET);
+    }
+}
@@ -12,24 +12,28 @@ import aim4.map.cpm.parking.SensoredLine;
 import aim4.map.cpm.parking.StatusMonitor;
 import aim4.map.lane.Lane;
 import aim4.sim.Simulator;
-import aim4.sim.results.SimulatorResult;
+import aim4.sim.results.CPMResult;
+import aim4.sim.simulator.cpm.helper.CPMEventLog;
+import aim4.sim.simulator.cpm.helper.CPMEventType;
 import aim4.vehicle.VehicleSimModel;
 import aim4.vehicle.VehicleSpec;
 import aim4.vehicle.VinRegistry;
 import aim4.vehicle.cpm.CPMBasicAutoVehicle;
-import sun.reflect.generics.reflectiveObjects.NotImplementedException;
 
 import java.awt.*;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.io.Serializable;
 import java.util.*;
 import java.util.List;
 
 /**
  * The simulator of AVs in an AV specific car park which are self-organising.
  */
-public class CPMAutoDriverSimulator implements Simulator {
+public class CPMAutoDriverSimulator implements Simulator, Serializable {
+    private static final long serialVersionUID = 1L;
+
     /////////////////////////////////
     // NESTED CLASSES
     /////////////////////////////////
@@ -82,6 +86,8 @@ public class CPMAutoDriverSimulator implements Simulator {
     private int totalBitsTransmittedByCompletedVehicles;
     /** The total number of bits received by the completed vehicles */
     private int totalBitsReceivedByCompletedVehicles;
+    /** The parking lanes with vehicles indexed on them */
+    private List<ParkingLane> occupiedParkingLanes = new ArrayList<ParkingLane>();
 
     public CPMAutoDriverSimulator(CPMBasicMap map){
         this.map = map;
@@ -93,12 +99,27 @@ public class CPMAutoDriverSimulator implements Simulator {
         totalBitsTransmittedByCompletedVehicles = 0;
         totalBitsReceivedByCompletedVehicles = 0;
 
-        System.out.println("CPM Simulator created!");
+        if (CPMEventLog.SIMULATOR) {
+            CPMEventLog.log(CPMEventType.SIMULATOR_CREATED, -1, currentTime);
+        }
     }
 
     @Override
     public SimStepResult step(double timeStep) {
         spawnVehicles(timeStep);
+        return new CPMAutoDriverSimStepResult(stepSpawnedVehicles(timeStep));
+    }
+
+    /**
+     * Carry out the rest of a simulation step once the vehicles have been
+     * spawned, and advance the time.  This only reads and changes the state
+     * of this simulator and its map, so the car parks of a
+     * {@link CPMMultiCarParkSimulator} can do it in parallel.
+     *
+     * @param timeStep  the time step
+     * @return the completed vehicles
+     */
+    protected List<CPMBasicAutoVehicle> stepSpawnedVehicles(double timeStep) {
         provideSensorInput();
         findNextVehicles();
         letDriversAct();
@@ -107,7 +128,7 @@ public class CPMAutoDriverSimulator implements Simulator {
         observeNumberOfVehiclesInCarPark();
         List<CPMBasicAutoVehicle> completedVehicles = cleanUpCompletedVehicles();
         currentTime += timeStep;
-        return new CPMAutoDriverSimStepResult(completedVehicles);
+        return completedVehicles;
     }
 
     /////////////////////////////////
@@ -128,7 +149,9 @@ public class CPMAutoDriverSimulator implements Simulator {
                     double vehicleWidth = spawnSpec.getVehicleSpec().getWidth();
                     double parkingLaneWidth = map.getParkingArea().getParkingLaneWidth();
                     if (parkingLaneWidth < (vehicleWidth+MIN_DISTANCE_BETWEEN_PARKED_VEHICLES)) {
-                        System.out.println("Spawned vehicle discarded: car park doesn't cater for vehicles this wide.");
+                        if (CPMEventLog.SIMULATOR) {
+                            CPMEventLog.log(CPMEventType.VEHICLE_TOO_WIDE, -1, currentTime);
+                        }
                     } else {
                         // Only create the vehicle if there is room in the car park
                         double vehicleLength = spawnSpec.getVehicleSpec().getLength();
@@ -139,7 +162,9 @@ public class CPMAutoDriverSimulator implements Simulator {
                             map.addVehicleToMap(vehicle);
                             break; // only handle the first spawn vehicle
                         } else {
-                            System.out.println("Spawned vehicle discarded: not enough room.");
+                            if (CPMEventLog.SIMULATOR) {
+                                CPMEventLog.log(CPMEventType.NOT_ENOUGH_ROOM, -1, currentTime);
+                            }
                         }
                     }
                 }
@@ -469,16 +494,40 @@ public class CPMAutoDriverSimulator implements Simulator {
      * Find the vehicle that is directly in front of each vehicle.
      * Ideally, would like to use sensors, but lack of time and
      * current understanding of LRF means we need a workaround.
+     * The vehicles on each parking lane are first indexed by their
+     * position, so each lookup is a binary search on one lane.
      */
     protected void findNextVehicles() {
+        indexVehiclesOnParkingLanes();
         for (CPMBasicAutoVehicle vehicle : map.getVehicles()){
             vehicle.setVehicleInFront(getVehicleInFront(vehicle, map));
         }
     }
 
+    /**
+     * Index the vehicles on each parking lane by their current position.
+     */
+    private void indexVehiclesOnParkingLanes() {
+        for (ParkingLane lane : occupiedParkingLanes) {
+            lane.clearVehicles();
+        }
+        occupiedParkingLanes.clear();
+        for (CPMBasicAutoVehicle vehicle : map.getVehicles()) {
+            Lane lane = vehicle.getDriver().getCurrentLane();
+            if (lane instanceof ParkingLane) {
+                ParkingLane parkingLane = (ParkingLane) lane;
+                if (parkingLane.getNumOfVehicles() == 0) {
+                    occupiedParkingLanes.add(parkingLane);
+                }
+                parkingLane.addVehicle(vehicle);
+            }
+        }
+    }
+
     /**
      * Get the vehicle that is directly in front of the given vehicle,
-     * on the same parking lane.
+     * on the same parking lane. The parking lanes must have been
+     * indexed in this step by {@link #findNextVehicles()}.
      *
      * @param vehicle the vehicle we want to find the vehicle in front for.
      * @param map the map that the vehicle belongs to.
@@ -489,29 +538,8 @@ public class CPMAutoDriverSimulator implements Simulator {
         if (!(vehicle.getDriver().getCurrentLane() instanceof ParkingLane)) {
             return null;
         }
-
-        // Get all vehicles on the same lane
-        Lane lane = vehicle.getDriver().getCurrentLane();
-        List<CPMBasicAutoVehicle> vehiclesInFront = new ArrayList<CPMBasicAutoVehicle>();
-
-        for (CPMBasicAutoVehicle v : map.getVehicles()) {
-            if (v.getDriver().getCurrentLane() == lane) {
-                // Check if the vehicle is in front
-                if (v.getPosition().getX() > vehicle.getPosition().getX()) {
-                    vehiclesInFront.add(v);
-                }
-            }
-        }
-
-        // Now get the one that is directly in front
-        CPMBasicAutoVehicle closest = null;
-        for (CPMBasicAutoVehicle v : vehiclesInFront) {
-            if (closest == null || v.getPosition().getX() < closest.getPosition().getX()){
-                closest = v;
-            }
-        }
-
-        return closest;
+        ParkingLane lane = (ParkingLane) vehicle.getDriver().getCurrentLane();
+        return lane.getVehicleInFront(vehicle.getPosition().getX());
     }
 
     /////////////////////////////////
@@ -556,16 +584,22 @@ public class CPMAutoDriverSimulator implements Simulator {
                  if (line.intersect(vehicle, currentTime, p1, p2)) {
                      StatusMonitor statusMonitor = map.getStatusMonitor();
                      if (line.getType() == SensoredLine.SensoredLineType.ENTRY) {
-                         System.out.println("Vehicle is entering.");
+                         if (CPMEventLog.SIMULATOR) {
+                             CPMEventLog.log(CPMEventType.VEHICLE_ENTERING, vehicle.getVIN(), currentTime);
+                         }
                          vehicle.setEntryTime(currentTime);
                          statusMonitor.vehicleOnEntry(vehicle);
                      }
                      if (line.getType() == SensoredLine.SensoredLineType.REENTRY) {
-                         System.out.println("Vehicle is re-entering.");
+                         if (CPMEventLog.SIMULATOR) {
+                             CPMEventLog.log(CPMEventType.VEHICLE_REENTERING, vehicle.getVIN(), currentTime);
+                         }
                          statusMonitor.vehicleOnReEntry(vehicle);
                      }
                      if (line.getType() == SensoredLine.SensoredLineType.EXIT) {
-                         System.out.println("Vehicle is exiting.");
+                         if (CPMEventLog.SIMULATOR) {
+                             CPMEventLog.log(CPMEventType.VEHICLE_EXITING, vehicle.getVIN(), currentTime);
+                         }
                          vehicle.setExitTime(currentTime);
                          statusMonitor.vehicleOnExit(vehicle);
                      }
@@ -678,13 +712,19 @@ public class CPMAutoDriverSimulator implements Simulator {
     public Map<Integer, CPMBasicAutoVehicle> getVinToVehicles() { return vinToVehicles; }
 
     public String produceResultsCSV(){
-        StringBuilder sb = new StringBuilder();
-        sb.append("Sorry, CPM does not produce a results file");
-        return sb.toString();
+        return produceResult().produceCSVString();
     }
 
-    public SimulatorResult produceResult(){
-        //Sorry, CPM does not produce results in this way.
-        throw new NotImplementedException();
+    public CPMResult produceResult(){
+        StatusMonitor statusMonitor = map.getStatusMonitor();
+        return new CPMResult(new CPMResult.CarPark(currentTime,
+                numOfCompletedVehicles,
+                vinToVehicles.size(),
+                parkedVehicles.size(),
+                statusMonitor == null ? 0 : statusMonitor.getNumberOfAllowedEntries(),
+                statusMonitor == null ? 0 : statusMonitor.getNumberOfDeniedEntries(),
+                statusMonitor == null ? 0 : statusMonitor.getMostNumberOfVehicles(),
+                getAvgBitsTransmittedByCompletedVehicles(),
+                getAvgBitsReceivedByCompletedVehicles()));
     }
 }
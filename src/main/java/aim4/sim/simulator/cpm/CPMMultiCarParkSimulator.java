@@ -0,0 +1,265 @@
+package aim4.sim.simulator.cpm;
+
+import aim4.map.cpm.CPMMap;
+import aim4.sim.Simulator;
+import aim4.sim.results.CPMResult;
+import aim4.vehicle.VehicleSimModel;
+import aim4.vehicle.cpm.CPMBasicAutoVehicle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The simulator of several independent car parks, each with its own map,
+ * status monitor, spawn points and vehicles, stepped over a shared clock.
+ * <p>
+ * The car parks do not interact within a step, so each step is done in two
+ * phases.  First the vehicles are spawned in each car park in turn, which
+ * draws from the shared random number generator and registers the new
+ * vehicles in the {@link aim4.vehicle.VinRegistry}, in the same order as a
+ * sequential run.  Then the rest of the step is done for every car park in
+ * parallel on a pool of worker threads.  The completed vehicles are merged
+ * in the order of the car parks, so the results do not depend on the number
+ * of threads.
+ */
+public class CPMMultiCarParkSimulator implements Simulator {
+
+    /////////////////////////////////
+    // NESTED CLASSES
+    /////////////////////////////////
+
+    /**
+     * The result of a simulation step.
+     */
+    public static class CPMMultiCarParkSimStepResult
+            extends CPMAutoDriverSimulator.CPMAutoDriverSimStepResult {
+
+        /** The completed vehicles of each car park */
+        private List<List<CPMBasicAutoVehicle>> completedVehiclesByCarPark;
+
+        /**
+         * Create a result of a simulation step
+         *
+         * @param completedVehiclesByCarPark  the completed vehicles of each
+         *                                    car park.
+         */
+        public CPMMultiCarParkSimStepResult(
+                List<List<CPMBasicAutoVehicle>> completedVehiclesByCarPark) {
+            super(concatenate(completedVehiclesByCarPark));
+            this.completedVehiclesByCarPark = completedVehiclesByCarPark;
+        }
+
+        /**
+         * Get the completed vehicles of each car park, in the order of the
+         * car parks.
+         *
+         * @return the completed vehicles of each car park.
+         */
+        public List<List<CPMBasicAutoVehicle>> getCompletedVehiclesByCarPark() {
+            return completedVehiclesByCarPark;
+        }
+
+        /**
+         * Concatenate lists of vehicles.
+         *
+         * @param lists  the lists.
+         * @return the vehicles of all the lists, in order.
+         */
+        private static List<CPMBasicAutoVehicle> concatenate(
+                List<List<CPMBasicAutoVehicle>> lists) {
+            List<CPMBasicAutoVehicle> all = new ArrayList<CPMBasicAutoVehicle>();
+            for (List<CPMBasicAutoVehicle> list : lists) {
+                all.addAll(list);
+            }
+            return all;
+        }
+    }
+
+    /////////////////////////////////
+    // PRIVATE FIELDS
+    /////////////////////////////////
+
+    /** The simulators of the car parks */
+    private final List<CPMAutoDriverSimulator> carParks;
+    /** The worker threads, or null if the car parks are stepped in turn */
+    private final ExecutorService workers;
+    /** The current time */
+    private double currentTime;
+
+    /////////////////////////////////
+    // CONSTRUCTORS
+    /////////////////////////////////
+
+    /**
+     * Create a simulator of several car parks.
+     *
+     * @param carParks    the simulators of the car parks; none of them may
+     *                    have been stepped yet
+     * @param numOfThreads  the number of worker threads; if it is 1, or there
+     *                      is only one car park, the car parks are stepped in
+     *                      turn on the calling thread
+     */
+    public CPMMultiCarParkSimulator(List<CPMAutoDriverSimulator> carParks,
+                                    int numOfThreads) {
+        if (carParks.isEmpty()) {
+            throw new IllegalArgumentException("There must be at least one car park.");
+        }
+        if (numOfThreads < 1) {
+            throw new IllegalArgumentException("The number of threads must be positive.");
+        }
+        this.carParks = Collections.unmodifiableList(
+                new ArrayList<CPMAutoDriverSimulator>(carParks));
+        this.currentTime = 0.0;
+        numOfThreads = Math.min(numOfThreads, carParks.size());
+        if (numOfThreads > 1) {
+            workers = Executors.newFixedThreadPool(numOfThreads, new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "CPMCarPark-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        } else {
+            workers = null;
+        }
+    }
+
+    /////////////////////////////////
+    // PUBLIC METHODS
+    /////////////////////////////////
+
+    @Override
+    public SimStepResult step(final double timeStep) {
+        for (CPMAutoDriverSimulator carPark : carParks) {
+            carPark.spawnVehicles(timeStep);
+        }
+        List<List<CPMBasicAutoVehicle>> completedVehicles =
+                new ArrayList<List<CPMBasicAutoVehicle>>(carParks.size());
+        if (workers == null) {
+            for (CPMAutoDriverSimulator carPark : carParks) {
+                completedVehicles.add(carPark.stepSpawnedVehicles(timeStep));
+            }
+        } else {
+            List<Callable<List<CPMBasicAutoVehicle>>> tasks =
+                    new ArrayList<Callable<List<CPMBasicAutoVehicle>>>(carParks.size());
+            for (final CPMAutoDriverSimulator carPark : carParks) {
+                tasks.add(new Callable<List<CPMBasicAutoVehicle>>() {
+                    @Override
+                    public List<CPMBasicAutoVehicle> call() {
+                        return carPark.stepSpawnedVehicles(timeStep);
+                    }
+                });
+            }
+            try {
+                for (Future<List<CPMBasicAutoVehicle>> future : workers.invokeAll(tasks)) {
+                    completedVehicles.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while stepping the car parks", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new RuntimeException(cause);
+            }
+        }
+        currentTime += timeStep;
+        return new CPMMultiCarParkSimStepResult(completedVehicles);
+    }
+
+    /**
+     * Stop the worker threads.  The simulator cannot be stepped afterwards.
+     */
+    public void shutdown() {
+        if (workers != null) {
+            workers.shutdown();
+        }
+    }
+
+    /**
+     * Get the simulators of the car parks.
+     *
+     * @return the simulators of the car parks, in order.
+     */
+    public List<CPMAutoDriverSimulator> getCarParks() {
+        return carParks;
+    }
+
+    /**
+     * Get the map of the first car park.  Use {@link #getCarParks()} to get
+     * the maps of the others.
+     *
+     * @return the map of the first car park.
+     */
+    @Override
+    public CPMMap getMap() {
+        return carParks.get(0).getMap();
+    }
+
+    @Override
+    public double getSimulationTime() {
+        return currentTime;
+    }
+
+    @Override
+    public int getNumCompletedVehicles() {
+        int numOfCompletedVehicles = 0;
+        for (CPMAutoDriverSimulator carPark : carParks) {
+            numOfCompletedVehicles += carPark.getNumCompletedVehicles();
+        }
+        return numOfCompletedVehicles;
+    }
+
+    @Override
+    public double getAvgBitsTransmittedByCompletedVehicles() {
+        return produceResult().getAvgBitsTransmitted();
+    }
+
+    @Override
+    public double getAvgBitsReceivedByCompletedVehicles() {
+        return produceResult().getAvgBitsReceived();
+    }
+
+    @Override
+    public VehicleSimModel getActiveVehicle(int vin) {
+        for (CPMAutoDriverSimulator carPark : carParks) {
+            CPMBasicAutoVehicle vehicle = carPark.getVinToVehicles().get(vin);
+            if (vehicle != null) {
+                return vehicle;
+            }
+        }
+        return null;
+    }
+
+    public String produceResultsCSV(){
+        return produceResult().produceCSVString();
+    }
+
+    /**
+     * Get the results of all the car parks, in order.
+     *
+     * @return the results
+     */
+    public CPMResult produceResult(){
+        List<CPMResult> results = new ArrayList<CPMResult>(carParks.size());
+        for (CPMAutoDriverSimulator carPark : carParks) {
+            results.add(carPark.produceResult());
+        }
+        return CPMResult.merge(results);
+    }
+}
@@ -0,0 +1,515 @@
+package aim4.sim.simulator.cpm.helper;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A log of the events of the car park simulations, used in place of
+ * printing to the standard output in the code run for every vehicle in
+ * every step.
+ * <p>
+ * The events are written into pre-allocated records of a bounded ring
+ * buffer without taking a lock, so logging an event costs a few field
+ * writes and does not allocate.  If the ring buffer is full the event is
+ * dropped and counted.  The events are read from the ring buffer either by
+ * calling {@link #drain(Listener)}, for example in a test, or by a
+ * background thread, which writes them as CSV to the output given to
+ * {@link #start(Writer)} and passes them on to the listeners added with
+ * {@link #addListener(Listener)}, such as the console of the GUI.  The
+ * thread runs only while there is an output or a listener.
+ * <p>
+ * Events are only recorded while something reads them: an output, a
+ * listener, or a caller of {@link #drain(Listener)} which has switched
+ * recording on with {@link #setRecording(boolean)}.  Otherwise logging an
+ * event does nothing, so that a run without a reader neither fills the ring
+ * buffer nor keeps the arguments of its events.
+ * <p>
+ * Each category of event can be switched off with the system property
+ * <code>aim4.cpm.eventlog</code>, which is a comma separated list of the
+ * categories to log, <code>all</code> (the default) or <code>none</code>.
+ * Code logging an event checks the constant of its category first, e.g.
+ * <pre>
+ *     if (CPMEventLog.COORDINATOR) {
+ *         CPMEventLog.log(CPMEventType.ENTERING_CORNER, vin, time);
+ *     }
+ * </pre>
+ * so that the JIT compiler removes the call when the category is off.
+ */
+public final class CPMEventLog {
+
+    /////////////////////////////////
+    // NESTED CLASSES
+    /////////////////////////////////
+
+    /**
+     * The categories of events.
+     */
+    public enum Category {
+        /** The events of the coordinators of the drivers. */
+        COORDINATOR,
+        /** The events of the simulator. */
+        SIMULATOR,
+        /** The events of the status monitor. */
+        STATUS_MONITOR,
+        /** The events of the map: spawn points and sensored lines. */
+        MAP,
+        /** The events of the vehicles. */
+        VEHICLE
+    }
+
+    /**
+     * A receiver of the events read from the log.
+     */
+    public interface Listener {
+        /**
+         * Receive an event.
+         *
+         * @param seq   the sequence number of the event
+         * @param type  the type of the event
+         * @param vin   the VIN of the vehicle concerned, or -1 if none
+         * @param time  the simulated time of the event, or NaN if unknown
+         * @param arg   the argument of the event, or null if it has none
+         */
+        void eventLogged(long seq, CPMEventType type, int vin, double time,
+                         Object arg);
+    }
+
+    /////////////////////////////////
+    // CONSTANTS
+    /////////////////////////////////
+
+    /** The name of the system property enabling the categories. */
+    public static final String PROPERTY = "aim4.cpm.eventlog";
+
+    /** Whether the events of the coordinators are logged. */
+    public static final boolean COORDINATOR = isEnabled(Category.COORDINATOR);
+    /** Whether the events of the simulator are logged. */
+    public static final boolean SIMULATOR = isEnabled(Category.SIMULATOR);
+    /** Whether the events of the status monitor are logged. */
+    public static final boolean STATUS_MONITOR = isEnabled(Category.STATUS_MONITOR);
+    /** Whether the events of the map are logged. */
+    public static final boolean MAP = isEnabled(Category.MAP);
+    /** Whether the events of the vehicles are logged. */
+    public static final boolean VEHICLE = isEnabled(Category.VEHICLE);
+
+    /** The number of records in the ring buffer, a power of two. */
+    public static final int CAPACITY = 1 << 16;
+
+    /** The mask giving the record of a sequence number. */
+    private static final int MASK = CAPACITY - 1;
+
+    /** The time the background thread waits when the log is empty. */
+    private static final long IDLE_NANOS = 1000000L;
+
+    /////////////////////////////////
+    // PRIVATE FIELDS
+    /////////////////////////////////
+
+    // The records of the ring buffer.  The record of sequence number s is
+    // free for writing when sequences[s & MASK] == s, and holds an event
+    // ready for reading when it is s + 1.
+
+    /** The sequence numbers of the records. */
+    private static final AtomicLongArray sequences = new AtomicLongArray(CAPACITY);
+    /** The types of the events, as ordinals. */
+    private static final int[] types = new int[CAPACITY];
+    /** The VINs of the events. */
+    private static final int[] vins = new int[CAPACITY];
+    /** The times of the events. */
+    private static final double[] times = new double[CAPACITY];
+    /** The arguments of the events. */
+    private static final Object[] args = new Object[CAPACITY];
+
+    /** The sequence number of the next event written. */
+    private static final AtomicLong head = new AtomicLong();
+    /** The sequence number of the next event read; guarded by the class. */
+    private static long tail;
+    /** The number of events dropped because the ring buffer was full. */
+    private static final LongAdder dropped = new LongAdder();
+
+    /** The event types, indexed by ordinal. */
+    private static final CPMEventType[] TYPES = CPMEventType.values();
+
+    /** A listener which discards the events. */
+    private static final Listener DISCARD = new Listener() {
+        @Override
+        public void eventLogged(long seq, CPMEventType type, int vin,
+                                double time, Object arg) {
+            // discard
+        }
+    };
+
+    /** The listeners of the background thread. */
+    private static final List<Listener> listeners =
+            new CopyOnWriteArrayList<Listener>();
+    /** The output of the background thread, or null if none. */
+    private static volatile Writer out;
+    /**
+     * The background thread, or null if it is not running.  The thread stops
+     * once it is no longer this one.
+     */
+    private static volatile Thread drainer;
+    /** Whether the events are recorded for callers of drain(). */
+    private static volatile boolean recordingForDrain;
+    /**
+     * The failure of the background thread to write to the output, or null
+     * if none, reported by {@link #stop()}.
+     */
+    private static volatile IOException writeFailure;
+    /** Whether the events are recorded. */
+    private static volatile boolean recording;
+    /**
+     * The lock of starting and stopping the background thread, apart from
+     * the lock of the class taken by drain(), so that the thread can be
+     * joined while it is held.
+     */
+    private static final Object lifecycle = new Object();
+
+    static {
+        for (int i = 0; i < CAPACITY; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /** This class should never be instantiated. */
+    private CPMEventLog(){};
+
+    /////////////////////////////////
+    // PUBLIC STATIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Log an event without an argument.
+     *
+     * @param type  the type of the event
+     * @param vin   the VIN of the vehicle concerned, or -1 if none
+     * @param time  the simulated time of the event, or NaN if unknown
+     */
+    public static void log(CPMEventType type, int vin, double time) {
+        log(type, vin, time, null);
+    }
+
+    /**
+     * Log an event.
+     *
+     * @param type  the type of the event
+     * @param vin   the VIN of the vehicle concerned, or -1 if none
+     * @param time  the simulated time of the event, or NaN if unknown
+     * @param arg   the argument of the event; it is formatted only when the
+     *              event is read
+     */
+    public static void log(CPMEventType type, int vin, double time, Object arg) {
+        if (!recording) {
+            return;
+        }
+        long seq;
+        int i;
+        while (true) {
+            seq = head.get();
+            i = (int) seq & MASK;
+            long free = sequences.get(i) - seq;
+            if (free == 0) {
+                if (head.compareAndSet(seq, seq + 1)) {
+                    break;
+                }
+            } else if (free < 0) {
+                // The record has not been read yet: the ring buffer is full
+                dropped.increment();
+                return;
+            } // else another thread has claimed the record; try again
+        }
+        types[i] = type.ordinal();
+        vins[i] = vin;
+        times[i] = time;
+        args[i] = arg;
+        sequences.lazySet(i, seq + 1);
+    }
+
+    /**
+     * Read the events logged so far and pass them to a listener.  The events
+     * read are removed from the log, so should not be called while the
+     * background thread is running.
+     *
+     * @param listener  the listener
+     * @return the number of events read
+     */
+    public static synchronized int drain(Listener listener) {
+        int n = 0;
+        while (true) {
+            int i = (int) tail & MASK;
+            if (sequences.get(i) != tail + 1) {
+                break;
+            }
+            CPMEventType type = TYPES[types[i]];
+            int vin = vins[i];
+            double time = times[i];
+            Object arg = args[i];
+            args[i] = null;
+            sequences.lazySet(i, tail + CAPACITY);
+            listener.eventLogged(tail, type, vin, time, arg);
+            tail++;
+            n++;
+        }
+        return n;
+    }
+
+    /**
+     * Discard the events logged so far and reset the count of dropped
+     * events.
+     */
+    public static synchronized void clear() {
+        drain(DISCARD);
+        dropped.reset();
+    }
+
+    /**
+     * Switch recording on or off for callers of {@link #drain(Listener)},
+     * such as tests, which read the log without an output or a listener.
+     * Switching it off discards the events not read yet, unless there is an
+     * output or a listener.
+     *
+     * @param on  whether to record the events
+     */
+    public static void setRecording(boolean on) {
+        synchronized (lifecycle) {
+            recordingForDrain = on;
+            update();
+        }
+    }
+
+    /**
+     * Whether the events are recorded, because there is an output, a
+     * listener or recording was switched on for drain().
+     *
+     * @return whether the events are recorded
+     */
+    public static boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Get the number of events dropped because the log was full.
+     *
+     * @return the number of events dropped
+     */
+    public static long getNumOfDroppedEvents() {
+        return dropped.sum();
+    }
+
+    /**
+     * Add a listener to the background thread, starting the thread if it is
+     * not running.  The listener is called from the background thread.
+     *
+     * @param listener  the listener
+     */
+    public static void addListener(Listener listener) {
+        synchronized (lifecycle) {
+            listeners.add(listener);
+            update();
+        }
+    }
+
+    /**
+     * Remove a listener from the background thread once the thread has
+     * passed it the events logged so far.  The thread stops if nothing else
+     * reads the events.
+     *
+     * @param listener  the listener
+     */
+    public static void removeListener(Listener listener) {
+        synchronized (lifecycle) {
+            stopDrainer();
+            listeners.remove(listener);
+            update();
+        }
+    }
+
+    /**
+     * Write the events to the given output as CSV, with the columns
+     * <code>seq,time,event,vin,message</code>, starting the background
+     * thread if it is not running.
+     *
+     * @param output  the output
+     * @throws IOException if the header cannot be written
+     */
+    public static void start(Writer output) throws IOException {
+        synchronized (lifecycle) {
+            writeLine(output, "seq,time,event,vin,message");
+            writeFailure = null;
+            out = output;
+            update();
+        }
+    }
+
+    /**
+     * Write the events logged so far to the output, flush it and stop
+     * writing to it.  The output is not closed.  The background thread goes
+     * on only if there are listeners.
+     * <p>
+     * If the background thread failed to write to the output, it stopped
+     * writing to it at that point and the failure is thrown here.
+     *
+     * @throws IOException if the events could not be written to the output
+     */
+    public static void stop() throws IOException {
+        synchronized (lifecycle) {
+            stopDrainer();
+            Writer w = out;
+            out = null;
+            update();
+            IOException failure = writeFailure;
+            writeFailure = null;
+            if (failure != null) {
+                throw failure;
+            }
+            if (w != null) {
+                w.flush();
+            }
+        }
+    }
+
+    /////////////////////////////////
+    // PRIVATE STATIC METHODS
+    /////////////////////////////////
+
+    /**
+     * Whether a category is enabled by the system property.
+     *
+     * @param category  the category
+     * @return whether the category is enabled
+     */
+    private static boolean isEnabled(Category category) {
+        String value = System.getProperty(PROPERTY, "all").trim();
+        if (value.equalsIgnoreCase("all")) {
+            return true;
+        }
+        for (String name : value.split(",")) {
+            if (name.trim().equalsIgnoreCase(category.name())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Record the events and run the background thread according to the
+     * readers of the log.  Called with the lifecycle lock held.
+     */
+    private static void update() {
+        boolean hasReaders = out != null || !listeners.isEmpty();
+        recording = hasReaders || recordingForDrain;
+        if (hasReaders) {
+            startDrainer();
+        } else {
+            stopDrainer();
+            if (!recordingForDrain) {
+                drain(DISCARD);
+            }
+        }
+    }
+
+    /**
+     * Stop the background thread, if it is running, after it has read the
+     * events logged so far.  Called with the lifecycle lock held.
+     */
+    private static void stopDrainer() {
+        Thread t = drainer;
+        if (t == null) {
+            return;
+        }
+        drainer = null;
+        LockSupport.unpark(t);
+        boolean interrupted = false;
+        while (t.isAlive()) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Start the background thread if it is not running.  Called with the
+     * lifecycle lock held.
+     */
+    private static void startDrainer() {
+        if (drainer != null) {
+            return;
+        }
+        Thread t = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                Listener dispatcher = new Listener() {
+                    @Override
+                    public void eventLogged(long seq, CPMEventType type,
+                                            int vin, double time, Object arg) {
+                        Writer w = out;
+                        if (w != null) {
+                            String message = type.format(arg);
+                            try {
+                                writeLine(w, seq + "," + time + "," + type + ","
+                                        + vin + ",\"" + message.replace("\"", "\"\"")
+                                        + "\"");
+                            } catch (IOException e) {
+                                failWriting(w, e);
+                            }
+                        }
+                        for (Listener listener : listeners) {
+                            listener.eventLogged(seq, type, vin, time, arg);
+                        }
+                    }
+                };
+                while (drainer == Thread.currentThread()) {
+                    if (drain(dispatcher) == 0) {
+                        LockSupport.parkNanos(IDLE_NANOS);
+                    }
+                }
+                drain(dispatcher);
+            }
+        }, "CPMEventLog");
+        t.setDaemon(true);
+        drainer = t;
+        t.start();
+    }
+
+    /**
+     * Stop writing to an output which the background thread failed to write
+     * to, keeping the failure for {@link #stop()}.  Called from the
+     * background thread, which cannot take the lifecycle lock as stop()
+     * holds it while waiting for the thread; the thread goes on reading the
+     * events for the listeners, if any.
+     *
+     * @param w  the output
+     * @param e  the failure
+     */
+    private static void failWriting(Writer w, IOException e) {
+        if (out != w) {
+            return;
+        }
+        writeFailure = e;
+        out = null;
+        recording = !listeners.isEmpty() || recordingForDrain;
+    }
+
+    /**
+     * Write a line to an output.
+     *
+     * @param w     the output
+     * @param line  the line
+     * @throws IOException if the line cannot be written
+     */
+    private static void writeLine(Writer w, String line) throws IOException {
+        w.write(line);
+        w.write('\n');
+    }
+}
@@ -0,0 +1,86 @@
+package aim4.sim.simulator.cpm.helper;
+
+import aim4.sim.simulator.cpm.helper.CPMEventLog.Category;
+
+/**
+ * The types of event recorded in the {@link CPMEventLog}.  Each type
+ * belongs to a category and has a message which is formatted with the
+ * argument of the event, if any, when the event is read from the log.
+ */
+public enum CPMEventType {
+
+    // Coordinator
+    PARKING_TIME_ELAPSED(Category.COORDINATOR,
+            "Parking time has elapsed, setting parking status to EXIT."),
+    FINDING_VEHICLE_IN_FRONT(Category.COORDINATOR, "Finding vehicle in front"),
+    MESSAGE_SENT_TO_VEHICLE_IN_FRONT(Category.COORDINATOR,
+            "Sending message %s to vehicle in front"),
+    PARKING_GRANTED(Category.COORDINATOR, "Changing status to PARKING."),
+    FINDING_SPACE(Category.COORDINATOR, "Finding space on %s"),
+    PARKING_STATUS_CHANGED(Category.COORDINATOR, "Changing status to %s"),
+    ENTERING_CORNER(Category.COORDINATOR, "Entering corner."),
+    ENTERING_JUNCTION(Category.COORDINATOR, "Entering junction."),
+    ENTERING_INTERSECTION(Category.COORDINATOR, "Entering intersection."),
+    TRAVERSING_PARKING_LANE(Category.COORDINATOR, "Traversing Parking Lane%s"),
+    LEFT_CORNER(Category.COORDINATOR, "Driver is now out of the corner."),
+    LEFT_JUNCTION(Category.COORDINATOR, "Driver is now out of the junction."),
+    LEFT_INTERSECTION(Category.COORDINATOR,
+            "Driver is now out of the intersection."),
+    LEAVING_PARKING_LANE(Category.COORDINATOR,
+            "Driver is now leaving the parking lane."),
+    REACHED_TARGET_PARKING_LANE(Category.COORDINATOR,
+            "Reached target parking lane"),
+
+    // Simulator
+    SIMULATOR_CREATED(Category.SIMULATOR, "CPM Simulator created!"),
+    VEHICLE_TOO_WIDE(Category.SIMULATOR,
+            "Spawned vehicle discarded: car park doesn't cater for vehicles this wide."),
+    NOT_ENOUGH_ROOM(Category.SIMULATOR,
+            "Spawned vehicle discarded: not enough room."),
+    VEHICLE_ENTERING(Category.SIMULATOR, "Vehicle is entering."),
+    VEHICLE_REENTERING(Category.SIMULATOR, "Vehicle is re-entering."),
+    VEHICLE_EXITING(Category.SIMULATOR, "Vehicle is exiting."),
+
+    // Status monitor
+    PARKING_LANE_SENT(Category.STATUS_MONITOR,
+            "Status monitor sending parking lane to vehicle."),
+    LANE_WITH_MOST_ROOM(Category.STATUS_MONITOR, "Lane with most room is %s"),
+
+    // Map
+    VEHICLE_SPAWNED(Category.MAP, "Vehicle %s spawned."),
+    SENSORED_LINE_CROSSED(Category.MAP, "Intersect with %s sensored line."),
+    EXIT_LINE_CROSSED(Category.MAP, "Intersect with exit data collection line."),
+
+    // Vehicle
+    I2V_INBOX_CLEARED(Category.VEHICLE, "I2V inbox cleared"),
+    V2V_INBOX_CLEARED(Category.VEHICLE, "V2V inbox cleared");
+
+    /** The category of the event. */
+    private final Category category;
+    /** The message of the event, possibly with a place for its argument. */
+    private final String message;
+
+    CPMEventType(Category category, String message) {
+        this.category = category;
+        this.message = message;
+    }
+
+    /**
+     * Get the category of this type of event.
+     *
+     * @return the category of this type of event
+     */
+    public Category getCategory() {
+        return category;
+    }
+
+    /**
+     * Get the message of an event of this type.
+     *
+     * @param arg  the argument of the event, or null if it has none
+     * @return the message of the event
+     */
+    public String format(Object arg) {
+        return message.contains("%s") ? String.format(message, arg) : message;
+    }
+}
@@ -5,6 +5,8 @@ import aim4.map.merge.MergeMap;
 import aim4.map.merge.RoadNames;
 import aim4.sim.results.CoreMergeResult;
 import aim4.sim.results.CoreMergeVehicleResult;
+import aim4.sim.results.VehicleResultAggregates;
+import aim4.sim.results.VehicleResultSink;
 import aim4.sim.setup.merge.enums.ProtocolType;
 import aim4.sim.simulator.merge.helper.SensorInputHelper;
 import aim4.sim.simulator.merge.helper.SpawnHelper;
@@ -13,12 +15,16 @@ import aim4.vehicle.merge.MergeVehicleSimModel;
 
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.io.Serializable;
 import java.util.*;
 
 /**
  * Created by Callum on 08/03/2017.
  */
-public class CoreMergeSimulator implements MergeSimulator {
+public class CoreMergeSimulator implements MergeSimulator, Serializable {
+    private static final long serialVersionUID = 1L;
+
     //NESTED CLASSES//
     public static class CoreMergeSimStepResult implements SimStepResult {
         private Map<Integer, MergeVehicleSimModel> completedVehicles;
@@ -44,6 +50,10 @@ public class CoreMergeSimulator implements MergeSimulator {
 
     //RESULTS//
     protected List<CoreMergeVehicleResult> vehiclesRecord;
+    /* The global statistics of the completed vehicles */
+    protected VehicleResultAggregates vehiclesAggregates;
+    /* Where the records of the completed vehicles go instead of vehiclesRecord, if not null */
+    protected transient VehicleResultSink vehicleResultSink;
     protected Map<String, Double> specToExpectedTimeMergeLane;
     protected Map<String, Double> specToExpectedTimeTargetLane;
 
@@ -64,6 +74,7 @@ public class CoreMergeSimulator implements MergeSimulator {
         this.protocolType = protocolType;
         this.vinToVehicles = new HashMap<Integer, MergeVehicleSimModel>();
         this.vehiclesRecord = new ArrayList<CoreMergeVehicleResult>();
+        this.vehiclesAggregates = new VehicleResultAggregates();
 
         currentTime = 0.0;
         numberOfCompletedVehicles = 0;
@@ -196,10 +207,16 @@ public class CoreMergeSimulator implements MergeSimulator {
     }
 
     public CoreMergeResult produceResult() {
-        CoreMergeResult result = new CoreMergeResult(vehiclesRecord);
+        CoreMergeResult result = new CoreMergeResult(vehiclesRecord,
+                new VehicleResultAggregates(vehiclesAggregates));
         return result;
     }
 
+    @Override
+    public void setVehicleResultSink(VehicleResultSink sink) {
+        this.vehicleResultSink = sink;
+    }
+
     protected void provideCompletedVehiclesWithResultsInfo(Map<Integer, MergeVehicleSimModel> completedVehicles) {
         for(int vin : completedVehicles.keySet()) {
             MergeVehicleSimModel vehicle = completedVehicles.get(vin);
@@ -238,7 +255,7 @@ public class CoreMergeSimulator implements MergeSimulator {
     protected void recordCompletedVehicles(Map<Integer, MergeVehicleSimModel> completedVehicles) {
         for(int vin : completedVehicles.keySet()) {
             MergeVehicleSimModel vehicle = completedVehicles.get(vin);
-            vehiclesRecord.add(new CoreMergeVehicleResult(
+            CoreMergeVehicleResult result = new CoreMergeVehicleResult(
                     vin,
                     vehicle.getStartingRoad().toString(),
                     vehicle.getSpec().getName(),
@@ -250,7 +267,17 @@ public class CoreMergeSimulator implements MergeSimulator {
                     vehicle.getMinVelocity(),
                     vehicle.getFinalXPos(),
                     vehicle.getFinalYPos()
-            ));
+            );
+            vehiclesAggregates.add(result);
+            if(vehicleResultSink == null)
+                vehiclesRecord.add(result);
+            else {
+                try {
+                    vehicleResultSink.write(result);
+                } catch (IOException e) {
+                    throw new RuntimeException("Cannot write the record of vehicle " + vin, e);
+                }
+            }
         }
     }
 
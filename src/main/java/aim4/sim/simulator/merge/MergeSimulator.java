@@ -2,6 +2,7 @@ package aim4.sim.simulator.merge;
 
 import aim4.sim.Simulator;
 import aim4.sim.results.CoreMergeResult;
+import aim4.sim.results.VehicleResultSink;
 import aim4.vehicle.merge.MergeVehicleSimModel;
 
 import java.util.Map;
@@ -12,4 +13,13 @@ import java.util.Map;
 public interface MergeSimulator extends Simulator {
     public Map<Integer, MergeVehicleSimModel> getVinToVehicles();
     public CoreMergeResult produceResult();
+
+    /**
+     * Write the records of the vehicles to a sink as they complete, instead
+     * of keeping them for {@link #produceResult()}, whose global statistics
+     * still cover all the vehicles.
+     *
+     * @param sink  the sink, or null to keep the records
+     */
+    public void setVehicleResultSink(VehicleResultSink sink);
 }
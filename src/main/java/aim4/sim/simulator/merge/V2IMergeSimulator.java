@@ -18,6 +18,7 @@ import java.util.Queue;
  * Created by Callum on 13/04/2017.
  */
 public class V2IMergeSimulator extends CoreMergeSimulator {
+    private static final long serialVersionUID = 1L;
 
 
     public V2IMergeSimulator(MergeMap map, ProtocolType protocolType) {
@@ -9,12 +9,15 @@ import aim4.vehicle.merge.MergeVehicleSimModel;
 
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
+import java.io.Serializable;
 import java.util.*;
 
 /**
  * Created by Callum on 15/03/2017.
  */
-public class SensorInputHelper {
+public class SensorInputHelper implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     MergeMap map;
     Map<Integer, MergeVehicleSimModel> vinToVehicles;
 
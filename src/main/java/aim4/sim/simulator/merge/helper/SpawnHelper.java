@@ -12,6 +12,7 @@ import aim4.vehicle.VinRegistry;
 import aim4.vehicle.merge.*;
 
 import java.awt.geom.Path2D;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -19,7 +20,9 @@ import java.util.Map;
 /**
  * Created by Callum on 15/03/2017.
  */
-public class SpawnHelper {
+public class SpawnHelper implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     private MergeMap map;
     private Map<Integer, MergeVehicleSimModel> vinToVehicles;
 
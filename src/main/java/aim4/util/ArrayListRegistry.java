@@ -36,6 +36,7 @@ import java.util.ArrayList;
  * A registry based on array list.
  */
 public class ArrayListRegistry<T> implements Registry<T> {
+  private static final long serialVersionUID = 1L;
 
   /** The initial capacity of the array */
   private static final int INITIAL_CAPACITY = 10;
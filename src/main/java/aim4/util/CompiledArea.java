@@ -0,0 +1,381 @@
+package aim4.util;
+
+import java.awt.Shape;
+import java.awt.geom.Area;
+import java.awt.geom.Line2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Point2D;
+import java.awt.geom.Rectangle2D;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * An immutable, precompiled form of a polygonal {@link Area}.  The boundary
+ * of the area is flattened into a table of edges held in primitive arrays,
+ * together with its bounding box, so that point containment and overlap
+ * tests against small polygons such as vehicles can be answered without the
+ * constructive area geometry operations of <code>Area</code>.
+ */
+public final class CompiledArea implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  /////////////////////////////////
+  // CONSTANTS
+  /////////////////////////////////
+
+  /**
+   * The maximum distance between a curved segment of the area and the edges
+   * approximating it.  {@value} meters.
+   */
+  private static final double FLATNESS = 0.0001;
+
+  /**
+   * The initial number of vertices held by the scratch buffer.
+   */
+  private static final int INIT_BUFFER_VERTICES = 8;
+
+  /**
+   * The scratch buffers of a thread.
+   */
+  private static final class Buffers {
+    /** The coordinates of the current segment of a path */
+    final double[] segment = new double[6];
+    /** The vertices of a shape */
+    double[] vertices = new double[2 * INIT_BUFFER_VERTICES];
+  }
+
+  /**
+   * The scratch buffers, per thread.  They are shared by all compiled areas,
+   * which keeps them free of per-thread state, and keep the tests against
+   * the shapes of vehicles free of allocation.
+   */
+  private static final ThreadLocal<Buffers> buffers =
+    new ThreadLocal<Buffers>() {
+      @Override
+      protected Buffers initialValue() {
+        return new Buffers();
+      }
+    };
+
+
+  /////////////////////////////////
+  // PRIVATE FIELDS
+  /////////////////////////////////
+
+  /** The bounding box of the area. */
+  private final double minX, minY, maxX, maxY;
+
+  /** The start points of the edges. */
+  private final double[] x1, y1;
+
+  /** The end points of the edges. */
+  private final double[] x2, y2;
+
+  /** The bounding box, as returned by {@link #getBoundingBox()}. */
+  private final Rectangle2D boundingBox;
+
+
+
+  /////////////////////////////////
+  // CONSTRUCTORS
+  /////////////////////////////////
+
+  /**
+   * Compile the given area.  Curved segments are flattened into line
+   * segments.
+   *
+   * @param area  the area
+   */
+  public CompiledArea(Area area) {
+    double[] ex1 = new double[16];
+    double[] ey1 = new double[16];
+    double[] ex2 = new double[16];
+    double[] ey2 = new double[16];
+    int n = 0;
+    double[] coords = new double[6];
+    double startX = 0, startY = 0, px = 0, py = 0;
+    for(PathIterator iter = area.getPathIterator(null, FLATNESS);
+        !iter.isDone(); iter.next()) {
+      int type = iter.currentSegment(coords);
+      double qx, qy;
+      switch(type) {
+      case PathIterator.SEG_MOVETO:
+        startX = px = coords[0];
+        startY = py = coords[1];
+        continue;
+      case PathIterator.SEG_LINETO:
+        qx = coords[0];
+        qy = coords[1];
+        break;
+      case PathIterator.SEG_CLOSE:
+        qx = startX;
+        qy = startY;
+        break;
+      default:
+        throw new RuntimeException("CompiledArea: unknown path iterator " +
+                                   "type.");
+      }
+      if (qx != px || qy != py) {
+        if (n == ex1.length) {
+          ex1 = Arrays.copyOf(ex1, 2 * n);
+          ey1 = Arrays.copyOf(ey1, 2 * n);
+          ex2 = Arrays.copyOf(ex2, 2 * n);
+          ey2 = Arrays.copyOf(ey2, 2 * n);
+        }
+        ex1[n] = px;
+        ey1[n] = py;
+        ex2[n] = qx;
+        ey2[n] = qy;
+        n++;
+      }
+      px = qx;
+      py = qy;
+    }
+    x1 = Arrays.copyOf(ex1, n);
+    y1 = Arrays.copyOf(ey1, n);
+    x2 = Arrays.copyOf(ex2, n);
+    y2 = Arrays.copyOf(ey2, n);
+
+    Rectangle2D bounds = area.getBounds2D();
+    minX = bounds.getMinX();
+    minY = bounds.getMinY();
+    maxX = bounds.getMaxX();
+    maxY = bounds.getMaxY();
+    boundingBox = new Rectangle2D.Double(minX, minY, maxX - minX, maxY - minY);
+  }
+
+
+  /////////////////////////////////
+  // PUBLIC METHODS
+  /////////////////////////////////
+
+  /**
+   * Get the bounding box of the area.
+   *
+   * @return the bounding box of the area
+   */
+  public Rectangle2D getBoundingBox() {
+    return (Rectangle2D)boundingBox.clone();
+  }
+
+  /**
+   * Get the number of edges of the area.
+   *
+   * @return the number of edges of the area
+   */
+  public int getNumOfEdges() {
+    return x1.length;
+  }
+
+  /**
+   * Whether the area contains the given point.
+   *
+   * @param x  the x-coordinate of the point
+   * @param y  the y-coordinate of the point
+   * @return whether the area contains the point
+   */
+  public boolean contains(double x, double y) {
+    if (x < minX || x > maxX || y < minY || y > maxY) {
+      return false;
+    }
+    // Even-odd crossing test; the rings of an Area never overlap, so this
+    // agrees with the winding rule used by Area itself.
+    boolean inside = false;
+    for(int i = 0; i < x1.length; i++) {
+      if ((y1[i] > y) != (y2[i] > y)) {
+        double xc = x1[i] + (y - y1[i]) * (x2[i] - x1[i]) / (y2[i] - y1[i]);
+        if (x < xc) {
+          inside = !inside;
+        }
+      }
+    }
+    return inside;
+  }
+
+  /**
+   * Whether the area contains the given point.
+   *
+   * @param p  the point
+   * @return whether the area contains the point
+   */
+  public boolean contains(Point2D p) {
+    return contains(p.getX(), p.getY());
+  }
+
+  /**
+   * Whether the area overlaps the polygon with the given vertices.
+   *
+   * @param vertices  the vertices of a simple polygon, in order
+   * @return whether the area and the polygon overlap
+   */
+  public boolean intersects(Point2D[] vertices) {
+    double[] buf = buffer(vertices.length);
+    for(int i = 0; i < vertices.length; i++) {
+      buf[2 * i] = vertices[i].getX();
+      buf[2 * i + 1] = vertices[i].getY();
+    }
+    return intersects(buf, vertices.length);
+  }
+
+  /**
+   * Whether the area overlaps the given polygonal shape, such as the shape
+   * of a vehicle.  Only the first sub-path of the shape is considered.
+   *
+   * @param shape  the shape
+   * @return whether the area and the shape overlap
+   */
+  public boolean intersects(Shape shape) {
+    Buffers b = buffers.get();
+    // The shapes of vehicles have no curves, so the path is only flattened
+    // if it turns out to have some
+    int n = readVertices(shape.getPathIterator(null), b);
+    if (n < 0) {
+      n = readVertices(shape.getPathIterator(null, FLATNESS), b);
+    }
+    return intersects(b.vertices, n);
+  }
+
+  /**
+   * Whether the area overlaps the given rectangle.
+   *
+   * @param r  the rectangle
+   * @return whether the area and the rectangle overlap
+   */
+  public boolean intersects(Rectangle2D r) {
+    double[] buf = buffer(4);
+    buf[0] = r.getMinX();
+    buf[1] = r.getMinY();
+    buf[2] = r.getMaxX();
+    buf[3] = r.getMinY();
+    buf[4] = r.getMaxX();
+    buf[5] = r.getMaxY();
+    buf[6] = r.getMinX();
+    buf[7] = r.getMaxY();
+    return intersects(buf, 4);
+  }
+
+
+  /////////////////////////////////
+  // PRIVATE METHODS
+  /////////////////////////////////
+
+  /**
+   * Get a scratch buffer large enough for the given number of vertices.
+   *
+   * @param n  the number of vertices
+   * @return the buffer
+   */
+  private double[] buffer(int n) {
+    Buffers b = buffers.get();
+    if (2 * n > b.vertices.length) {
+      b.vertices = new double[2 * n];
+    }
+    return b.vertices;
+  }
+
+  /**
+   * Read the vertices of the first sub-path of a path into the vertex
+   * buffer.
+   *
+   * @param iter  the path
+   * @param b     the buffers
+   * @return the number of vertices, or -1 if the path has a curved segment
+   */
+  private static int readVertices(PathIterator iter, Buffers b) {
+    double[] segment = b.segment;
+    int n = 0;
+    for(; !iter.isDone(); iter.next()) {
+      int type = iter.currentSegment(segment);
+      if (type == PathIterator.SEG_CLOSE ||
+          (type == PathIterator.SEG_MOVETO && n > 0)) {
+        break;
+      }
+      if (type == PathIterator.SEG_QUADTO || type == PathIterator.SEG_CUBICTO) {
+        return -1;
+      }
+      if (2 * n == b.vertices.length) {
+        b.vertices = Arrays.copyOf(b.vertices, 2 * b.vertices.length);
+      }
+      b.vertices[2 * n] = segment[0];
+      b.vertices[2 * n + 1] = segment[1];
+      n++;
+    }
+    return n;
+  }
+
+  /**
+   * Whether the area overlaps the polygon whose first <code>n</code>
+   * vertices are interleaved in <code>p</code>.
+   *
+   * @param p  the x- and y-coordinates of the vertices
+   * @param n  the number of vertices
+   * @return whether the area and the polygon overlap
+   */
+  private boolean intersects(double[] p, int n) {
+    if (n == 0) {
+      return false;
+    }
+    // Bounding box rejection
+    double pMinX = p[0], pMaxX = p[0], pMinY = p[1], pMaxY = p[1];
+    for(int i = 1; i < n; i++) {
+      pMinX = Math.min(pMinX, p[2 * i]);
+      pMaxX = Math.max(pMaxX, p[2 * i]);
+      pMinY = Math.min(pMinY, p[2 * i + 1]);
+      pMaxY = Math.max(pMaxY, p[2 * i + 1]);
+    }
+    if (pMaxX < minX || pMinX > maxX || pMaxY < minY || pMinY > maxY) {
+      return false;
+    }
+    // A vertex of the polygon inside the area
+    for(int i = 0; i < n; i++) {
+      if (contains(p[2 * i], p[2 * i + 1])) {
+        return true;
+      }
+    }
+    // An edge of the polygon crossing an edge of the area
+    for(int i = 0; i < n; i++) {
+      int j = (i + 1 == n) ? 0 : i + 1;
+      double ax = p[2 * i], ay = p[2 * i + 1];
+      double bx = p[2 * j], by = p[2 * j + 1];
+      for(int k = 0; k < x1.length; k++) {
+        if (Line2D.linesIntersect(ax, ay, bx, by,
+                                  x1[k], y1[k], x2[k], y2[k])) {
+          return true;
+        }
+      }
+    }
+    // Otherwise the area is either disjoint from the polygon or lies
+    // entirely within it
+    for(int k = 0; k < x1.length; k++) {
+      if (polygonContains(p, n, x1[k], y1[k])) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Whether the polygon whose first <code>n</code> vertices are interleaved
+   * in <code>p</code> contains the given point.
+   *
+   * @param p  the x- and y-coordinates of the vertices
+   * @param n  the number of vertices
+   * @param x  the x-coordinate of the point
+   * @param y  the y-coordinate of the point
+   * @return whether the polygon contains the point
+   */
+  private static boolean polygonContains(double[] p, int n,
+                                         double x, double y) {
+    boolean inside = false;
+    for(int i = 0, j = n - 1; i < n; j = i++) {
+      double xi = p[2 * i], yi = p[2 * i + 1];
+      double xj = p[2 * j], yj = p[2 * j + 1];
+      if ((yi > y) != (yj > y) &&
+          x < xj + (y - yj) * (xi - xj) / (yi - yj)) {
+        inside = !inside;
+      }
+    }
+    return inside;
+  }
+
+}
@@ -38,6 +38,7 @@ import java.util.HashMap;
  * @param <T> the type of the object
  */
 public class HashMapRegistry<T> implements Registry<T> {
+  private static final long serialVersionUID = 1L;
 
   /** The initial ID */
   private int initId;
@@ -30,12 +30,14 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package aim4.util;
 
+import java.io.Serializable;
+
 /**
  * A generic registry.
  *
  * @param <T>  the type of object in the registry
  */
-public interface Registry<T> {
+public interface Registry<T> extends Serializable {
 
   /**
    * Register an object.
@@ -0,0 +1,133 @@
+package aim4.util;
+
+import java.io.Serializable;
+import java.util.Random;
+
+/**
+ * A random number generator whose state can be saved and put back, so that
+ * the global generator {@link Util#random} can be restored with a simulation
+ * snapshot without being replaced.  It gives the same numbers as a
+ * {@link Random} with the same seed: the linear congruential generator and
+ * the polar method of {@link #nextGaussian()} are the ones {@link Random}
+ * documents, but kept in fields of this class so that they can be copied.
+ */
+public class RestorableRandom extends Random {
+
+  private static final long serialVersionUID = 1L;
+
+  /////////////////////////////////
+  // NESTED CLASSES
+  /////////////////////////////////
+
+  /**
+   * A copy of the state of a generator.
+   */
+  public static final class State implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final long seed;
+    private final double nextNextGaussian;
+    private final boolean haveNextNextGaussian;
+
+    private State(long seed, double nextNextGaussian,
+                  boolean haveNextNextGaussian) {
+      this.seed = seed;
+      this.nextNextGaussian = nextNextGaussian;
+      this.haveNextNextGaussian = haveNextNextGaussian;
+    }
+  }
+
+  /////////////////////////////////
+  // CONSTANTS
+  /////////////////////////////////
+
+  private static final long MULTIPLIER = 0x5DEECE66DL;
+  private static final long ADDEND = 0xBL;
+  private static final long MASK = (1L << 48) - 1;
+
+  /////////////////////////////////
+  // PRIVATE FIELDS
+  /////////////////////////////////
+
+  // Not initialized here, since the constructor of Random sets them through
+  // setSeed() before the initializers of this class would run
+
+  /** The state of the linear congruential generator */
+  private long seed;
+  /** The second of the last pair of Gaussian values */
+  private double nextNextGaussian;
+  /** Whether {@link #nextNextGaussian} is yet to be returned */
+  private boolean haveNextNextGaussian;
+
+  /////////////////////////////////
+  // CONSTRUCTORS
+  /////////////////////////////////
+
+  /**
+   * Create a generator.
+   *
+   * @param seed  the seed
+   */
+  public RestorableRandom(long seed) {
+    super(seed);
+  }
+
+  /////////////////////////////////
+  // PUBLIC METHODS
+  /////////////////////////////////
+
+  @Override
+  public synchronized void setSeed(long seed) {
+    this.seed = (seed ^ MULTIPLIER) & MASK;
+    this.haveNextNextGaussian = false;
+  }
+
+  @Override
+  public synchronized double nextGaussian() {
+    if (haveNextNextGaussian) {
+      haveNextNextGaussian = false;
+      return nextNextGaussian;
+    }
+    double v1, v2, s;
+    do {
+      v1 = 2 * nextDouble() - 1;
+      v2 = 2 * nextDouble() - 1;
+      s = v1 * v1 + v2 * v2;
+    } while (s >= 1 || s == 0);
+    double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+    nextNextGaussian = v2 * multiplier;
+    haveNextNextGaussian = true;
+    return v1 * multiplier;
+  }
+
+  /**
+   * Copy the state of the generator.
+   *
+   * @return the state of the generator
+   */
+  public synchronized State saveState() {
+    return new State(seed, nextNextGaussian, haveNextNextGaussian);
+  }
+
+  /**
+   * Put back a state saved earlier, so that the generator gives the same
+   * numbers as it did after the state was saved.
+   *
+   * @param state  the state of the generator
+   */
+  public synchronized void restoreState(State state) {
+    this.seed = state.seed;
+    this.nextNextGaussian = state.nextNextGaussian;
+    this.haveNextNextGaussian = state.haveNextNextGaussian;
+  }
+
+  /////////////////////////////////
+  // PROTECTED METHODS
+  /////////////////////////////////
+
+  @Override
+  protected synchronized int next(int bits) {
+    seed = (seed * MULTIPLIER + ADDEND) & MASK;
+    return (int) (seed >>> (48 - bits));
+  }
+}
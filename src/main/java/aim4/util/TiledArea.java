@@ -33,13 +33,15 @@ package aim4.util;
 import java.awt.Shape;
 import java.awt.geom.Area;
 import java.awt.geom.Rectangle2D;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * A tiled area - a subdivision of an area into a grid of small rectangles.
  */
-public class TiledArea {
+public class TiledArea implements Serializable {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // NESTED CLASSES
@@ -48,7 +50,9 @@ public class TiledArea {
   /**
    * A tile.
    */
-  public static class Tile {
+  public static class Tile implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /** The area controlled by this tile. */
     private final Rectangle2D rectangle;
     /** the x-coordinate of this tile */
@@ -57,8 +57,11 @@ public class Util {
   public static long randSeed = (new Random()).nextLong();
   // public static final long randSeed = -6397397808339168785L;
 
-  /** The global random number generator */
-  public static final Random random = new Random(randSeed);
+  /**
+   * The global random number generator.  Its state is saved with a
+   * simulation snapshot and put back when the snapshot is restored.
+   */
+  public static final RestorableRandom random = new RestorableRandom(randSeed);
 
   static {
     if (Condor.IS_CONDOR_EXIST) {
@@ -38,6 +38,7 @@ import java.util.Map;
  * A registry based on weak references.
  */
 public class WeakRefRegistry<T> implements Registry<T> {
+  private static final long serialVersionUID = 1L;
 
   /** The initial ID */
   private int initId;
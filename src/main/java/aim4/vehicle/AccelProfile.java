@@ -30,6 +30,7 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package aim4.vehicle;
 
+import java.io.Serializable;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -38,7 +39,8 @@ import aim4.util.Util;
 /**
  * The acceleration profile.
  */
-public class AccelProfile {
+public class AccelProfile implements Serializable {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // NESTED CLASSES
@@ -47,7 +49,9 @@ public class AccelProfile {
   /**
    * A pair of acceleration and duration.
    */
-  public static class DurAccel {
+  public static class DurAccel implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     /** The duration */
     private double duration;
     /** The acceleration */
@@ -120,6 +120,16 @@ public interface AutoVehicleDriverModel extends VehicleDriverModel {
    */
   DoubleGauge getLRFDistance();
 
+  /**
+   * Get this Vehicle's laser range finder angle gauge.
+   * This should <b>only</b> be followed by a call to <code>read</code>,
+   * <b>except</b> in the actual physical simulator which is allowed to set
+   * these values.
+   *
+   * @return the Vehicle's laser range finder angle gauge
+   */
+  DoubleGauge getLRFAngle();
+
 
 
   /////////////////////////////////
@@ -12,6 +12,8 @@ import java.awt.geom.Point2D;
  * Created by Callum on 17/11/2016.
  */
 public abstract class BasicAutoVehicle extends BasicVehicle implements AutoVehicleSimModel {
+    private static final long serialVersionUID = 1L;
+
     /////////////////////////////////
     // CONSTANTS
     /////////////////////////////////
@@ -152,7 +154,7 @@ public abstract class BasicAutoVehicle extends BasicVehicle implements AutoVehic
     // PUBLIC METHODS
     /////////////////////////////////
 
-    // LRFS sensor (not implemented)
+    // LRFS sensor
 
     /**
      * Set the Vehicle's laser range finder operating mode.
@@ -189,13 +191,9 @@ public abstract class BasicAutoVehicle extends BasicVehicle implements AutoVehic
     }
 
     /**
-     * Get this Vehicle's laser range finder angle gauge.
-     * This should <b>only</b> be followed by a call to <code>read</code>,
-     * <b>except</b> in the actual physical simulator which is allowed to set
-     * these values.
-     *
-     * @return the Vehicle's laser range finder angle gauge
+     * {@inheritDoc}
      */
+    @Override
     public DoubleGauge getLRFAngle() {
         return lrfAngle;
     }
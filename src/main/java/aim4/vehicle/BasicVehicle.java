@@ -33,6 +33,7 @@ package aim4.vehicle;
 import java.awt.Shape;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
+import java.io.Serializable;
 import java.util.Iterator;
 import java.util.List;
 
@@ -50,6 +51,7 @@ import aim4.util.Util;
  * The most basic form of a vehicle.
  */
 public abstract class BasicVehicle implements VehicleSimModel {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // CONSTANTS
@@ -69,7 +71,7 @@ public abstract class BasicVehicle implements VehicleSimModel {
   /**
    * The movement of a vehicle.
    */
-  public static interface Movement {
+  public static interface Movement extends Serializable {
     /**
      * Get the position of the vehicle.
      *
@@ -120,6 +122,7 @@ public abstract class BasicVehicle implements VehicleSimModel {
    * The non-acceleration movement
    */
   public static abstract class NonAccelMovement implements Movement {
+    private static final long serialVersionUID = 1L;
 
     /////////////////////////////////
     // PROTECTED FIELDS
@@ -236,6 +239,7 @@ public abstract class BasicVehicle implements VehicleSimModel {
    * The steering movement.
    */
   public static class SteeringMovement extends NonAccelMovement {
+    private static final long serialVersionUID = 1L;
 
     /////////////////////////////////
     // PROTECTED FIELDS
@@ -371,6 +375,7 @@ public abstract class BasicVehicle implements VehicleSimModel {
    * The track movement.
    */
   public static class TrackMovement extends NonAccelMovement {
+    private static final long serialVersionUID = 1L;
 
     /////////////////////////////////
     // PRIVATE FIELDS
@@ -485,6 +490,7 @@ public abstract class BasicVehicle implements VehicleSimModel {
    * The physical movement.
    */
   public static class PhysicalMovement implements MovementWithAccel {
+    private static final long serialVersionUID = 1L;
 
     /////////////////////////////////
     // PROTECTED FIELDS
@@ -648,6 +654,7 @@ public abstract class BasicVehicle implements VehicleSimModel {
    * A move-to-target-velocity movement.
    */
   public static class MoveToTargetVelocityMovement extends PhysicalMovement {
+    private static final long serialVersionUID = 1L;
 
     /////////////////////////////////
     // PROTECTED FIELDS
@@ -898,6 +905,7 @@ public abstract class BasicVehicle implements VehicleSimModel {
    * The acceleration schedule movement.
    */
   public static class AccelScheduleMovement implements Movement {
+    private static final long serialVersionUID = 1L;
 
     /////////////////////////////////
     // PRIVATE FIELDS
@@ -1652,6 +1660,30 @@ public abstract class BasicVehicle implements VehicleSimModel {
     switchToMoveToTargetVelocityMovement();
   }
 
+  /**
+   * Place the vehicle at the given position with a straight steering wheel
+   * and no acceleration, discarding any acceleration schedule.  This is used
+   * when a vehicle that has been advanced outside of this movement model
+   * rejoins it.
+   *
+   * @param pos          the new position of the vehicle
+   * @param heading      the new heading of the vehicle
+   * @param velocity     the new velocity of the vehicle
+   * @param currentTime  the current time
+   */
+  public void resetMovement(Point2D pos, double heading, double velocity,
+                            double currentTime) {
+    movement = new MoveToTargetVelocityMovement(spec,
+                                                pos,
+                                                heading,
+                                                velocity,
+                                                0.0,        // steering angle
+                                                0.0,        // acceleration
+                                                velocity);  // target velocity
+    this.currentTime = currentTime;
+    updateGaugesAndMemos();
+  }
+
 
   /////////////////////////////////
   // PRIVATE METHODS
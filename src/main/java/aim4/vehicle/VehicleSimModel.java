@@ -6,11 +6,12 @@ import aim4.driver.Driver;
 import java.awt.*;
 import java.awt.geom.Line2D;
 import java.awt.geom.Point2D;
+import java.io.Serializable;
 
 /**
  * Created by Callum on 17/11/2016.
  */
-public interface VehicleSimModel extends VehicleDriverModel {
+public interface VehicleSimModel extends VehicleDriverModel, Serializable {
 
     /////////////////////////////////
     // PUBLIC METHODS
@@ -33,13 +33,15 @@ package aim4.vehicle;
 import java.awt.Shape;
 import java.awt.geom.GeneralPath;
 import java.awt.geom.Point2D;
+import java.io.Serializable;
 
 import aim4.config.SimConfig;
 
 /**
  * The characteristics of the vehicle
  */
-public class VehicleSpec {
+public class VehicleSpec implements Serializable {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // PRIVATE FIELDS
@@ -39,6 +39,7 @@ import aim4.im.aim.IntersectionManager;
 import aim4.im.merge.MergeManager;
 import aim4.map.lane.Lane;
 import aim4.map.merge.MergeMap;
+import aim4.util.CompiledArea;
 import aim4.util.GeomMath;
 import aim4.util.Util;
 import aim4.vehicle.aim.AIMBasicAutoVehicle;
@@ -264,7 +265,7 @@ public class VehicleUtil {
                 (!enteredIntersection ||
                         departureLane.getLaneIM().distanceToNextIntersection(
                                 testVehicle.getPosition()) == 0 ||
-                        im.getIntersection().getArea().contains(
+                        im.getIntersection().getCompiledArea().contains(
                                 testVehicle.getPosition()))) {
             // Give the CrashTestDummy a chance to steer
             dummy.act();
@@ -282,7 +283,7 @@ public class VehicleUtil {
             // Record whether or not we've entered the intersection
             if(!enteredIntersection &&
                     VehicleUtil.intersects(testVehicle,
-                            im.getIntersection().getAreaPlus())) {
+                            im.getIntersection().getCompiledAreaPlus())) {
                 enteredIntersection = true;
             }
             // Increment our simulated time
@@ -759,6 +760,24 @@ public class VehicleUtil {
         }
     }
 
+    /**
+     * Determine whether the given Vehicle is currently inside a compiled
+     * area.
+     *
+     * @param v     the Vehicle
+     * @param area  the compiled area
+     * @return      whether the Vehicle is currently in the area
+     */
+    public static boolean intersects(VehicleSimModel v, CompiledArea area) {
+        // As a quick check, see if the front or rear point is in the intersection
+        // Most of the time this should work
+        if (area.contains(v.getPosition()) || area.contains(v.getPointAtRear())) {
+            return true;
+        } else {
+            return area.intersects(v.getShape());
+        }
+    }
+
     /**
      * Determine whether the given Vehicle is currently inside an area. Uses the getPointAtMiddleFront with
      * DOUBLE_EQUAL_PRECISION instead of the getPosition() method to determine if the vehicle is within the area.
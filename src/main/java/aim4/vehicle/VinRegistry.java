@@ -30,6 +30,7 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package aim4.vehicle;
 
+import java.io.Serializable;
 import java.lang.ref.WeakReference;
 import java.util.HashMap;
 import java.util.Map;
@@ -44,6 +45,49 @@ import aim4.map.SpawnPoint;
  */
 public class VinRegistry {
 
+  /////////////////////////////////
+  // NESTED CLASSES
+  /////////////////////////////////
+
+  /**
+   * A copy of the content of the registry, which can be saved with a
+   * simulation snapshot and put back when the snapshot is restored.
+   */
+  public static class State implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /** The next VIN to be issued */
+    private final int vinGenerator;
+    /** The vehicles which are still alive, by VIN */
+    private final Map<Integer,VehicleSimModel> vinToVehicle;
+    /** The vehicle specifications, by VIN */
+    private final Map<Integer,VehicleSpec> vinToVehicleSpec;
+    /** The spawn points, by VIN */
+    private final Map<Integer,SpawnPoint> vinToSpawnPoint;
+    /** The destination roads, by VIN */
+    private final Map<Integer,Road> vinToDestRoad;
+
+    /**
+     * Copy the current content of the registry.
+     */
+    private State() {
+      this.vinGenerator = VinRegistry.vinGenerator;
+      this.vinToVehicle = new HashMap<Integer,VehicleSimModel>();
+      for(Map.Entry<Integer,WeakReference<VehicleSimModel>> entry :
+          VinRegistry.vinToVehicle.entrySet()) {
+        VehicleSimModel vehicle = entry.getValue().get();
+        if (vehicle != null) {
+          this.vinToVehicle.put(entry.getKey(), vehicle);
+        }
+      }
+      this.vinToVehicleSpec =
+        new HashMap<Integer,VehicleSpec>(VinRegistry.vinToVehicleSpec);
+      this.vinToSpawnPoint =
+        new HashMap<Integer,SpawnPoint>(VinRegistry.vinToSpawnPoint);
+      this.vinToDestRoad = new HashMap<Integer,Road>(VinRegistry.vinToDestRoad);
+    }
+  }
+
   /////////////////////////////////
   // PRIVATE FIELDS
   /////////////////////////////////
@@ -95,6 +139,33 @@ public class VinRegistry {
     vinToDestRoad = new HashMap<Integer,Road>();
   }
 
+  /**
+   * Copy the content of the registry.
+   *
+   * @return the state of the registry
+   */
+  public static State saveState() {
+    return new State();
+  }
+
+  /**
+   * Replace the content of the registry with a copy saved earlier.
+   *
+   * @param state  the state of the registry
+   */
+  public static void restoreState(State state) {
+    vinGenerator = state.vinGenerator;
+    vinToVehicle = new HashMap<Integer,WeakReference<VehicleSimModel>>();
+    for(Map.Entry<Integer,VehicleSimModel> entry :
+        state.vinToVehicle.entrySet()) {
+      vinToVehicle.put(entry.getKey(),
+                       new WeakReference<VehicleSimModel>(entry.getValue()));
+    }
+    vinToVehicleSpec = new HashMap<Integer,VehicleSpec>(state.vinToVehicleSpec);
+    vinToSpawnPoint = new HashMap<Integer,SpawnPoint>(state.vinToSpawnPoint);
+    vinToDestRoad = new HashMap<Integer,Road>(state.vinToDestRoad);
+  }
+
   /**
    * Put the vehicle to the registry.
    *
@@ -187,6 +258,16 @@ public class VinRegistry {
     return vinToVehicleSpec.containsKey(vin);
   }
 
+  /**
+   * Get the number of vehicles registered since the registry was last
+   * reset.
+   *
+   * @return the number of vehicles registered
+   */
+  public static int getNumOfRegisteredVehicles() {
+    return vinToVehicleSpec.size();
+  }
+
   /**
    * Given a VIN, get the vehicle with that VIN.
    *
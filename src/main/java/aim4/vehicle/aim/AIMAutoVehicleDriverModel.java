@@ -3,6 +3,7 @@ package aim4.vehicle.aim;
 import aim4.driver.aim.AIMAutoDriver;
 import aim4.msg.aim.i2v.I2VMessage;
 import aim4.msg.aim.v2i.V2IMessage;
+import aim4.msg.aim.v2v.V2VMessage;
 import aim4.vehicle.AutoVehicleDriverModel;
 
 import java.util.List;
@@ -19,7 +20,8 @@ public interface AIMAutoVehicleDriverModel extends AutoVehicleDriverModel {
 
     /**
      * Get the list of all messages currently in the queue of I2V messages
-     * waiting to be read by this Vehicle.
+     * waiting to be read by this Vehicle.  The returned list may be reused
+     * by the vehicle, so it is only valid until the next call.
      *
      * @return the list of all messages currently in the queue of I2V messages.
      */
@@ -41,6 +43,25 @@ public interface AIMAutoVehicleDriverModel extends AutoVehicleDriverModel {
      */
     void receive(I2VMessage msg);
 
+    // communications systems (V2V)
+
+    /**
+     * Adds a message to the outgoing queue of messages to be delivered to
+     * other Vehicles.
+     *
+     * @param msg the message to send to other Vehicles
+     */
+    void send(V2VMessage msg);
+
+    /**
+     * Get the V2V messages received by this Vehicle during the last
+     * communication phase.  The list is reused and is replaced at the next
+     * communication phase.
+     *
+     * @return the V2V messages received during the last communication phase
+     */
+    List<V2VMessage> getV2VInbox();
+
     @Override
     AIMAutoDriver getDriver();
 
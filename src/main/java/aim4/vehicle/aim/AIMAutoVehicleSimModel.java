@@ -30,12 +30,36 @@ OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
 */
 package aim4.vehicle.aim;
 
+import aim4.msg.aim.v2v.V2VMessage;
 import aim4.vehicle.AutoVehicleSimModel;
 import aim4.vehicle.aim.AIMAutoVehicleDriverModel;
 
+import java.util.List;
+
 /**
  * The interface of an autonomous vehicle from the viewpoint of a simulator.
  */
 public interface AIMAutoVehicleSimModel extends AIMAutoVehicleDriverModel,
         AIMVehicleSimModel, AutoVehicleSimModel {
+
+    /**
+     * Get the list of V2V messages waiting to be delivered from this
+     * Vehicle.
+     *
+     * @return the list of V2V messages to be delivered from this Vehicle
+     */
+    List<V2VMessage> getV2VOutbox();
+
+    /**
+     * Adds a message to the incoming list of messages received from other
+     * Vehicles.
+     *
+     * @param msg the message received from another Vehicle
+     */
+    void receive(V2VMessage msg);
+
+    /**
+     * Discard the V2V messages received during the last communication phase.
+     */
+    void clearV2VInbox();
 }
@@ -36,12 +36,13 @@ import aim4.driver.aim.AIMAutoDriver;
 import aim4.map.merge.RoadNames;
 import aim4.msg.aim.i2v.I2VMessage;
 import aim4.msg.aim.v2i.V2IMessage;
+import aim4.msg.aim.v2v.V2VMessage;
 import aim4.vehicle.BasicAutoVehicle;
 import aim4.vehicle.VehicleSpec;
 
 import java.awt.geom.Point2D;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Queue;
 
@@ -51,6 +52,7 @@ import java.util.Queue;
  */
 public class AIMBasicAutoVehicle extends BasicAutoVehicle
         implements AIMAutoVehicleSimModel {
+    private static final long serialVersionUID = 1L;
 
     /**
      * The default distance the Vehicle can transmit messages.
@@ -83,13 +85,33 @@ public class AIMBasicAutoVehicle extends BasicAutoVehicle
      * The messages waiting to be sent from the Vehicle to an
      * IntersectionManager.
      */
-    private Queue<V2IMessage> v2iOutbox = new LinkedList<V2IMessage>();
+    private Queue<V2IMessage> v2iOutbox = new ArrayDeque<V2IMessage>();
 
     /**
      * The messages waiting to be received from an IntersectionManager and
      * processed by the Vehicle.
      */
-    private Queue<I2VMessage> i2vInbox = new LinkedList<I2VMessage>();
+    private List<I2VMessage> i2vInbox = new ArrayList<I2VMessage>();
+
+    /**
+     * The messages returned by the last call to
+     * {@link #pollAllMessagesFromI2VInbox()}.  It is swapped with the inbox
+     * on every poll so that polling does not allocate.
+     */
+    private List<I2VMessage> i2vPolled = new ArrayList<I2VMessage>();
+
+    // V2V Communications systems
+
+    /**
+     * The messages waiting to be sent from the Vehicle to other Vehicles.
+     */
+    private List<V2VMessage> v2vOutbox = new ArrayList<V2VMessage>();
+
+    /**
+     * The messages received from other Vehicles during the last
+     * communication phase.
+     */
+    private List<V2VMessage> v2vInbox = new ArrayList<V2VMessage>();
 
 
     // Stats on communication
@@ -232,8 +254,10 @@ public class AIMBasicAutoVehicle extends BasicAutoVehicle
     public List<I2VMessage> pollAllMessagesFromI2VInbox() {
         // TODO: many need to make this function atomic to avoid
         // putting messages in the queue and retrieve from it at the same time.
-        List<I2VMessage> msgs = new ArrayList<I2VMessage>(i2vInbox);
+        List<I2VMessage> msgs = i2vInbox;
+        i2vInbox = i2vPolled;
         i2vInbox.clear();
+        i2vPolled = msgs;
         return msgs;
     }
 
@@ -260,6 +284,50 @@ public class AIMBasicAutoVehicle extends BasicAutoVehicle
         bitsReceived += msg.getSize();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void send(V2VMessage msg) {
+        v2vOutbox.add(msg);
+        bitsTransmitted += msg.getSize();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("ReturnOfCollectionOrArrayField")
+    public List<V2VMessage> getV2VOutbox() {
+        return v2vOutbox;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void receive(V2VMessage msg) {
+        v2vInbox.add(msg);
+        bitsReceived += msg.getSize();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @SuppressWarnings("ReturnOfCollectionOrArrayField")
+    public List<V2VMessage> getV2VInbox() {
+        return v2vInbox;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clearV2VInbox() {
+        v2vInbox.clear();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -65,6 +65,7 @@ import java.net.SocketAddress;
  */
 public class ProxyVehicle extends AIMBasicAutoVehicle
                           implements ProxyVehicleSimModel {
+  private static final long serialVersionUID = 1L;
 
   /////////////////////////////////
   // CONSTANTS
@@ -6,6 +6,8 @@ import aim4.driver.cpm.CPMCoordinator.*;
 import aim4.driver.cpm.CPMV2VDriver;
 import aim4.map.connections.BasicConnection;
 import aim4.map.cpm.parking.ParkingLane;
+import aim4.sim.simulator.cpm.helper.CPMEventLog;
+import aim4.sim.simulator.cpm.helper.CPMEventType;
 import aim4.vehicle.BasicAutoVehicle;
 import aim4.vehicle.VehicleSpec;
 
@@ -15,6 +17,7 @@ import java.awt.geom.Point2D;
  * The basic autonomous vehicle for CPM simulations.
  */
 public class CPMBasicAutoVehicle extends BasicAutoVehicle {
+    private static final long serialVersionUID = 1L;
 
     /////////////////////////////////
     // PRIVATE FIELDS
@@ -237,7 +240,9 @@ public class CPMBasicAutoVehicle extends BasicAutoVehicle {
     }
 
     public void clearI2Vinbox() {
-        System.out.println("I2V inbox cleared");
+        if (CPMEventLog.VEHICLE) {
+            CPMEventLog.log(CPMEventType.I2V_INBOX_CLEARED, getVIN(), gaugeTime());
+        }
         I2Vinbox = null;
     }
 
@@ -250,7 +255,9 @@ public class CPMBasicAutoVehicle extends BasicAutoVehicle {
     }
 
     public void clearV2Vinbox() {
-        System.out.println("V2V inbox cleared");
+        if (CPMEventLog.VEHICLE) {
+            CPMEventLog.log(CPMEventType.V2V_INBOX_CLEARED, getVIN(), gaugeTime());
+        }
         V2Vinbox = null;
     }
 
@@ -16,6 +16,7 @@ import java.util.Queue;
  * Created by Callum on 13/04/2017.
  */
 public class MergeV2IAutoVehicle extends MergeBasicAutoVehicle implements MergeV2IAutoVehicleSimModel {
+    private static final long serialVersionUID = 1L;
 
     // CONSTANTS //
     /**
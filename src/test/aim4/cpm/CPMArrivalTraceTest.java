@@ -0,0 +1,76 @@
+package aim4.cpm;
+
+import aim4.map.cpm.CPMArrivalTrace;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * TEST SUITE PURPOSE: Check that arrival traces are read correctly from
+ * CSV and binary files, across several batches of rows.
+ */
+public class CPMArrivalTraceTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File writeCsv(int numberOfRows) throws IOException {
+        File csv = folder.newFile("trace.csv");
+        FileWriter writer = new FileWriter(csv);
+        writer.write("Entry,Parking\n");
+        for (int i = 0; i < numberOfRows; i++) {
+            writer.write(i + "," + (2 * i) + "\n");
+        }
+        writer.close();
+        return csv;
+    }
+
+    private void assertTraceRows(CPMArrivalTrace trace, int numberOfRows) {
+        for (int i = 0; i < numberOfRows; i++) {
+            CPMArrivalTrace.Arrival arrival = trace.peek();
+            assertNotNull(arrival);
+            assertEquals(i, arrival.getEntryTime(), 0.0);
+            assertEquals(2 * i, arrival.getParkingTime(), 0.0);
+            trace.next();
+        }
+        assertNull(trace.peek());
+    }
+
+    @Test
+    public void testReadCsvInBatches() throws Exception {
+        int numberOfRows = 2 * CPMArrivalTrace.BATCH_SIZE + 3;
+        File csv = writeCsv(numberOfRows);
+        assertTraceRows(new CPMArrivalTrace(csv.getPath()), numberOfRows);
+    }
+
+    @Test
+    public void testReadTimesInHoursMinutesSeconds() throws Exception {
+        File csv = folder.newFile("times.csv");
+        FileWriter writer = new FileWriter(csv);
+        writer.write("Entry,Parking\n0:08:53,100\n");
+        writer.close();
+        CPMArrivalTrace trace = new CPMArrivalTrace(csv.getPath());
+        assertEquals(533.0, trace.peek().getEntryTime(), 0.0);
+        assertEquals(100.0, trace.peek().getParkingTime(), 0.0);
+    }
+
+    @Test
+    public void testReadBinary() throws Exception {
+        int numberOfRows = CPMArrivalTrace.BATCH_SIZE;
+        File csv = writeCsv(numberOfRows);
+        File binary = new File(folder.getRoot(), "trace.bin");
+        CPMArrivalTrace.convertToBinary(csv.getPath(), binary.getPath());
+        assertTraceRows(new CPMArrivalTrace(binary.getPath()), numberOfRows);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testMissingFile() {
+        new CPMArrivalTrace(new File(folder.getRoot(), "missing.csv").getPath());
+    }
+}
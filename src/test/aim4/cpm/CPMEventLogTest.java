@@ -0,0 +1,162 @@
+package aim4.cpm;
+
+import aim4.sim.simulator.cpm.helper.CPMEventLog;
+import aim4.sim.simulator.cpm.helper.CPMEventType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * TEST SUITE PURPOSE: Check that the events logged by the car park
+ * simulation can be read back, in order, and written as CSV.
+ */
+public class CPMEventLogTest {
+
+    List<String> messages;
+    List<Integer> vins;
+
+    CPMEventLog.Listener recorder = new CPMEventLog.Listener() {
+        @Override
+        public void eventLogged(long seq, CPMEventType type, int vin,
+                                double time, Object arg) {
+            messages.add(type.format(arg));
+            vins.add(vin);
+        }
+    };
+
+    @Before
+    public void setUp() {
+        CPMEventLog.setRecording(true);
+        CPMEventLog.clear();
+        messages = new ArrayList<String>();
+        vins = new ArrayList<Integer>();
+    }
+
+    @After
+    public void tearDown() {
+        CPMEventLog.setRecording(false);
+    }
+
+    @Test
+    public void testEventsAreReadInOrder() {
+        CPMEventLog.log(CPMEventType.ENTERING_CORNER, 3, 1.0);
+        CPMEventLog.log(CPMEventType.FINDING_SPACE, 4, 2.0, "Parking lane 1");
+        assertEquals(2, CPMEventLog.drain(recorder));
+        assertEquals("Entering corner.", messages.get(0));
+        assertEquals("Finding space on Parking lane 1", messages.get(1));
+        assertEquals(3, (int) vins.get(0));
+        assertEquals(4, (int) vins.get(1));
+        // The events have been removed from the log
+        assertEquals(0, CPMEventLog.drain(recorder));
+    }
+
+    @Test
+    public void testEventsAreDroppedWhenFull() {
+        for (int i = 0; i < CPMEventLog.CAPACITY + 10; i++) {
+            CPMEventLog.log(CPMEventType.VEHICLE_ENTERING, i, i);
+        }
+        assertEquals(10, CPMEventLog.getNumOfDroppedEvents());
+        assertEquals(CPMEventLog.CAPACITY, CPMEventLog.drain(recorder));
+        assertEquals(0, (int) vins.get(0));
+        // There is room again once the events have been read
+        CPMEventLog.log(CPMEventType.VEHICLE_EXITING, 1, 0.0);
+        assertEquals(1, CPMEventLog.drain(recorder));
+    }
+
+    @Test
+    public void testBackgroundWriter() throws IOException {
+        StringWriter out = new StringWriter();
+        CPMEventLog.start(out);
+        CPMEventLog.log(CPMEventType.VEHICLE_EXITING, 7, 5.0);
+        CPMEventLog.stop();
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("seq,time,event,vin,message", lines[0]);
+        assertTrue(lines[1].endsWith(",5.0,VEHICLE_EXITING,7,\"Vehicle is exiting.\""));
+    }
+
+    @Test
+    public void testWriteFailureIsThrownByStop() throws IOException {
+        CPMEventLog.setRecording(false);
+        final IOException failure = new IOException("Disk full");
+        final StringWriter written = new StringWriter();
+        Writer out = new Writer() {
+            @Override
+            public void write(char[] buf, int off, int len) throws IOException {
+                if (written.getBuffer().length() > 0 && buf[off] != '\n') {
+                    throw failure;
+                }
+                written.write(buf, off, len);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        CPMEventLog.start(out);
+        CPMEventLog.log(CPMEventType.VEHICLE_EXITING, 7, 5.0);
+        // Recording stops once the background thread has failed to write
+        long deadline = System.currentTimeMillis() + 10000;
+        while (CPMEventLog.isRecording()
+                && System.currentTimeMillis() < deadline) {
+            Thread.yield();
+        }
+        assertFalse(CPMEventLog.isRecording());
+        try {
+            CPMEventLog.stop();
+            fail("The failure to write was not thrown");
+        } catch (IOException e) {
+            assertSame(failure, e);
+        }
+        assertFalse(isDrainerRunning());
+        // The failure is only thrown once
+        CPMEventLog.stop();
+    }
+
+    @Test
+    public void testNothingIsRecordedWithoutReaders() {
+        CPMEventLog.setRecording(false);
+        assertFalse(CPMEventLog.isRecording());
+        CPMEventLog.log(CPMEventType.VEHICLE_EXITING, 1, 0.0, "unread");
+        assertEquals(0, CPMEventLog.drain(recorder));
+        assertFalse(isDrainerRunning());
+    }
+
+    @Test
+    public void testBackgroundThreadStopsWithoutListeners() {
+        CPMEventLog.setRecording(false);
+        CPMEventLog.addListener(recorder);
+        assertTrue(CPMEventLog.isRecording());
+        assertTrue(isDrainerRunning());
+        CPMEventLog.log(CPMEventType.VEHICLE_EXITING, 2, 1.0);
+        CPMEventLog.removeListener(recorder);
+        // The events logged before the listener was removed have been read
+        assertEquals(1, messages.size());
+        assertFalse(CPMEventLog.isRecording());
+        assertFalse(isDrainerRunning());
+    }
+
+    /**
+     * Whether the background thread of the log is running.
+     */
+    private static boolean isDrainerRunning() {
+        for (Thread t : Thread.getAllStackTraces().keySet()) {
+            if (t.getName().equals("CPMEventLog") && t.isAlive()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
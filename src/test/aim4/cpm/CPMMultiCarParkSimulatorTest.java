@@ -0,0 +1,111 @@
+package aim4.cpm;
+
+import aim4.map.cpm.CPMBasicMap;
+import aim4.map.cpm.CPMCarParkWithStatus;
+import aim4.map.cpm.CPMMapUtil;
+import aim4.sim.results.CPMResult;
+import aim4.sim.simulator.cpm.CPMAutoDriverSimulator;
+import aim4.sim.simulator.cpm.CPMMultiCarParkSimulator;
+import aim4.util.Util;
+import aim4.vehicle.VinRegistry;
+import aim4.vehicle.cpm.CPMBasicAutoVehicle;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * TEST SUITE PURPOSE: Check that stepping several car parks in parallel gives
+ * the same vehicles as stepping them in turn.
+ */
+public class CPMMultiCarParkSimulatorTest {
+
+    private static final int NUMBER_OF_CAR_PARKS = 3;
+    private static final int NUMBER_OF_STEPS = 2000;
+
+    private CPMMultiCarParkSimulator makeSimulator(int numOfThreads) {
+        VinRegistry.reset();
+        Util.random.setSeed(1);
+        List<CPMAutoDriverSimulator> carParks = new ArrayList<CPMAutoDriverSimulator>();
+        for (int i = 0; i < NUMBER_OF_CAR_PARKS; i++) {
+            CPMBasicMap layout = new CPMCarParkWithStatus(2.0, // laneWidth
+                    10.0, // speedLimit
+                    0.0, // initTime
+                    6, // numberOfParkingLanes
+                    40.0, // parkingLength
+                    5.0); // accessLength
+            CPMMapUtil.setUpInfiniteSingleSpecVehicleSpawnPoint(layout, 1.0);
+            carParks.add(new CPMAutoDriverSimulator(layout));
+        }
+        return new CPMMultiCarParkSimulator(carParks, numOfThreads);
+    }
+
+    private List<String> runCarParks(int numOfThreads) {
+        CPMMultiCarParkSimulator sim = makeSimulator(numOfThreads);
+        for (int i = 0; i < NUMBER_OF_STEPS; i++) {
+            sim.step(0.02);
+        }
+        sim.shutdown();
+        assertEquals(NUMBER_OF_STEPS * 0.02, sim.getSimulationTime(), 1e-6);
+
+        List<String> vehicles = new ArrayList<String>();
+        for (CPMAutoDriverSimulator carPark : sim.getCarParks()) {
+            assertEquals(sim.getSimulationTime(), carPark.getSimulationTime(), 1e-6);
+            TreeMap<Integer, CPMBasicAutoVehicle> vinToVehicles =
+                    new TreeMap<Integer, CPMBasicAutoVehicle>(carPark.getVinToVehicles());
+            for (CPMBasicAutoVehicle vehicle : vinToVehicles.values()) {
+                vehicles.add(vehicle.getVIN() + " " + vehicle.getPosition());
+            }
+            vehicles.add("--");
+        }
+        vehicles.add(sim.produceResultsCSV());
+        return vehicles;
+    }
+
+    @Test
+    public void testParallelStepsMatchSequentialSteps() throws Exception {
+        List<String> sequential = runCarParks(1);
+        List<String> parallel = runCarParks(NUMBER_OF_CAR_PARKS);
+
+        // Each car park should have some vehicles
+        assertTrue(sequential.size() > 2 * NUMBER_OF_CAR_PARKS);
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void testResultMergesCarParks() throws Exception {
+        CPMMultiCarParkSimulator sim = makeSimulator(1);
+        for (int i = 0; i < NUMBER_OF_STEPS; i++) {
+            sim.step(0.02);
+        }
+        sim.shutdown();
+
+        CPMResult result = sim.produceResult();
+        assertEquals(NUMBER_OF_CAR_PARKS, result.getCarParks().size());
+        int activeVehicles = 0;
+        for (int i = 0; i < NUMBER_OF_CAR_PARKS; i++) {
+            CPMAutoDriverSimulator carPark = sim.getCarParks().get(i);
+            CPMResult.CarPark carParkResult = result.getCarParks().get(i);
+            assertEquals(carPark.getNumCompletedVehicles(),
+                    carParkResult.getCompletedVehicles());
+            assertEquals(carPark.getVinToVehicles().size(),
+                    carParkResult.getActiveVehicles());
+            assertEquals(carPark.getMap().getStatusMonitor().getNumberOfAllowedEntries(),
+                    carParkResult.getAllowedEntries());
+            activeVehicles += carParkResult.getActiveVehicles();
+        }
+        assertTrue(activeVehicles > 0);
+        assertEquals(activeVehicles, result.getActiveVehicles());
+        assertEquals(sim.getNumCompletedVehicles(), result.getCompletedVehicles());
+        assertEquals(sim.getSimulationTime(), result.getSimulationTime(), 1e-6);
+
+        // A header, a row for each car park and a row of totals
+        String[] lines = sim.produceResultsCSV().split("\n");
+        assertEquals(NUMBER_OF_CAR_PARKS + 2, lines.length);
+        assertEquals(CPMResult.produceCSVHeader(), lines[0]);
+        assertTrue(lines[NUMBER_OF_CAR_PARKS + 1].startsWith("Total,"));
+    }
+}
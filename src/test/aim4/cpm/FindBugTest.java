@@ -8,7 +8,6 @@ import aim4.map.cpm.CPMCarParkWithStatus;
 import aim4.map.cpm.testmaps.CPMMapOneCorner;
 import aim4.sim.simulator.cpm.CPMAutoDriverSimulator;
 import aim4.vehicle.cpm.CPMBasicAutoVehicle;
-import javafx.util.Pair;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -43,9 +42,8 @@ public class FindBugTest {
                 1, // numberOfParkingLanes
                 20, // parkingLength
                 5); // access length
-        Pair<Boolean, String> useCsvPair =
-                new Pair<Boolean, String>(true, "src\\test\\aim4\\cpm\\testfiles\\firstParksLongerThanSecond.csv");
-        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, useCsvPair);
+        String arrivalTrace = "src\\test\\aim4\\cpm\\testfiles\\firstParksLongerThanSecond.csv";
+        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, arrivalTrace);
         this.sim = new SimulatorForCarParkWithStatus(map);
         this.simThread = new TestSimThread(sim);
 
@@ -88,9 +86,8 @@ public class FindBugTest {
                 1, // numberOfParkingLanes
                 20, // parkingLength
                 1); // access length
-        Pair<Boolean, String> useCsvPair =
-                new Pair<Boolean, String>(true, "C:\\Users\\Becci\\Google Drive\\Documents\\York\\Year 3\\Project\\Design & Imp\\ferreiraDataset.csv");
-        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, useCsvPair);
+        String arrivalTrace = "C:\\Users\\Becci\\Google Drive\\Documents\\York\\Year 3\\Project\\Design & Imp\\ferreiraDataset.csv";
+        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, arrivalTrace);
         this.sim = new SimulatorForCarParkWithStatus(map);
         this.simThread = new TestSimThread(sim);
 
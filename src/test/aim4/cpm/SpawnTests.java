@@ -5,7 +5,6 @@ import aim4.map.cpm.CPMCarParkWithStatus;
 import aim4.map.cpm.CPMMapUtil;
 import aim4.sim.simulator.cpm.CPMAutoDriverSimulator;
 import aim4.vehicle.cpm.CPMBasicAutoVehicle;
-import javafx.util.Pair;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -134,8 +133,8 @@ public class SpawnTests {
                 1, // numberOfParkingLanes
                 5, // parkingLength
                 5); // access length
-        Pair<Boolean, String> useCsvPair = new Pair<Boolean, String>(true, "src\\test\\aim4\\cpm\\testfiles\\2vehicles1spawn.csv");
-        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, useCsvPair);
+        String arrivalTrace = "src\\test\\aim4\\cpm\\testfiles\\2vehicles1spawn.csv";
+        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, arrivalTrace);
         this.sim = new CPMAutoDriverSimulator(map);
         this.simThread = new TestSimThread(sim);
 
@@ -167,9 +166,8 @@ public class SpawnTests {
                 1, // numberOfParkingLanes
                 20, // parkingLength
                 5); // access length
-        Pair<Boolean, String> useCsvPair =
-                new Pair<Boolean, String>(true, "src\\test\\aim4\\cpm\\testfiles\\validSeconds.csv");
-        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, useCsvPair);
+        String arrivalTrace = "src\\test\\aim4\\cpm\\testfiles\\validSeconds.csv";
+        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, arrivalTrace);
         this.sim = new CPMAutoDriverSimulator(map);
         this.simThread = new TestSimThread(sim);
 
@@ -216,9 +214,8 @@ public class SpawnTests {
                 1, // numberOfParkingLanes
                 25, // parkingLength
                 5); // access length
-        Pair<Boolean, String> useCsvPair =
-                new Pair<Boolean, String>(true, "src\\test\\aim4\\cpm\\testfiles\\validTimes.csv");
-        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, useCsvPair);
+        String arrivalTrace = "src\\test\\aim4\\cpm\\testfiles\\validTimes.csv";
+        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, arrivalTrace);
         this.sim = new CPMAutoDriverSimulator(map);
         this.simThread = new TestSimThread(sim);
 
@@ -278,9 +275,8 @@ public class SpawnTests {
                 1, // numberOfParkingLanes
                 20, // parkingLength
                 5); // access length
-        Pair<Boolean, String> useCsvPair =
-                new Pair<Boolean, String>(true, "src\\test\\aim4\\cpm\\testfiles\\validSeconds.csv");
-        CPMMapUtil.setUpSpecificRandomSpecVehicleSpawnPoint(map, useCsvPair);
+        String arrivalTrace = "src\\test\\aim4\\cpm\\testfiles\\validSeconds.csv";
+        CPMMapUtil.setUpSpecificRandomSpecVehicleSpawnPoint(map, arrivalTrace);
         this.sim = new CPMAutoDriverSimulator(map);
         this.simThread = new TestSimThread(sim);
 
@@ -327,9 +323,8 @@ public class SpawnTests {
                 1, // numberOfParkingLanes
                 25, // parkingLength
                 5); // access length
-        Pair<Boolean, String> useCsvPair =
-                new Pair<Boolean, String>(true, "src\\test\\aim4\\cpm\\testfiles\\validTimes.csv");
-        CPMMapUtil.setUpSpecificRandomSpecVehicleSpawnPoint(map, useCsvPair);
+        String arrivalTrace = "src\\test\\aim4\\cpm\\testfiles\\validTimes.csv";
+        CPMMapUtil.setUpSpecificRandomSpecVehicleSpawnPoint(map, arrivalTrace);
         this.sim = new CPMAutoDriverSimulator(map);
         this.simThread = new TestSimThread(sim);
 
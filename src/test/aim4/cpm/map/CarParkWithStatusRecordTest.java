@@ -3,7 +3,6 @@ package aim4.cpm.map;
 import aim4.map.cpm.CPMMapUtil;
 import aim4.sim.simulator.cpm.CPMAutoDriverSimulator;
 import aim4.map.cpm.CPMCarParkWithStatus;
-import javafx.util.Pair;
 import org.junit.Before;
 import org.junit.Test;
 import util.sim.TestSimThread;
@@ -30,9 +29,8 @@ public class CarParkWithStatusRecordTest {
                 3, // numberOfParkingLanes
                 20, // parkingLength
                 5); // access length
-        Pair<Boolean, String> useCsvPair =
-                new Pair<Boolean, String>(true, "src\\test\\aim4\\cpm\\testfiles\\secondParksLongerThanFirst.csv");
-        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map,useCsvPair );
+        String arrivalTrace = "src\\test\\aim4\\cpm\\testfiles\\secondParksLongerThanFirst.csv";
+        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map,arrivalTrace);
         this.sim = new CPMAutoDriverSimulator(map);
         this.simThread = new TestSimThread(sim);
     }
@@ -5,7 +5,6 @@ import aim4.map.connections.Corner;
 import aim4.map.cpm.CPMMapUtil;
 import aim4.map.cpm.testmaps.CPMMapOneCorner;
 import aim4.vehicle.cpm.CPMBasicAutoVehicle;
-import javafx.util.Pair;
 import org.junit.After;
 import org.junit.Test;
 import util.cpm.MockCPMDriver;
@@ -31,9 +30,8 @@ public class CornerBehaviourTest {
         this.map = new CPMMapOneCorner(2, // laneWidth
                 10.0, // speedLimit
                 0.0); // initTime
-        Pair<Boolean, String> useCsvPair =
-                new Pair<Boolean, String>(true, "src\\test\\aim4\\cpm\\testfiles\\oneVehicleParks10Seconds.csv");
-        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, useCsvPair);
+        String arrivalTrace = "src\\test\\aim4\\cpm\\testfiles\\oneVehicleParks10Seconds.csv";
+        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, arrivalTrace);
         this.sim = new SimulatorForMapOneCorner(map, ParkingStatus.WAITING, DrivingState.DEFAULT_DRIVING_BEHAVIOUR);
         this.simThread = new TestSimThread(sim);
 
@@ -78,9 +76,8 @@ public class CornerBehaviourTest {
         this.map = new CPMMapOneCorner(2, // laneWidth
                 10.0, // speedLimit
                 0.0); // initTime
-        Pair<Boolean, String> useCsvPair =
-                new Pair<Boolean, String>(true, "src\\test\\aim4\\cpm\\testfiles\\oneVehicleParks10Seconds.csv");
-        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, useCsvPair);
+        String arrivalTrace = "src\\test\\aim4\\cpm\\testfiles\\oneVehicleParks10Seconds.csv";
+        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, arrivalTrace);
         this.sim = new SimulatorForMapOneCorner(map, ParkingStatus.PARKING, DrivingState.DEFAULT_DRIVING_BEHAVIOUR);
         this.simThread = new TestSimThread(sim);
 
@@ -125,9 +122,8 @@ public class CornerBehaviourTest {
         this.map = new CPMMapOneCorner(2, // laneWidth
                 10.0, // speedLimit
                 0.0); // initTime
-        Pair<Boolean, String> useCsvPair =
-                new Pair<Boolean, String>(true, "src\\test\\aim4\\cpm\\testfiles\\oneVehicleParks10Seconds.csv");
-        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, useCsvPair);
+        String arrivalTrace = "src\\test\\aim4\\cpm\\testfiles\\oneVehicleParks10Seconds.csv";
+        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, arrivalTrace);
         this.sim = new SimulatorForMapOneCorner(map, ParkingStatus.RELOCATING, DrivingState.DEFAULT_DRIVING_BEHAVIOUR);
         this.simThread = new TestSimThread(sim);
 
@@ -172,9 +168,8 @@ public class CornerBehaviourTest {
         this.map = new CPMMapOneCorner(2, // laneWidth
                 10.0, // speedLimit
                 0.0); // initTime
-        Pair<Boolean, String> useCsvPair =
-                new Pair<Boolean, String>(true, "src\\test\\aim4\\cpm\\testfiles\\oneVehicleParks10Seconds.csv");
-        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, useCsvPair);
+        String arrivalTrace = "src\\test\\aim4\\cpm\\testfiles\\oneVehicleParks10Seconds.csv";
+        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, arrivalTrace);
         this.sim = new SimulatorForMapOneCorner(map, ParkingStatus.EXIT, DrivingState.DEFAULT_DRIVING_BEHAVIOUR);
         this.simThread = new TestSimThread(sim);
 
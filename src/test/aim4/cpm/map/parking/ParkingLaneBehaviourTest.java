@@ -4,7 +4,6 @@ import aim4.driver.cpm.CPMCoordinator;
 import aim4.map.cpm.CPMMapUtil;
 import aim4.map.cpm.testmaps.CPMMapParkingLane;
 import aim4.vehicle.cpm.CPMBasicAutoVehicle;
-import javafx.util.Pair;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -42,9 +41,8 @@ public class ParkingLaneBehaviourTest {
                 5, // accessLength
                 2, // overlappingRoadWidth
                 2); // parkingLaneWidth
-        Pair<Boolean, String> useCsvPair =
-                new Pair<Boolean, String>(true, "src\\test\\aim4\\cpm\\testfiles\\oneVehicleParks10Seconds.csv");
-        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, useCsvPair);
+        String arrivalTrace = "src\\test\\aim4\\cpm\\testfiles\\oneVehicleParks10Seconds.csv";
+        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, arrivalTrace);
         this.sim = new SimulatorForMapParkingLane(map);
         this.simThread = new TestSimThread(sim);
 
@@ -77,9 +75,8 @@ public class ParkingLaneBehaviourTest {
                 5, // accessLength
                 2, // overlappingRoadWidth
                 2); // parkingLaneWidth
-        Pair<Boolean, String> useCsvPair =
-                new Pair<Boolean, String>(true, "src\\test\\aim4\\cpm\\testfiles\\oneVehicleParks10Seconds.csv");
-        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, useCsvPair);
+        String arrivalTrace = "src\\test\\aim4\\cpm\\testfiles\\oneVehicleParks10Seconds.csv";
+        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, arrivalTrace);
         this.sim = new SimulatorForMapParkingLane(map);
         this.simThread = new TestSimThread(sim);
 
@@ -120,9 +117,8 @@ public class ParkingLaneBehaviourTest {
                 5, // accessLength
                 2, // overlappingRoadWidth
                 2); // parkingLaneWidth
-        Pair<Boolean, String> useCsvPair =
-                new Pair<Boolean, String>(true, "src\\test\\aim4\\cpm\\testfiles\\secondParksLongerThanFirst.csv");
-        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, useCsvPair);
+        String arrivalTrace = "src\\test\\aim4\\cpm\\testfiles\\secondParksLongerThanFirst.csv";
+        CPMMapUtil.setUpSpecificSingleSpecVehicleSpawnPoint(map, arrivalTrace);
         this.sim = new SimulatorForMapParkingLane(map);
         this.simThread = new TestSimThread(sim);
 
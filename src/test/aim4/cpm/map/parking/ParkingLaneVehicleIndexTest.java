@@ -0,0 +1,64 @@
+package aim4.cpm.map.parking;
+
+import aim4.map.cpm.parking.ParkingLane;
+import aim4.vehicle.cpm.CPMBasicAutoVehicle;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.geom.Point2D;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * TEST SUITE PURPOSE: Check that a Parking Lane finds the vehicles directly
+ * in front of and behind a position.
+ */
+public class ParkingLaneVehicleIndexTest {
+    ParkingLane lane;
+    CPMBasicAutoVehicle v1, v2, v3;
+
+    private CPMBasicAutoVehicle vehicleAt(double x) {
+        CPMBasicAutoVehicle vehicle = mock(CPMBasicAutoVehicle.class);
+        when(vehicle.getPosition()).thenReturn(new Point2D.Double(x, 0));
+        return vehicle;
+    }
+
+    @Before
+    public void setUp() {
+        lane = new ParkingLane(0, 0, 100, 0, 4, 5, 4, 10.0, null);
+        v1 = vehicleAt(10);
+        v2 = vehicleAt(30);
+        v3 = vehicleAt(20);
+        // Added out of order
+        lane.addVehicle(v1);
+        lane.addVehicle(v2);
+        lane.addVehicle(v3);
+    }
+
+    @Test
+    public void testGetVehicleInFront() {
+        assertEquals(3, lane.getNumOfVehicles());
+        assertSame(v1, lane.getVehicleInFront(0));
+        assertSame(v3, lane.getVehicleInFront(10));
+        assertSame(v2, lane.getVehicleInFront(25));
+        assertNull(lane.getVehicleInFront(30));
+    }
+
+    @Test
+    public void testGetVehicleBehind() {
+        assertNull(lane.getVehicleBehind(10));
+        assertSame(v1, lane.getVehicleBehind(20));
+        assertSame(v3, lane.getVehicleBehind(25));
+        assertSame(v2, lane.getVehicleBehind(50));
+    }
+
+    @Test
+    public void testClearVehicles() {
+        lane.clearVehicles();
+        assertEquals(0, lane.getNumOfVehicles());
+        assertNull(lane.getVehicleInFront(0));
+        assertNull(lane.getVehicleBehind(50));
+    }
+}
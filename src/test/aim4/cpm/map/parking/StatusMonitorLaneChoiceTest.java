@@ -0,0 +1,184 @@
+package aim4.cpm.map.parking;
+
+import aim4.map.cpm.parking.ParkingArea;
+import aim4.map.cpm.parking.ParkingLane;
+import aim4.map.cpm.parking.StatusMonitor;
+import aim4.sim.simulator.cpm.CPMAutoDriverSimulator;
+import aim4.vehicle.VehicleSpec;
+import aim4.vehicle.cpm.CPMBasicAutoVehicle;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * TEST SUITE PURPOSE: Check that the Status Monitor allocates the parking
+ * lane with the most space left, breaking ties in favour of the lowest lane
+ * ID, as a scan of all the lanes would.
+ */
+public class StatusMonitorLaneChoiceTest {
+
+    /** The lengths of the vehicles, each taking a whole number of metres
+     * with the distance between parked vehicles, so that lanes often have
+     * exactly the same space left. */
+    private static final double[] LENGTHS = {1.8, 2.8, 3.8, 4.8};
+
+    private List<ParkingLane> lanes;
+    /** The space left on each lane, as the lanes are allocated by a scan. */
+    private double[] spaces;
+
+    private StatusMonitor makeMonitor(int[] ids, double[] totals) {
+        lanes = new ArrayList<ParkingLane>();
+        spaces = totals.clone();
+        for (int i = 0; i < ids.length; i++) {
+            ParkingLane lane = mock(ParkingLane.class);
+            when(lane.getId()).thenReturn(ids[i]);
+            when(lane.getTotalParkingLength()).thenReturn(totals[i]);
+            when(lane.getRoadName()).thenReturn("Parking lane " + ids[i]);
+            lanes.add(lane);
+        }
+        ParkingArea area = mock(ParkingArea.class);
+        when(area.getParkingLanes()).thenReturn(lanes);
+        return new StatusMonitor(area);
+    }
+
+    private CPMBasicAutoVehicle makeVehicle(double length) {
+        VehicleSpec spec = mock(VehicleSpec.class);
+        when(spec.getLength()).thenReturn(length);
+        CPMBasicAutoVehicle vehicle = mock(CPMBasicAutoVehicle.class);
+        when(vehicle.getSpec()).thenReturn(spec);
+        return vehicle;
+    }
+
+    private static double spaceTaken(CPMBasicAutoVehicle vehicle) {
+        return vehicle.getSpec().getLength()
+                + CPMAutoDriverSimulator.MIN_DISTANCE_BETWEEN_PARKED_VEHICLES;
+    }
+
+    /**
+     * Find the index of the lane with the most space left, and the lowest
+     * ID among those, by scanning all the lanes.
+     */
+    private int scan() {
+        int best = -1;
+        for (int i = 0; i < lanes.size(); i++) {
+            if (best < 0 || spaces[i] > spaces[best]
+                    || (spaces[i] == spaces[best]
+                        && lanes.get(i).getId() < lanes.get(best).getId())) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * The number of lanes with the most space left.
+     */
+    private int numOfTies() {
+        int best = scan();
+        int n = 0;
+        for (double space : spaces) {
+            if (space == spaces[best]) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    @Test
+    public void testTiesGoToTheLowestId() {
+        StatusMonitor monitor = makeMonitor(new int[] {5, 2, 9, 7},
+                new double[] {20.0, 20.0, 20.0, 12.0});
+        CPMBasicAutoVehicle v1 = makeVehicle(3.8);
+        CPMBasicAutoVehicle v2 = makeVehicle(3.8);
+        CPMBasicAutoVehicle v3 = makeVehicle(3.8);
+        CPMBasicAutoVehicle v4 = makeVehicle(3.8);
+        monitor.vehicleOnEntry(v1);
+        assertSame(lanes.get(1), monitor.getVehicles().get(v1));
+        monitor.vehicleOnEntry(v2);
+        assertSame(lanes.get(0), monitor.getVehicles().get(v2));
+        monitor.vehicleOnEntry(v3);
+        assertSame(lanes.get(2), monitor.getVehicles().get(v3));
+        // Lanes 2, 5 and 9 have 16 m left, lane 7 has 12 m
+        monitor.vehicleOnEntry(v4);
+        assertSame(lanes.get(1), monitor.getVehicles().get(v4));
+        // Once these vehicles have left, lanes 5 and 2 have 20 m left again
+        monitor.vehicleOnExit(v1);
+        monitor.vehicleOnExit(v4);
+        monitor.vehicleOnExit(v2);
+        CPMBasicAutoVehicle v5 = makeVehicle(3.8);
+        monitor.vehicleOnEntry(v5);
+        assertSame(lanes.get(1), monitor.getVehicles().get(v5));
+        CPMBasicAutoVehicle v6 = makeVehicle(3.8);
+        monitor.vehicleOnEntry(v6);
+        assertSame(lanes.get(0), monitor.getVehicles().get(v6));
+    }
+
+    @Test
+    public void testSameLanesAsAScan() {
+        Random random = new Random(1);
+        int ties = 0;
+        for (int run = 0; run < 20; run++) {
+            int n = 1 + random.nextInt(12);
+            List<Integer> shuffled = new ArrayList<Integer>();
+            for (int i = 0; i < n; i++) {
+                shuffled.add(3 * i + 1);
+            }
+            Collections.shuffle(shuffled, random);
+            int[] ids = new int[n];
+            double[] totals = new double[n];
+            for (int i = 0; i < n; i++) {
+                ids[i] = shuffled.get(i);
+                // Few different lengths, so that lanes start with equal space
+                totals[i] = 20 + 10 * random.nextInt(3);
+            }
+            StatusMonitor monitor = makeMonitor(ids, totals);
+            List<CPMBasicAutoVehicle> parked = new ArrayList<CPMBasicAutoVehicle>();
+
+            for (int step = 0; step < 500; step++) {
+                int action = random.nextInt(3);
+                if (action == 0 || parked.isEmpty()) {
+                    // A vehicle enters, taking space from the lane chosen
+                    CPMBasicAutoVehicle vehicle =
+                            makeVehicle(LENGTHS[random.nextInt(LENGTHS.length)]);
+                    int expected = scan();
+                    boolean fits = spaces[expected] > spaceTaken(vehicle);
+                    assertEquals(fits, monitor.roomForVehicle(vehicle.getSpec().getLength()));
+                    if (!fits) {
+                        continue;
+                    }
+                    ties += numOfTies() > 1 ? 1 : 0;
+                    monitor.vehicleOnEntry(vehicle);
+                    assertSame(lanes.get(expected), monitor.getVehicles().get(vehicle));
+                    spaces[expected] -= spaceTaken(vehicle);
+                    parked.add(vehicle);
+                } else {
+                    // A vehicle leaves its lane, giving the space back
+                    CPMBasicAutoVehicle vehicle =
+                            parked.get(random.nextInt(parked.size()));
+                    int from = lanes.indexOf(monitor.getVehicles().get(vehicle));
+                    spaces[from] += spaceTaken(vehicle);
+                    int expected = scan();
+                    if (action == 1 || spaces[expected] <= spaceTaken(vehicle)) {
+                        monitor.vehicleOnExit(vehicle);
+                        parked.remove(vehicle);
+                    } else {
+                        // It relocates to the lane with the most space
+                        ties += numOfTies() > 1 ? 1 : 0;
+                        monitor.vehicleOnReEntry(vehicle);
+                        assertSame(lanes.get(expected), monitor.getVehicles().get(vehicle));
+                        spaces[expected] -= spaceTaken(vehicle);
+                    }
+                }
+            }
+        }
+        // The lanes chosen were often tied on space
+        assertTrue(ties > 100);
+    }
+}
@@ -0,0 +1,48 @@
+package aim4.im.aim;
+
+import aim4.map.aim.GridIntersectionMap;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * TEST SUITE PURPOSE: Check that the maps with the same geometry share a
+ * topology, and that the cache of topologies is bounded.
+ */
+public class IntersectionTopologyTest {
+
+    private static GridIntersectionMap makeMap(double laneWidth) {
+        return new GridIntersectionMap(0, // initTime
+                1, // columns
+                1, // rows
+                laneWidth,
+                25.0, // speedLimit
+                1, // lanesPerRoad
+                1.0, // widthBetweenOppositeRoads
+                150.0); // distanceBetween
+    }
+
+    @Test
+    public void testSameGeometrySharesTopology() throws Exception {
+        IntersectionTopology first = IntersectionTopology.of(makeMap(4.0).getRoads());
+        IntersectionTopology second = IntersectionTopology.of(makeMap(4.0).getRoads());
+        IntersectionTopology other = IntersectionTopology.of(makeMap(4.5).getRoads());
+
+        assertSame(first, second);
+        assertNotSame(first, other);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedTopologyIsEvicted() throws Exception {
+        IntersectionTopology first = IntersectionTopology.of(makeMap(3.0).getRoads());
+        // Fill the cache with other geometries
+        for (int i = 1; i <= 20; i++) {
+            IntersectionTopology.of(makeMap(3.0 + i * 0.01).getRoads());
+        }
+        IntersectionTopology again = IntersectionTopology.of(makeMap(3.0).getRoads());
+
+        assertNotSame(first, again);
+        assertEquals(first.getLaneIds(), again.getLaneIds());
+        assertEquals(first.getBoundingBox(), again.getBoundingBox());
+    }
+}
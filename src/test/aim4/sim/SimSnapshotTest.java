@@ -0,0 +1,176 @@
+package aim4.sim;
+
+import aim4.map.DataCollectionLine;
+import aim4.sim.batch.BatchConfig;
+import aim4.sim.batch.BatchRunner;
+import aim4.sim.simulator.aim.AutoDriverOnlySimulator;
+import aim4.sim.simulator.cpm.CPMAutoDriverSimulator;
+import aim4.vehicle.aim.AIMVehicleSimModel;
+import aim4.vehicle.cpm.CPMBasicAutoVehicle;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+/**
+ * TEST SUITE PURPOSE: Check that a simulator restored from a snapshot
+ * carries on exactly as the simulator the snapshot was taken of.
+ */
+public class SimSnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private BatchConfig config(String setup) {
+        Properties properties = new Properties();
+        properties.setProperty(BatchConfig.SETUP, setup);
+        properties.setProperty(BatchConfig.SEED, "1");
+        return new BatchConfig(properties);
+    }
+
+    private String stepAndReport(Simulator sim, BatchConfig config, int steps) {
+        for (int i = 0; i < steps; i++) {
+            sim.step(config.getTimeStep());
+        }
+        return BatchRunner.produceResultsCSV(sim);
+    }
+
+    private void checkRestoreCarriesOn(String setup) {
+        BatchConfig config = config(setup);
+        Simulator sim = BatchRunner.makeSimulator(config);
+        stepAndReport(sim, config, 500);
+        SimSnapshot snapshot = SimSnapshot.take(sim);
+        String expected = stepAndReport(sim, config, 1000);
+
+        assertEquals(expected, stepAndReport(snapshot.restore(), config, 1000));
+        // a snapshot can be restored more than once
+        assertEquals(expected, stepAndReport(snapshot.restore(), config, 1000));
+    }
+
+    @Test
+    public void testRestoreSingleLane() {
+        checkRestoreCarriesOn("single_lane");
+    }
+
+    /**
+     * Step an intersection simulator and describe the state of each of its
+     * vehicles and the records of its data collection lines.  Its results
+     * CSV is only a summary, which could match by chance.
+     */
+    private List<String> stepAndDescribe(Simulator sim, BatchConfig config, int steps) {
+        for (int i = 0; i < steps; i++) {
+            sim.step(config.getTimeStep());
+        }
+        AutoDriverOnlySimulator aimSim = (AutoDriverOnlySimulator) sim;
+        List<String> lines = new ArrayList<String>();
+        lines.add(BatchRunner.produceResultsCSV(sim));
+        TreeMap<Integer, AIMVehicleSimModel> vehicles = new TreeMap<Integer, AIMVehicleSimModel>();
+        for (AIMVehicleSimModel vehicle : aimSim.getActiveVehicles()) {
+            vehicles.put(vehicle.getVIN(), vehicle);
+        }
+        for (AIMVehicleSimModel vehicle : vehicles.values()) {
+            lines.add(vehicle.getVIN() + " " + vehicle.getPosition() + " "
+                    + vehicle.getHeading() + " " + vehicle.getVelocity() + " "
+                    + vehicle.getAcceleration());
+        }
+        for (DataCollectionLine line : aimSim.getMap().getDataCollectionLines()) {
+            for (int vin : new TreeSet<Integer>(line.getAllVIN())) {
+                lines.add(line.getName() + " " + vin + " " + line.getTimes(vin));
+            }
+        }
+        return lines;
+    }
+
+    @Test
+    public void testRestoreAutoDriverOnly() {
+        BatchConfig config = config("auto_driver_only");
+        Simulator sim = BatchRunner.makeSimulator(config);
+        stepAndDescribe(sim, config, 500);
+        SimSnapshot snapshot = SimSnapshot.take(sim);
+        List<String> expected = stepAndDescribe(sim, config, 1000);
+
+        // Some vehicles should be on the map and have crossed the lines
+        assertTrue(expected.size() > 10);
+        assertEquals(expected, stepAndDescribe(snapshot.restore(), config, 1000));
+        // a snapshot can be restored more than once
+        assertEquals(expected, stepAndDescribe(snapshot.restore(), config, 1000));
+    }
+
+    /**
+     * Step a car park simulator and describe the state of each of its
+     * vehicles.
+     */
+    private List<String> stepAndDescribeCPM(Simulator sim, BatchConfig config, int steps) {
+        for (int i = 0; i < steps; i++) {
+            sim.step(config.getTimeStep());
+        }
+        CPMAutoDriverSimulator cpmSim = (CPMAutoDriverSimulator) sim;
+        List<String> lines = new ArrayList<String>();
+        lines.add(BatchRunner.produceResultsCSV(sim));
+        TreeMap<Integer, CPMBasicAutoVehicle> vehicles =
+                new TreeMap<Integer, CPMBasicAutoVehicle>(cpmSim.getVinToVehicles());
+        for (CPMBasicAutoVehicle vehicle : vehicles.values()) {
+            lines.add(vehicle.getVIN() + " " + vehicle.getPosition() + " "
+                    + vehicle.getHeading() + " " + vehicle.getVelocity() + " "
+                    + vehicle.getAcceleration());
+        }
+        lines.add("parked " + cpmSim.getParkedVehicles().size());
+        return lines;
+    }
+
+    @Test
+    public void testRestoreCPMAutoDriver() {
+        BatchConfig config = config("cpm_auto_driver");
+        Simulator sim = BatchRunner.makeSimulator(config);
+        stepAndDescribeCPM(sim, config, 500);
+        SimSnapshot snapshot = SimSnapshot.take(sim);
+        List<String> expected = stepAndDescribeCPM(sim, config, 1000);
+
+        // Some vehicles should be in the car park
+        assertTrue(expected.size() > 3);
+        assertEquals(expected, stepAndDescribeCPM(snapshot.restore(), config, 1000));
+        // a snapshot can be restored more than once
+        assertEquals(expected, stepAndDescribeCPM(snapshot.restore(), config, 1000));
+    }
+
+    @Test
+    public void testFork() {
+        BatchConfig config = config("single_lane");
+        Simulator sim = BatchRunner.makeSimulator(config);
+        stepAndReport(sim, config, 500);
+        Simulator fork = SimSnapshot.fork(sim);
+        assertNotSame(sim, fork);
+        assertEquals(sim.getSimulationTime(), fork.getSimulationTime(), 0.0);
+    }
+
+    @Test
+    public void testSaveAndLoad() throws Exception {
+        BatchConfig config = config("single_lane");
+        Simulator sim = BatchRunner.makeSimulator(config);
+        stepAndReport(sim, config, 500);
+        SimSnapshot snapshot = SimSnapshot.take(sim);
+        String expected = stepAndReport(snapshot.restore(), config, 1000);
+
+        File file = new File(folder.getRoot(), "sim.snapshot");
+        snapshot.save(file);
+        assertTrue(file.length() < snapshot.size());
+        SimSnapshot loaded = SimSnapshot.load(file);
+        assertEquals(snapshot.size(), loaded.size());
+        assertEquals(expected, stepAndReport(loaded.restore(), config, 1000));
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadNotASnapshot() throws Exception {
+        SimSnapshot.read(new ByteArrayInputStream(new byte[] {1, 2, 3, 4}));
+    }
+}
@@ -0,0 +1,126 @@
+package aim4.sim.batch;
+
+import aim4.sim.Simulator;
+import aim4.sim.results.BinaryVehicleResultSink;
+import aim4.sim.results.CSVVehicleResultSink;
+import aim4.sim.setup.merge.SingleLaneSimSetup;
+import aim4.sim.simulator.cpm.helper.CPMEventLog;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+/**
+ * TEST SUITE PURPOSE: Check that a simulation can be set up from a
+ * configuration and run to its time limit without the GUI.
+ */
+public class BatchRunnerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private BatchConfig singleLaneConfig(File output) {
+        Properties properties = new Properties();
+        properties.setProperty(BatchConfig.SETUP, "single_lane");
+        properties.setProperty(BatchConfig.TIME_LIMIT, "20");
+        properties.setProperty(BatchConfig.SEED, "1");
+        properties.setProperty(BatchConfig.OUTPUT, output.getPath());
+        return new BatchConfig(properties);
+    }
+
+    @Test
+    public void testMakeSimSetup() throws Exception {
+        BatchConfig config = singleLaneConfig(new File("unused.csv"));
+        assertEquals(BatchConfig.SetupType.SINGLE_LANE, config.getSetupType());
+        assertTrue(config.makeSimSetup() instanceof SingleLaneSimSetup);
+        assertEquals(20.0, config.getTimeLimit(), 0.0);
+        assertEquals(50.0, config.with(BatchConfig.TIME_LIMIT, "50").getTimeLimit(), 0.0);
+    }
+
+    @Test
+    public void testRunWritesResults() throws Exception {
+        File output = new File(folder.getRoot(), "results/single.csv");
+        Simulator sim = BatchRunner.run(singleLaneConfig(output));
+        assertTrue(sim.getSimulationTime() >= 20.0);
+
+        BufferedReader reader = new BufferedReader(new FileReader(output));
+        try {
+            String header = reader.readLine();
+            assertTrue(header.startsWith("Max Delay,"));
+            assertNotNull(reader.readLine());
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testRunStopsAtSteadyState() throws Exception {
+        File output = new File(folder.getRoot(), "results/steady.csv");
+        BatchConfig config = singleLaneConfig(output)
+                .with(BatchConfig.TIME_LIMIT, "10000")
+                .with(BatchConfig.STEADY_STATE, "true");
+        Simulator sim = BatchRunner.run(config);
+        assertTrue(sim.getSimulationTime() < 10000.0);
+
+        BufferedReader reader = new BufferedReader(new FileReader(output));
+        try {
+            assertTrue(reader.readLine().endsWith("," + SteadyStateMonitor.produceCSVHeader()));
+            assertTrue(reader.readLine().contains(",STEADY_STATE,"));
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testRunStreamsVehicles() throws Exception {
+        File whole = new File(folder.getRoot(), "whole.csv");
+        BatchRunner.run(singleLaneConfig(whole));
+        File global = new File(folder.getRoot(), "global.csv");
+        File vehicles = new File(folder.getRoot(), "vehicles.bin");
+        BatchRunner.run(singleLaneConfig(global)
+                .with(BatchConfig.VEHICLES_OUTPUT, vehicles.getPath())
+                .with(BatchConfig.VEHICLES_FORMAT, "binary"));
+
+        List<String> wholeLines = Files.readAllLines(whole.toPath());
+        List<String> globalLines = Files.readAllLines(global.toPath());
+        assertEquals(wholeLines.subList(0, 4), globalLines.subList(0, 4));
+        assertEquals(5, globalLines.size());
+
+        StringWriter out = new StringWriter();
+        int n = BinaryVehicleResultSink.read(vehicles, new CSVVehicleResultSink(out));
+        assertTrue(n > 0);
+        assertEquals(wholeLines.subList(3, 4 + n),
+                Arrays.asList(out.toString().split("\n")));
+    }
+
+    @Test
+    public void testRunWritesEventLog() throws Exception {
+        File events = new File(folder.getRoot(), "logs/events.csv");
+        BatchConfig config = singleLaneConfig(new File(folder.getRoot(), "cpm.csv"))
+                .with(BatchConfig.SETUP, "cpm_auto_driver")
+                .with(BatchConfig.EVENT_LOG_OUTPUT, events.getPath());
+        BatchRunner.run(config);
+        assertFalse(CPMEventLog.isRecording());
+
+        List<String> lines = Files.readAllLines(events.toPath());
+        assertEquals("seq,time,event,vin,message", lines.get(0));
+        assertTrue(lines.size() > 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownSetup() {
+        Properties properties = new Properties();
+        properties.setProperty(BatchConfig.SETUP, "NO_SUCH_SETUP");
+        new BatchConfig(properties).makeSimSetup();
+    }
+}
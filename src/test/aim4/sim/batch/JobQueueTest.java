@@ -0,0 +1,89 @@
+package aim4.sim.batch;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+/**
+ * TEST SUITE PURPOSE: Check that each run of a job queue is claimed by one
+ * worker only, and that the runs of dead workers are put back, or failed once
+ * they have been started too many times.
+ */
+public class JobQueueTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private BatchConfig config(String output) {
+        Properties properties = new Properties();
+        properties.setProperty(BatchConfig.SETUP, "single_lane");
+        properties.setProperty(BatchConfig.SEED, "1");
+        properties.setProperty(BatchConfig.OUTPUT, output);
+        return new BatchConfig(properties);
+    }
+
+    @Test
+    public void testClaimAndComplete() throws Exception {
+        JobQueue queue = new JobQueue(new File(folder.getRoot(), "queue"));
+        queue.submit("a", config("a.csv"));
+        queue.submit("b", config("b.csv"));
+
+        JobQueue.Claim first = queue.claim("w1");
+        JobQueue.Claim second = queue.claim("w2");
+        assertNull(queue.claim("w3"));
+        assertEquals("a", first.getId());
+        assertEquals("b", second.getId());
+        assertEquals(0, first.getAttempt());
+        assertEquals(new File("a.csv"), first.getConfig().getOutput());
+
+        assertFalse(queue.isDone("a"));
+        assertTrue(queue.complete(first));
+        assertTrue(queue.isDone("a"));
+        queue.fail(second, "broken");
+        assertEquals("broken", queue.getFailure("b"));
+        queue.remove("a");
+        queue.remove("b");
+        assertFalse(queue.isDone("a"));
+        assertNull(queue.getFailure("b"));
+    }
+
+    @Test
+    public void testRecover() throws Exception {
+        JobQueue queue = new JobQueue(new File(folder.getRoot(), "queue"), 60000L, 2);
+        queue.submit("a", config("a.csv"));
+        queue.heartbeat("w1");
+        JobQueue.Claim claim = queue.claim("w1");
+        assertEquals(0, queue.recover());
+
+        // The worker dies: the run is put back and done by another worker
+        queue.retire("w1");
+        assertEquals(1, queue.recover());
+        queue.heartbeat("w2");
+        JobQueue.Claim again = queue.claim("w2");
+        assertEquals("a", again.getId());
+        assertEquals(1, again.getAttempt());
+        assertFalse(queue.complete(claim));
+
+        // The second worker dies too: the run has been started too many times
+        queue.retire("w2");
+        assertEquals(1, queue.recover());
+        assertNull(queue.claim("w3"));
+        assertNotNull(queue.getFailure("a"));
+    }
+
+    @Test
+    public void testResetAndClose() throws Exception {
+        JobQueue queue = new JobQueue(new File(folder.getRoot(), "queue"));
+        queue.submit("a", config("a.csv"));
+        queue.close();
+        assertTrue(queue.isClosed());
+        queue.reset();
+        assertFalse(queue.isClosed());
+        assertNull(queue.claim("w1"));
+    }
+}
@@ -0,0 +1,68 @@
+package aim4.sim.batch;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+/**
+ * TEST SUITE PURPOSE: Check that the replications of a point are enough once
+ * the confidence interval of each metric is narrow enough, and not before the
+ * minimum number of replications.
+ */
+public class ReplicationRuleTest {
+
+    private List<Map<String, Double>> results(double... values) {
+        List<Map<String, Double>> results = new ArrayList<Map<String, Double>>();
+        for (double value : values) {
+            results.add(Collections.singletonMap("Throughput", value));
+        }
+        return results;
+    }
+
+    @Test
+    public void testRead() {
+        Properties sweep = new Properties();
+        assertNull(ReplicationRule.read(sweep));
+        sweep.setProperty("sweep.ci.metrics", "Throughput, Average Delay");
+        sweep.setProperty("sweep.ci.maxReplications", "20");
+        ReplicationRule rule = ReplicationRule.read(sweep);
+        assertEquals(Arrays.asList("Throughput", "Average Delay"), rule.getMetrics());
+        assertEquals(ReplicationRule.DEFAULT_MIN_REPLICATIONS, rule.getMinReplications());
+        assertEquals(20, rule.getMaxReplications());
+    }
+
+    @Test
+    public void testIsPrecise() {
+        ReplicationRule rule = new ReplicationRule(
+                Collections.singletonList("Throughput"), 0.05, 4, 10);
+        assertFalse(rule.isPrecise(results(100.0, 100.0, 100.0)));
+        assertTrue(rule.isPrecise(results(100.0, 101.0, 99.0, 100.0)));
+        assertFalse(rule.isPrecise(results(100.0, 150.0, 50.0, 100.0)));
+        assertFalse(new ReplicationRule(Collections.singletonList("Average Delay"), 0.05, 4, 10)
+                .isPrecise(results(100.0, 100.0, 100.0, 100.0)));
+    }
+
+    @Test
+    public void testHalfWidth() {
+        // s = 1, n = 11, t(10) = 2.228
+        List<Double> values = new ArrayList<Double>();
+        for (int i = 0; i < 11; i++) {
+            values.add(10.0 + ((i == 0) ? 0.0 : ((i % 2 == 0) ? 1.0 : -1.0)));
+        }
+        assertEquals(10.0, ReplicationRule.mean(values), 1e-9);
+        assertEquals(2.228 / Math.sqrt(11.0), ReplicationRule.halfWidth(values), 0.002);
+        assertTrue(Double.isNaN(ReplicationRule.halfWidth(values.subList(0, 1))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooFewReplications() {
+        new ReplicationRule(Collections.singletonList("Throughput"), 0.05, 2, 10);
+    }
+}
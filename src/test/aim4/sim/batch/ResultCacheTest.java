@@ -0,0 +1,81 @@
+package aim4.sim.batch;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+/**
+ * TEST SUITE PURPOSE: Check that the key of a run changes with its
+ * parameters, seed, schedule files and code, but not with where its results
+ * are written, and that results can be stored, fetched and removed.
+ */
+public class ResultCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private void write(File file, String text) throws Exception {
+        Writer out = new FileWriter(file);
+        try {
+            out.write(text);
+        } finally {
+            out.close();
+        }
+    }
+
+    private BatchConfig config(File schedule) {
+        Properties properties = new Properties();
+        properties.setProperty(BatchConfig.SETUP, "S2S");
+        properties.setProperty(BatchConfig.SEED, "1");
+        properties.setProperty("targetSchedule", schedule.getPath());
+        return new BatchConfig(properties);
+    }
+
+    @Test
+    public void testKey() throws Exception {
+        File schedule = folder.newFile("schedule.json");
+        write(schedule, "[1.0, 2.0]");
+        ResultCache cache = new ResultCache(folder.newFolder("cache"), "1");
+        BatchConfig config = config(schedule);
+        String key = cache.key(config);
+
+        assertEquals(key, cache.key(config.with(BatchConfig.OUTPUT, "elsewhere.csv")));
+        assertFalse(key.equals(cache.key(config.with(BatchConfig.SEED, "2"))));
+        assertFalse(key.equals(cache.key(config.with("trafficLevel", "0.5"))));
+        assertFalse(key.equals(new ResultCache(folder.getRoot(), "2").key(config)));
+        write(schedule, "[1.0, 3.0]");
+        assertFalse(key.equals(cache.key(config)));
+    }
+
+    @Test
+    public void testPutFetchInvalidate() throws Exception {
+        File schedule = folder.newFile("schedule.json");
+        write(schedule, "[1.0, 2.0]");
+        ResultCache cache = new ResultCache(folder.newFolder("cache"), "1");
+        BatchConfig config = config(schedule);
+        File results = folder.newFile("results.csv");
+        write(results, "Throughput\n0.5\n");
+        File copy = new File(folder.getRoot(), "copy.csv");
+
+        assertFalse(cache.fetch(config, copy));
+        cache.put(config, results);
+        assertTrue(cache.fetch(config.with(BatchConfig.OUTPUT, "x.csv"), copy));
+        assertArrayEquals(Files.readAllBytes(results.toPath()), Files.readAllBytes(copy.toPath()));
+        assertFalse(cache.fetch(config.with(BatchConfig.SEED, "2"), copy));
+
+        assertTrue(cache.invalidate(config));
+        assertFalse(cache.fetch(config, copy));
+        cache.put(config, results);
+        cache.put(config.with(BatchConfig.SEED, "2"), results);
+        assertEquals(2, cache.clear());
+        assertFalse(cache.fetch(config, copy));
+    }
+}
@@ -0,0 +1,114 @@
+package aim4.sim.batch;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * TEST SUITE PURPOSE: Check that the steady state monitor finds the end of
+ * the warm-up, stops once the estimate is stable and tells saturated runs.
+ */
+public class SteadyStateMonitorTest {
+
+    private static final double BATCH = 60.0;
+
+    /**
+     * Feed a monitor one step per batch, with the given number of vehicles
+     * completed in the batch, each with the given delay, and the given number
+     * of vehicles in the system.
+     */
+    private boolean feed(SteadyStateMonitor monitor, int batch, int completed,
+                         int numOfCompleted, double delay, int inSystem) {
+        for (int i = 0; i < completed; i++) {
+            monitor.addDelay(delay);
+        }
+        return monitor.update((batch + 1) * BATCH, numOfCompleted, inSystem);
+    }
+
+    @Test
+    public void testSteadyStateAfterWarmUp() {
+        SteadyStateMonitor monitor = new SteadyStateMonitor(
+                SteadyStateMonitor.Metric.DELAY, BATCH, 0.05, 10);
+        Random random = new Random(1);
+        int numOfCompleted = 0;
+        int batch = 0;
+        // a warm-up with rising delays, then noise around 20 s
+        for (; batch < 5; batch++) {
+            numOfCompleted += 30;
+            assertFalse(feed(monitor, batch, 30, numOfCompleted, 4.0 * batch, 10));
+        }
+        for (; batch < 200 && monitor.getStopReason() == null; batch++) {
+            numOfCompleted += 30;
+            feed(monitor, batch, 30, numOfCompleted, 20.0 + random.nextGaussian(), 10);
+        }
+        assertEquals(SteadyStateMonitor.StopReason.STEADY_STATE, monitor.getStopReason());
+        assertTrue(monitor.getWarmUpTime() >= 4 * BATCH);
+        assertTrue(monitor.getWarmUpTime() < monitor.getNumOfBatches() * BATCH / 2);
+        assertEquals(20.0, monitor.getMeanDelay(), 1.0);
+        assertEquals(1800.0, monitor.getThroughput(), 1e-6);
+        assertTrue(monitor.getRelativeHalfWidth() <= 0.05);
+    }
+
+    @Test
+    public void testSaturated() {
+        SteadyStateMonitor monitor = new SteadyStateMonitor(
+                SteadyStateMonitor.Metric.DELAY, BATCH, 0.01, 10);
+        Random random = new Random(2);
+        int numOfCompleted = 0;
+        for (int batch = 0; batch < 200 && monitor.getStopReason() == null; batch++) {
+            numOfCompleted += 30;
+            feed(monitor, batch, 30, numOfCompleted,
+                 5.0 * batch + random.nextGaussian(), 10 + 5 * batch);
+        }
+        assertEquals(SteadyStateMonitor.StopReason.SATURATED, monitor.getStopReason());
+        assertEquals(20, monitor.getNumOfBatches());
+    }
+
+    @Test
+    public void testThroughputWithoutDelays() {
+        SteadyStateMonitor monitor = new SteadyStateMonitor(
+                SteadyStateMonitor.Metric.DELAY, BATCH, 0.05, 10);
+        int numOfCompleted = 0;
+        for (int batch = 0; batch < 10; batch++) {
+            numOfCompleted += 60;
+            monitor.update((batch + 1) * BATCH, numOfCompleted, 5);
+        }
+        assertEquals(SteadyStateMonitor.Metric.THROUGHPUT, monitor.getMetric());
+        assertEquals(SteadyStateMonitor.StopReason.STEADY_STATE, monitor.getStopReason());
+        assertEquals(3600.0, monitor.getThroughput(), 1e-6);
+        assertTrue(Double.isNaN(monitor.getMeanDelay()));
+    }
+
+    @Test
+    public void testTimeLimit() {
+        SteadyStateMonitor monitor = new SteadyStateMonitor(
+                SteadyStateMonitor.Metric.DELAY, BATCH, 0.05, 10);
+        assertFalse(monitor.update(5 * BATCH, 0, 0));
+        monitor.timeLimitReached();
+        assertEquals(SteadyStateMonitor.StopReason.TIME_LIMIT, monitor.getStopReason());
+        assertTrue(Double.isNaN(monitor.getWarmUpTime()));
+    }
+
+    @Test
+    public void testTruncation() {
+        List<Double> series = new ArrayList<Double>();
+        for (int i = 0; i < 5; i++) {
+            series.add(100.0 - 20.0 * i);
+        }
+        for (int i = 0; i < 20; i++) {
+            series.add((i % 2 == 0) ? 9.0 : 11.0);
+        }
+        assertEquals(5, SteadyStateMonitor.truncation(series, 10));
+        assertEquals(-1, SteadyStateMonitor.truncation(series.subList(0, 8), 10));
+    }
+
+    @Test
+    public void testTQuantile() {
+        assertEquals(2.228, SteadyStateMonitor.tQuantile(10, SteadyStateMonitor.Z_95), 0.002);
+        assertEquals(2.045, SteadyStateMonitor.tQuantile(29, SteadyStateMonitor.Z_95), 0.002);
+    }
+}
@@ -0,0 +1,134 @@
+package aim4.sim.batch;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.Assert.*;
+
+/**
+ * TEST SUITE PURPOSE: Check that a sweep is expanded into one job per point
+ * of the grid and seed, and that running it again only does the jobs which
+ * are not done yet.
+ */
+public class SweepExecutorTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Properties sweep() {
+        Properties properties = new Properties();
+        properties.setProperty(BatchConfig.SETUP, "single_lane");
+        properties.setProperty(BatchConfig.TIME_LIMIT, "10");
+        properties.setProperty("sweep.grid.trafficLevel", "0.1, 0.2");
+        properties.setProperty("sweep.seeds", "1-2");
+        properties.setProperty("sweep.workers", "2");
+        properties.setProperty("sweep.outputDir", folder.getRoot().getPath());
+        return properties;
+    }
+
+    private List<String> readLines(File file) throws Exception {
+        List<String> lines = new ArrayList<String>();
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } finally {
+            reader.close();
+        }
+        return lines;
+    }
+
+    @Test
+    public void testParseSeeds() {
+        assertEquals(Arrays.asList(1L, 2L, 3L, 7L), SweepExecutor.parseSeeds("1-3, 7"));
+    }
+
+    @Test
+    public void testExpand() {
+        List<SweepJob> jobs = new SweepExecutor(sweep()).getJobs();
+        assertEquals(4, jobs.size());
+        assertEquals("trafficLevel=0.1_seed=1", jobs.get(0).getId());
+        assertEquals("trafficLevel=0.1_seed=2", jobs.get(1).getId());
+        assertEquals("trafficLevel=0.2_seed=1", jobs.get(2).getId());
+        assertEquals(2L, jobs.get(3).getConfig().getSeed());
+        assertEquals("0.2", jobs.get(3).getConfig().getProperties().getProperty("trafficLevel"));
+    }
+
+    @Test
+    public void testRunAndResume() throws Exception {
+        SweepExecutor executor = new SweepExecutor(sweep());
+        assertEquals(0, executor.run());
+        File results = new File(folder.getRoot(), SweepExecutor.RESULTS_FILE);
+        List<String> lines = readLines(results);
+        assertEquals(5, lines.size());
+        assertTrue(lines.get(0).startsWith("Job,trafficLevel,Seed,Max Delay,"));
+
+        // Lose one job and run the sweep again: only that job is done again
+        SweepJob lost = executor.getJobs().get(1);
+        File lostOutput = executor.getOutput(lost);
+        long lastModified = executor.getOutput(executor.getJobs().get(0)).lastModified();
+        assertTrue(lostOutput.delete());
+        assertEquals(0, new SweepExecutor(sweep()).run());
+        assertTrue(lostOutput.exists());
+        assertEquals(lastModified, executor.getOutput(executor.getJobs().get(0)).lastModified());
+        assertEquals(lines, readLines(results));
+    }
+
+    @Test
+    public void testShareTopology() throws Exception {
+        Properties properties = sweep();
+        properties.setProperty(BatchConfig.SETUP, "auto_driver_only");
+        properties.setProperty("sweep.workers", "1");
+        SweepExecutor executor = new SweepExecutor(properties);
+        assertEquals(0, executor.run());
+
+        // The runs after the first of the worker reuse its topology, and
+        // give the same results as the runs which compute their own
+        properties.setProperty("sweep.outputDir", folder.newFolder("shared").getPath());
+        properties.setProperty("sweep.shareTopology", "true");
+        SweepExecutor shared = new SweepExecutor(properties);
+        assertEquals(0, shared.run());
+        for (SweepJob job : executor.getJobs()) {
+            assertEquals(readLines(executor.getOutput(job)), readLines(shared.getOutput(job)));
+        }
+    }
+
+    @Test
+    public void testRunUntilPrecise() throws Exception {
+        Properties properties = sweep();
+        properties.remove("sweep.seeds");
+        properties.setProperty("sweep.ci.metrics", "Throughput");
+        properties.setProperty("sweep.ci.precision", "0.3");
+        properties.setProperty("sweep.ci.minReplications", "4");
+        properties.setProperty("sweep.ci.maxReplications", "8");
+        SweepExecutor executor = new SweepExecutor(properties);
+        assertEquals(16, executor.getJobs().size());
+        assertEquals(0, executor.run());
+
+        List<String> summary = readLines(new File(folder.getRoot(), SweepExecutor.SUMMARY_FILE));
+        assertEquals(3, summary.size());
+        assertEquals("trafficLevel,Replications,Precise,Throughput Mean,Throughput Half Width",
+                     summary.get(0));
+        for (String line : summary.subList(1, 3)) {
+            String[] fields = line.split(",");
+            int replications = Integer.parseInt(fields[1]);
+            assertTrue(replications >= 4 && replications <= 8);
+            assertTrue(Boolean.parseBoolean(fields[2]) || replications == 8);
+        }
+
+        // Running the sweep again finds the same replications enough
+        assertEquals(0, new SweepExecutor(properties).run());
+        assertEquals(summary, readLines(new File(folder.getRoot(), SweepExecutor.SUMMARY_FILE)));
+    }
+}
@@ -0,0 +1,93 @@
+package aim4.sim.results;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * TEST SUITE PURPOSE: Check that the statistics updated value by value are
+ * those computed from all the values, and that the quantiles are within the
+ * precision of the histogram.
+ */
+public class OnlineStatisticsTest {
+
+    @Test
+    public void testEmpty() {
+        OnlineStatistics stats = new OnlineStatistics();
+        assertEquals(0, stats.getCount());
+        assertTrue(Double.isNaN(stats.getMin()));
+        assertTrue(Double.isNaN(stats.getMax()));
+        assertTrue(Double.isNaN(stats.getMean()));
+        assertTrue(Double.isNaN(stats.getPopulationStdDev()));
+        assertTrue(Double.isNaN(stats.getQuantile(0.5)));
+    }
+
+    @Test
+    public void testMomentsAndQuantiles() {
+        Random random = new Random(7);
+        double[] values = new double[10000];
+        OnlineStatistics stats = new OnlineStatistics();
+        for (int i = 0; i < values.length; i++) {
+            // exponential delays around 20 s, with some vehicles not delayed
+            values[i] = (i % 10 == 0) ? 0.0 : -20.0 * Math.log(1.0 - random.nextDouble());
+            stats.add(values[i]);
+        }
+        double mean = 0.0;
+        for (double value : values) {
+            mean += value;
+        }
+        mean /= values.length;
+        double var = 0.0;
+        for (double value : values) {
+            var += (value - mean) * (value - mean);
+        }
+        Arrays.sort(values);
+
+        assertEquals(values.length, stats.getCount());
+        assertEquals(values[0], stats.getMin(), 0.0);
+        assertEquals(values[values.length - 1], stats.getMax(), 0.0);
+        assertEquals(mean, stats.getMean(), 1e-9);
+        assertEquals(var / values.length, stats.getPopulationVariance(), 1e-6);
+        assertEquals(var / (values.length - 1), stats.getSampleVariance(), 1e-6);
+        for (double q : new double[] {0.05, 0.1, 0.25, 0.5, 0.9, 0.95, 0.99, 1.0}) {
+            double exact = values[(int) Math.ceil(q * values.length) - 1];
+            assertEquals("quantile " + q, exact, stats.getQuantile(q),
+                    exact / OnlineStatistics.SUB_BUCKETS);
+        }
+        assertEquals(0.0, stats.getQuantile(0.0), 0.0);
+    }
+
+    @Test
+    public void testOutsideHistogram() {
+        OnlineStatistics stats = new OnlineStatistics();
+        stats.add(-1.0);
+        stats.add(5.0);
+        stats.add(Double.MAX_VALUE);
+        stats.add(Double.MAX_VALUE);
+        assertEquals(-1.0, stats.getQuantile(0.25), 0.0);
+        assertEquals(5.0, stats.getQuantile(0.5), 5.0 / OnlineStatistics.SUB_BUCKETS);
+        assertEquals(Double.MAX_VALUE, stats.getQuantile(0.75), 0.0);
+        assertEquals(Double.MAX_VALUE, stats.getMax(), 0.0);
+    }
+
+    @Test
+    public void testCopy() {
+        OnlineStatistics stats = new OnlineStatistics();
+        stats.add(1.0);
+        stats.add(3.0);
+        OnlineStatistics copy = new OnlineStatistics(stats);
+        stats.add(100.0);
+        assertEquals(2, copy.getCount());
+        assertEquals(2.0, copy.getMean(), 0.0);
+        assertEquals(3.0, copy.getQuantile(1.0), 0.0);
+        assertEquals(100.0, stats.getQuantile(1.0), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadQuantile() {
+        new OnlineStatistics().getQuantile(1.5);
+    }
+}
@@ -0,0 +1,130 @@
+package aim4.sim.results;
+
+import aim4.map.merge.RoadNames;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * TEST SUITE PURPOSE: Check that the records of the vehicles written to the
+ * sinks can be read back, and that the statistics computed as the vehicles
+ * complete are those of all the records.
+ */
+public class VehicleResultSinkTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private List<CoreMergeVehicleResult> makeResults(int n) {
+        List<CoreMergeVehicleResult> results = new ArrayList<CoreMergeVehicleResult>();
+        for (int i = 0; i < n; i++) {
+            String road = (i % 3 == 0) ? RoadNames.MERGING_ROAD.toString()
+                                       : RoadNames.TARGET_ROAD.toString();
+            results.add(new CoreMergeVehicleResult(i, road, "SPEC" + (i % 4),
+                    i * 0.5, i * 0.5 + 30.0 + (i % 7), (i % 7) * 1.25,
+                    25.0, 27.5, 10.0 / (i + 1), 100.0 + i, -3.0));
+        }
+        return results;
+    }
+
+    private static String toCSV(List<? extends VehicleResult> results) throws IOException {
+        StringWriter out = new StringWriter();
+        CSVVehicleResultSink sink = new CSVVehicleResultSink(out);
+        for (VehicleResult result : results) {
+            sink.write(result);
+        }
+        sink.close();
+        return out.toString();
+    }
+
+    @Test
+    public void testBinaryRoundTrip() throws Exception {
+        List<CoreMergeVehicleResult> results = makeResults(25);
+        File file = folder.newFile("vehicles.bin");
+        BinaryVehicleResultSink sink = new BinaryVehicleResultSink(file, 8);
+        for (VehicleResult result : results) {
+            sink.write(result);
+        }
+        sink.close();
+
+        StringWriter out = new StringWriter();
+        CSVVehicleResultSink copy = new CSVVehicleResultSink(out);
+        assertEquals(25, BinaryVehicleResultSink.read(file, copy));
+        copy.close();
+        assertEquals(toCSV(results), out.toString());
+    }
+
+    @Test
+    public void testBinaryEmpty() throws Exception {
+        File file = folder.newFile("empty.bin");
+        new BinaryVehicleResultSink(file).close();
+        StringWriter out = new StringWriter();
+        assertEquals(0, BinaryVehicleResultSink.read(file, new CSVVehicleResultSink(out)));
+    }
+
+    @Test(expected = IOException.class)
+    public void testBinaryRejectsOtherFiles() throws Exception {
+        File file = folder.newFile("vehicles.csv");
+        CSVVehicleResultSink sink = new CSVVehicleResultSink(file);
+        sink.write(makeResults(1).get(0));
+        sink.close();
+        BinaryVehicleResultSink.read(file, new CSVVehicleResultSink(new StringWriter()));
+    }
+
+    @Test
+    public void testCSVMatchesResult() throws Exception {
+        List<CoreMergeVehicleResult> results = makeResults(10);
+        CoreMergeResult result = new CoreMergeResult(results);
+        assertEquals(toCSV(results), CoreMergeResult.produceVehicleStatsCSVHeader() + "\n"
+                + result.produceVehicleStatsCSV());
+    }
+
+    @Test
+    public void testAggregates() throws Exception {
+        List<CoreMergeVehicleResult> results = makeResults(100);
+        VehicleResultAggregates aggregates = new VehicleResultAggregates();
+        List<Double> mergeDelays = new ArrayList<Double>();
+        double lastMergeFinish = 0.0;
+        for (CoreMergeVehicleResult result : results) {
+            aggregates.add(result);
+            if (result.getStartingRoad().equals(RoadNames.MERGING_ROAD.toString())) {
+                mergeDelays.add(result.getDelayTime());
+                lastMergeFinish = Math.max(lastMergeFinish, result.getFinishTime());
+            }
+        }
+        double mean = 0.0;
+        for (double delay : mergeDelays) {
+            mean += delay;
+        }
+        mean /= mergeDelays.size();
+        double var = 0.0;
+        for (double delay : mergeDelays) {
+            var += (delay - mean) * (delay - mean);
+        }
+        var /= mergeDelays.size();
+
+        VehicleResultAggregates.Group merge = aggregates.getMerge();
+        assertEquals(34, merge.getCount());
+        assertEquals(66, aggregates.getTarget().getCount());
+        assertEquals(100, aggregates.getAll().getCount());
+        assertEquals(mean, merge.getAverageDelay(), 1e-12);
+        assertEquals(Math.sqrt(var), merge.getStdDevDelay(), 1e-12);
+        assertEquals(0.0, merge.getMinDelay(), 0.0);
+        assertEquals(7.5, merge.getMaxDelay(), 0.0);
+        assertEquals(34 / lastMergeFinish, merge.getThroughput(), 1e-12);
+
+        CoreMergeResult result = new CoreMergeResult(new ArrayList<CoreMergeVehicleResult>(),
+                new VehicleResultAggregates(aggregates));
+        aggregates.add(results.get(0));
+        assertEquals(new CoreMergeResult(results).produceGlobalStatsCSV(),
+                result.produceGlobalStatsCSV());
+    }
+}
@@ -0,0 +1,139 @@
+package aim4.sim.simulator.aim.helper;
+
+import aim4.driver.aim.AIMAutoDriver;
+import aim4.map.lane.Lane;
+import aim4.map.lane.LineSegmentLane;
+import aim4.noise.DoubleGauge;
+import aim4.vehicle.AutoVehicleDriverModel.LRFMode;
+import aim4.vehicle.VehicleSpec;
+import aim4.vehicle.VehicleSpecDatabase;
+import aim4.vehicle.aim.AIMAutoVehicleSimModel;
+import aim4.vehicle.aim.AIMVehicleSimModel;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * TEST SUITE PURPOSE: Check that the laser range finders measure the
+ * distance to the car in front on the lane of the vehicle, and ignore the
+ * vehicles on the other lanes.
+ */
+public class LRFSensingHelperTest {
+
+    private static final double LANE_WIDTH = 4.0;
+
+    /** The lane of the sensing vehicle, heading east along y = 0 */
+    private final Lane lane = new LineSegmentLane(0, 0, 200, 0, LANE_WIDTH, 25.0);
+    private final VehicleSpec spec = VehicleSpecDatabase.getVehicleSpecByName("COUPE");
+
+    private List<AIMVehicleSimModel> vehicles;
+    private AIMAutoVehicleSimModel sensing;
+    private AIMAutoDriver driver;
+    private DoubleGauge distance;
+    private LRFSensingHelper helper;
+
+    private AIMVehicleSimModel vehicleAt(double x, double y, double heading) {
+        AIMVehicleSimModel vehicle = mock(AIMVehicleSimModel.class);
+        when(vehicle.getPosition()).thenReturn(new Point2D.Double(x, y));
+        when(vehicle.getHeading()).thenReturn(heading);
+        when(vehicle.getSpec()).thenReturn(spec);
+        vehicles.add(vehicle);
+        return vehicle;
+    }
+
+    @Before
+    public void setUp() {
+        vehicles = new ArrayList<AIMVehicleSimModel>();
+        sensing = mock(AIMAutoVehicleSimModel.class);
+        driver = mock(AIMAutoDriver.class);
+        when(driver.getCurrentLane()).thenReturn(lane);
+        distance = new DoubleGauge();
+        when(sensing.getDriver()).thenReturn(driver);
+        when(sensing.getPosition()).thenReturn(new Point2D.Double(10.0, 0.0));
+        when(sensing.getHeading()).thenReturn(0.0);
+        when(sensing.getSpec()).thenReturn(spec);
+        when(sensing.getLRFMode()).thenReturn(LRFMode.ENABLED);
+        when(sensing.getLRFDistance()).thenReturn(distance);
+        when(sensing.getLRFAngle()).thenReturn(new DoubleGauge());
+        vehicles.add(sensing);
+        helper = new LRFSensingHelper();
+    }
+
+    private double sense() {
+        helper.update(vehicles);
+        double d = helper.sense(sensing);
+        helper.clear();
+        return d;
+    }
+
+    @Test
+    public void testSameLane() {
+        // The rear of the car in front is 15 m ahead
+        vehicleAt(25.0 + spec.getLength(), 0.0, 0.0);
+        assertEquals(15.0, sense(), 1e-9);
+        assertEquals(15.0, distance.read(), 1e-9);
+        verify(sensing).setLRFSensing(true);
+    }
+
+    @Test
+    public void testSameLaneLimited() {
+        when(sensing.getLRFMode()).thenReturn(LRFMode.LIMITED);
+        vehicleAt(25.0 + spec.getLength(), 0.0, 0.0);
+        assertEquals(15.0, sense(), 1e-9);
+    }
+
+    @Test
+    public void testAdjacentLane() {
+        vehicleAt(20.0, LANE_WIDTH, 0.0);
+        vehicleAt(20.0, -LANE_WIDTH, 0.0);
+        assertEquals(Double.MAX_VALUE, sense(), 0.0);
+        verify(sensing).setLRFSensing(false);
+    }
+
+    @Test
+    public void testOncoming() {
+        vehicleAt(15.0, -LANE_WIDTH, Math.PI);
+        assertEquals(Double.MAX_VALUE, sense(), 0.0);
+        verify(sensing).setLRFSensing(false);
+    }
+
+    @Test
+    public void testCrossing() {
+        // Heading north on a crossing road, not yet on the lane
+        vehicleAt(20.0, -LANE_WIDTH, Math.PI / 2);
+        assertEquals(Double.MAX_VALUE, sense(), 0.0);
+        // Once it is on the lane it is in the way
+        vehicles.remove(vehicles.size() - 1);
+        vehicleAt(20.0, 1.0, Math.PI / 2);
+        assertEquals(20.0 - spec.getWidth() / 2 - 10.0, sense(), 1e-9);
+    }
+
+    @Test
+    public void testNearerVehiclesOnOtherLanesAreIgnored() {
+        vehicleAt(15.0, LANE_WIDTH, 0.0);
+        vehicleAt(18.0, -LANE_WIDTH, Math.PI);
+        vehicleAt(35.0 + spec.getLength(), 0.0, 0.0);
+        assertEquals(25.0, sense(), 1e-9);
+    }
+
+    @Test
+    public void testLeadVehiclePastTheLaneEnd() {
+        // The lane of the sensing vehicle ends 20 m ahead of it
+        LineSegmentLane shortLane = new LineSegmentLane(0, 0, 30, 0, LANE_WIDTH, 25.0);
+        when(driver.getCurrentLane()).thenReturn(shortLane);
+        vehicleAt(40.0 + spec.getLength(), 0.0, 0.0);
+        // Nothing follows the lane
+        assertEquals(Double.MAX_VALUE, sense(), 0.0);
+        // The car in front is on the lane following it
+        shortLane.setNextLane(new LineSegmentLane(30, 0, 200, 0, LANE_WIDTH, 25.0));
+        assertEquals(30.0, sense(), 1e-9);
+    }
+}
@@ -0,0 +1,111 @@
+package aim4.sim.simulator.aim.helper;
+
+import aim4.config.SimConfig;
+import aim4.map.DataCollectionLine;
+import aim4.sim.batch.BatchConfig;
+import aim4.sim.batch.BatchRunner;
+import aim4.sim.simulator.aim.AutoDriverOnlySimulator;
+import aim4.vehicle.aim.AIMVehicleSimModel;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * TEST SUITE PURPOSE: Check that the vehicles taken into the mesoscopic lane
+ * model are still recorded by the data collection lines.
+ */
+public class MesoscopicLaneHelperTest {
+
+    /**
+     * Make an intersection simulator whose approach lanes are long enough
+     * for vehicles to be taken into the mesoscopic model, which returns them
+     * to the full model within the communication range of the intersection
+     * manager.
+     */
+    private AutoDriverOnlySimulator makeSimulator(boolean mesoscopic) {
+        Properties properties = new Properties();
+        properties.setProperty(BatchConfig.SETUP, "auto_driver_only");
+        properties.setProperty(BatchConfig.SEED, "1");
+        properties.setProperty("distanceBetween", "1000");
+        if (mesoscopic) {
+            properties.setProperty("mesoscopicDistance", "1");
+        }
+        return (AutoDriverOnlySimulator) BatchRunner.makeSimulator(
+                new BatchConfig(properties));
+    }
+
+    /**
+     * Get the VINs of the vehicles recorded by the lines whose names end
+     * with a suffix.
+     */
+    private Set<Integer> recordedBy(AutoDriverOnlySimulator sim, String suffix) {
+        Set<Integer> vins = new HashSet<Integer>();
+        for (DataCollectionLine line : sim.getMap().getDataCollectionLines()) {
+            if (line.getName().endsWith(suffix)) {
+                vins.addAll(line.getAllVIN());
+            }
+        }
+        return vins;
+    }
+
+    /**
+     * Get the VINs of the vehicles in the full model of a simulator.
+     */
+    private Set<Integer> activeVINs(AutoDriverOnlySimulator sim) {
+        Set<Integer> vins = new HashSet<Integer>();
+        for (AIMVehicleSimModel vehicle : sim.getActiveVehicles()) {
+            vins.add(vehicle.getVIN());
+        }
+        return vins;
+    }
+
+    /**
+     * Run a simulator for a time.
+     */
+    private void run(AutoDriverOnlySimulator sim, double time) {
+        while (sim.getSimulationTime() < time) {
+            sim.step(SimConfig.TIME_STEP);
+        }
+    }
+
+    @Test
+    public void testVehiclesLeaveTheFullModelAfterTheEntrances() {
+        AutoDriverOnlySimulator sim = makeSimulator(true);
+        Set<Integer> active = activeVINs(sim);
+        int left = 0;
+        while (sim.getSimulationTime() < 30.0) {
+            sim.step(SimConfig.TIME_STEP);
+            Set<Integer> nowActive = activeVINs(sim);
+            active.removeAll(nowActive);
+            // The vehicles which have left the full model, for the
+            // mesoscopic model or the end of the road, have been recorded
+            Set<Integer> entered = recordedBy(sim, "Entrance");
+            for (int vin : active) {
+                assertTrue("Vehicle " + vin + " not recorded", entered.contains(vin));
+                left++;
+            }
+            active = nowActive;
+        }
+        assertTrue(left > 0);
+        assertTrue(sim.getNumOfMesoscopicVehicles() > 0);
+    }
+
+    @Test
+    public void testEntrancesRecordTheSameVehiclesAsTheFullModel() {
+        // Long enough for vehicles to pass the entrances, not for those
+        // behind them to be held up by the ones in the mesoscopic model
+        AutoDriverOnlySimulator full = makeSimulator(false);
+        run(full, 20.0);
+        Set<Integer> entered = recordedBy(full, "Entrance");
+        AutoDriverOnlySimulator mesoscopic = makeSimulator(true);
+        run(mesoscopic, 20.0);
+        assertTrue(mesoscopic.getNumOfMesoscopicVehicles() > 0);
+
+        assertFalse(entered.isEmpty());
+        assertEquals(entered, recordedBy(mesoscopic, "Entrance"));
+    }
+}
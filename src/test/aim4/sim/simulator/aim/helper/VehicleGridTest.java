@@ -0,0 +1,121 @@
+package aim4.sim.simulator.aim.helper;
+
+import aim4.vehicle.aim.AIMVehicleSimModel;
+import org.junit.Test;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * TEST SUITE PURPOSE: Check that the neighbours found through the grid are
+ * exactly those found by comparing every pair of vehicles.
+ */
+public class VehicleGridTest {
+
+    private static AIMVehicleSimModel vehicleAt(double x, double y) {
+        AIMVehicleSimModel vehicle = mock(AIMVehicleSimModel.class);
+        when(vehicle.getPosition()).thenReturn(new Point2D.Double(x, y));
+        return vehicle;
+    }
+
+    /**
+     * Fill a grid with vehicles at random positions, a third of them on the
+     * corners or edges of the cells, and check every vehicle's neighbours
+     * against an all-pairs scan.
+     */
+    private void checkAgainstAllPairs(long seed, int n, double cellSize, double radius) {
+        Random random = new Random(seed);
+        List<AIMVehicleSimModel> vehicles = new ArrayList<AIMVehicleSimModel>();
+        VehicleGrid grid = new VehicleGrid();
+        for (int i = 0; i < n; i++) {
+            double x = random.nextDouble() * 200.0 - 100.0;
+            double y = random.nextDouble() * 200.0 - 100.0;
+            switch (i % 6) {
+                case 0:
+                    x = Math.round(x / cellSize) * cellSize;
+                    y = Math.round(y / cellSize) * cellSize;
+                    break;
+                case 1:
+                    x = Math.round(x / cellSize) * cellSize;
+                    break;
+                default:
+                    break;
+            }
+            AIMVehicleSimModel vehicle = vehicleAt(x, y);
+            vehicles.add(vehicle);
+            assertEquals(i, grid.add(vehicle));
+        }
+        grid.build(cellSize);
+        assertEquals(n, grid.getNumOfVehicles());
+
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, grid.indexOf(vehicles.get(i)));
+            Point2D p = vehicles.get(i).getPosition();
+            Set<Integer> expected = new TreeSet<Integer>();
+            for (int j = 0; j < n; j++) {
+                if (p.distance(vehicles.get(j).getPosition()) <= radius) {
+                    expected.add(j);
+                }
+            }
+            Set<Integer> found = new TreeSet<Integer>();
+            int count = grid.findWithin(p.getX(), p.getY(), radius);
+            for (int k = 0; k < count; k++) {
+                found.add(grid.getFound(k));
+            }
+            assertEquals(count, found.size());
+            assertEquals(expected, found);
+        }
+    }
+
+    @Test
+    public void testRadiusEqualToCellSize() {
+        checkAgainstAllPairs(1L, 300, 10.0, 10.0);
+    }
+
+    @Test
+    public void testRadiusLargerThanCellSize() {
+        checkAgainstAllPairs(2L, 300, 4.0, 15.0);
+    }
+
+    @Test
+    public void testRadiusSmallerThanCellSize() {
+        checkAgainstAllPairs(3L, 300, 25.0, 7.5);
+    }
+
+    @Test
+    public void testNeighboursExactlyAtRadius() {
+        VehicleGrid grid = new VehicleGrid();
+        grid.add(vehicleAt(0.0, 0.0));
+        grid.add(vehicleAt(10.0, 0.0));
+        grid.add(vehicleAt(0.0, -10.0));
+        grid.add(vehicleAt(10.0, 10.0));
+        grid.build(10.0);
+        assertEquals(3, grid.findWithin(0.0, 0.0, 10.0));
+        assertEquals(1, grid.findWithin(0.0, 0.0, 9.999));
+    }
+
+    @Test
+    public void testRebuildAfterClear() {
+        VehicleGrid grid = new VehicleGrid();
+        for (int i = 0; i < 100; i++) {
+            grid.add(vehicleAt(i, i));
+        }
+        grid.build(5.0);
+        grid.clear();
+        AIMVehicleSimModel vehicle = vehicleAt(50.0, 50.0);
+        grid.add(vehicle);
+        grid.build(5.0);
+        assertEquals(1, grid.getNumOfVehicles());
+        assertEquals(0, grid.indexOf(vehicle));
+        assertEquals(1, grid.findWithin(49.0, 49.0, 2.0));
+        assertEquals(0, grid.findWithin(0.0, 0.0, 2.0));
+    }
+}
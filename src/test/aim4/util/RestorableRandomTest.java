@@ -0,0 +1,61 @@
+package aim4.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * TEST SUITE PURPOSE: Check that the restorable random number generator gives
+ * the same numbers as java.util.Random, and that a saved state is put back.
+ */
+public class RestorableRandomTest {
+
+    private static void assertSameDraws(Random expected, Random actual, int n) {
+        for (int i = 0; i < n; i++) {
+            assertEquals(expected.nextInt(), actual.nextInt());
+            assertEquals(expected.nextInt(17), actual.nextInt(17));
+            assertEquals(expected.nextLong(), actual.nextLong());
+            assertEquals(expected.nextDouble(), actual.nextDouble(), 0.0);
+            assertEquals(expected.nextBoolean(), actual.nextBoolean());
+            assertEquals(expected.nextGaussian(), actual.nextGaussian(), 0.0);
+        }
+    }
+
+    @Test
+    public void testSameNumbersAsRandom() throws Exception {
+        for (long seed : new long[] {0L, 1L, -6397397808339168785L}) {
+            assertSameDraws(new Random(seed), new RestorableRandom(seed), 1000);
+        }
+    }
+
+    @Test
+    public void testSetSeedMatchesRandom() throws Exception {
+        Random expected = new Random(1);
+        RestorableRandom actual = new RestorableRandom(1);
+        expected.nextGaussian();
+        actual.nextGaussian();
+        expected.setSeed(42);
+        actual.setSeed(42);
+        assertSameDraws(expected, actual, 100);
+    }
+
+    @Test
+    public void testRestoreState() throws Exception {
+        RestorableRandom random = new RestorableRandom(7);
+        random.nextDouble();
+        // Leave a Gaussian pending, which the state must keep
+        random.nextGaussian();
+        RestorableRandom.State state = random.saveState();
+        double[] first = new double[50];
+        for (int i = 0; i < first.length; i++) {
+            first[i] = random.nextGaussian();
+        }
+
+        random.restoreState(state);
+        for (int i = 0; i < first.length; i++) {
+            assertEquals(first[i], random.nextGaussian(), 0.0);
+        }
+    }
+}
@@ -12,8 +12,8 @@ def calcAvgAndStd(infilename):
     orderedKey = [];
     fieldNum = -1;
     countDict = dict();
-    sumDict = dict();
-    sumSqDict = dict();
+    meanDict = dict();
+    m2Dict = dict();
     with open(infilename) as infile:
         condorIdFieldId = -1
         for s in infile:
@@ -30,31 +30,29 @@ def calcAvgAndStd(infilename):
                         i = i + 1
             assert condorIdFieldId >= 0
             fieldNum = len(arr1) - 1
-            # record
+            # record (Welford's method, as in aim4.sim.results.OnlineStatistics)
             key = "_".join(arr1[:condorIdFieldId]+arr1[(condorIdFieldId+1):])
             value = float(arr[1])
-            if key in countDict:
-                countDict[key] += 1
-                sumDict[key] += value
-                sumSqDict[key] += value * value
-            else:
+            if key not in countDict:
                 orderedKey.append(key)
-                countDict[key] = 1
-                sumDict[key] = value
-                sumSqDict[key] = value * value
-    return orderedKey,fieldNum,countDict,sumDict,sumSqDict
+                countDict[key] = 0
+                meanDict[key] = 0.0
+                m2Dict[key] = 0.0
+            countDict[key] += 1
+            d = value - meanDict[key]
+            meanDict[key] += d / countDict[key]
+            m2Dict[key] += d * (value - meanDict[key])
+    return orderedKey,fieldNum,countDict,meanDict,m2Dict
 
-def printAvgAndStd(orderedKey,fieldNum,countDict,sumDict,sumSqDict):
+def printAvgAndStd(orderedKey,fieldNum,countDict,meanDict,m2Dict):
     print((',' * fieldNum )+"sample_size,mean,sd,95% error,lower 95% limit, upper 95% limit")
     for key in orderedKey:
         print(','.join(key.split('_')), end="")
         n = countDict[key]
         print(',' + str(n), end="")
-        # print(',' + str(sumDict[key]), end="")
-        # print(',' + str(sumSqDict[key]), end="")
-        mean = sumDict[key]/n
+        mean = meanDict[key]
         print(',' + format(mean, '.2f'), end="")
-        sd = math.sqrt(sumSqDict[key]/n - mean * mean)
+        sd = math.sqrt(m2Dict[key]/n)
         print(',' + format(sd, '.4f'), end="")
         stderr = 1.96 * sd / math.sqrt(n)
         print(',' + format(stderr, '.4f'), end="")
@@ -85,8 +83,8 @@ def main():
     if len(args) == 0:
         usage()
         exit(2)
-    orderedKey,fieldNum,countDict,sumDict,sumSqDict = calcAvgAndStd(args[0])
-    printAvgAndStd(orderedKey,fieldNum,countDict,sumDict,sumSqDict)
+    orderedKey,fieldNum,countDict,meanDict,m2Dict = calcAvgAndStd(args[0])
+    printAvgAndStd(orderedKey,fieldNum,countDict,meanDict,m2Dict)
 
 if __name__ == "__main__":
     main()
@@ -73,6 +73,18 @@ def print_traversal_time(traversal_time):
     for (type,laneId,destRoad),t in traversal_time.items():
         print("[", type, ",", laneId, ",", destRoad, "] = ", t);
 
+def read_global_delay(infilename):
+    # the results of the merge simulators already give the delays, computed
+    # as the vehicles completed, in the global columns of the first two lines
+    with open(infilename) as infile:
+        header = infile.readline().strip().split(',')
+        values = infile.readline().strip().split(',')
+    return float(values[header.index('Average Delay')])
+
+def is_results_file(infilename):
+    with open(infilename) as infile:
+        return infile.readline().startswith('Max Delay,')
+
 def avg_delay(delay_time):
     count = 0
     total_delay = 0
@@ -87,6 +99,7 @@ def avg_delay(delay_time):
 
 def usage():
     print(sys.argv[0], "[-b baseline.csv] datafile.csv")
+    print(sys.argv[0], "results.csv")
     print(sys.argv[0], "[-h|--help]")
 
 def main():
@@ -109,6 +122,9 @@ def main():
     if len(args) == 0:
         usage()
         exit(2)
+    if is_results_file(args[0]):
+        print(format(read_global_delay(args[0]), '.4f'))
+        return
     base_time = read_baseline(baseline_filename)
     delay_time = read_delay(args[0])
     # for vin,delay in delay_time.items():